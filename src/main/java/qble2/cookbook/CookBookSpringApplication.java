@@ -6,6 +6,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import qble2.cookbook.role.RoleService;
@@ -15,6 +16,7 @@ import qble2.cookbook.user.UserService;
 import qble2.cookbook.user.dto.UserDto;
 
 @SpringBootApplication
+@EnableScheduling
 @Slf4j
 public class CookBookSpringApplication {
 
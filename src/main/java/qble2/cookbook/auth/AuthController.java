@@ -77,8 +77,8 @@ public class AuthController {
       UserDto userDto = this.userService.getUserByUsername(username);
       List<String> roles = userDto.getRoles().stream().map(RoleDto::toString).toList();
 
-      String accessToken = this.jwtUtils.createAccessToken(userDto.getUsername(), roles,
-          request.getRequestURL().toString());
+      String accessToken = this.jwtUtils.createAccessToken(userDto.getId(),
+          userDto.getUsername(), roles, request.getRequestURL().toString());
       Map<String, String> tokens = this.jwtUtils.formatTokens(accessToken, refreshToken);
 
       response.setContentType(MediaType.APPLICATION_JSON_VALUE);
@@ -0,0 +1,46 @@
+package qble2.cookbook.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes the responses that are cached already serialized (see MetadataCache,
+ * RecipeDetailCache), with the same output as the HAL message converter (indented, "_links")
+ */
+@Component
+public class HalJsonSerializer {
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private HalMediaTypeConfiguration halMediaTypeConfiguration;
+
+  // built on first use, once the HAL configuration is complete
+  private volatile ObjectWriter halObjectWriter;
+
+  public byte[] serialize(Object value) {
+    try {
+      return getHalObjectWriter().writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(value.getClass().getSimpleName() + " could not be serialized",
+          e);
+    }
+  }
+
+  private ObjectWriter getHalObjectWriter() {
+    if (this.halObjectWriter == null) {
+      this.halObjectWriter =
+          this.halMediaTypeConfiguration.configureObjectMapper(this.objectMapper.copy()).writer()
+              .with(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    return this.halObjectWriter;
+  }
+
+}
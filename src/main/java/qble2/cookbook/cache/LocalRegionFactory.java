@@ -0,0 +1,98 @@
+package qble2.cookbook.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.core.env.PropertyResolver;
+
+/**
+ * Hibernate second-level cache provider backed by in-process maps (see LocalRegionStorage).
+ *
+ * Each region is sized by "second-level-cache.regions.{region}.max-entries" and
+ * "second-level-cache.regions.{region}.ttl-seconds", or by the "second-level-cache.default.*"
+ * properties. The update timestamps region is never bounded: a lost timestamp would let the query
+ * cache serve stale results.
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+  private static final String PROPERTIES_PREFIX = "second-level-cache.";
+
+  private final PropertyResolver propertyResolver;
+
+  private final Map<String, LocalRegionStorage> storages = new ConcurrentHashMap<>();
+
+  private volatile String timestampsRegionName;
+
+  public LocalRegionFactory(PropertyResolver propertyResolver) {
+    this.propertyResolver = propertyResolver;
+  }
+
+  public List<SecondLevelCacheRegionStatsDto> getStats() {
+    return this.storages.values().stream().map(LocalRegionStorage::getStats)
+        .sorted((s1, s2) -> s1.getRegion().compareTo(s2.getRegion())).toList();
+  }
+
+  // update timestamps are kept: without them, cached query results would be considered fresh
+  public void clear() {
+    this.storages.values().stream()
+        .filter(storage -> !storage.getRegionName().equals(this.timestampsRegionName))
+        .forEach(LocalRegionStorage::evictData);
+  }
+
+  @Override
+  protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+    // regions are created on demand
+  }
+
+  @Override
+  protected void releaseFromUse() {
+    this.storages.values().forEach(LocalRegionStorage::release);
+    this.storages.clear();
+  }
+
+  @Override
+  protected DomainDataStorageAccess createDomainDataStorageAccess(
+      DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+    return createStorage(regionConfig.getRegionName(), true);
+  }
+
+  @Override
+  protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+      SessionFactoryImplementor sessionFactory) {
+    return createStorage(regionName, true);
+  }
+
+  @Override
+  protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+      SessionFactoryImplementor sessionFactory) {
+    this.timestampsRegionName = regionName;
+    return createStorage(regionName, false);
+  }
+
+  private LocalRegionStorage createStorage(String regionName, boolean bounded) {
+    LocalRegionStorage storage = bounded
+        ? new LocalRegionStorage(regionName, getRegionProperty(regionName, "max-entries", 1000),
+            getRegionProperty(regionName, "ttl-seconds", 3600) * 1000)
+        : new LocalRegionStorage(regionName, Long.MAX_VALUE, 0);
+    this.storages.put(regionName, storage);
+
+    return storage;
+  }
+
+  private long getRegionProperty(String regionName, String property, long defaultValue) {
+    Long defaultRegionValue = this.propertyResolver
+        .getProperty(PROPERTIES_PREFIX + "default." + property, Long.class, defaultValue);
+
+    return this.propertyResolver.getProperty(
+        PROPERTIES_PREFIX + "regions." + regionName + "." + property, Long.class,
+        defaultRegionValue);
+  }
+
+}
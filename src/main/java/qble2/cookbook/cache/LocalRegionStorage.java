@@ -0,0 +1,135 @@
+package qble2.cookbook.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Storage of a second-level cache region: in-process LRU map, bounded by a number of entries,
+ * whose entries expire after a time to live (none when 0).
+ *
+ * Consistency is left to Hibernate (read-write access strategy, update timestamps of the query
+ * cache): this class only stores what it is given.
+ */
+public class LocalRegionStorage implements DomainDataStorageAccess {
+
+  @Getter
+  private final String regionName;
+
+  @Getter
+  private final long maxEntries;
+
+  @Getter
+  private final long ttlMillis;
+
+  private final LongSupplier clock;
+
+  // guarded by "this", access ordered: least recently used first
+  private final LinkedHashMap<Object, Entry> entries;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder puts = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  @AllArgsConstructor
+  private static class Entry {
+
+    private Object value;
+
+    // 0 when the entry never expires
+    private long expirationTime;
+
+  }
+
+  public LocalRegionStorage(String regionName, long maxEntries, long ttlMillis) {
+    this(regionName, maxEntries, ttlMillis, System::currentTimeMillis);
+  }
+
+  LocalRegionStorage(String regionName, long maxEntries, long ttlMillis, LongSupplier clock) {
+    this.regionName = regionName;
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttlMillis;
+    this.clock = clock;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+        boolean evicted = size() > LocalRegionStorage.this.maxEntries;
+        if (evicted) {
+          LocalRegionStorage.this.evictions.increment();
+        }
+        return evicted;
+      }
+
+    };
+  }
+
+  @Override
+  public synchronized Object getFromCache(Object key, SharedSessionContractImplementor session) {
+    Entry entry = this.entries.get(key);
+    if (entry != null && entry.expirationTime != 0
+        && entry.expirationTime <= this.clock.getAsLong()) {
+      this.entries.remove(key);
+      this.expirations.increment();
+      entry = null;
+    }
+
+    if (entry == null) {
+      this.misses.increment();
+      return null;
+    }
+
+    this.hits.increment();
+    return entry.value;
+  }
+
+  @Override
+  public synchronized void putIntoCache(Object key, Object value,
+      SharedSessionContractImplementor session) {
+    this.entries.put(key, new Entry(value,
+        this.ttlMillis == 0 ? 0 : this.clock.getAsLong() + this.ttlMillis));
+    this.puts.increment();
+  }
+
+  @Override
+  public synchronized boolean contains(Object key) {
+    return this.entries.containsKey(key);
+  }
+
+  @Override
+  public synchronized void evictData() {
+    this.entries.clear();
+  }
+
+  @Override
+  public synchronized void evictData(Object key) {
+    this.entries.remove(key);
+  }
+
+  @Override
+  public void release() {
+    evictData();
+  }
+
+  public synchronized SecondLevelCacheRegionStatsDto getStats() {
+    long hitsCount = this.hits.sum();
+    long requestsCount = hitsCount + this.misses.sum();
+
+    return SecondLevelCacheRegionStatsDto.builder().region(this.regionName).hits(hitsCount)
+        .misses(this.misses.sum())
+        .hitRatio(requestsCount == 0 ? 0 : (double) hitsCount / requestsCount)
+        .puts(this.puts.sum()).evictions(this.evictions.sum())
+        .expirations(this.expirations.sum()).entries(this.entries.size())
+        .maxEntries(this.maxEntries).ttlSeconds(this.ttlMillis / 1000).build();
+  }
+
+}
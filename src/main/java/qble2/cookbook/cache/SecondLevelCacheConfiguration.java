@@ -0,0 +1,39 @@
+package qble2.cookbook.cache;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Hibernate second-level cache (entities and collections annotated with @Cache) and query cache
+ * (queries hinted as cacheable), stored by a LocalRegionFactory.
+ *
+ * The region factory is a bean: its statistics are exposed by SecondLevelCacheController.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+  @Value("${second-level-cache.enabled:true}")
+  private boolean enabled;
+
+  @Bean
+  public LocalRegionFactory localRegionFactory(Environment environment) {
+    return new LocalRegionFactory(environment);
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+      LocalRegionFactory localRegionFactory) {
+    return hibernateProperties -> {
+      hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, this.enabled);
+      hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, this.enabled);
+      if (this.enabled) {
+        hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, localRegionFactory);
+      }
+    };
+  }
+
+}
@@ -0,0 +1,38 @@
+package qble2.cookbook.cache;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(path = SecondLevelCacheController.PATH,
+    produces = MediaType.APPLICATION_JSON_VALUE)
+public class SecondLevelCacheController {
+
+  public static final String PATH = "api/cache/second-level";
+
+  @Autowired
+  private LocalRegionFactory localRegionFactory;
+
+  // one entry per region
+  @GetMapping
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<List<SecondLevelCacheRegionStatsDto>> getStats() {
+    return ResponseEntity.ok().body(this.localRegionFactory.getStats());
+  }
+
+  @DeleteMapping
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<Void> clear() {
+    this.localRegionFactory.clear();
+
+    return ResponseEntity.noContent().build();
+  }
+
+}
@@ -0,0 +1,38 @@
+package qble2.cookbook.cache;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@JsonPropertyOrder({"region", "hits", "misses", "hitRatio", "puts", "evictions", "expirations",
+    "entries", "maxEntries", "ttlSeconds"})
+public class SecondLevelCacheRegionStatsDto {
+
+  private String region;
+
+  private long hits;
+
+  private long misses;
+
+  private double hitRatio;
+
+  private long puts;
+
+  // entries removed to stay under the maximum number of entries
+  private long evictions;
+
+  // entries removed when read after their time to live
+  private long expirations;
+
+  private int entries;
+
+  private long maxEntries;
+
+  // 0 when the entries never expire
+  private long ttlSeconds;
+
+}
@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -26,6 +27,8 @@ public class ExceptionsControllerAdvice {
       "Method Argument Type Mismatch";
   public static final String METHOD_ARGUMENT_NOT_VALID_MESSAGE = "Method Argument Not Valid";
   public static final String CONSTRAINT_VIOLATION_MESSAGE = "Constraint Violation";
+  public static final String CONCURRENT_MODIFICATION_MESSAGE =
+      "The resource has been modified concurrently, please try again";
   public static final String INTERNAL_SERVER_ERROR_MESSAGE =
       "Internal Server Error (Please contact the administrator)";
 
@@ -96,6 +99,14 @@ public class ExceptionsControllerAdvice {
     return createErrorResponseEntity(request, HttpStatus.NOT_FOUND, exception);
   }
 
+  // versioned entities (e.g. recipe) written by two transactions at the same time
+  @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+  public ResponseEntity<ResponseErrorDto> handleObjectOptimisticLockingFailureException(
+      HttpServletRequest request, Exception exception) {
+    return createErrorResponseEntity(request.getRequestURI(), HttpStatus.CONFLICT,
+        CONCURRENT_MODIFICATION_MESSAGE, null);
+  }
+
   // at last, as a fail-safe, to catch any unhandled server exception
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ResponseErrorDto> unhandledExceptions(HttpServletRequest request,
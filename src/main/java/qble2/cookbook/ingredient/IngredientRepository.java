@@ -1,11 +1,22 @@
 package qble2.cookbook.ingredient;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+import java.util.List;
 import java.util.UUID;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import qble2.cookbook.ingredient.model.Ingredient;
 
 public interface IngredientRepository extends JpaRepository<Ingredient, UUID> {
 
+  // query cache: invalidated by any write to the Ingredient table
+  @Override
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+  List<Ingredient> findAll();
+
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   boolean existsByName(String name);
 
 }
@@ -6,10 +6,12 @@ import javax.transaction.Transactional;
 import javax.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 import qble2.cookbook.exception.ResourceNotFoundException;
 import qble2.cookbook.ingredient.dto.IngredientDto;
+import qble2.cookbook.ingredient.event.IngredientChangedEvent;
 import qble2.cookbook.ingredient.model.Ingredient;
 
 @Service
@@ -25,6 +27,9 @@ public class IngredientService {
   @Autowired
   private IngredientMapper ingredientMapper;
 
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
   public List<IngredientDto> getIngredients() {
     List<Ingredient> listOfIngredientEntity = this.ingredientRepository.findAll();
 
@@ -40,6 +45,7 @@ public class IngredientService {
   public IngredientDto createIngredient(@Valid IngredientDto ingredientDto) {
     Ingredient ingredient = this.ingredientMapper.toEntity(ingredientDto);
     ingredient = this.ingredientRepository.save(ingredient);
+    this.eventPublisher.publishEvent(new IngredientChangedEvent(ingredient.getId()));
 
     return this.ingredientMapper.toDto(ingredient);
   }
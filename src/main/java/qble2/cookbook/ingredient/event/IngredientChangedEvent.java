@@ -0,0 +1,18 @@
+package qble2.cookbook.ingredient.event;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by IngredientService on every ingredient write (the metadata lists every ingredient)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class IngredientChangedEvent {
+
+  private UUID ingredientId;
+
+}
@@ -0,0 +1,125 @@
+package qble2.cookbook.metadata;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import qble2.cookbook.cache.HalJsonSerializer;
+import qble2.cookbook.ingredient.IngredientService;
+import qble2.cookbook.ingredient.dto.IngredientDto;
+import qble2.cookbook.ingredient.event.IngredientChangedEvent;
+import qble2.cookbook.ingredient.model.UnitOfMeasureEnum;
+import qble2.cookbook.metadata.dto.MetadataDto;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+
+/**
+ * Metadata serialized once, and served as is until an ingredient is written:
+ * <ul>
+ * <li>the snapshot is built on the first request, then dropped after the commit of an ingredient
+ * write (tags and units of measure never change)</li>
+ * <li>its ETag is a hash of its bytes: a client that already has them gets a 304 response without
+ * body</li>
+ * <li>the links of the ingredients are absolute: there is one snapshot per base URI (host, port,
+ * forwarded headers), the least recently used one is dropped beyond a few base URIs</li>
+ * </ul>
+ */
+@Component
+public class MetadataCache {
+
+  private static final int MAX_SNAPSHOTS = 8;
+
+  @Autowired
+  private IngredientService ingredientService;
+
+  @Autowired
+  private HalJsonSerializer halJsonSerializer;
+
+  // incremented on every ingredient write: a snapshot built meanwhile is not kept
+  private final AtomicLong ingredientsVersion = new AtomicLong();
+
+  // guarded by "this", access ordered: least recently used first
+  private final Map<String, MetadataSnapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, MetadataSnapshot> eldest) {
+      return size() > MAX_SNAPSHOTS;
+    }
+
+  };
+
+  // a single build at a time: concurrent first requests wait for it instead of loading everything,
+  // the snapshots of the other base URIs are still served meanwhile
+  private final Object buildLock = new Object();
+
+  /**
+   * @param baseUri base URI of the current request (links of the ingredients)
+   */
+  public MetadataSnapshot getSnapshot(String baseUri) {
+    MetadataSnapshot snapshot = getCachedSnapshot(baseUri);
+    return snapshot != null ? snapshot : buildSnapshot(baseUri);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onIngredientChanged(IngredientChangedEvent event) {
+    this.ingredientsVersion.incrementAndGet();
+    synchronized (this) {
+      this.snapshots.clear();
+    }
+  }
+
+  private synchronized MetadataSnapshot getCachedSnapshot(String baseUri) {
+    return this.snapshots.get(baseUri);
+  }
+
+  private MetadataSnapshot buildSnapshot(String baseUri) {
+    synchronized (this.buildLock) {
+      MetadataSnapshot snapshot = getCachedSnapshot(baseUri);
+      if (snapshot != null) {
+        return snapshot;
+      }
+
+      long version = this.ingredientsVersion.get();
+      byte[] body = this.halJsonSerializer.serialize(toMetadataDto());
+      snapshot = new MetadataSnapshot(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+      synchronized (this) {
+        // checked under the lock of the snapshots: they can not be cleared in between
+        if (this.ingredientsVersion.get() == version) {
+          this.snapshots.put(baseUri, snapshot);
+        }
+      }
+
+      return snapshot;
+    }
+  }
+
+  private MetadataDto toMetadataDto() {
+    List<RecipeTagEnum> tags = Arrays.stream(RecipeTagEnum.values())
+        .sorted((t1, t2) -> t1.toString().compareTo(t2.toString())).toList();
+    List<UnitOfMeasureEnum> unitOfMeasures = Arrays.stream(UnitOfMeasureEnum.values()).toList();
+    List<IngredientDto> ingredients = this.ingredientService.getIngredients();
+
+    return MetadataDto.builder().availableTags(tags).availableUnitOfMeasures(unitOfMeasures)
+        .availableIngredients(ingredients).build();
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class MetadataSnapshot {
+
+    private final byte[] body;
+
+    // strong ETag (quoted)
+    private final String eTag;
+
+  }
+
+}
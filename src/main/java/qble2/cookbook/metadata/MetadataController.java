@@ -1,20 +1,16 @@
 package qble2.cookbook.metadata;
 
-import java.util.Arrays;
-import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import qble2.cookbook.ingredient.IngredientService;
-import qble2.cookbook.ingredient.dto.IngredientDto;
-import qble2.cookbook.ingredient.model.UnitOfMeasureEnum;
-import qble2.cookbook.metadata.dto.MetadataDto;
-import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import qble2.cookbook.metadata.MetadataCache.MetadataSnapshot;
 
 @RestController
 @RequestMapping(path = MetadataController.PATH,
@@ -25,17 +21,19 @@ public class MetadataController {
   public static final String PATH = "api/metadata";
 
   @Autowired
-  private IngredientService ingredientService;
+  private MetadataCache metadataCache;
 
+  /**
+   * Conditional request: when If-None-Match matches the ETag of the snapshot, the response is a 304
+   * without body (see HttpEntityMethodProcessor)
+   */
   @GetMapping
-  public ResponseEntity<MetadataDto> getMetadata() {
-    List<RecipeTagEnum> tags = Arrays.stream(RecipeTagEnum.values())
-        .sorted((t1, t2) -> t1.toString().compareTo(t2.toString())).toList();
-    List<UnitOfMeasureEnum> unitOfMeasures = Arrays.stream(UnitOfMeasureEnum.values()).toList();
-    List<IngredientDto> ingredients = this.ingredientService.getIngredients();
-    MetadataDto availableIngredientsDto = MetadataDto.builder().availableTags(tags)
-        .availableUnitOfMeasures(unitOfMeasures).availableIngredients(ingredients).build();
+  public ResponseEntity<byte[]> getMetadata() {
+    MetadataSnapshot metadataSnapshot = this.metadataCache
+        .getSnapshot(ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString());
 
-    return ResponseEntity.ok().body(availableIngredientsDto);
+    // clients must revalidate, they can not miss a new ingredient
+    return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+        .eTag(metadataSnapshot.getETag()).body(metadataSnapshot.getBody());
   }
 }
@@ -0,0 +1,19 @@
+package qble2.cookbook.pagination;
+
+import java.util.List;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page whose total number of elements has been estimated instead of counted (see
+ * PaginationUtils)
+ */
+public class ApproximatePage<T> extends PageImpl<T> {
+
+  private static final long serialVersionUID = 1L;
+
+  public ApproximatePage(List<T> content, Pageable pageable, long estimatedTotal) {
+    super(content, pageable, estimatedTotal);
+  }
+
+}
@@ -0,0 +1,36 @@
+package qble2.cookbook.pagination;
+
+import lombok.Getter;
+
+/**
+ * How the totals (totalPages, totalElements) of a page are computed
+ */
+@Getter
+public enum PageCountModeEnum {
+
+  // a count query is executed, the totals are exact
+  EXACT("exact"),
+
+  // no count query: one extra element is fetched to know whether there is a next page (hasNext),
+  // the totals are not returned
+  NONE("none"),
+
+  // no count query: the totals are estimated from in-memory statistics, and counted when there are
+  // none
+  APPROXIMATE("approximate");
+
+  private String value;
+
+  private PageCountModeEnum(String value) {
+    this.value = value;
+  }
+
+  /**
+   * @return EXACT when no count mode has been requested (the request parameter is optional, so
+   *         that it is left out of the links when it is not set)
+   */
+  public static PageCountModeEnum orDefault(PageCountModeEnum countMode) {
+    return countMode != null ? countMode : EXACT;
+  }
+
+}
@@ -0,0 +1,59 @@
+package qble2.cookbook.pagination;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public final class PaginationUtils {
+
+  // estimated total of the elements that have no statistics (see find)
+  public static final long UNKNOWN_TOTAL = -1;
+
+  private PaginationUtils() {}
+
+  /**
+   * Finds a page of elements, its totals being computed as requested by the count mode.
+   *
+   * @param pageFinder page and count queries
+   * @param sliceFinder page query fetching one extra element (no count query)
+   * @param totalEstimator estimated total number of elements, negative (e.g. UNKNOWN_TOTAL) when
+   *        there are no statistics
+   * @return a Page (EXACT), a Slice (NONE) or an ApproximatePage (APPROXIMATE, unless the total
+   *         can not be estimated)
+   */
+  public static <T> Slice<T> find(PageCountModeEnum countMode, Pageable pageable,
+      Function<Pageable, Page<T>> pageFinder, Function<Pageable, Slice<T>> sliceFinder,
+      LongSupplier totalEstimator) {
+    return switch (countMode) {
+      case EXACT -> pageFinder.apply(pageable);
+      case NONE -> sliceFinder.apply(pageable);
+      case APPROXIMATE -> {
+        long estimatedTotal = totalEstimator.getAsLong();
+        yield estimatedTotal < 0 ? pageFinder.apply(pageable)
+            : toApproximatePage(sliceFinder.apply(pageable), estimatedTotal);
+      }
+    };
+  }
+
+  /**
+   * The estimate is corrected by what the slice tells: at least one more element than the slice
+   * when it has a next page, exactly the elements up to the slice when it is the last page
+   */
+  static <T> Page<T> toApproximatePage(Slice<T> slice, long estimatedTotal) {
+    long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+    long total;
+    if (slice.hasNext()) {
+      total = Math.max(estimatedTotal, offset + slice.getNumberOfElements() + 1);
+    } else if (slice.hasContent() || offset == 0) {
+      total = offset + slice.getNumberOfElements();
+    } else {
+      // past the last page: there are at most "offset" elements
+      total = Math.min(estimatedTotal, offset);
+    }
+
+    return new ApproximatePage<>(slice.getContent(), slice.getPageable(), total);
+  }
+
+}
@@ -10,6 +10,7 @@ import java.util.UUID;
 import javax.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.CollectionModel;
@@ -17,6 +18,7 @@ import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.CurrentSecurityContext;
 import org.springframework.validation.annotation.Validated;
@@ -29,13 +31,25 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import qble2.cookbook.ingredient.dto.IngredientDto;
+import qble2.cookbook.pagination.PageCountModeEnum;
+import qble2.cookbook.recipe.cache.RecipeDetailCache;
+import qble2.cookbook.recipe.cache.RecipeDetailCache.RenderedRecipe;
 import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dto.RecipeVersionDto;
 import qble2.cookbook.recipe.dto.RecipesPageDto;
+import qble2.cookbook.recipe.enums.RecipeSearchPaginationModeEnum;
 import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.facet.RecipeFacetService;
+import qble2.cookbook.recipe.recommendation.RecipeRecommendationDto;
+import qble2.cookbook.recipe.recommendation.RecipeRecommendationService;
 import qble2.cookbook.recipe.request.RecipeSearchRequest;
 import qble2.cookbook.recipe.request.UpdateRecipeRequest;
+import qble2.cookbook.recipe.similarity.RecipeSimilarityDto;
+import qble2.cookbook.recipe.similarity.RecipeSimilarityService;
 
 @RestController
 @RequestMapping(path = RecipeController.PATH,
@@ -46,17 +60,39 @@ public class RecipeController {
 
   public static final String PATH = "api/recipes";
 
+  // execution plan of a search (see RecipeSearchPlanner)
+  public static final String SEARCH_PLAN_HEADER = "X-Recipe-Search-Plan";
+
   @Autowired
   private RecipeService recipeService;
 
+  @Autowired
+  private RecipeFacetService recipeFacetService;
+
+  @Autowired
+  private RecipeSimilarityService recipeSimilarityService;
+
+  @Autowired
+  private RecipeRecommendationService recipeRecommendationService;
+
+  @Autowired
+  private RecipeDetailCache recipeDetailCache;
+
+  @Value("${recipe.search.planner.debug-header-enabled:false}")
+  private boolean searchPlanHeaderEnabled;
+
   @GetMapping
   public ResponseEntity<RecipesPageDto> getRecipes(
       @RequestParam(name = "page", required = false, defaultValue = "0") int page,
-      @RequestParam(name = "size", required = false, defaultValue = "5") int size) {
+      @RequestParam(name = "size", required = false, defaultValue = "5") int size,
+      @RequestParam(name = "count", required = false) PageCountModeEnum count) {
     Pageable pageable = PageRequest.of(page, size);
-    RecipesPageDto recipesPageDto = this.recipeService.getRecipes(pageable);
+    RecipesPageDto recipesPageDto =
+        this.recipeService.getRecipes(pageable, PageCountModeEnum.orDefault(count));
 
-    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipes(page, size)).withSelfRel();
+    // expanded: the count mode is left out of the link when it has not been requested
+    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipes(page, size, count))
+        .withSelfRel().expand();
     recipesPageDto.add(selfLink);
 
     return ResponseEntity.ok().body(recipesPageDto);
@@ -66,14 +102,33 @@ public class RecipeController {
   public ResponseEntity<RecipesPageDto> getRecipesBySpecification(
       @RequestBody(required = true) RecipeSearchRequest recipeSearch,
       @RequestParam(name = "page", required = false, defaultValue = "0") int page,
-      @RequestParam(name = "size", required = false, defaultValue = "5") int size) {
-    Pageable pageable = PageRequest.of(page, size);
-    RecipesPageDto recipesPageDto =
-        this.recipeService.getRecipesBySpecification(recipeSearch, pageable);
-
-    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipes(page, size)).withSelfRel();
+      @RequestParam(name = "size", required = false, defaultValue = "5") int size,
+      @RequestParam(name = "mode", required = false,
+          defaultValue = "OFFSET") RecipeSearchPaginationModeEnum mode,
+      @RequestParam(name = "cursor", required = false) String cursor,
+      @RequestParam(name = "facets", required = false, defaultValue = "false") boolean facets,
+      // offset mode only: keyset pages are never counted
+      @RequestParam(name = "count", required = false) PageCountModeEnum count) {
+    RecipesPageDto recipesPageDto = switch (mode) {
+      case OFFSET -> this.recipeService.getRecipesBySpecification(recipeSearch,
+          PageRequest.of(page, size), PageCountModeEnum.orDefault(count));
+      case KEYSET -> this.recipeService.getRecipesBySpecificationAfterCursor(recipeSearch, cursor,
+          size);
+    };
+    if (facets) {
+      recipesPageDto.setFacets(this.recipeFacetService.getFacets(recipeSearch));
+    }
+
+    // the search itself is in the request body
+    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipesBySpecification(null, page,
+        size, mode, cursor, facets, count)).withSelfRel().expand();
     recipesPageDto.add(selfLink);
 
+    if (this.searchPlanHeaderEnabled && recipesPageDto.getSearchPlan() != null) {
+      return ResponseEntity.ok().header(SEARCH_PLAN_HEADER, recipesPageDto.getSearchPlan())
+          .body(recipesPageDto);
+    }
+
     return ResponseEntity.ok().body(recipesPageDto);
   }
 
@@ -81,22 +136,35 @@ public class RecipeController {
   public ResponseEntity<RecipesPageDto> getUserRecipes(
       @PathVariable(name = "userId", required = true) UUID userId,
       @RequestParam(name = "page", required = false, defaultValue = "0") int page,
-      @RequestParam(name = "size", required = false, defaultValue = "5") int size) {
+      @RequestParam(name = "size", required = false, defaultValue = "5") int size,
+      @RequestParam(name = "count", required = false) PageCountModeEnum count) {
     Pageable pageable = PageRequest.of(page, size);
-    RecipesPageDto recipesPageDto = this.recipeService.getUserRecipes(userId, pageable);
+    RecipesPageDto recipesPageDto = this.recipeService.getUserRecipes(userId, pageable,
+        PageCountModeEnum.orDefault(count));
 
-    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipes(page, size)).withSelfRel();
+    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipes(page, size, count))
+        .withSelfRel().expand();
     recipesPageDto.add(selfLink);
 
     return ResponseEntity.ok().body(recipesPageDto);
   }
 
   @GetMapping(path = "/{recipeId}")
-  public ResponseEntity<RecipeDto> getRecipe(
+  public ResponseEntity<byte[]> getRecipe(
       @PathVariable(name = "recipeId", required = true) UUID recipeId) {
-    RecipeDto recipeDto = this.recipeService.getRecipe(recipeId);
-
-    return ResponseEntity.ok().body(recipeDto);
+    // rendered once, then served from memory until the recipe or one of its reviews is written
+    RenderedRecipe renderedRecipe = this.recipeDetailCache.get(recipeId,
+        ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString(),
+        () -> this.recipeService.getRecipe(recipeId));
+
+    // conditional request: 304 when the validators match (see HttpEntityMethodProcessor)
+    BodyBuilder responseBuilder = ResponseEntity.ok();
+    if (renderedRecipe.getRecipeVersion() != null) {
+      responseBuilder.eTag(renderedRecipe.getRecipeVersion().toETag())
+          .lastModified(renderedRecipe.getRecipeVersion().toLastModified());
+    }
+
+    return responseBuilder.body(renderedRecipe.getBody());
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -148,33 +216,71 @@ public class RecipeController {
    * GET RECIPE PARTIAL INFO
    */
 
+  /**
+   * Conditional requests: the version of the recipe is read first, the sub-resource is only loaded
+   * when it has changed (304 otherwise)
+   */
+
   @GetMapping(path = "/{recipeId}/tags")
-  public CollectionModel<RecipeTagEnum> getRecipeTags(
-      @PathVariable(name = "recipeId", required = true) UUID recipeId) {
+  public ResponseEntity<CollectionModel<RecipeTagEnum>> getRecipeTags(
+      @PathVariable(name = "recipeId", required = true) UUID recipeId, WebRequest webRequest) {
+    RecipeVersionDto recipeVersion = this.recipeService.getRecipeVersion(recipeId);
+    if (webRequest.checkNotModified(recipeVersion.toETag(), recipeVersion.toLastModified())) {
+      return null;
+    }
+
     Set<RecipeTagEnum> tags = this.recipeService.getRecipeTags(recipeId);
 
-    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipeTags(recipeId)).withSelfRel();
-    return CollectionModel.of(tags, selfLink);
+    Link selfLink =
+        linkTo(methodOn(RecipeController.class).getRecipeTags(recipeId, null)).withSelfRel();
+    return ResponseEntity.ok().eTag(recipeVersion.toETag())
+        .lastModified(recipeVersion.toLastModified()).body(CollectionModel.of(tags, selfLink));
   }
 
   @GetMapping(path = "/{recipeId}/ingredients")
-  public CollectionModel<IngredientDto> getRecipeIngredients(
-      @PathVariable(name = "recipeId", required = true) UUID recipeId) {
+  public ResponseEntity<CollectionModel<IngredientDto>> getRecipeIngredients(
+      @PathVariable(name = "recipeId", required = true) UUID recipeId, WebRequest webRequest) {
+    RecipeVersionDto recipeVersion = this.recipeService.getRecipeVersion(recipeId);
+    if (webRequest.checkNotModified(recipeVersion.toETag(), recipeVersion.toLastModified())) {
+      return null;
+    }
+
     List<IngredientDto> ingredients = this.recipeService.getRecipeIngredients(recipeId);
 
-    Link selfLink =
-        linkTo(methodOn(RecipeController.class).getRecipeIngredients(recipeId)).withSelfRel();
-    return CollectionModel.of(ingredients, selfLink);
+    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipeIngredients(recipeId, null))
+        .withSelfRel();
+    return ResponseEntity.ok().eTag(recipeVersion.toETag())
+        .lastModified(recipeVersion.toLastModified())
+        .body(CollectionModel.of(ingredients, selfLink));
   }
 
   @GetMapping(path = "/{recipeId}/instructions")
-  public CollectionModel<String> getRecipeInstructions(
-      @PathVariable(name = "recipeId", required = true) UUID recipeId) {
+  public ResponseEntity<CollectionModel<String>> getRecipeInstructions(
+      @PathVariable(name = "recipeId", required = true) UUID recipeId, WebRequest webRequest) {
+    RecipeVersionDto recipeVersion = this.recipeService.getRecipeVersion(recipeId);
+    if (webRequest.checkNotModified(recipeVersion.toETag(), recipeVersion.toLastModified())) {
+      return null;
+    }
+
     List<String> instructions = this.recipeService.getRecipeInstructions(recipeId);
 
+    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipeInstructions(recipeId, null))
+        .withSelfRel();
+    return ResponseEntity.ok().eTag(recipeVersion.toETag())
+        .lastModified(recipeVersion.toLastModified())
+        .body(CollectionModel.of(instructions, selfLink));
+  }
+
+  @GetMapping(path = "/{recipeId}/similar")
+  public CollectionModel<RecipeSimilarityDto> getSimilarRecipes(
+      @PathVariable(name = "recipeId", required = true) UUID recipeId,
+      @RequestParam(name = "size", required = false, defaultValue = "5") int size) {
+    List<RecipeSimilarityDto> similarRecipes =
+        this.recipeSimilarityService.getSimilarRecipes(recipeId, size);
+
     Link selfLink =
-        linkTo(methodOn(RecipeController.class).getRecipeInstructions(recipeId)).withSelfRel();
-    return CollectionModel.of(instructions, selfLink);
+        linkTo(methodOn(RecipeController.class).getSimilarRecipes(recipeId, size)).withSelfRel();
+    return CollectionModel.of(similarRecipes, selfLink);
   }
 
   /**
@@ -260,16 +366,46 @@ public class RecipeController {
   public ResponseEntity<RecipesPageDto> getFavoriteRecipes(
       @CurrentSecurityContext(expression = "authentication?.name") String username,
       @RequestParam(name = "page", required = false, defaultValue = "0") int page,
-      @RequestParam(name = "size", required = false, defaultValue = "5") int size) {
+      @RequestParam(name = "size", required = false, defaultValue = "5") int size,
+      @RequestParam(name = "count", required = false) PageCountModeEnum count) {
     Pageable pageable = PageRequest.of(page, size);
-    RecipesPageDto recipesPageDto = this.recipeService.getUserFavoriteRecipes(username, pageable);
+    RecipesPageDto recipesPageDto = this.recipeService.getUserFavoriteRecipes(username, pageable,
+        PageCountModeEnum.orDefault(count));
 
-    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipes(page, size)).withSelfRel();
+    Link selfLink = linkTo(methodOn(RecipeController.class).getRecipes(page, size, count))
+        .withSelfRel().expand();
     recipesPageDto.add(selfLink);
 
     return ResponseEntity.ok().body(recipesPageDto);
   }
 
+  @GetMapping(path = "/users/{userId}/recommendations")
+  @PreAuthorize("#userId == authentication.principal.id or hasRole('ROLE_ADMIN')")
+  public CollectionModel<RecipeRecommendationDto> getUserRecommendations(
+      @PathVariable(name = "userId", required = true) UUID userId,
+      @RequestParam(name = "size", required = false, defaultValue = "5") int size) {
+    List<RecipeRecommendationDto> recommendations =
+        this.recipeRecommendationService.getUserRecommendations(userId, size);
+
+    Link selfLink = linkTo(methodOn(RecipeController.class).getUserRecommendations(userId, size))
+        .withSelfRel();
+    return CollectionModel.of(recommendations, selfLink);
+  }
+
+  // users who favorited this recipe also favorited
+  @GetMapping(path = "/{recipeId}/recommendations")
+  public CollectionModel<RecipeRecommendationDto> getRecipeRecommendations(
+      @PathVariable(name = "recipeId", required = true) UUID recipeId,
+      @RequestParam(name = "size", required = false, defaultValue = "5") int size) {
+    List<RecipeRecommendationDto> recommendations =
+        this.recipeRecommendationService.getRecipeRecommendations(recipeId, size);
+
+    Link selfLink =
+        linkTo(methodOn(RecipeController.class).getRecipeRecommendations(recipeId, size))
+            .withSelfRel();
+    return CollectionModel.of(recommendations, selfLink);
+  }
+
   @PostMapping(path = "/{recipeId}/favorites")
   @PreAuthorize("isAuthenticated()")
   public ResponseEntity<Void> addRecipeToFavorites(
@@ -18,6 +18,7 @@ import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import qble2.cookbook.ingredient.IngredientMapper;
 import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dtoprojection.RecipeSummaryProjectionDto;
 import qble2.cookbook.recipe.model.Recipe;
 import qble2.cookbook.recipe.request.UpdateRecipeRequest;
 import qble2.cookbook.review.ReviewController;
@@ -65,7 +66,7 @@ public interface RecipeMapper {
   @Mapping(target = "editedAt", source = "editedAt")
   @Mapping(target = "author", source = "author", qualifiedByName = "toMinimalUserDto")
   @Mapping(target = "tags", source = "tags")
-  // calculated properties
+  // denormalized properties (maintained by ReviewService)
   @Mapping(target = "averageRating", source = "averageRating")
   RecipeDto toMinimalDto(Recipe source);
 
@@ -86,31 +87,65 @@ public interface RecipeMapper {
   @Mapping(target = "instructions", source = "instructions")
   @Mapping(target = "reviews", source = "reviews", qualifiedByName = "toReviewDtoList")
   @Mapping(target = "pictures", ignore = true)
-  // calculated properties
+  // denormalized properties (maintained by ReviewService)
   @Mapping(target = "averageRating", source = "averageRating")
+  @Mapping(target = "version", source = "version")
+  @Mapping(target = "modifiedAt", source = "modifiedAt")
   RecipeDto toDetailedDto(Recipe source);
 
+  @Named(value = "toMinimalRecipeDtoFromProjectionList")
+  @IterableMapping(qualifiedByName = "toMinimalRecipeDtoFromProjection")
+  List<RecipeDto> toMinimalDtoListFromProjections(List<RecipeSummaryProjectionDto> listSource);
+
+  /**
+   * Same output as toMinimalDto, from a projection instead of an entity
+   */
+  @Named(value = "toMinimalRecipeDtoFromProjection")
+  @BeanMapping(ignoreByDefault = true)
+  @Mapping(target = "id", source = "id")
+  @Mapping(target = "name", source = "name")
+  @Mapping(target = "description", source = "description")
+  @Mapping(target = "servings", source = "servings")
+  @Mapping(target = "preparationTime", source = "preparationTime")
+  @Mapping(target = "cookingTime", source = "cookingTime")
+  @Mapping(target = "createdAt", source = "createdAt")
+  @Mapping(target = "editedAt", source = "editedAt")
+  @Mapping(target = "author", source = ".", qualifiedByName = "toMinimalUserDtoFromProjection")
+  @Mapping(target = "tags", source = "tags")
+  @Mapping(target = "averageRating", source = "averageRating")
+  RecipeDto toMinimalDto(RecipeSummaryProjectionDto source);
+
   @AfterMapping
   default void addLinks(Recipe source, @MappingTarget RecipeDto target) {
-    UUID recipeId = source.getId();
+    addLinks(source.getId(), target);
+  }
+
+  @AfterMapping
+  default void addLinks(RecipeSummaryProjectionDto source, @MappingTarget RecipeDto target) {
+    addLinks(source.getId(), target);
+  }
+
+  private void addLinks(UUID recipeId, RecipeDto target) {
 
     Link selfLink = WebMvcLinkBuilder.linkTo(RecipeController.class).slash(recipeId).withSelfRel();
     target.add(selfLink);
 
     Link tagsLink =
-        linkTo(methodOn(RecipeController.class).getRecipeTags(recipeId)).withRel("tags");
+        linkTo(methodOn(RecipeController.class).getRecipeTags(recipeId, null)).withRel("tags");
     target.add(tagsLink);
 
-    Link ingredientsLink = linkTo(methodOn(RecipeController.class).getRecipeIngredients(recipeId))
-        .withRel("ingredients");
+    Link ingredientsLink =
+        linkTo(methodOn(RecipeController.class).getRecipeIngredients(recipeId, null))
+            .withRel("ingredients");
     target.add(ingredientsLink);
 
-    Link instructionsLink = linkTo(methodOn(RecipeController.class).getRecipeInstructions(recipeId))
-        .withRel("instructions");
+    Link instructionsLink =
+        linkTo(methodOn(RecipeController.class).getRecipeInstructions(recipeId, null))
+            .withRel("instructions");
     target.add(instructionsLink);
 
-    Link reviewsLink =
-        linkTo(methodOn(ReviewController.class).getRecipeReviews(recipeId)).withRel("reviews");
+    Link reviewsLink = linkTo(methodOn(ReviewController.class).getRecipeReviews(recipeId, null))
+        .withRel("reviews");
     target.add(reviewsLink);
   }
 
@@ -3,6 +3,7 @@ package qble2.cookbook.recipe;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Root;
 import lombok.extern.slf4j.Slf4j;
@@ -16,49 +17,69 @@ import qble2.cookbook.user.model.User_;
 @Slf4j
 public class RecipeQuerySorter {
 
-  public void sortQuery(Root<Recipe> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+  public static final RecipeSearchSort DEFAULT_SORT = new RecipeSearchSort(
+      RecipeSearchSortKeyEnum.RECIPE_CREATED_AT, RecipeSearchSortDirectionEnum.DESC);
+
+  public static RecipeSearchSort getSortOrDefault(RecipeSearchSort recipeSearchSort) {
+    if (recipeSearchSort == null || recipeSearchSort.getKey() == null
+        || recipeSearchSort.getDirection() == null) {
+      return DEFAULT_SORT;
+    }
+
+    return recipeSearchSort;
+  }
+
+  /**
+   * Recipe.id is always added as a tie-breaker, so that the ordering is total and stable across
+   * pages (required by keyset pagination, and avoids duplicated / skipped rows with offset
+   * pagination).
+   *
+   * @return the path of the sort key, to be reused by callers that need to filter on it
+   */
+  public Path<?> sortQuery(Root<Recipe> root, CriteriaQuery<?> query, CriteriaBuilder cb,
       RecipeSearchSort recipeSearchSort) {
 
     if (recipeSearchSort == null) {
       log.info("No sorting was asked, setting a default one");
-      recipeSearchSort = new RecipeSearchSort(RecipeSearchSortKeyEnum.RECIPE_CREATED_AT,
-          RecipeSearchSortDirectionEnum.DESC);
     }
+    recipeSearchSort = getSortOrDefault(recipeSearchSort);
 
     log.info("Sorting by {} {}", recipeSearchSort.getKey(), recipeSearchSort.getDirection());
-    switch (recipeSearchSort.getKey()) {
+    Path<?> path = switch (recipeSearchSort.getKey()) {
       case RECIPE_AUTHOR -> {
         // fetch needed to order by author name
-        root.fetch(Recipe_.author, JoinType.LEFT);
-        orderBy(query, cb, root.get(Recipe_.author).get(User_.username),
-            recipeSearchSort.getDirection());
+        // (only when selecting the entity itself, a fetch is not allowed in count queries)
+        if (Recipe.class.equals(query.getResultType())) {
+          root.fetch(Recipe_.author, JoinType.LEFT);
+        }
+        yield root.get(Recipe_.author).get(User_.username);
       }
 
-      case RECIPE_NAME -> orderBy(query, cb, root.get(Recipe_.name),
-          recipeSearchSort.getDirection());
+      case RECIPE_NAME -> root.get(Recipe_.name);
 
-      case RECIPE_PREPARATION_TIME -> orderBy(query, cb, root.get(Recipe_.preparationTime),
-          recipeSearchSort.getDirection());
+      case RECIPE_PREPARATION_TIME -> root.get(Recipe_.preparationTime);
 
-      case RECIPE_COOKING_TIME -> orderBy(query, cb, root.get(Recipe_.cookingTime),
-          recipeSearchSort.getDirection());
+      case RECIPE_COOKING_TIME -> root.get(Recipe_.cookingTime);
 
-      case RECIPE_AVERAGE_RATING -> orderBy(query, cb, root.get(Recipe_.averageRating),
-          recipeSearchSort.getDirection());
+      case RECIPE_AVERAGE_RATING -> root.get(Recipe_.averageRating);
 
-      case RECIPE_CREATED_AT -> orderBy(query, cb, root.get(Recipe_.createdAt),
-          recipeSearchSort.getDirection());
-    }
-  }
+      case RECIPE_CREATED_AT -> root.get(Recipe_.createdAt);
 
-  private void orderBy(CriteriaQuery<?> query, CriteriaBuilder cb, Path<?> path,
-      RecipeSearchSortDirectionEnum direction) {
-    switch (direction) {
-      case ASC -> query.orderBy(cb.asc(path));
-      case DESC -> query.orderBy(cb.desc(path));
+      // only the in-memory text index can rank by relevance (see RecipeIndexSearcher)
+      case RELEVANCE -> root.get(Recipe_.createdAt);
+    };
 
-      default -> throw new IllegalArgumentException("Unexpected value: " + direction);
-    }
+    query.orderBy(order(cb, path, recipeSearchSort.getDirection()),
+        order(cb, root.get(Recipe_.id), recipeSearchSort.getDirection()));
+
+    return path;
+  }
+
+  private Order order(CriteriaBuilder cb, Path<?> path, RecipeSearchSortDirectionEnum direction) {
+    return switch (direction) {
+      case ASC -> cb.asc(path);
+      case DESC -> cb.desc(path);
+    };
   }
 
 }
@@ -0,0 +1,78 @@
+package qble2.cookbook.recipe;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.dto.RecipeRatingAggregateDto;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.review.ReviewRepository;
+import qble2.cookbook.review.event.ReviewChangedEvent;
+
+/**
+ * Recomputes the denormalized rating aggregates of recipes from their reviews, repairing any drift
+ * (e.g. reviews modified outside of ReviewService)
+ */
+@Component
+@Slf4j
+public class RecipeRatingsReconciliationJob {
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private ReviewRepository reviewRepository;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  /**
+   * @return the number of repaired recipes
+   */
+  @Scheduled(cron = "${recipe.ratings.reconciliation.cron:0 0 4 * * *}")
+  @Transactional
+  public int reconcileRatings() {
+    Map<UUID, RecipeRatingAggregateDto> expectedAggregates =
+        this.reviewRepository.findRatingAggregates().stream().collect(
+            Collectors.toMap(RecipeRatingAggregateDto::getRecipeId, Function.identity()));
+
+    int repairedRecipesCount = 0;
+    for (RecipeRatingAggregateDto storedAggregate : this.recipeRepository.findRatingAggregates()) {
+      RecipeRatingAggregateDto expectedAggregate = expectedAggregates.getOrDefault(
+          storedAggregate.getRecipeId(),
+          new RecipeRatingAggregateDto(storedAggregate.getRecipeId(), 0L, 0L));
+
+      long ratingSum = expectedAggregate.getRatingSum();
+      long ratingCount = expectedAggregate.getRatingCount();
+      if (storedAggregate.getRatingSum() != ratingSum
+          || storedAggregate.getRatingCount() != ratingCount || !Objects.equals(
+              storedAggregate.getAverageRating(),
+              Recipe.computeAverageRating(ratingSum, ratingCount))) {
+        // a review written meanwhile has changed the aggregates: repaired by the next run if needed
+        if (this.recipeRepository.replaceRatingAggregates(storedAggregate.getRecipeId(),
+            storedAggregate.getRatingSum(), storedAggregate.getRatingCount(), ratingSum,
+            ratingCount, Recipe.computeAverageRating(ratingSum, ratingCount),
+            LocalDateTime.now(Recipe.MODIFIED_AT_CLOCK)) == 0) {
+          continue;
+        }
+        log.warn("Rating aggregates of recipe {} repaired: {} (expected sum: {} , count: {})",
+            storedAggregate.getRecipeId(), storedAggregate, ratingSum, ratingCount);
+        this.eventPublisher
+            .publishEvent(new ReviewChangedEvent(storedAggregate.getRecipeId(), null));
+        repairedRecipesCount++;
+      }
+    }
+
+    log.info("Recipe rating aggregates reconciled, {} recipe(s) repaired", repairedRecipesCount);
+    return repairedRecipesCount;
+  }
+
+}
@@ -1,20 +1,44 @@
 package qble2.cookbook.recipe;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import qble2.cookbook.recipe.criteria.CriteriaRecipeRepository;
+import qble2.cookbook.recipe.dto.RecipeRatingAggregateDto;
+import qble2.cookbook.recipe.dto.RecipeVersionDto;
 import qble2.cookbook.recipe.dtoprojection.DtoProjectionRecipeRepository;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.index.RecipeIdRepository;
+import qble2.cookbook.recipe.keyset.KeysetRecipeRepository;
 import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.pantry.RecipePantryCountDto;
+import qble2.cookbook.recipe.recommendation.RecipeCoFavoriteCountDto;
+import qble2.cookbook.recipe.recommendation.RecipeFavoriteDto;
 
 public interface RecipeRepository extends JpaRepository<Recipe, UUID>, CriteriaRecipeRepository,
-    DtoProjectionRecipeRepository, JpaSpecificationExecutor<Recipe> {
+    DtoProjectionRecipeRepository, KeysetRecipeRepository, RecipeIdRepository,
+    JpaSpecificationExecutor<Recipe> {
 
   /**
    * Paging
@@ -30,13 +54,59 @@ public interface RecipeRepository extends JpaRepository<Recipe, UUID>, CriteriaR
   Page<Recipe> findAllAndLoadTags(Pageable pageable);
 
   /**
-   *
+   * Paging in two phases: a page of ids first, then the recipes of the page in a single query (see
+   * findAllByIdInOrderAndLoadAuthorAndTags), instead of one query per recipe to load its tags
    **/
 
+  @Query(value = "SELECT r.id FROM Recipe r", countQuery = "SELECT count(r) FROM Recipe r")
+  Page<UUID> findAllIds(Pageable pageable);
+
+  @Query(value = "SELECT r.id FROM Recipe r WHERE r.author.id = ?1",
+      countQuery = "SELECT count(r) FROM Recipe r WHERE r.author.id = ?1")
+  Page<UUID> findIdsByAuthor_Id(UUID userId, Pageable pageable);
+
+  @Query(value = "SELECT r.id FROM Recipe r JOIN r.favoritedBy u WHERE u.username = ?1",
+      countQuery = "SELECT count(r) FROM Recipe r JOIN r.favoritedBy u WHERE u.username = ?1")
+  Page<UUID> findIdsByFavoritedBy_Username(String username, Pageable pageable);
+
+  // slices: one extra id is fetched to know whether there is a next page, no count query
+
+  @Query("SELECT r.id FROM Recipe r")
+  Slice<UUID> findSliceOfAllIds(Pageable pageable);
+
+  @Query("SELECT r.id FROM Recipe r WHERE r.author.id = ?1")
+  Slice<UUID> findSliceOfIdsByAuthor_Id(UUID userId, Pageable pageable);
+
+  @Query("SELECT r.id FROM Recipe r JOIN r.favoritedBy u WHERE u.username = ?1")
+  Slice<UUID> findSliceOfIdsByFavoritedBy_Username(String username, Pageable pageable);
+
+  @Query("SELECT DISTINCT r FROM Recipe r WHERE r.id IN ?1")
+  @EntityGraph(attributePaths = {"author", "tags"})
+  List<Recipe> findAllByIdInAndLoadAuthorAndTags(Collection<UUID> recipeIds);
+
+  /**
+   * Recipes in the order of the given ids (ids of deleted recipes are skipped)
+   */
+  default List<Recipe> findAllByIdInOrderAndLoadAuthorAndTags(List<UUID> recipeIds) {
+    if (recipeIds.isEmpty()) {
+      return List.of();
+    }
+
+    Map<UUID, Recipe> recipesById = findAllByIdInAndLoadAuthorAndTags(recipeIds).stream()
+        .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+
+    return recipeIds.stream().map(recipesById::get).filter(Objects::nonNull).toList();
+  }
+
   boolean existsByName(String name);
 
   Recipe findByName(String name);
 
+  // primary key lookup, the recipe is not loaded
+  @Query("SELECT new qble2.cookbook.recipe.dto.RecipeVersionDto(r.version, r.modifiedAt)"
+      + " FROM Recipe r WHERE r.id = ?1")
+  Optional<RecipeVersionDto> findVersionById(UUID recipeId);
+
   @Query("SELECT r FROM Recipe r" + " WHERE r.id = ?1")
   @EntityGraph(value = "Recipe-entity-graph-with-tags")
   Optional<Recipe> findByIdAndLoadTags(UUID recipeId);
@@ -53,4 +123,119 @@ public interface RecipeRepository extends JpaRepository<Recipe, UUID>, CriteriaR
   @EntityGraph(value = "Recipe-entity-graph-with-reviews")
   Optional<Recipe> findByIdAndLoadReviews(UUID recipeId);
 
+  /**
+   * In-memory indexes
+   **/
+
+  @Query("SELECT r.id FROM Recipe r")
+  List<UUID> findAllIds();
+
+  @Query("SELECT r FROM Recipe r" + " WHERE r.id IN ?1")
+  @EntityGraph(attributePaths = {"tags", "recipeIngredients", "recipeIngredients.ingredient"})
+  List<Recipe> findAllByIdInAndLoadIndexedFields(Collection<UUID> recipeIds);
+
+  @Query("SELECT r FROM Recipe r" + " WHERE r.id = ?1")
+  @EntityGraph(attributePaths = {"tags", "recipeIngredients", "recipeIngredients.ingredient"})
+  Optional<Recipe> findByIdAndLoadIndexedFields(UUID recipeId);
+
+  /**
+   * Export (forward-only cursor, see RecipeExportService)
+   **/
+
+  @Query("SELECT r FROM Recipe r JOIN FETCH r.author")
+  @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READONLY, value = "true")})
+  Stream<Recipe> streamAllAndLoadAuthor();
+
+  /**
+   * Pantry search, when the in-memory indexes are not available (see RecipePantryService)
+   **/
+
+  @Query("SELECT new qble2.cookbook.recipe.pantry.RecipePantryCountDto(ri.recipe.id, count(ri),"
+      + " sum(CASE WHEN ri.ingredient.id IN ?1 THEN 1 ELSE 0 END))"
+      + " FROM RecipeIngredient ri GROUP BY ri.recipe.id"
+      + " HAVING sum(CASE WHEN ri.ingredient.id IN ?1 THEN 1 ELSE 0 END) > 0"
+      + " AND count(ri) - sum(CASE WHEN ri.ingredient.id IN ?1 THEN 1 ELSE 0 END) <= ?2")
+  List<RecipePantryCountDto> countPantryIngredients(Collection<UUID> pantryIngredientIds,
+      long maxMissingIngredients);
+
+  /**
+   * Similar recipes, when the in-memory indexes are not available (see RecipeSimilarityService)
+   **/
+
+  @Query("SELECT DISTINCT ri.recipe.id FROM RecipeIngredient ri WHERE ri.ingredient.id IN ?1")
+  List<UUID> findIdsByIngredientIdIn(Collection<UUID> ingredientIds);
+
+  @Query("SELECT DISTINCT r.id FROM Recipe r JOIN r.tags t WHERE t IN ?1")
+  List<UUID> findIdsByTagIn(Collection<RecipeTagEnum> tags);
+
+  /**
+   * Favorites co-occurrences (see RecipeCoFavoriteIndex)
+   **/
+
+  @Query("SELECT new qble2.cookbook.recipe.recommendation.RecipeFavoriteDto(u.id, r.id)"
+      + " FROM User u JOIN u.favoriteRecipes r")
+  List<RecipeFavoriteDto> findAllFavorites();
+
+  @Query("SELECT r.id FROM Recipe r JOIN r.favoritedBy u WHERE u.id = ?1")
+  List<UUID> findIdsByFavoritedBy_Id(UUID userId);
+
+  // when the in-memory index is not available (see RecipeRecommendationService)
+  @Query("SELECT new qble2.cookbook.recipe.recommendation.RecipeCoFavoriteCountDto("
+      + "r2.id, count(u), size(r2.favoritedBy))"
+      + " FROM User u JOIN u.favoriteRecipes r1 JOIN u.favoriteRecipes r2"
+      + " WHERE r1.id IN ?1 AND r2.id NOT IN ?1 GROUP BY r2.id")
+  List<RecipeCoFavoriteCountDto> countCoFavorites(Collection<UUID> seedRecipeIds);
+
+  /**
+   * Rating aggregates
+   **/
+
+  @Query("SELECT new qble2.cookbook.recipe.dto.RecipeRatingAggregateDto("
+      + "r.id, r.ratingSum, r.ratingCount, r.averageRating) FROM Recipe r")
+  List<RecipeRatingAggregateDto> findRatingAggregates();
+
+  @Query("SELECT new qble2.cookbook.recipe.dto.RecipeRatingAggregateDto("
+      + "r.id, r.ratingSum, r.ratingCount, r.averageRating) FROM Recipe r WHERE r.id = ?1")
+  Optional<RecipeRatingAggregateDto> findRatingAggregateById(UUID recipeId);
+
+  /**
+   * Atomic increment: concurrent reviews of a recipe neither overwrite each other nor conflict on
+   * its version. The row stays locked until the end of the transaction, the average is then set
+   * from the incremented values (see updateAverageRating).
+   *
+   * The version is incremented explicitly (bulk update)
+   */
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE Recipe r SET r.ratingSum = r.ratingSum + ?2, r.ratingCount = r.ratingCount + ?3,"
+      + " r.version = r.version + 1, r.modifiedAt = ?4 WHERE r.id = ?1")
+  int addToRatingAggregates(UUID recipeId, long ratingSumDelta, long ratingCountDelta,
+      LocalDateTime modifiedAt);
+
+  @Modifying
+  @Query("UPDATE Recipe r SET r.averageRating = ?2 WHERE r.id = ?1")
+  int updateAverageRating(UUID recipeId, Double averageRating);
+
+  /**
+   * Compare-and-set: no update when the aggregates have been written since they were read
+   *
+   * @return 0 when the aggregates have been written meanwhile
+   */
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE Recipe r SET r.ratingSum = ?4, r.ratingCount = ?5, r.averageRating = ?6,"
+      + " r.version = r.version + 1, r.modifiedAt = ?7"
+      + " WHERE r.id = ?1 AND r.ratingSum = ?2 AND r.ratingCount = ?3")
+  int replaceRatingAggregates(UUID recipeId, long storedRatingSum, long storedRatingCount,
+      long ratingSum, long ratingCount, Double averageRating, LocalDateTime modifiedAt);
+
+  // rated recipes only (see RecipeLeaderboardService)
+  @Query("SELECT new qble2.cookbook.recipe.dto.RecipeRatingAggregateDto("
+      + "r.id, r.ratingSum, r.ratingCount, r.averageRating) FROM Recipe r WHERE r.ratingCount > 0")
+  List<RecipeRatingAggregateDto> findRatedRatingAggregates();
+
+  @Query("SELECT new qble2.cookbook.recipe.dto.RecipeRatingAggregateDto("
+      + "r.id, r.ratingSum, r.ratingCount, r.averageRating) FROM Recipe r JOIN r.tags t"
+      + " WHERE t = ?1 AND r.ratingCount > 0")
+  List<RecipeRatingAggregateDto> findRatedRatingAggregatesByTag(RecipeTagEnum tag);
+
 }
@@ -7,9 +7,13 @@ import java.util.UUID;
 import javax.transaction.Transactional;
 import javax.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
@@ -19,14 +23,26 @@ import qble2.cookbook.ingredient.IngredientMapper;
 import qble2.cookbook.ingredient.IngredientRepository;
 import qble2.cookbook.ingredient.dto.IngredientDto;
 import qble2.cookbook.ingredient.model.Ingredient;
+import qble2.cookbook.pagination.ApproximatePage;
+import qble2.cookbook.pagination.PageCountModeEnum;
+import qble2.cookbook.pagination.PaginationUtils;
+import qble2.cookbook.recipe.cache.RecipeSearchCache;
 import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dto.RecipeVersionDto;
 import qble2.cookbook.recipe.dto.RecipesPageDto;
 import qble2.cookbook.recipe.dtoprojection.RecipeOverviewProjectionDto;
+import qble2.cookbook.recipe.enums.RecipeSearchSortKeyEnum;
 import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.event.RecipeChangedEvent;
+import qble2.cookbook.recipe.event.RecipeFavoritesChangedEvent;
+import qble2.cookbook.recipe.index.RecipeIndexSearcher;
+import qble2.cookbook.recipe.keyset.RecipeSearchCursor;
 import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.planner.RecipeSearchExecutor;
+import qble2.cookbook.recipe.planner.RecipeSearchPlan;
+import qble2.cookbook.recipe.planner.RecipeSearchPlanner;
 import qble2.cookbook.recipe.request.RecipeSearchRequest;
 import qble2.cookbook.recipe.request.UpdateRecipeRequest;
-import qble2.cookbook.recipe.specification.RecipeSpecification;
 import qble2.cookbook.user.UserRepository;
 import qble2.cookbook.user.UserService;
 import qble2.cookbook.user.model.User;
@@ -56,8 +72,28 @@ public class RecipeService {
   @Autowired
   private IngredientMapper ingredientMapper;
 
-  public RecipesPageDto getRecipes(Pageable pageable) {
-    return toRecipesPage(this.recipeRepository.findAll(pageable));
+  @Autowired
+  private RecipeIndexSearcher recipeIndexSearcher;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private RecipeSearchCache recipeSearchCache;
+
+  @Autowired
+  private RecipeSummaryLoader recipeSummaryLoader;
+
+  @Autowired
+  private RecipeSearchPlanner recipeSearchPlanner;
+
+  @Autowired
+  private RecipeSearchExecutor recipeSearchExecutor;
+
+  public RecipesPageDto getRecipes(Pageable pageable, PageCountModeEnum countMode) {
+    return toRecipesPageFromIds(PaginationUtils.find(countMode, pageable,
+        this.recipeRepository::findAllIds, this.recipeRepository::findSliceOfAllIds,
+        this.recipeSearchPlanner::estimateRecipesCount));
   }
 
   /***
@@ -69,13 +105,60 @@ public class RecipeService {
   }
 
   public RecipesPageDto getRecipesBySpecification(RecipeSearchRequest recipeSearch,
-      Pageable pageable) {
-    return toRecipesPage(
-        this.recipeRepository.findAll(new RecipeSpecification(recipeSearch), pageable));
+      Pageable pageable, PageCountModeEnum countMode) {
+    return this.recipeSearchCache.get(recipeSearch, pageable, countMode,
+        () -> searchRecipesBySpecification(recipeSearch, pageable, countMode));
+  }
+
+  /**
+   * Keyset pagination: fetches one extra recipe to know whether there is a next page, so that no
+   * count query is needed
+   */
+  public RecipesPageDto getRecipesBySpecificationAfterCursor(RecipeSearchRequest recipeSearch,
+      String cursor, int size) {
+    if (size < 1) {
+      throw new InvalidArgumentException();
+    }
+    // BM25 scores are not stored: the database can not seek after the score of a cursor
+    if (recipeSearch.getSort() != null
+        && recipeSearch.getSort().getKey() == RecipeSearchSortKeyEnum.RELEVANCE) {
+      throw new InvalidArgumentException();
+    }
+
+    RecipeSearchCursor recipeSearchCursor =
+        StringUtils.isBlank(cursor) ? null : RecipeSearchCursor.decode(cursor);
+    RecipeSearchPlan recipeSearchPlan = this.recipeSearchPlanner.plan(recipeSearch);
+    List<Recipe> recipes = this.recipeRepository.findBySpecificationAfterCursor(
+        recipeSearchPlan.toSpecification(recipeSearch),
+        RecipeQuerySorter.getSortOrDefault(recipeSearch.getSort()), recipeSearchCursor, size + 1);
+
+    String nextCursor = null;
+    if (recipes.size() > size) {
+      recipes = recipes.subList(0, size);
+      nextCursor = RecipeSearchCursor
+          .of(recipes.get(size - 1), RecipeQuerySorter.getSortOrDefault(recipeSearch.getSort()))
+          .encode();
+    }
+
+    return RecipesPageDto.builder().recipes(this.recipeMapper.toMinimalDtoList(recipes))
+        .nextCursor(nextCursor).searchPlan(recipeSearchPlan.getDescription()).build();
   }
 
-  public RecipesPageDto getUserRecipes(UUID userId, Pageable pageable) {
-    return toRecipesPage(this.recipeRepository.findByAuthor_Id(userId, pageable));
+  public RecipesPageDto getUserRecipes(UUID userId, Pageable pageable,
+      PageCountModeEnum countMode) {
+    return toRecipesPageFromIds(PaginationUtils.find(countMode, pageable,
+        userPageable -> this.recipeRepository.findIdsByAuthor_Id(userId, userPageable),
+        userPageable -> this.recipeRepository.findSliceOfIdsByAuthor_Id(userId, userPageable),
+        () -> this.recipeSearchPlanner.estimateAuthorRecipesCount(userId)));
+  }
+
+  /**
+   * Validators of the recipe and of its sub-resources, a single primary key lookup (conditional
+   * requests)
+   */
+  public RecipeVersionDto getRecipeVersion(UUID recipeId) {
+    return this.recipeRepository.findVersionById(recipeId)
+        .orElseThrow(ResourceNotFoundException::new);
   }
 
   public RecipeDto getRecipe(UUID recipeId) {
@@ -93,7 +176,7 @@ public class RecipeService {
     recipe.setAuthor(this.userService.getUserByUsernameOrThrow(username))
         .setCreatedAt(LocalDateTime.now());
 
-    return this.recipeMapper.toDetailedDto(this.recipeRepository.save(recipe));
+    return saveAndMap(recipe);
   }
 
   // TODO BKE ingredients mapping with MapStruct possible?
@@ -103,12 +186,13 @@ public class RecipeService {
     this.recipeMapper.updateRecipe(recipeDto, recipe);
     recipe.setEditedAt(LocalDateTime.now());
 
-    return this.recipeMapper.toDetailedDto(this.recipeRepository.save(recipe));
+    return saveAndMap(recipe);
   }
 
   public void deleteRecipe(String username, UUID recipeId) {
     this.recipeRepository
         .deleteById(getRecipeByIdAndCheckOwnershipOrThrow(username, recipeId).getId());
+    this.eventPublisher.publishEvent(RecipeChangedEvent.deleted(recipeId));
   }
 
   /**
@@ -139,7 +223,7 @@ public class RecipeService {
     Recipe recipe = getRecipeByIdAndCheckOwnershipOrThrow(username, recipeId);
     recipe.updateTags(tags).setEditedAt(LocalDateTime.now());
 
-    return this.recipeMapper.toDetailedDto(this.recipeRepository.save(recipe));
+    return saveAndMap(recipe);
   }
 
   // TODO BKE rework?
@@ -157,9 +241,10 @@ public class RecipeService {
           throw new InvalidArgumentException();
         });
 
-    recipe.addIngredient(ingredient, ingredientDto.getQuantity(), ingredientDto.getUnitOfMeasure());
+    recipe.addIngredient(ingredient, ingredientDto.getQuantity(), ingredientDto.getUnitOfMeasure())
+        .setEditedAt(LocalDateTime.now()); // new version (ingredients are not owned by the recipe)
 
-    return this.recipeMapper.toDetailedDto(this.recipeRepository.save(recipe));
+    return saveAndMap(recipe);
   }
 
   public RecipeDto updateRecipeIngredient(String username, UUID recipeId, UUID ingredientId,
@@ -173,14 +258,14 @@ public class RecipeService {
         }, ResourceNotFoundException::new);
     recipe.setEditedAt(LocalDateTime.now());
 
-    return this.recipeMapper.toDetailedDto(this.recipeRepository.save(recipe));
+    return saveAndMap(recipe);
   }
 
   public RecipeDto removeRecipeIngredient(String username, UUID recipeId, UUID ingredientId) {
     Recipe recipe = getRecipeByIdAndCheckOwnershipOrThrow(username, recipeId)
         .removeIngredient(ingredientId).setEditedAt(LocalDateTime.now());
 
-    return this.recipeMapper.toDetailedDto(this.recipeRepository.save(recipe));
+    return saveAndMap(recipe);
   }
 
   public RecipeDto updateRecipeInstructions(String username, UUID recipeId,
@@ -188,15 +273,24 @@ public class RecipeService {
     Recipe recipe = getRecipeByIdAndCheckOwnershipOrThrow(username, recipeId)
         .updateInstructions(instructions).setEditedAt(LocalDateTime.now());
 
-    return this.recipeMapper.toDetailedDto(this.recipeRepository.save(recipe));
+    return saveAndMap(recipe);
   }
 
   /**
    * FAVORITE RECIPES
    */
 
-  public RecipesPageDto getUserFavoriteRecipes(String username, Pageable pageable) {
-    return toRecipesPage(this.recipeRepository.findByFavoritedBy_Username(username, pageable));
+  /**
+   * Favorites have no statistics: APPROXIMATE totals are counted
+   */
+  public RecipesPageDto getUserFavoriteRecipes(String username, Pageable pageable,
+      PageCountModeEnum countMode) {
+    return toRecipesPageFromIds(PaginationUtils.find(countMode, pageable,
+        userPageable -> this.recipeRepository.findIdsByFavoritedBy_Username(username,
+            userPageable),
+        userPageable -> this.recipeRepository.findSliceOfIdsByFavoritedBy_Username(username,
+            userPageable),
+        () -> PaginationUtils.UNKNOWN_TOTAL));
   }
 
   public void addRecipeToFavorites(String username, UUID recipeId) {
@@ -204,6 +298,7 @@ public class RecipeService {
         .addFavoriteRecipe(getRecipeByIdOrThrow(recipeId));
 
     this.userRepository.save(user);
+    this.eventPublisher.publishEvent(RecipeFavoritesChangedEvent.added(user.getId(), recipeId));
   }
 
   public void removeRecipeFromFavorites(String username, UUID recipeId) {
@@ -211,6 +306,7 @@ public class RecipeService {
         .removeFavoriteRecipe(getRecipeByIdOrThrow(recipeId));
 
     this.userRepository.save(user);
+    this.eventPublisher.publishEvent(RecipeFavoritesChangedEvent.removed(user.getId(), recipeId));
   }
 
   /**
@@ -239,7 +335,7 @@ public class RecipeService {
     this.recipeMapper.updateRecipe(updateRecipeRequest, recipe);
     recipe.setEditedAt(LocalDateTime.now());
 
-    return this.recipeMapper.toDetailedDto(this.recipeRepository.save(recipe));
+    return saveAndMap(recipe);
   }
 
   /**
@@ -275,6 +371,52 @@ public class RecipeService {
         .orElseThrow(ResourceNotFoundException::new);
   }
 
+  private RecipeDto saveAndMap(Recipe recipe) {
+    Recipe savedRecipe = this.recipeRepository.save(recipe);
+    // listeners are notified after commit
+    this.eventPublisher.publishEvent(RecipeChangedEvent.saved(recipe.getId()));
+
+    return this.recipeMapper.toDetailedDto(savedRecipe);
+  }
+
+  private RecipesPageDto searchRecipesBySpecification(RecipeSearchRequest recipeSearch,
+      Pageable pageable, PageCountModeEnum countMode) {
+    // the total is known by the in-memory index: always exact
+    if (this.recipeIndexSearcher.supportsRelevanceSearch(recipeSearch)) {
+      Page<UUID> recipeIdsPage = this.recipeIndexSearcher.searchByRelevance(recipeSearch, pageable);
+      if (recipeIdsPage != null) {
+        return toRecipesPageFromIds(recipeIdsPage);
+      }
+    }
+
+    RecipeSearchPlan recipeSearchPlan = this.recipeSearchPlanner.plan(recipeSearch);
+    Specification<Recipe> specification = recipeSearchPlan.toSpecification(recipeSearch);
+    return toRecipesPageFromIds(PaginationUtils.find(countMode, pageable,
+        searchPageable -> this.recipeSearchExecutor.findIdsBySpecification(recipeSearch,
+            specification, searchPageable),
+        searchPageable -> this.recipeRepository.findSliceOfIdsBySpecification(specification,
+            searchPageable),
+        recipeSearchPlan::getEstimatedCount)).setSearchPlan(recipeSearchPlan.getDescription());
+  }
+
+  /**
+   * Loads the recipes of a page of ids (see RecipeSummaryLoader). The totals of a slice are not
+   * known (see PageCountModeEnum).
+   */
+  private RecipesPageDto toRecipesPageFromIds(Slice<UUID> slice) {
+    RecipesPageDto recipesPageDto = RecipesPageDto.builder()
+        .recipes(this.recipeSummaryLoader.loadMinimalDtos(slice.getContent()))
+        .currentPage(slice.getNumber()).hasNext(slice.hasNext()).build();
+    if (slice instanceof Page<UUID> page) {
+      recipesPageDto.setTotalPages(page.getTotalPages()).setTotalElements(page.getTotalElements())
+          .setApproximateTotals(page instanceof ApproximatePage ? Boolean.TRUE : null);
+    } else {
+      recipesPageDto.setTotalPages(null).setTotalElements(null);
+    }
+
+    return recipesPageDto;
+  }
+
   private RecipesPageDto toRecipesPage(Page<Recipe> page) {
     return RecipesPageDto.builder().recipes(this.recipeMapper.toMinimalDtoList(page.getContent()))
         .currentPage(page.getNumber()).totalPages(page.getTotalPages())
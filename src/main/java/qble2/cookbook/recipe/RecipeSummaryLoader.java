@@ -0,0 +1,43 @@
+package qble2.cookbook.recipe;
+
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.dto.RecipeDto;
+
+/**
+ * Loads the minimal DTOs of a page of recipes, once the ids of the page are known.
+ *
+ * By default, the DTOs are built from a projection (see DtoProjectionRecipeRepository): only the
+ * displayed columns are read, in a single query (tags are decoded from Recipe.tagsMask), and no
+ * entity is hydrated nor snapshotted for dirty checking. The entity path is kept as a fallback and
+ * as a baseline for benchmarks.
+ */
+@Component
+public class RecipeSummaryLoader {
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private RecipeMapper recipeMapper;
+
+  @Value("${recipe.summaries.projection-enabled:true}")
+  private boolean projectionEnabled;
+
+  /**
+   * @return the DTOs in the order of the given ids
+   */
+  public List<RecipeDto> loadMinimalDtos(List<UUID> recipeIds) {
+    if (this.projectionEnabled) {
+      return this.recipeMapper.toMinimalDtoListFromProjections(
+          this.recipeRepository.findSummariesByIdInOrder(recipeIds));
+    }
+
+    return this.recipeMapper
+        .toMinimalDtoList(this.recipeRepository.findAllByIdInOrderAndLoadAuthorAndTags(recipeIds));
+  }
+
+}
@@ -0,0 +1,155 @@
+package qble2.cookbook.recipe.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import qble2.cookbook.cache.HalJsonSerializer;
+import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dto.RecipeVersionDto;
+import qble2.cookbook.recipe.event.RecipeChangedEvent;
+import qble2.cookbook.review.event.ReviewChangedEvent;
+
+/**
+ * LRU cache of rendered recipe details (GET api/recipes/{id}), bounded by the size of the cached
+ * bytes: a cached recipe, and its validators (conditional requests), are served without any
+ * transaction.
+ *
+ * The entries of a recipe are removed after the commit of a write of the recipe or of one of its
+ * reviews. A detail rendered concurrently to a write is not cached (see the version stamp).
+ * The links of a detail are absolute: there is one entry per recipe and per base URI.
+ */
+@Component
+public class RecipeDetailCache {
+
+  // rough size (in bytes) of an entry, without its body
+  private static final int ENTRY_WEIGHT = 256;
+
+  @Autowired
+  private HalJsonSerializer halJsonSerializer;
+
+  @Value("${recipe.detail-cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${recipe.detail-cache.max-weight:8388608}")
+  private long maxWeight;
+
+  // bumped after every recipe or review write
+  private final AtomicLong recipesVersion = new AtomicLong();
+
+  // guarded by "this", access ordered: least recently used first
+  private final LinkedHashMap<Key, RenderedRecipe> entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long weight = 0;
+
+  @Getter
+  @AllArgsConstructor
+  public static class RenderedRecipe {
+
+    // serialized as by the HAL message converter
+    private final byte[] body;
+
+    // null when the rendered recipe has no version (not persisted)
+    private final RecipeVersionDto recipeVersion;
+
+  }
+
+  @EqualsAndHashCode
+  @AllArgsConstructor
+  private static class Key {
+
+    private UUID recipeId;
+
+    private String baseUri;
+
+  }
+
+  /**
+   * @param baseUri base URI of the current request (links of the recipe)
+   * @param loader renders the recipe on a miss
+   */
+  public RenderedRecipe get(UUID recipeId, String baseUri, Supplier<RecipeDto> loader) {
+    if (!this.enabled) {
+      return render(loader.get());
+    }
+
+    Key key = new Key(recipeId, baseUri);
+    synchronized (this) {
+      RenderedRecipe renderedRecipe = this.entries.get(key);
+      if (renderedRecipe != null) {
+        return renderedRecipe;
+      }
+    }
+
+    long version = this.recipesVersion.get();
+    RenderedRecipe renderedRecipe = render(loader.get());
+    put(key, renderedRecipe, version);
+
+    return renderedRecipe;
+  }
+
+  public synchronized void clear() {
+    this.entries.clear();
+    this.weight = 0;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRecipeChanged(RecipeChangedEvent event) {
+    invalidate(event.getRecipeId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onReviewChanged(ReviewChangedEvent event) {
+    invalidate(event.getRecipeId());
+  }
+
+  private synchronized void invalidate(UUID recipeId) {
+    this.recipesVersion.incrementAndGet();
+    this.entries.entrySet().removeIf(entry -> {
+      boolean removed = entry.getKey().recipeId.equals(recipeId);
+      if (removed) {
+        this.weight -= weight(entry.getValue());
+      }
+      return removed;
+    });
+  }
+
+  private synchronized void put(Key key, RenderedRecipe renderedRecipe, long version) {
+    // written meanwhile: the rendered recipe may be stale
+    if (this.recipesVersion.get() != version || weight(renderedRecipe) > this.maxWeight) {
+      return;
+    }
+
+    RenderedRecipe previousRenderedRecipe = this.entries.put(key, renderedRecipe);
+    if (previousRenderedRecipe != null) {
+      this.weight -= weight(previousRenderedRecipe);
+    }
+    this.weight += weight(renderedRecipe);
+
+    Iterator<RenderedRecipe> iterator = this.entries.values().iterator();
+    while (this.weight > this.maxWeight && iterator.hasNext()) {
+      this.weight -= weight(iterator.next());
+      iterator.remove();
+    }
+  }
+
+  private RenderedRecipe render(RecipeDto recipeDto) {
+    boolean versioned = recipeDto.getVersion() != null && recipeDto.getModifiedAt() != null;
+    return new RenderedRecipe(this.halJsonSerializer.serialize(recipeDto),
+        versioned ? new RecipeVersionDto(recipeDto.getVersion(), recipeDto.getModifiedAt())
+            : null);
+  }
+
+  private static long weight(RenderedRecipe renderedRecipe) {
+    return ENTRY_WEIGHT + (long) renderedRecipe.body.length;
+  }
+
+}
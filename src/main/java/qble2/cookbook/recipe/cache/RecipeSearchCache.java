@@ -0,0 +1,254 @@
+package qble2.cookbook.recipe.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import qble2.cookbook.pagination.PageCountModeEnum;
+import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dto.RecipeFacetValueDto;
+import qble2.cookbook.recipe.dto.RecipeFacetsDto;
+import qble2.cookbook.recipe.dto.RecipesPageDto;
+import qble2.cookbook.recipe.event.RecipeChangedEvent;
+import qble2.cookbook.recipe.event.RecipeFavoritesChangedEvent;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.review.event.ReviewChangedEvent;
+
+/**
+ * LRU cache of search result pages, of search facets and of search counts, bounded by the estimated
+ * size of the cached entries.
+ *
+ * Entries are not evicted on writes: each entry remembers the version stamps it has been computed
+ * with, and is discarded when it is read after one of them has been bumped. Stamps are bumped
+ * after commit, once the in-memory indexes have been updated, and read before the page is computed,
+ * so that a page computed concurrently to a write is never served as fresh afterwards.
+ */
+@Component
+public class RecipeSearchCache {
+
+  // rough sizes (in bytes) used to weigh the cached pages
+  private static final long PAGE_WEIGHT = 256;
+  private static final long RECIPE_WEIGHT = 1024;
+  private static final long CHAR_WEIGHT = 2;
+  private static final long FACET_VALUE_WEIGHT = 64;
+  private static final long COUNT_WEIGHT = 64;
+
+  // plan reported by the pages served from the cache: they have not been planned again
+  public static final String CACHED_SEARCH_PLAN = "cache=hit";
+
+  @Value("${recipe.search-cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${recipe.search-cache.max-weight:16777216}")
+  private long maxWeight;
+
+  // bumped after every recipe write
+  private final AtomicLong recipesVersion = new AtomicLong();
+  // bumped after every review write (average ratings)
+  private final AtomicLong reviewsVersion = new AtomicLong();
+  // bumped after every favorites change, only checked by searches depending on favorites
+  private final AtomicLong favoritesVersion = new AtomicLong();
+
+  // guarded by "this", access ordered: least recently used first
+  private final LinkedHashMap<RecipeSearchCacheKey, Entry> entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long weight = 0;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  @AllArgsConstructor
+  private static class Entry {
+
+    // RecipesPageDto or RecipeFacetsDto, depending on the key
+    private Object value;
+
+    private long weight;
+
+    private long recipesVersion;
+
+    private long reviewsVersion;
+
+    private long favoritesVersion;
+
+  }
+
+  /**
+   * @param loader computes the page on cache miss
+   * @return a page that the caller is free to modify (e.g. to add links)
+   */
+  public RecipesPageDto get(RecipeSearchRequest recipeSearch, Pageable pageable,
+      PageCountModeEnum countMode, Supplier<RecipesPageDto> loader) {
+    return get(RecipeSearchCacheKey.of(recipeSearch, pageable, countMode), loader,
+        RecipeSearchCache::copy, RecipeSearchCache::estimateWeight);
+  }
+
+  /**
+   * Facets do not depend on the page nor on the sort: they are cached once per set of filters.
+   *
+   * @param loader computes the facets on cache miss
+   * @return facets shared with the cache, that must not be modified
+   */
+  public RecipeFacetsDto getFacets(RecipeSearchRequest recipeSearch,
+      Supplier<RecipeFacetsDto> loader) {
+    return get(RecipeSearchCacheKey.ofFacets(recipeSearch), loader, UnaryOperator.identity(),
+        RecipeSearchCache::estimateWeight);
+  }
+
+  /**
+   * Counts do not depend on the page nor on the sort: they are cached once per set of filters, so
+   * that paging through a search only counts its recipes once.
+   *
+   * @param loader computes the count on cache miss
+   */
+  public long getCount(RecipeSearchRequest recipeSearch, Supplier<Long> loader) {
+    return get(RecipeSearchCacheKey.ofCount(recipeSearch), loader, UnaryOperator.identity(),
+        count -> COUNT_WEIGHT);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T get(RecipeSearchCacheKey key, Supplier<T> loader, UnaryOperator<T> copier,
+      ToLongFunction<T> weigher) {
+    if (!this.enabled) {
+      return loader.get();
+    }
+
+    long currentRecipesVersion = this.recipesVersion.get();
+    long currentReviewsVersion = this.reviewsVersion.get();
+    long currentFavoritesVersion = this.favoritesVersion.get();
+
+    synchronized (this) {
+      Entry entry = this.entries.get(key);
+      if (entry != null) {
+        if (entry.recipesVersion == currentRecipesVersion
+            && entry.reviewsVersion == currentReviewsVersion
+            && (!key.isFavoritesDependent() || entry.favoritesVersion == currentFavoritesVersion)) {
+          this.hits.increment();
+          return copier.apply((T) entry.value);
+        }
+
+        this.entries.remove(key);
+        this.weight -= entry.weight;
+        this.invalidations.increment();
+      }
+    }
+
+    this.misses.increment();
+    // computed outside of the lock: concurrent misses of the same key may compute it twice
+    T value = loader.get();
+
+    long entryWeight = weigher.applyAsLong(value);
+    if (entryWeight <= this.maxWeight) {
+      put(key, new Entry(copier.apply(value), entryWeight, currentRecipesVersion,
+          currentReviewsVersion, currentFavoritesVersion));
+    }
+
+    return value;
+  }
+
+  public synchronized void clear() {
+    this.entries.clear();
+    this.weight = 0;
+  }
+
+  public synchronized RecipeSearchCacheStatsDto getStats() {
+    long hitsCount = this.hits.sum();
+    long missesCount = this.misses.sum();
+    long requestsCount = hitsCount + missesCount;
+
+    return RecipeSearchCacheStatsDto.builder().hits(hitsCount).misses(missesCount)
+        .hitRatio(requestsCount == 0 ? 0 : (double) hitsCount / requestsCount)
+        .evictions(this.evictions.sum()).invalidations(this.invalidations.sum())
+        .entries(this.entries.size()).weight(this.weight).maxWeight(this.maxWeight).build();
+  }
+
+  // after the indexes update (see RecipeIndexManager.LISTENER_ORDER)
+  @TransactionalEventListener(fallbackExecution = true)
+  @Order(RecipeIndexManager.LISTENER_ORDER + 1)
+  public void onRecipeChanged(RecipeChangedEvent event) {
+    this.recipesVersion.incrementAndGet();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  @Order(RecipeIndexManager.LISTENER_ORDER + 1)
+  public void onReviewChanged(ReviewChangedEvent event) {
+    this.reviewsVersion.incrementAndGet();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRecipeFavoritesChanged(RecipeFavoritesChangedEvent event) {
+    this.favoritesVersion.incrementAndGet();
+  }
+
+  private synchronized void put(RecipeSearchCacheKey key, Entry entry) {
+    Entry previousEntry = this.entries.put(key, entry);
+    if (previousEntry != null) {
+      this.weight -= previousEntry.weight;
+    }
+    this.weight += entry.weight;
+
+    Iterator<Map.Entry<RecipeSearchCacheKey, Entry>> iterator = this.entries.entrySet().iterator();
+    while (this.weight > this.maxWeight && iterator.hasNext()) {
+      Entry leastRecentlyUsedEntry = iterator.next().getValue();
+      iterator.remove();
+      this.weight -= leastRecentlyUsedEntry.weight;
+      this.evictions.increment();
+    }
+  }
+
+  // the recipes are shared: only the page itself is modified by the controller, the plan of the
+  // first computation would be stale
+  private static RecipesPageDto copy(RecipesPageDto recipesPage) {
+    return RecipesPageDto.builder().recipes(new ArrayList<>(recipesPage.getRecipes()))
+        .currentPage(recipesPage.getCurrentPage()).totalPages(recipesPage.getTotalPages())
+        .totalElements(recipesPage.getTotalElements())
+        .approximateTotals(recipesPage.getApproximateTotals()).hasNext(recipesPage.getHasNext())
+        .nextCursor(recipesPage.getNextCursor()).facets(recipesPage.getFacets())
+        .searchPlan(recipesPage.getSearchPlan() == null ? null : CACHED_SEARCH_PLAN).build();
+  }
+
+  private static long estimateWeight(RecipesPageDto recipesPage) {
+    long estimatedWeight = PAGE_WEIGHT;
+    for (RecipeDto recipeDto : recipesPage.getRecipes()) {
+      estimatedWeight += RECIPE_WEIGHT;
+      estimatedWeight += CHAR_WEIGHT * (length(recipeDto.getName())
+          + length(recipeDto.getDescription()));
+    }
+
+    return estimatedWeight;
+  }
+
+  private static long estimateWeight(RecipeFacetsDto recipeFacets) {
+    long estimatedWeight = PAGE_WEIGHT;
+    for (List<RecipeFacetValueDto> facetValues : List.of(recipeFacets.getTags(),
+        recipeFacets.getIngredients(), recipeFacets.getRatings())) {
+      for (RecipeFacetValueDto facetValue : facetValues) {
+        estimatedWeight += FACET_VALUE_WEIGHT;
+        estimatedWeight += CHAR_WEIGHT * (length(facetValue.getValue())
+            + length(facetValue.getLabel()));
+      }
+    }
+
+    return estimatedWeight;
+  }
+
+  private static int length(String value) {
+    return value == null ? 0 : value.length();
+  }
+
+}
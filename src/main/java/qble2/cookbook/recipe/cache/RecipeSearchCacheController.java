@@ -0,0 +1,36 @@
+package qble2.cookbook.recipe.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(path = RecipeSearchCacheController.PATH,
+    produces = MediaType.APPLICATION_JSON_VALUE)
+public class RecipeSearchCacheController {
+
+  public static final String PATH = "api/recipes/search/cache";
+
+  @Autowired
+  private RecipeSearchCache recipeSearchCache;
+
+  @GetMapping
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<RecipeSearchCacheStatsDto> getStats() {
+    return ResponseEntity.ok().body(this.recipeSearchCache.getStats());
+  }
+
+  @DeleteMapping
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<Void> clear() {
+    this.recipeSearchCache.clear();
+
+    return ResponseEntity.noContent().build();
+  }
+
+}
@@ -0,0 +1,124 @@
+package qble2.cookbook.recipe.cache;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.domain.Pageable;
+import qble2.cookbook.pagination.PageCountModeEnum;
+import qble2.cookbook.recipe.RecipeQuerySorter;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.recipe.request.RecipeSearchSort;
+
+/**
+ * Canonical form of a search: two requests returning the same page share the same key, whatever
+ * the order of their filters (or of the values of a filter) and their duplicates
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class RecipeSearchCacheKey {
+
+  // only set when a filter depends on it
+  private final UUID userId;
+
+  private final SortedSet<String> filters;
+
+  private final String sort;
+
+  private final int page;
+
+  private final int size;
+
+  // pages of different count modes do not hold the same totals
+  private final PageCountModeEnum countMode;
+
+  // the search depends on the favorites of the user
+  @EqualsAndHashCode.Exclude
+  private final boolean favoritesDependent;
+
+  private RecipeSearchCacheKey(UUID userId, SortedSet<String> filters, String sort, int page,
+      int size, PageCountModeEnum countMode, boolean favoritesDependent) {
+    this.userId = userId;
+    this.filters = filters;
+    this.sort = sort;
+    this.page = page;
+    this.size = size;
+    this.countMode = countMode;
+    this.favoritesDependent = favoritesDependent;
+  }
+
+  public static RecipeSearchCacheKey of(RecipeSearchRequest recipeSearch, Pageable pageable,
+      PageCountModeEnum countMode) {
+    RecipeSearchSort recipeSearchSort = RecipeQuerySorter.getSortOrDefault(recipeSearch.getSort());
+
+    return of(recipeSearch, recipeSearchSort.getKey() + " " + recipeSearchSort.getDirection(),
+        pageable.getPageNumber(), pageable.getPageSize(), countMode);
+  }
+
+  /**
+   * Facets only depend on the filters: no sort, no page (never equal to the key of a page)
+   */
+  public static RecipeSearchCacheKey ofFacets(RecipeSearchRequest recipeSearch) {
+    return of(recipeSearch, null, -1, -1, null);
+  }
+
+  /**
+   * Counts only depend on the filters: no sort, no page (never equal to the key of a page, nor to
+   * the key of facets)
+   */
+  public static RecipeSearchCacheKey ofCount(RecipeSearchRequest recipeSearch) {
+    return of(recipeSearch, null, -1, -1, PageCountModeEnum.EXACT);
+  }
+
+  private static RecipeSearchCacheKey of(RecipeSearchRequest recipeSearch, String sort, int page,
+      int size, PageCountModeEnum countMode) {
+    List<RecipeSearchFilter> recipeSearchFilters =
+        Optional.ofNullable(recipeSearch.getFilters()).orElse(Collections.emptyList());
+
+    SortedSet<String> filters = new TreeSet<>();
+    recipeSearchFilters
+        .forEach(recipeSearchFilter -> filters.add(toCanonicalForm(recipeSearchFilter)));
+
+    boolean userDependent = recipeSearchFilters.stream().map(RecipeSearchFilter::getKey)
+        .anyMatch(key -> key == RecipeSearchFilterKeyEnum.USER_RECIPES
+            || key == RecipeSearchFilterKeyEnum.FAVORITE_RECIPES);
+    boolean favoritesDependent = recipeSearchFilters.stream().map(RecipeSearchFilter::getKey)
+        .anyMatch(key -> key == RecipeSearchFilterKeyEnum.FAVORITE_RECIPES);
+
+    return new RecipeSearchCacheKey(userDependent ? recipeSearch.getUserId() : null, filters, sort,
+        page, size, countMode, favoritesDependent);
+  }
+
+  private static String toCanonicalForm(RecipeSearchFilter recipeSearchFilter) {
+    // operators apply to the values as a set
+    SortedSet<String> values = new TreeSet<>();
+    Optional.ofNullable(recipeSearchFilter.getValues()).orElse(Collections.emptyList())
+        .forEach(value -> values.add(toCanonicalForm(value)));
+
+    return recipeSearchFilter.getKey() + " " + recipeSearchFilter.getOperator() + " "
+        + toCanonicalForm(recipeSearchFilter.getValue()) + " " + values;
+  }
+
+  private static String toCanonicalForm(Object value) {
+    if (value == null) {
+      return "-";
+    }
+
+    // 4 and 4.0 are the same rating
+    if (value instanceof Number number) {
+      return "N" + new BigDecimal(number.toString()).stripTrailingZeros().toPlainString();
+    }
+
+    return "S" + value;
+  }
+
+}
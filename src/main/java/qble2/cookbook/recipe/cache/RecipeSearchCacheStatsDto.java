@@ -0,0 +1,34 @@
+package qble2.cookbook.recipe.cache;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@JsonPropertyOrder({"hits", "misses", "hitRatio", "evictions", "invalidations", "entries",
+    "weight", "maxWeight"})
+public class RecipeSearchCacheStatsDto {
+
+  private long hits;
+
+  private long misses;
+
+  private double hitRatio;
+
+  // entries removed to stay under the maximum weight
+  private long evictions;
+
+  // stale entries removed after a recipe, review or favorites write
+  private long invalidations;
+
+  private int entries;
+
+  // estimated size of the cached pages, in bytes
+  private long weight;
+
+  private long maxWeight;
+
+}
@@ -1,7 +1,6 @@
 package qble2.cookbook.recipe.criteria;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -13,7 +12,6 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
-import javax.persistence.criteria.ListJoin;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.SetJoin;
@@ -25,14 +23,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
-import qble2.cookbook.ingredient.model.Ingredient_;
 import qble2.cookbook.recipe.RecipeQuerySorter;
-import qble2.cookbook.recipe.enums.RecipeTagEnum;
 import qble2.cookbook.recipe.model.Recipe;
-import qble2.cookbook.recipe.model.RecipeIngredient;
-import qble2.cookbook.recipe.model.RecipeIngredient_;
 import qble2.cookbook.recipe.model.Recipe_;
 import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.recipe.specification.RecipeIngredientsSpecification;
+import qble2.cookbook.recipe.specification.RecipeTagsSpecification;
 import qble2.cookbook.review.model.Review;
 import qble2.cookbook.review.model.Review_;
 import qble2.cookbook.user.model.User;
@@ -179,65 +175,14 @@ public class CriteriaRecipeRepositoryImpl implements CriteriaRecipeRepository {
               }
             }
 
-            case RECIPE_TAGS -> {
-              List<RecipeTagEnum> listOfTagEnum = parseEnumList(searchFilter.getValues());
-              switch (searchFilter.getOperator()) {
-                case ANY -> {
-                  SetJoin<Recipe, RecipeTagEnum> tags = root.join(Recipe_.tags, JoinType.INNER);
-                  predicates.add(tags.in(listOfTagEnum));
-                }
-
-                case ALL -> {
-                  SetJoin<Recipe, RecipeTagEnum> tags = root.join(Recipe_.tags, JoinType.INNER);
-                  query.groupBy(root.get(Recipe_.id));
-                  query.having(cb.equal(root.get(Recipe_.id), listOfTagEnum.size()));
-                  predicates.add(tags.in(listOfTagEnum));
-                }
-
-                default -> throw new IllegalArgumentException(
-                    "Unexpected value: " + searchFilter.getOperator());
-              }
-            }
-
-            case RECIPE_INGREDIENTS -> {
-              switch (searchFilter.getOperator()) {
-                case ANY -> {
-                  ListJoin<Recipe, RecipeIngredient> recipeIngredients =
-                      root.join(Recipe_.recipeIngredients, JoinType.INNER);
-                  predicates.add(recipeIngredients.get(RecipeIngredient_.ingredient)
-                      .get(Ingredient_.id).in(searchFilter.getValues()));
-                }
+            // same predicates as RecipeSpecification (tags mask): the previous "ALL" version
+            // compared the recipe id to the number of tags
+            case RECIPE_TAGS -> predicates
+                .add(new RecipeTagsSpecification(searchFilter).toPredicate(root, query, cb));
 
-                case ALL -> {
-                  // XXX BKE this version messes up the count query
-                  // ListJoin<Recipe, RecipeIngredient> recipeIngredients = root
-                  // .join(Recipe_.recipeIngredients, JoinType.INNER);
-                  // Join<RecipeIngredient, Ingredient> ingredients = recipeIngredients
-                  // .join(RecipeIngredient_.ingredient, JoinType.INNER);
-                  // query.groupBy(root.get(Recipe_.id));
-                  // query.having(
-                  // cb.equal(cb.count(root.get(Recipe_.id)), searchFilter.getValues()
-                  // .size()));
-                  // predicates.add(ingredients.get(Ingredient_.id)
-                  // .in(searchFilter.getValues()));
-
-                  // using a subquery
-                  Subquery<UUID> subQuery = query.subquery(UUID.class);
-                  Root<RecipeIngredient> subRoot = subQuery.from(RecipeIngredient.class);
-                  subQuery.select(subRoot.get(RecipeIngredient_.recipe).get(Recipe_.id));
-                  subQuery.where(subRoot.get(RecipeIngredient_.ingredient).get(Ingredient_.id)
-                      .in(searchFilter.getValues()));
-                  subQuery.having(
-                      cb.equal(cb.count(subRoot.get(RecipeIngredient_.recipe).get(Recipe_.id)),
-                          searchFilter.getValues().size()));
-                  subQuery.groupBy(subRoot.get(RecipeIngredient_.recipe).get(Recipe_.id));
-                  predicates.add(root.get(Recipe_.id).in(subQuery));
-                }
-
-                default -> throw new IllegalArgumentException(
-                    "Unexpected value: " + searchFilter.getOperator());
-              }
-            }
+            // same predicates as RecipeSpecification: ingredient ids are received as strings
+            case RECIPE_INGREDIENTS -> predicates.add(
+                new RecipeIngredientsSpecification(searchFilter).toPredicate(root, query, cb));
 
             case RECIPE_AVERAGE_RATING -> {
               Number value = searchFilter.getValueAsNumber();
@@ -279,8 +224,4 @@ public class CriteriaRecipeRepositoryImpl implements CriteriaRecipeRepository {
     return root;
   }
 
-  private static List<RecipeTagEnum> parseEnumList(List<Object> tags) {
-    return Arrays.stream(RecipeTagEnum.values()).filter(t -> tags.contains(t.getCode())).toList();
-  }
-
 }
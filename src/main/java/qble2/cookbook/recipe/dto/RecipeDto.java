@@ -1,5 +1,6 @@
 package qble2.cookbook.recipe.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import java.time.LocalDateTime;
@@ -117,4 +118,14 @@ public class RecipeDto extends RepresentationModel<RecipeDto> {
   @JsonProperty("averageRating")
   private Double averageRating;
 
+  /**
+   * Validators (HTTP headers, see RecipeVersionDto)
+   **/
+
+  @JsonIgnore
+  private Long version;
+
+  @JsonIgnore
+  private LocalDateTime modifiedAt;
+
 }
@@ -0,0 +1,21 @@
+package qble2.cookbook.recipe.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Builder;
+import lombok.Getter;
+
+// immutable: shared by the search cache (see RecipeFacetsDto)
+@Getter
+@Builder
+@JsonPropertyOrder({"value", "label", "count"})
+public class RecipeFacetValueDto {
+
+  // usable as a search filter value (tag code, ingredient id, lower bound of a rating bucket)
+  final String value;
+
+  // display name, when the value is not
+  final String label;
+
+  final long count;
+
+}
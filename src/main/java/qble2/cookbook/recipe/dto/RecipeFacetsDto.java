@@ -0,0 +1,27 @@
+package qble2.cookbook.recipe.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Number of recipes matching the search filters, per tag, per ingredient and per rating bucket
+ * (values without any matching recipe are omitted). Immutable (unmodifiable lists of immutable
+ * values): instances are shared by the search cache.
+ */
+@Getter
+@Builder
+@JsonPropertyOrder({"tags", "ingredients", "ratings"})
+public class RecipeFacetsDto {
+
+  // most frequent first
+  final List<RecipeFacetValueDto> tags;
+
+  // most frequent first, limited to recipe.facets.max-ingredients
+  final List<RecipeFacetValueDto> ingredients;
+
+  // best ratings first: "5", "4" (4 <= average rating < 5), ... "0", then "unrated"
+  final List<RecipeFacetValueDto> ratings;
+
+}
@@ -0,0 +1,29 @@
+package qble2.cookbook.recipe.dto;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Rating aggregates of a recipe, either stored on the recipe or computed from its reviews
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeRatingAggregateDto {
+
+  private UUID recipeId;
+
+  private Long ratingSum;
+
+  private Long ratingCount;
+
+  private Double averageRating;
+
+  // computed from reviews
+  public RecipeRatingAggregateDto(UUID recipeId, Long ratingSum, Long ratingCount) {
+    this(recipeId, ratingSum, ratingCount, null);
+  }
+
+}
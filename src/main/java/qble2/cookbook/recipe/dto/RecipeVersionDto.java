@@ -0,0 +1,31 @@
+package qble2.cookbook.recipe.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Validators of a recipe and of its sub-resources (tags, ingredients, instructions, reviews), read
+ * without loading the recipe.
+ *
+ * The ETag is weak: the links of a representation depend on the base URI of the request.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeVersionDto {
+
+  private long version;
+
+  private LocalDateTime modifiedAt;
+
+  public String toETag() {
+    return "W/\"" + this.version + "\"";
+  }
+
+  // epoch milliseconds
+  public long toLastModified() {
+    return this.modifiedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+}
@@ -1,5 +1,6 @@
 package qble2.cookbook.recipe.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,7 +20,8 @@ import org.springframework.hateoas.RepresentationModel;
 @NoArgsConstructor
 @Builder
 @AllArgsConstructor
-@JsonPropertyOrder({"currentPage", "totalPages", "totalElements", "recipes"})
+@JsonPropertyOrder({"currentPage", "totalPages", "totalElements", "approximateTotals", "hasNext",
+    "nextCursor", "recipes", "facets"})
 public class RecipesPageDto extends RepresentationModel<RecipesPageDto> {
 
   @Builder.Default
@@ -28,10 +30,27 @@ public class RecipesPageDto extends RepresentationModel<RecipesPageDto> {
   @Builder.Default
   int currentPage = 0;
 
+  // null when the totals are not computed (see PageCountModeEnum)
   @Builder.Default
-  int totalPages = 0;
+  Integer totalPages = 0;
 
   @Builder.Default
-  long totalElements = 0;
+  Long totalElements = 0L;
+
+  // only set (true) when the totals have been estimated instead of counted
+  Boolean approximateTotals;
+
+  Boolean hasNext;
+
+  // keyset pagination only (page/total fields are not computed): cursor of the next page, null
+  // when the last page has been reached
+  String nextCursor;
+
+  // only when requested (see RecipeFacetService)
+  RecipeFacetsDto facets;
+
+  // execution plan of the search (see RecipeSearchPlanner), exposed as a debug header
+  @JsonIgnore
+  String searchPlan;
 
 }
@@ -1,7 +1,12 @@
 package qble2.cookbook.recipe.dtoprojection;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
@@ -32,4 +37,29 @@ public interface DtoProjectionRecipeRepository {
   Page<RecipeOverviewProjectionDto> findByDtoProjectionWithPagination(UUID userId,
       Pageable pageable);
 
+  /**
+   * Recipe summaries (what a page of recipes displays): only the needed columns are selected, no
+   * entity is loaded into the persistence context
+   **/
+
+  @Query("select new qble2.cookbook.recipe.dtoprojection.RecipeSummaryProjectionDto("
+      + "r.id, r.name, r.description, r.servings, r.preparationTime, r.cookingTime, r.createdAt"
+      + ", r.editedAt, r.averageRating, a.id, a.username, r.tagsMask)"
+      + " from Recipe r join r.author a where r.id in ?1")
+  List<RecipeSummaryProjectionDto> findSummariesByIdIn(Collection<UUID> recipeIds);
+
+  /**
+   * Summaries in the order of the given ids (ids of deleted recipes are skipped)
+   */
+  default List<RecipeSummaryProjectionDto> findSummariesByIdInOrder(List<UUID> recipeIds) {
+    if (recipeIds.isEmpty()) {
+      return List.of();
+    }
+
+    Map<UUID, RecipeSummaryProjectionDto> summariesById = findSummariesByIdIn(recipeIds).stream()
+        .collect(Collectors.toMap(RecipeSummaryProjectionDto::getId, Function.identity()));
+
+    return recipeIds.stream().map(summariesById::get).filter(Objects::nonNull).toList();
+  }
+
 }
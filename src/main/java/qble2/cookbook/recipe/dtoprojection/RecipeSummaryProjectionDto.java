@@ -0,0 +1,50 @@
+package qble2.cookbook.recipe.dtoprojection;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import lombok.Getter;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.enums.RecipeTagsMaskUtils;
+
+/**
+ * Columns needed by RecipeMapper.toMinimalDto, selected without loading the recipe entity (nor
+ * its author)
+ */
+@Getter
+public class RecipeSummaryProjectionDto {
+
+  private final UUID id;
+  private final String name;
+  private final String description;
+  private final Integer servings;
+  private final Long preparationTime;
+  private final Long cookingTime;
+  private final LocalDateTime createdAt;
+  private final LocalDateTime editedAt;
+  private final Double averageRating;
+  private final UUID authorId;
+  private final String authorUsername;
+
+  // decoded from Recipe.tagsMask (a collection can not be selected by a constructor expression),
+  // in the same order as Recipe.tags
+  private final Set<RecipeTagEnum> tags;
+
+  public RecipeSummaryProjectionDto(UUID id, String name, String description, Integer servings,
+      Long preparationTime, Long cookingTime, LocalDateTime createdAt, LocalDateTime editedAt,
+      Double averageRating, UUID authorId, String authorUsername, long tagsMask) {
+    this.id = id;
+    this.name = name;
+    this.description = description;
+    this.servings = servings;
+    this.preparationTime = preparationTime;
+    this.cookingTime = cookingTime;
+    this.createdAt = createdAt;
+    this.editedAt = editedAt;
+    this.averageRating = averageRating;
+    this.authorId = authorId;
+    this.authorUsername = authorUsername;
+    this.tags = RecipeTagsMaskUtils.toTags(tagsMask);
+  }
+
+}
@@ -0,0 +1,63 @@
+package qble2.cookbook.recipe.engine;
+
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+
+/**
+ * Deprecated criteria query (see CriteriaRecipeRepositoryImpl), kept as a reference
+ */
+@Component
+public class CriteriaRecipeSearchEngine implements RecipeSearchEngine {
+
+  private static final Set<RecipeSearchOperatorEnum> RANGE_OPERATORS =
+      Set.of(RecipeSearchOperatorEnum.GTE, RecipeSearchOperatorEnum.LTE);
+
+  private static final Set<RecipeSearchOperatorEnum> SET_OPERATORS = Set.of(
+      RecipeSearchOperatorEnum.ANY, RecipeSearchOperatorEnum.ALL, RecipeSearchOperatorEnum.NONE);
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Override
+  public String getName() {
+    return "criteria";
+  }
+
+  /**
+   * Operators not translated by CriteriaRecipeRepositoryImpl (the text filter is not supported)
+   */
+  @Override
+  public boolean supports(RecipeSearchFilter recipeSearchFilter) {
+    if (recipeSearchFilter.getKey() == null || recipeSearchFilter.getOperator() == null) {
+      return false;
+    }
+
+    RecipeSearchOperatorEnum operator = recipeSearchFilter.getOperator();
+    return switch (recipeSearchFilter.getKey()) {
+      case USER_RECIPES, FAVORITE_RECIPES -> true;
+      case RECIPE_AUTHOR, RECIPE_NAME, RECIPE_DESCRIPTION ->
+        operator == RecipeSearchOperatorEnum.LIKE;
+      case RECIPE_SERVINGS, RECIPE_PREPARATION_TIME, RECIPE_COOKING_TIME ->
+        RANGE_OPERATORS.contains(operator);
+      case RECIPE_TAGS, RECIPE_INGREDIENTS -> SET_OPERATORS.contains(operator);
+      case RECIPE_AVERAGE_RATING -> operator == RecipeSearchOperatorEnum.GTE;
+      case RECIPE_TEXT -> false;
+    };
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public Page<UUID> search(RecipeSearchRequest recipeSearch, Pageable pageable) {
+    return this.recipeRepository.filterByCriteria(recipeSearch, pageable).map(Recipe::getId);
+  }
+
+}
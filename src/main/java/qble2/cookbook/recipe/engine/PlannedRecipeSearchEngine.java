@@ -0,0 +1,39 @@
+package qble2.cookbook.recipe.engine;
+
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.planner.RecipeSearchPlan;
+import qble2.cookbook.recipe.planner.RecipeSearchPlanner;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+
+/**
+ * Filters resolved by the in-memory indexes, the other ones ordered by selectivity (see
+ * RecipeSearchPlanner): what RecipeService executes
+ */
+@Component
+public class PlannedRecipeSearchEngine implements RecipeSearchEngine {
+
+  @Autowired
+  private RecipeSearchPlanner recipeSearchPlanner;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Override
+  public String getName() {
+    return "planned";
+  }
+
+  @Override
+  public Page<UUID> search(RecipeSearchRequest recipeSearch, Pageable pageable) {
+    RecipeSearchPlan recipeSearchPlan = this.recipeSearchPlanner.plan(recipeSearch);
+
+    return this.recipeRepository
+        .findIdsBySpecification(recipeSearchPlan.toSpecification(recipeSearch), pageable);
+  }
+
+}
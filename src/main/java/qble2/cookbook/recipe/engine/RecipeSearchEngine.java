@@ -0,0 +1,36 @@
+package qble2.cookbook.recipe.engine;
+
+import java.util.UUID;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+
+/**
+ * A way of executing a recipe search.
+ *
+ * For a search made of filters they all support, engines must return the same recipes in the same
+ * order: they can be switched safely (see RecipeSearchEngineHarness, test sources).
+ */
+public interface RecipeSearchEngine {
+
+  String getName();
+
+  default boolean supports(RecipeSearchFilter recipeSearchFilter) {
+    return true;
+  }
+
+  default boolean supports(RecipeSearchRequest recipeSearch) {
+    return CollectionUtils.emptyIfNull(recipeSearch.getFilters()).stream()
+        .allMatch(this::supports);
+  }
+
+  /**
+   * Searches the recipes matching every filter of the search.
+   *
+   * @return a page of recipe ids, sorted by the sort of the search (see RecipeQuerySorter)
+   */
+  Page<UUID> search(RecipeSearchRequest recipeSearch, Pageable pageable);
+
+}
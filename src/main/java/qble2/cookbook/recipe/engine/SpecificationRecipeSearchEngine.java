@@ -0,0 +1,32 @@
+package qble2.cookbook.recipe.engine;
+
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.recipe.specification.RecipeSpecification;
+
+/**
+ * Every filter is translated into a SQL predicate, in request order (no in-memory index)
+ */
+@Component
+public class SpecificationRecipeSearchEngine implements RecipeSearchEngine {
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Override
+  public String getName() {
+    return "specification";
+  }
+
+  @Override
+  public Page<UUID> search(RecipeSearchRequest recipeSearch, Pageable pageable) {
+    return this.recipeRepository.findIdsBySpecification(new RecipeSpecification(recipeSearch),
+        pageable);
+  }
+
+}
@@ -37,7 +37,12 @@ public enum RecipeSearchFilterKeyEnum {
   RECIPE_INGREDIENTS("ingredients"),
 
   @JsonProperty("averageRating")
-  RECIPE_AVERAGE_RATING("averageRating");
+  RECIPE_AVERAGE_RATING("averageRating"),
+
+  // free text over name, description, instructions and ingredient names (operator: ANY or ALL
+  // terms)
+  @JsonProperty("text")
+  RECIPE_TEXT("text");
 
   private String key;
 
@@ -0,0 +1,20 @@
+package qble2.cookbook.recipe.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum RecipeSearchPaginationModeEnum {
+
+  // page number + page size, the total number of elements is counted
+  OFFSET("offset"),
+
+  // opaque cursor + page size, seeks past the last returned recipe (no count query)
+  KEYSET("keyset");
+
+  private String value;
+
+  private RecipeSearchPaginationModeEnum(String value) {
+    this.value = value;
+  }
+
+}
@@ -12,7 +12,7 @@ public enum RecipeSearchSortDirectionEnum {
   @JsonProperty("desc")
   DESC("desc");
 
-  private String value;
+  private final String value;
 
   private RecipeSearchSortDirectionEnum(String value) {
     this.value = value;
@@ -22,9 +22,14 @@ public enum RecipeSearchSortKeyEnum {
   RECIPE_AVERAGE_RATING("averageRating"),
 
   @JsonProperty("createdAt")
-  RECIPE_CREATED_AT("createdAt");
+  RECIPE_CREATED_AT("createdAt"),
 
-  private String value;
+  // BM25 score of the "text" filter, sorted by createdAt when it can not be computed (offset
+  // pagination only: rejected in keyset mode)
+  @JsonProperty("relevance")
+  RELEVANCE("relevance");
+
+  private final String value;
 
   private RecipeSearchSortKeyEnum(String value) {
     this.value = value;
@@ -1,12 +1,20 @@
 package qble2.cookbook.recipe.enums;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
 
 @Converter(autoApply = true)
 public class RecipeTagEnumAttributeConverter implements AttributeConverter<RecipeTagEnum, String> {
 
+  // called for every row read from the RecipeTag table
+  private static final Map<String, RecipeTagEnum> TAGS_BY_CODE = Arrays
+      .stream(RecipeTagEnum.values())
+      .collect(Collectors.toUnmodifiableMap(RecipeTagEnum::getCode, Function.identity()));
+
   @Override
   public String convertToDatabaseColumn(RecipeTagEnum category) {
     if (category == null) {
@@ -20,9 +28,11 @@ public class RecipeTagEnumAttributeConverter implements AttributeConverter<Recip
     if (recipeTagStringInDatabase == null) {
       return null;
     }
-    return Arrays.stream(RecipeTagEnum.values())
-        .filter(t -> t.getCode().equals(recipeTagStringInDatabase)).findFirst()
-        .orElseThrow(IllegalArgumentException::new);
+    RecipeTagEnum recipeTag = TAGS_BY_CODE.get(recipeTagStringInDatabase);
+    if (recipeTag == null) {
+      throw new IllegalArgumentException();
+    }
+    return recipeTag;
   }
 
 }
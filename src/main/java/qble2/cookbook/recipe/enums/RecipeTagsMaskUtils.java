@@ -0,0 +1,49 @@
+package qble2.cookbook.recipe.enums;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Set of tags stored as a single bitmask (Recipe.tagsMask): bit i is set when the tag of ordinal i
+ * is in the set (new tags must be appended to RecipeTagEnum, at most 64 of them).
+ */
+public final class RecipeTagsMaskUtils {
+
+  // same order as the RecipeTag table (ordered by code)
+  private static final RecipeTagEnum[] TAGS_BY_CODE = Arrays.stream(RecipeTagEnum.values())
+      .sorted(Comparator.comparing(RecipeTagEnum::getCode)).toArray(RecipeTagEnum[]::new);
+
+  private RecipeTagsMaskUtils() {}
+
+  public static long toTagsMask(Set<RecipeTagEnum> tags) {
+    long tagsMask = 0;
+    if (tags != null) {
+      for (RecipeTagEnum tag : tags) {
+        tagsMask |= toTagMask(tag);
+      }
+    }
+
+    return tagsMask;
+  }
+
+  /**
+   * @return the tags, ordered by code
+   */
+  public static Set<RecipeTagEnum> toTags(long tagsMask) {
+    Set<RecipeTagEnum> tags = new LinkedHashSet<>();
+    for (RecipeTagEnum tag : TAGS_BY_CODE) {
+      if ((tagsMask & toTagMask(tag)) != 0) {
+        tags.add(tag);
+      }
+    }
+
+    return tags;
+  }
+
+  public static long toTagMask(RecipeTagEnum tag) {
+    return 1L << tag.ordinal();
+  }
+
+}
@@ -0,0 +1,36 @@
+package qble2.cookbook.recipe.event;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by RecipeService on every recipe write.
+ *
+ * Only the recipe id is carried: listeners are expected to run after commit and to reload what
+ * they need (lazy associations of the written entity are not available outside of its
+ * transaction)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeChangedEvent {
+
+  public enum ChangeType {
+    SAVED, DELETED
+  }
+
+  private UUID recipeId;
+
+  private ChangeType changeType;
+
+  public static RecipeChangedEvent saved(UUID recipeId) {
+    return new RecipeChangedEvent(recipeId, ChangeType.SAVED);
+  }
+
+  public static RecipeChangedEvent deleted(UUID recipeId) {
+    return new RecipeChangedEvent(recipeId, ChangeType.DELETED);
+  }
+
+}
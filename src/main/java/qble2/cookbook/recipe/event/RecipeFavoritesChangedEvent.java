@@ -0,0 +1,30 @@
+package qble2.cookbook.recipe.event;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by RecipeService when a user adds a recipe to (or removes it from) their favorites
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeFavoritesChangedEvent {
+
+  private UUID userId;
+
+  private UUID recipeId;
+
+  private boolean favorited;
+
+  public static RecipeFavoritesChangedEvent added(UUID userId, UUID recipeId) {
+    return new RecipeFavoritesChangedEvent(userId, recipeId, true);
+  }
+
+  public static RecipeFavoritesChangedEvent removed(UUID userId, UUID recipeId) {
+    return new RecipeFavoritesChangedEvent(userId, recipeId, false);
+  }
+
+}
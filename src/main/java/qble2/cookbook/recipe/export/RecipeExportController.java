@@ -0,0 +1,56 @@
+package qble2.cookbook.recipe.export;
+
+import java.util.EnumSet;
+import java.util.Set;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+@RestController
+@RequestMapping(path = RecipeExportController.PATH,
+    produces = MediaType.APPLICATION_NDJSON_VALUE)
+public class RecipeExportController {
+
+  public static final String PATH = "api/recipes/export";
+
+  @Autowired
+  private RecipeExportService recipeExportService;
+
+  // the export outlasts the default async request timeout, which is kept for the other requests
+  @Value("${recipe.export.timeout-ms:1800000}")
+  private long timeoutMillis;
+
+  /**
+   * e.g. GET api/recipes/export?include=TAGS,INGREDIENTS,INSTRUCTIONS
+   *
+   * Streamed asynchronously, directly to the response: the request is handled by the response
+   * argument, there is no body to render once the task is done.
+   */
+  @GetMapping
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public WebAsyncTask<Void> exportRecipes(
+      @RequestParam(name = "include", required = false) Set<RecipeExportSectionEnum> sections,
+      HttpServletResponse response) {
+    Set<RecipeExportSectionEnum> includedSections = EnumSet.noneOf(RecipeExportSectionEnum.class);
+    if (sections != null) {
+      includedSections.addAll(sections);
+    }
+
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes.ndjson\"");
+
+    return new WebAsyncTask<>(this.timeoutMillis, () -> {
+      this.recipeExportService.exportRecipes(includedSections, response.getOutputStream());
+      return null;
+    });
+  }
+
+}
@@ -0,0 +1,72 @@
+package qble2.cookbook.recipe.export;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+
+/**
+ * One line of the NDJSON export.
+ *
+ * Not a RepresentationModel: the export is written outside of the request thread, where HATEOAS
+ * links cannot be built. Sections that were not requested are left null (not serialized).
+ */
+@Getter
+@Setter
+@Accessors(chain = true, fluent = false)
+@NoArgsConstructor
+@JsonPropertyOrder({"id", "name", "description", "servings", "preparationTime", "cookingTime",
+    "createdAt", "editedAt", "averageRating", "authorId", "authorUsername", "tags", "ingredients",
+    "instructions"})
+public class RecipeExportDto {
+
+  @JsonProperty("id")
+  private UUID id;
+
+  @JsonProperty("name")
+  private String name;
+
+  @JsonProperty("description")
+  private String description;
+
+  @JsonProperty("servings")
+  private Integer servings;
+
+  @JsonProperty("preparationTime")
+  private Long preparationTime;
+
+  @JsonProperty("cookingTime")
+  private Long cookingTime;
+
+  @JsonProperty("createdAt")
+  private LocalDateTime createdAt;
+
+  @JsonProperty("editedAt")
+  private LocalDateTime editedAt;
+
+  @JsonProperty("averageRating")
+  private Double averageRating;
+
+  @JsonProperty("authorId")
+  private UUID authorId;
+
+  @JsonProperty("authorUsername")
+  private String authorUsername;
+
+  @JsonProperty("tags")
+  private Set<RecipeTagEnum> tags;
+
+  @JsonProperty("ingredients")
+  private List<RecipeIngredientExportDto> ingredients;
+
+  @JsonProperty("instructions")
+  private List<String> instructions;
+
+}
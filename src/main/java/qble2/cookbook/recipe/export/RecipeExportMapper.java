@@ -0,0 +1,51 @@
+package qble2.cookbook.recipe.export;
+
+import java.util.List;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Builder;
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.model.RecipeIngredient;
+
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true))
+public interface RecipeExportMapper {
+
+  /**
+   * <pre>
+   * Summary only:
+   * tags are not mapped
+   * ingredients are not mapped
+   * instructions are not mapped
+   * </pre>
+   */
+  @Named(value = "toRecipeExportDto")
+  @BeanMapping(ignoreByDefault = true)
+  @Mapping(target = "id", source = "id")
+  @Mapping(target = "name", source = "name")
+  @Mapping(target = "description", source = "description")
+  @Mapping(target = "servings", source = "servings")
+  @Mapping(target = "preparationTime", source = "preparationTime")
+  @Mapping(target = "cookingTime", source = "cookingTime")
+  @Mapping(target = "createdAt", source = "createdAt")
+  @Mapping(target = "editedAt", source = "editedAt")
+  @Mapping(target = "averageRating", source = "averageRating")
+  @Mapping(target = "authorId", source = "author.id")
+  @Mapping(target = "authorUsername", source = "author.username")
+  RecipeExportDto toExportDto(Recipe source);
+
+  @Named(value = "toRecipeIngredientExportDtoList")
+  @IterableMapping(qualifiedByName = "toRecipeIngredientExportDto")
+  List<RecipeIngredientExportDto> toIngredientExportDtoList(List<RecipeIngredient> listSource);
+
+  @Named(value = "toRecipeIngredientExportDto")
+  @BeanMapping(ignoreByDefault = true)
+  @Mapping(target = "id", source = "ingredient.id")
+  @Mapping(target = "name", source = "ingredient.name")
+  @Mapping(target = "quantity", source = "quantity")
+  @Mapping(target = "unitOfMeasure", source = "unitOfMeasure")
+  RecipeIngredientExportDto toIngredientExportDto(RecipeIngredient source);
+
+}
@@ -0,0 +1,14 @@
+package qble2.cookbook.recipe.export;
+
+/**
+ * Optional sections of an exported recipe (the summary is always exported)
+ */
+public enum RecipeExportSectionEnum {
+
+  TAGS,
+
+  INGREDIENTS,
+
+  INSTRUCTIONS;
+
+}
@@ -0,0 +1,129 @@
+package qble2.cookbook.recipe.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.model.Recipe;
+
+/**
+ * Writes every recipe as newline-delimited JSON (one {@link RecipeExportDto} per line).
+ *
+ * <pre>
+ * - recipes are read through a forward-only cursor, in a single read-only transaction
+ * - they are written by chunks: the requested collections of a chunk are batch fetched (see
+ *   hibernate.default_batch_fetch_size), then the chunk is flushed to the output and the
+ *   persistence context is cleared, so memory does not grow with the number of recipes
+ * </pre>
+ */
+@Service
+@Slf4j
+public class RecipeExportService {
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private RecipeExportMapper recipeExportMapper;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${recipe.export.chunk-size:500}")
+  private int chunkSize;
+
+  /**
+   * @return the number of exported recipes
+   */
+  public long exportRecipes(Set<RecipeExportSectionEnum> sections, OutputStream outputStream) {
+    long startTime = System.currentTimeMillis();
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+    transactionTemplate.setReadOnly(true);
+    Long exportedCount = transactionTemplate.execute(status -> {
+      try (Stream<Recipe> recipes = this.recipeRepository.streamAllAndLoadAuthor();
+          JsonGenerator jsonGenerator = this.objectMapper.getFactory()
+              .createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+        // one recipe per line: no separator between root values other than the new lines
+        jsonGenerator.setRootValueSeparator(null);
+        List<Recipe> chunk = new ArrayList<>(this.chunkSize);
+        long[] count = {0};
+
+        // the cursor is advanced only after the previous recipe has been handled: a full chunk
+        // is written and the persistence context is cleared before the next recipe is read
+        recipes.forEach(recipe -> {
+          chunk.add(recipe);
+          if (chunk.size() == this.chunkSize) {
+            count[0] += writeChunk(chunk, sections, jsonGenerator);
+          }
+        });
+        count[0] += writeChunk(chunk, sections, jsonGenerator);
+
+        return count[0];
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+
+    log.info("{} recipes exported in {} ms", exportedCount,
+        System.currentTimeMillis() - startTime);
+
+    return exportedCount;
+  }
+
+  private int writeChunk(List<Recipe> chunk, Set<RecipeExportSectionEnum> sections,
+      JsonGenerator jsonGenerator) {
+    int chunkCount = chunk.size();
+    try {
+      for (Recipe recipe : chunk) {
+        this.objectMapper.writeValue(jsonGenerator, toExportDto(recipe, sections));
+        jsonGenerator.writeRaw('\n');
+      }
+      jsonGenerator.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    chunk.clear();
+    this.entityManager.clear();
+
+    return chunkCount;
+  }
+
+  private RecipeExportDto toExportDto(Recipe recipe, Set<RecipeExportSectionEnum> sections) {
+    RecipeExportDto recipeExportDto = this.recipeExportMapper.toExportDto(recipe);
+    if (sections.contains(RecipeExportSectionEnum.TAGS)) {
+      recipeExportDto.setTags(recipe.getTags());
+    }
+    if (sections.contains(RecipeExportSectionEnum.INGREDIENTS)) {
+      recipeExportDto.setIngredients(
+          this.recipeExportMapper.toIngredientExportDtoList(recipe.getRecipeIngredients()));
+    }
+    if (sections.contains(RecipeExportSectionEnum.INSTRUCTIONS)) {
+      recipeExportDto.setInstructions(recipe.getInstructions());
+    }
+
+    return recipeExportDto;
+  }
+
+}
@@ -0,0 +1,31 @@
+package qble2.cookbook.recipe.export;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import qble2.cookbook.ingredient.model.UnitOfMeasureEnum;
+
+@Getter
+@Setter
+@Accessors(chain = true, fluent = false)
+@NoArgsConstructor
+@JsonPropertyOrder({"id", "name", "quantity", "unitOfMeasure"})
+public class RecipeIngredientExportDto {
+
+  @JsonProperty("id")
+  private UUID id;
+
+  @JsonProperty("name")
+  private String name;
+
+  @JsonProperty("quantity")
+  private Integer quantity;
+
+  @JsonProperty("unitOfMeasure")
+  private UnitOfMeasureEnum unitOfMeasure;
+
+}
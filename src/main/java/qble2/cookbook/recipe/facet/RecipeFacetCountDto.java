@@ -0,0 +1,19 @@
+package qble2.cookbook.recipe.facet;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Number of recipes grouped by a faceted value (tag, ingredient id or average rating)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeFacetCountDto {
+
+  private Object value;
+
+  private Long count;
+
+}
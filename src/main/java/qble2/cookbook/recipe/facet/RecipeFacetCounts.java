@@ -0,0 +1,118 @@
+package qble2.cookbook.recipe.facet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import qble2.cookbook.recipe.dto.RecipeFacetValueDto;
+import qble2.cookbook.recipe.dto.RecipeFacetsDto;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.enums.RecipeTagsMaskUtils;
+
+/**
+ * Mutable facet counters, filled either one recipe at a time (in-memory index) or one group at a
+ * time (database aggregation)
+ */
+public class RecipeFacetCounts {
+
+  public static final int MAX_RATING = 5;
+  // rating buckets 0..MAX_RATING, then the recipes without any review
+  public static final int UNRATED_BUCKET = MAX_RATING + 1;
+
+  private static final RecipeTagEnum[] TAGS = RecipeTagEnum.values();
+
+  private final long[] tagCounts = new long[TAGS.length];
+
+  private final Map<UUID, long[]> ingredientCounts = new HashMap<>();
+
+  private final long[] ratingCounts = new long[UNRATED_BUCKET + 1];
+
+  /**
+   * @return the bucket of an average rating: its integer part, or UNRATED_BUCKET
+   */
+  public static int toRatingBucket(Double averageRating) {
+    if (averageRating == null) {
+      return UNRATED_BUCKET;
+    }
+
+    return Math.max(0, Math.min(MAX_RATING, (int) Math.floor(averageRating)));
+  }
+
+  /**
+   * @param tagsMask see {@link RecipeTagsMaskUtils}
+   */
+  public void addRecipe(long tagsMask, UUID[] ingredientIds, int ratingBucket) {
+    for (long remainingTags = tagsMask; remainingTags != 0; remainingTags &= remainingTags - 1) {
+      this.tagCounts[Long.numberOfTrailingZeros(remainingTags)]++;
+    }
+    for (UUID ingredientId : ingredientIds) {
+      this.ingredientCounts.computeIfAbsent(ingredientId, key -> new long[1])[0]++;
+    }
+    this.ratingCounts[ratingBucket]++;
+  }
+
+  public void addTag(RecipeTagEnum tag, long count) {
+    this.tagCounts[tag.ordinal()] += count;
+  }
+
+  public void addIngredient(UUID ingredientId, long count) {
+    this.ingredientCounts.computeIfAbsent(ingredientId, key -> new long[1])[0] += count;
+  }
+
+  public void addRating(Double averageRating, long count) {
+    this.ratingCounts[toRatingBucket(averageRating)] += count;
+  }
+
+  /**
+   * @return the ids of the maxIngredients most frequent ingredients
+   */
+  public List<UUID> getTopIngredientIds(int maxIngredients) {
+    return this.ingredientCounts.entrySet().stream()
+        .sorted(Comparator.comparingLong((Map.Entry<UUID, long[]> entry) -> entry.getValue()[0])
+            .reversed().thenComparing(Map.Entry::getKey))
+        .limit(maxIngredients).map(Map.Entry::getKey).toList();
+  }
+
+  /**
+   * @param ingredientNames names of the ingredients, by id (ingredients without a name are skipped)
+   */
+  public RecipeFacetsDto toDto(int maxIngredients, Function<UUID, String> ingredientNames) {
+    List<RecipeFacetValueDto> tags = new ArrayList<>();
+    for (RecipeTagEnum tag : TAGS) {
+      if (this.tagCounts[tag.ordinal()] > 0) {
+        tags.add(RecipeFacetValueDto.builder().value(tag.getCode())
+            .count(this.tagCounts[tag.ordinal()]).build());
+      }
+    }
+    // stable sort: tags of the same count stay in declaration order
+    tags.sort(Comparator.comparingLong(RecipeFacetValueDto::getCount).reversed());
+
+    List<RecipeFacetValueDto> ingredients = new ArrayList<>();
+    for (UUID ingredientId : getTopIngredientIds(maxIngredients)) {
+      String ingredientName = ingredientNames.apply(ingredientId);
+      if (ingredientName != null) {
+        ingredients.add(RecipeFacetValueDto.builder().value(ingredientId.toString())
+            .label(ingredientName).count(this.ingredientCounts.get(ingredientId)[0]).build());
+      }
+    }
+
+    List<RecipeFacetValueDto> ratings = new ArrayList<>();
+    for (int ratingBucket = MAX_RATING; ratingBucket >= 0; ratingBucket--) {
+      if (this.ratingCounts[ratingBucket] > 0) {
+        ratings.add(RecipeFacetValueDto.builder().value(String.valueOf(ratingBucket))
+            .count(this.ratingCounts[ratingBucket]).build());
+      }
+    }
+    if (this.ratingCounts[UNRATED_BUCKET] > 0) {
+      ratings.add(RecipeFacetValueDto.builder().value("unrated")
+          .count(this.ratingCounts[UNRATED_BUCKET]).build());
+    }
+
+    return RecipeFacetsDto.builder().tags(List.copyOf(tags)).ingredients(List.copyOf(ingredients))
+        .ratings(List.copyOf(ratings)).build();
+  }
+
+}
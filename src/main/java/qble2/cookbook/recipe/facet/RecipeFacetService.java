@@ -0,0 +1,94 @@
+package qble2.cookbook.recipe.facet;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import qble2.cookbook.ingredient.IngredientRepository;
+import qble2.cookbook.ingredient.model.Ingredient;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.cache.RecipeSearchCache;
+import qble2.cookbook.recipe.dto.RecipeFacetsDto;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.index.RecipeFacetIndex;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.recipe.index.RecipeIndexSearcher;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.recipe.specification.RecipeSpecification;
+
+/**
+ * Facets of a search (see {@link RecipeFacetsDto}), over the same filters as RecipeSpecification.
+ *
+ * <pre>
+ * - in-memory indexes ready: the matching recipes are resolved as a bitmap, then counted in a
+ *   single pass over the facet index
+ * - otherwise: the matching recipes are counted by the database, in one grouped query by tag, by
+ *   ingredient and by average rating
+ * </pre>
+ */
+@Service
+@Transactional
+public class RecipeFacetService {
+
+  @Autowired
+  private RecipeIndexManager recipeIndexManager;
+
+  @Autowired
+  private RecipeIndexSearcher recipeIndexSearcher;
+
+  @Autowired
+  private RecipeFacetIndex recipeFacetIndex;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private IngredientRepository ingredientRepository;
+
+  @Autowired
+  private RecipeSearchCache recipeSearchCache;
+
+  @Value("${recipe.facets.max-ingredients:20}")
+  private int maxIngredients;
+
+  public RecipeFacetsDto getFacets(RecipeSearchRequest recipeSearch) {
+    return this.recipeSearchCache.getFacets(recipeSearch, () -> computeFacets(recipeSearch));
+  }
+
+  private RecipeFacetsDto computeFacets(RecipeSearchRequest recipeSearch) {
+    BitSet matchingOrdinals = this.recipeIndexManager.isReady()
+        ? this.recipeIndexSearcher.findMatchingOrdinals(recipeSearch)
+        : null;
+    RecipeFacetCounts recipeFacetCounts = matchingOrdinals != null
+        ? this.recipeFacetIndex.count(matchingOrdinals)
+        : countInDatabase(recipeSearch);
+
+    Map<UUID, String> ingredientNames = this.ingredientRepository
+        .findAllById(recipeFacetCounts.getTopIngredientIds(this.maxIngredients)).stream()
+        .collect(Collectors.toMap(Ingredient::getId, Ingredient::getName));
+
+    return recipeFacetCounts.toDto(this.maxIngredients, ingredientNames::get);
+  }
+
+  private RecipeFacetCounts countInDatabase(RecipeSearchRequest recipeSearch) {
+    RecipeFacetCounts recipeFacetCounts = new RecipeFacetCounts();
+
+    RecipeSpecification recipeSpecification = new RecipeSpecification(recipeSearch);
+    this.recipeRepository.countTagsBySpecification(recipeSpecification)
+        .forEach(facetCount -> recipeFacetCounts.addTag((RecipeTagEnum) facetCount.getValue(),
+            facetCount.getCount()));
+    this.recipeRepository.countIngredientsBySpecification(recipeSpecification)
+        .forEach(facetCount -> recipeFacetCounts.addIngredient((UUID) facetCount.getValue(),
+            facetCount.getCount()));
+    this.recipeRepository.countAverageRatingsBySpecification(recipeSpecification)
+        .forEach(facetCount -> recipeFacetCounts.addRating((Double) facetCount.getValue(),
+            facetCount.getCount()));
+
+    return recipeFacetCounts;
+  }
+
+}
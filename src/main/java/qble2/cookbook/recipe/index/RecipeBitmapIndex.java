@@ -0,0 +1,217 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+/**
+ * Tag -> recipes and ingredient -> recipes bitmaps (recipe ordinals, see
+ * {@link RecipeOrdinalRegistry}), resolving the ANY / ALL / NONE operators of the RECIPE_TAGS and
+ * RECIPE_INGREDIENTS filters with bitmap OR / AND / ANDNOT
+ */
+@Component
+public class RecipeBitmapIndex implements RecipeFilterIndex {
+
+  @Autowired
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // guarded by "lock"
+  private final BitSet indexedRecipes = new BitSet();
+  private final Map<RecipeTagEnum, BitSet> tagBitmaps = new EnumMap<>(RecipeTagEnum.class);
+  private final Map<UUID, BitSet> ingredientBitmaps = new HashMap<>();
+  // needed to remove the previous postings of an updated / deleted recipe
+  private final Map<Integer, RecipeDocument> indexedDocuments = new HashMap<>();
+
+  @Override
+  public void index(RecipeDocument recipeDocument) {
+    int ordinal = this.recipeOrdinalRegistry.getOrCreateOrdinal(recipeDocument.getRecipeId());
+
+    this.lock.writeLock().lock();
+    try {
+      removePostings(ordinal);
+      recipeDocument.getTags().forEach(
+          tag -> this.tagBitmaps.computeIfAbsent(tag, key -> new BitSet()).set(ordinal));
+      recipeDocument.getIngredientIds().forEach(ingredientId -> this.ingredientBitmaps
+          .computeIfAbsent(ingredientId, key -> new BitSet()).set(ordinal));
+      this.indexedRecipes.set(ordinal);
+      this.indexedDocuments.put(ordinal, recipeDocument);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(UUID recipeId) {
+    int ordinal = this.recipeOrdinalRegistry.getOrdinal(recipeId);
+    if (ordinal < 0) {
+      return;
+    }
+
+    this.lock.writeLock().lock();
+    try {
+      removePostings(ordinal);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    this.lock.writeLock().lock();
+    try {
+      this.indexedRecipes.clear();
+      this.tagBitmaps.clear();
+      this.ingredientBitmaps.clear();
+      this.indexedDocuments.clear();
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean supports(RecipeSearchFilter recipeSearchFilter) {
+    if (recipeSearchFilter.getKey() == null || recipeSearchFilter.getOperator() == null
+        || CollectionUtils.isEmpty(recipeSearchFilter.getValues())) {
+      return false;
+    }
+
+    return switch (recipeSearchFilter.getKey()) {
+      // same operators as RecipeTagsSpecification
+      case RECIPE_TAGS -> isSetOperator(recipeSearchFilter.getOperator());
+      // same operators as RecipeIngredientsSpecification
+      case RECIPE_INGREDIENTS -> isSetOperator(recipeSearchFilter.getOperator())
+          && toIngredientIds(recipeSearchFilter.getValues()) != null;
+      default -> false;
+    };
+  }
+
+  @Override
+  public RecipeIndexMatch match(RecipeSearchFilter recipeSearchFilter) {
+    this.lock.readLock().lock();
+    try {
+      BitSet ordinals = switch (recipeSearchFilter.getKey()) {
+        case RECIPE_TAGS -> {
+          Set<RecipeTagEnum> tags = toTags(recipeSearchFilter.getValues());
+          // ALL with an unknown tag can not match anything (same as RecipeTagsSpecification)
+          yield recipeSearchFilter.getOperator() == RecipeSearchOperatorEnum.ALL
+              && tags.size() < new HashSet<>(recipeSearchFilter.getValues()).size() ? new BitSet()
+                  : combine(recipeSearchFilter.getOperator(), tags, this.tagBitmaps::get);
+        }
+        case RECIPE_INGREDIENTS -> combine(recipeSearchFilter.getOperator(),
+            toIngredientIds(recipeSearchFilter.getValues()), this.ingredientBitmaps::get);
+        default -> throw new IllegalArgumentException(
+            "Unexpected value: " + recipeSearchFilter.getKey());
+      };
+
+      return new RecipeIndexMatch(ordinals, true);
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  // must be called while holding the write lock
+  private void removePostings(int ordinal) {
+    RecipeDocument previousDocument = this.indexedDocuments.remove(ordinal);
+    if (previousDocument != null) {
+      previousDocument.getTags().forEach(tag -> clearBit(this.tagBitmaps, tag, ordinal));
+      previousDocument.getIngredientIds()
+          .forEach(ingredientId -> clearBit(this.ingredientBitmaps, ingredientId, ordinal));
+    }
+    this.indexedRecipes.clear(ordinal);
+  }
+
+  private static <K> void clearBit(Map<K, BitSet> bitmaps, K key, int ordinal) {
+    BitSet bitmap = bitmaps.get(key);
+    if (bitmap != null) {
+      bitmap.clear(ordinal);
+      if (bitmap.isEmpty()) {
+        bitmaps.remove(key);
+      }
+    }
+  }
+
+  // must be called while holding the read lock, always returns a new bitmap
+  private <K> BitSet combine(RecipeSearchOperatorEnum operator, Set<K> keys,
+      Function<K, BitSet> bitmapByKey) {
+    BitSet result = new BitSet();
+
+    switch (operator) {
+      case ANY, NONE -> {
+        keys.stream().map(bitmapByKey).filter(bitmap -> bitmap != null).forEach(result::or);
+        if (operator == RecipeSearchOperatorEnum.NONE) {
+          BitSet noneOf = (BitSet) this.indexedRecipes.clone();
+          noneOf.andNot(result);
+          result = noneOf;
+        }
+      }
+
+      case ALL -> {
+        result.or(this.indexedRecipes);
+        for (K key : keys) {
+          BitSet bitmap = bitmapByKey.apply(key);
+          if (bitmap == null) {
+            return new BitSet();
+          }
+          result.and(bitmap);
+        }
+      }
+
+      default -> throw new IllegalArgumentException("Unexpected value: " + operator);
+    }
+
+    return result;
+  }
+
+  private static boolean isSetOperator(RecipeSearchOperatorEnum operator) {
+    return operator == RecipeSearchOperatorEnum.ANY || operator == RecipeSearchOperatorEnum.ALL
+        || operator == RecipeSearchOperatorEnum.NONE;
+  }
+
+  // same conversion as RecipeTagsSpecification (unknown codes are ignored)
+  private static Set<RecipeTagEnum> toTags(List<Object> values) {
+    Set<RecipeTagEnum> tags = EnumSet.noneOf(RecipeTagEnum.class);
+    for (RecipeTagEnum tag : RecipeTagEnum.values()) {
+      if (values.contains(tag.getCode())) {
+        tags.add(tag);
+      }
+    }
+
+    return tags;
+  }
+
+  // null if a value is not a valid ingredient id
+  private static Set<UUID> toIngredientIds(List<Object> values) {
+    Set<UUID> ingredientIds = new HashSet<>();
+    for (Object value : values) {
+      if (value == null) {
+        return null;
+      }
+
+      try {
+        ingredientIds.add(UUID.fromString(value.toString()));
+      } catch (IllegalArgumentException e) {
+        return null;
+      }
+    }
+
+    return ingredientIds;
+  }
+
+}
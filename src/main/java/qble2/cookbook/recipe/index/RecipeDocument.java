@@ -0,0 +1,80 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.model.Recipe;
+
+/**
+ * Immutable snapshot of the indexed fields of a recipe
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@ToString
+public class RecipeDocument {
+
+  private UUID recipeId;
+
+  private String name;
+
+  private String description;
+
+  private UUID authorId;
+
+  private String authorUsername;
+
+  private Integer servings;
+
+  private Long preparationTime;
+
+  private Long cookingTime;
+
+  // null when the recipe has not been reviewed
+  private Double averageRating;
+
+  private long ratingSum;
+
+  private long ratingCount;
+
+  @Builder.Default
+  private Set<RecipeTagEnum> tags = Set.of();
+
+  @Builder.Default
+  private Set<UUID> ingredientIds = Set.of();
+
+  @Builder.Default
+  private Set<String> ingredientNames = Set.of();
+
+  @Builder.Default
+  private List<String> instructions = List.of();
+
+  /**
+   * Must be called within a transaction (lazy associations are read)
+   */
+  public static RecipeDocument of(Recipe recipe) {
+    return RecipeDocument.builder().recipeId(recipe.getId()).name(recipe.getName())
+        .description(recipe.getDescription())
+        .authorId(recipe.getAuthor() != null ? recipe.getAuthor().getId() : null)
+        .authorUsername(recipe.getAuthor() != null ? recipe.getAuthor().getUsername() : null)
+        .servings(recipe.getServings()).preparationTime(recipe.getPreparationTime())
+        .cookingTime(recipe.getCookingTime())
+        .averageRating(recipe.getAverageRating()).ratingSum(recipe.getRatingSum())
+        .ratingCount(recipe.getRatingCount())
+        .tags(Set.copyOf(recipe.getTags()))
+        .ingredientIds(recipe.getRecipeIngredients().stream()
+            .map(recipeIngredient -> recipeIngredient.getIngredient().getId())
+            .collect(Collectors.toUnmodifiableSet()))
+        .ingredientNames(recipe.getRecipeIngredients().stream()
+            .map(recipeIngredient -> recipeIngredient.getIngredient().getName())
+            .collect(Collectors.toUnmodifiableSet()))
+        .instructions(List.copyOf(recipe.getInstructions())).build();
+  }
+
+}
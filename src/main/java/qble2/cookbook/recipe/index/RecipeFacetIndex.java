@@ -0,0 +1,117 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.enums.RecipeTagsMaskUtils;
+import qble2.cookbook.recipe.facet.RecipeFacetCounts;
+
+/**
+ * Faceted fields of every recipe (tags mask, ingredient ids, rating bucket), stored by recipe
+ * ordinal so that the facets of a set of matching recipes are counted in a single pass over it
+ */
+@Component
+public class RecipeFacetIndex implements RecipeIndex {
+
+  private static final UUID[] NO_INGREDIENTS = new UUID[0];
+
+  @Autowired
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // guarded by "lock"
+  private final BitSet indexedRecipes = new BitSet();
+  private FacetDocument[] documents = new FacetDocument[1024];
+
+  @AllArgsConstructor
+  private static class FacetDocument {
+
+    private final long tagsMask;
+
+    private final UUID[] ingredientIds;
+
+    private final int ratingBucket;
+
+  }
+
+  @Override
+  public void index(RecipeDocument recipeDocument) {
+    int ordinal = this.recipeOrdinalRegistry.getOrCreateOrdinal(recipeDocument.getRecipeId());
+    FacetDocument facetDocument = new FacetDocument(
+        RecipeTagsMaskUtils.toTagsMask(recipeDocument.getTags()),
+        recipeDocument.getIngredientIds().toArray(NO_INGREDIENTS),
+        RecipeFacetCounts.toRatingBucket(recipeDocument.getAverageRating()));
+
+    this.lock.writeLock().lock();
+    try {
+      if (ordinal >= this.documents.length) {
+        this.documents =
+            Arrays.copyOf(this.documents, Math.max(ordinal + 1, this.documents.length * 2));
+      }
+      this.documents[ordinal] = facetDocument;
+      this.indexedRecipes.set(ordinal);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(UUID recipeId) {
+    int ordinal = this.recipeOrdinalRegistry.getOrdinal(recipeId);
+    if (ordinal < 0) {
+      return;
+    }
+
+    this.lock.writeLock().lock();
+    try {
+      if (ordinal < this.documents.length) {
+        this.documents[ordinal] = null;
+      }
+      this.indexedRecipes.clear(ordinal);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    this.lock.writeLock().lock();
+    try {
+      Arrays.fill(this.documents, null);
+      this.indexedRecipes.clear();
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param ordinals the matching recipes, null for every indexed recipe
+   */
+  public RecipeFacetCounts count(BitSet ordinals) {
+    RecipeFacetCounts recipeFacetCounts = new RecipeFacetCounts();
+
+    this.lock.readLock().lock();
+    try {
+      BitSet matchingOrdinals = ordinals != null ? ordinals : this.indexedRecipes;
+      for (int ordinal = matchingOrdinals.nextSetBit(0); ordinal >= 0
+          && ordinal < this.documents.length; ordinal = matchingOrdinals.nextSetBit(ordinal + 1)) {
+        FacetDocument facetDocument = this.documents[ordinal];
+        if (facetDocument != null) {
+          recipeFacetCounts.addRecipe(facetDocument.tagsMask, facetDocument.ingredientIds,
+              facetDocument.ratingBucket);
+        }
+      }
+    } finally {
+      this.lock.readLock().unlock();
+    }
+
+    return recipeFacetCounts;
+  }
+
+}
@@ -0,0 +1,14 @@
+package qble2.cookbook.recipe.index;
+
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+/**
+ * Index able to resolve (or narrow) some search filters before the database is queried
+ */
+public interface RecipeFilterIndex extends RecipeIndex {
+
+  boolean supports(RecipeSearchFilter recipeSearchFilter);
+
+  RecipeIndexMatch match(RecipeSearchFilter recipeSearchFilter);
+
+}
@@ -0,0 +1,265 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.pagination.PaginationUtils;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+/**
+ * Cardinality statistics of the search filters, used to order them by selectivity (see
+ * RecipeSearchPlanner): number of recipes by tag, by ingredient and by author, and histograms
+ * (number of recipes by value) of the numeric columns.
+ *
+ * Estimates are exact for a single tag, ingredient or numeric bound, and upper bounds when several
+ * values are combined (ANY, ALL, NONE).
+ */
+@Component
+public class RecipeFilterStatistics implements RecipeIndex {
+
+  // the filter can not be estimated (text, author, ...): an unknown total for pagination
+  public static final long UNKNOWN = PaginationUtils.UNKNOWN_TOTAL;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // guarded by "lock", the counted fields only: the indexed documents are not retained
+  private final Map<UUID, CountedFields> countedRecipes = new HashMap<>();
+  private final Map<RecipeTagEnum, Integer> tagCounts = new EnumMap<>(RecipeTagEnum.class);
+  private final Map<UUID, Integer> ingredientCounts = new HashMap<>();
+  private final Map<UUID, Integer> authorCounts = new HashMap<>();
+  private final Map<RecipeSearchFilterKeyEnum, NavigableMap<Double, Integer>> histograms =
+      new EnumMap<>(RecipeSearchFilterKeyEnum.class);
+
+  // what a recipe has added to the statistics, to remove it on update
+  @AllArgsConstructor
+  private static class CountedFields {
+
+    private Set<RecipeTagEnum> tags;
+
+    private Set<UUID> ingredientIds;
+
+    private UUID authorId;
+
+    private Integer servings;
+
+    private Long preparationTime;
+
+    private Long cookingTime;
+
+    private Double averageRating;
+
+    private static CountedFields of(RecipeDocument recipeDocument) {
+      return new CountedFields(recipeDocument.getTags(), recipeDocument.getIngredientIds(),
+          recipeDocument.getAuthorId(), recipeDocument.getServings(),
+          recipeDocument.getPreparationTime(), recipeDocument.getCookingTime(),
+          recipeDocument.getAverageRating());
+    }
+
+  }
+
+  @Override
+  public void index(RecipeDocument recipeDocument) {
+    CountedFields countedFields = CountedFields.of(recipeDocument);
+    this.lock.writeLock().lock();
+    try {
+      CountedFields previousFields =
+          this.countedRecipes.put(recipeDocument.getRecipeId(), countedFields);
+      if (previousFields != null) {
+        count(previousFields, -1);
+      }
+      count(countedFields, 1);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(UUID recipeId) {
+    this.lock.writeLock().lock();
+    try {
+      CountedFields previousFields = this.countedRecipes.remove(recipeId);
+      if (previousFields != null) {
+        count(previousFields, -1);
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    this.lock.writeLock().lock();
+    try {
+      this.countedRecipes.clear();
+      this.tagCounts.clear();
+      this.ingredientCounts.clear();
+      this.authorCounts.clear();
+      this.histograms.clear();
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  public int getRecipesCount() {
+    this.lock.readLock().lock();
+    try {
+      return this.countedRecipes.size();
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  public int getAuthorRecipesCount(UUID authorId) {
+    this.lock.readLock().lock();
+    try {
+      return this.authorCounts.getOrDefault(authorId, 0);
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Same semantics as the specification of the filter (see RecipeSpecification)
+   *
+   * @return the estimated number of matching recipes, {@link #UNKNOWN} if it can not be estimated
+   */
+  public long estimate(RecipeSearchFilter recipeSearchFilter) {
+    if (recipeSearchFilter.getKey() == null || recipeSearchFilter.getOperator() == null) {
+      return UNKNOWN;
+    }
+
+    this.lock.readLock().lock();
+    try {
+      long recipesCount = this.countedRecipes.size();
+
+      return switch (recipeSearchFilter.getKey()) {
+        case RECIPE_TAGS -> estimateSetFilter(recipeSearchFilter, recipesCount, value -> {
+          for (RecipeTagEnum tag : RecipeTagEnum.values()) {
+            if (tag.getCode().equals(value)) {
+              return this.tagCounts.getOrDefault(tag, 0);
+            }
+          }
+          // unknown tag
+          return null;
+        });
+        case RECIPE_INGREDIENTS -> estimateSetFilter(recipeSearchFilter, recipesCount, value -> {
+          try {
+            return this.ingredientCounts.getOrDefault(UUID.fromString(value.toString()), 0);
+          } catch (IllegalArgumentException e) {
+            return null;
+          }
+        });
+        case RECIPE_SERVINGS, RECIPE_PREPARATION_TIME, RECIPE_COOKING_TIME, RECIPE_AVERAGE_RATING ->
+          estimateNumericFilter(recipeSearchFilter, recipesCount);
+        default -> UNKNOWN;
+      };
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  // must be called while holding the write lock
+  private void count(CountedFields countedFields, int increment) {
+    countedFields.tags.forEach(tag -> increment(this.tagCounts, tag, increment));
+    countedFields.ingredientIds
+        .forEach(ingredientId -> increment(this.ingredientCounts, ingredientId, increment));
+    if (countedFields.authorId != null) {
+      increment(this.authorCounts, countedFields.authorId, increment);
+    }
+
+    countValue(RecipeSearchFilterKeyEnum.RECIPE_SERVINGS, countedFields.servings, increment);
+    countValue(RecipeSearchFilterKeyEnum.RECIPE_PREPARATION_TIME, countedFields.preparationTime,
+        increment);
+    countValue(RecipeSearchFilterKeyEnum.RECIPE_COOKING_TIME, countedFields.cookingTime,
+        increment);
+    countValue(RecipeSearchFilterKeyEnum.RECIPE_AVERAGE_RATING, countedFields.averageRating,
+        increment);
+  }
+
+  // must be called while holding the write lock
+  private void countValue(RecipeSearchFilterKeyEnum key, Number value, int increment) {
+    // null values never match a numeric predicate
+    if (value != null) {
+      increment(this.histograms.computeIfAbsent(key, k -> new TreeMap<>()), value.doubleValue(),
+          increment);
+    }
+  }
+
+  private static <K> void increment(Map<K, Integer> counts, K key, int increment) {
+    counts.merge(key, increment, (count, delta) -> count + delta == 0 ? null : count + delta);
+  }
+
+  /**
+   * @param countByValue number of recipes having the value, null for an unknown value
+   */
+  private static long estimateSetFilter(RecipeSearchFilter recipeSearchFilter, long recipesCount,
+      Function<Object, Integer> countByValue) {
+    List<Object> values = recipeSearchFilter.getValues();
+    // not translated into a predicate
+    if (CollectionUtils.isEmpty(values)) {
+      return recipesCount;
+    }
+
+    Set<Object> distinctValues = new HashSet<>(values);
+    long sum = 0;
+    long min = recipesCount;
+    long max = 0;
+    boolean unknownValue = false;
+    for (Object value : distinctValues) {
+      Integer count = countByValue.apply(value);
+      if (count == null) {
+        unknownValue = true;
+        count = 0;
+      }
+      sum += count;
+      min = Math.min(min, count);
+      max = Math.max(max, count);
+    }
+
+    return switch (recipeSearchFilter.getOperator()) {
+      case ANY -> Math.min(sum, recipesCount);
+      case ALL -> unknownValue ? 0 : min;
+      case NONE -> recipesCount - max;
+      default -> UNKNOWN;
+    };
+  }
+
+  // must be called while holding the read lock
+  private long estimateNumericFilter(RecipeSearchFilter recipeSearchFilter, long recipesCount) {
+    Number value = recipeSearchFilter.getValueAsNumber();
+    // not translated into a predicate
+    if (value == null) {
+      return recipesCount;
+    }
+
+    NavigableMap<Double, Integer> histogram =
+        this.histograms.getOrDefault(recipeSearchFilter.getKey(), new TreeMap<>());
+    double bound = value.doubleValue();
+
+    return switch (recipeSearchFilter.getOperator()) {
+      case EQUAL -> histogram.getOrDefault(bound, 0);
+      case GTE -> sum(histogram.tailMap(bound, true));
+      case LTE -> sum(histogram.headMap(bound, true));
+      default -> UNKNOWN;
+    };
+  }
+
+  private static long sum(Map<Double, Integer> counts) {
+    return counts.values().stream().mapToLong(Integer::longValue).sum();
+  }
+
+}
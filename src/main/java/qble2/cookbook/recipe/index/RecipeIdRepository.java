@@ -0,0 +1,48 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import qble2.cookbook.recipe.facet.RecipeFacetCountDto;
+import qble2.cookbook.recipe.model.Recipe;
+
+public interface RecipeIdRepository {
+
+  /**
+   * Ids of every recipe matching the specification, unsorted
+   */
+  List<UUID> findIdsBySpecification(Specification<Recipe> specification);
+
+  /**
+   * Same page (and same order) as findAll(specification, pageable), but of ids only
+   */
+  Page<UUID> findIdsBySpecification(Specification<Recipe> specification, Pageable pageable);
+
+  /**
+   * Same ids as findIdsBySpecification(specification, pageable), without count query: one extra
+   * id is fetched to know whether there is a next page
+   */
+  Slice<UUID> findSliceOfIdsBySpecification(Specification<Recipe> specification,
+      Pageable pageable);
+
+  /**
+   * Count query of findIdsBySpecification(specification, pageable)
+   */
+  long countBySpecification(Specification<Recipe> specification);
+
+  /**
+   * Facets, when the in-memory indexes are not available (see RecipeFacetService): number of
+   * recipes matching the specification, grouped by tag, by ingredient or by average rating
+   */
+
+  List<RecipeFacetCountDto> countTagsBySpecification(Specification<Recipe> specification);
+
+  List<RecipeFacetCountDto> countIngredientsBySpecification(Specification<Recipe> specification);
+
+  List<RecipeFacetCountDto> countAverageRatingsBySpecification(
+      Specification<Recipe> specification);
+
+}
@@ -0,0 +1,141 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import qble2.cookbook.ingredient.model.Ingredient_;
+import qble2.cookbook.recipe.facet.RecipeFacetCountDto;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.model.RecipeIngredient_;
+import qble2.cookbook.recipe.model.Recipe_;
+
+@Repository
+public class RecipeIdRepositoryImpl implements RecipeIdRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<UUID> findIdsBySpecification(Specification<Recipe> specification) {
+    CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+    CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+    Root<Recipe> root = query.from(Recipe.class);
+
+    Predicate predicate = specification.toPredicate(root, query, cb);
+    // the order set by the specification is useless here, and a DISTINCT query can not be sorted
+    // on columns that are not selected
+    query.orderBy(Collections.emptyList());
+    query.select(root.get(Recipe_.id)).distinct(true).where(predicate);
+
+    return this.entityManager.createQuery(query).getResultList();
+  }
+
+  @Override
+  public Page<UUID> findIdsBySpecification(Specification<Recipe> specification,
+      Pageable pageable) {
+    TypedQuery<UUID> typedQuery = createIdsQuery(specification);
+    if (pageable.isPaged()) {
+      typedQuery.setFirstResult((int) pageable.getOffset());
+      typedQuery.setMaxResults(pageable.getPageSize());
+    }
+
+    // the count query is skipped when the page tells the total by itself
+    return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+        () -> countBySpecification(specification));
+  }
+
+  @Override
+  public Slice<UUID> findSliceOfIdsBySpecification(Specification<Recipe> specification,
+      Pageable pageable) {
+    TypedQuery<UUID> typedQuery = createIdsQuery(specification);
+    if (pageable.isUnpaged()) {
+      return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+    }
+
+    typedQuery.setFirstResult((int) pageable.getOffset());
+    typedQuery.setMaxResults(pageable.getPageSize() + 1);
+    List<UUID> recipeIds = typedQuery.getResultList();
+    boolean hasNext = recipeIds.size() > pageable.getPageSize();
+
+    return new SliceImpl<>(hasNext ? recipeIds.subList(0, pageable.getPageSize()) : recipeIds,
+        pageable, hasNext);
+  }
+
+  @Override
+  public long countBySpecification(Specification<Recipe> specification) {
+    CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<Recipe> root = query.from(Recipe.class);
+
+    Predicate predicate = specification.toPredicate(root, query, cb);
+    query.orderBy(Collections.emptyList());
+    query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root)).where(predicate);
+
+    return this.entityManager.createQuery(query).getSingleResult();
+  }
+
+  @Override
+  public List<RecipeFacetCountDto> countTagsBySpecification(Specification<Recipe> specification) {
+    return countGroupedBySpecification(specification, root -> root.join(Recipe_.tags));
+  }
+
+  @Override
+  public List<RecipeFacetCountDto> countIngredientsBySpecification(
+      Specification<Recipe> specification) {
+    return countGroupedBySpecification(specification,
+        root -> root.join(Recipe_.recipeIngredients).get(RecipeIngredient_.ingredient)
+            .get(Ingredient_.id));
+  }
+
+  @Override
+  public List<RecipeFacetCountDto> countAverageRatingsBySpecification(
+      Specification<Recipe> specification) {
+    return countGroupedBySpecification(specification, root -> root.get(Recipe_.averageRating));
+  }
+
+  private List<RecipeFacetCountDto> countGroupedBySpecification(
+      Specification<Recipe> specification, Function<Root<Recipe>, Expression<?>> groupedValue) {
+    CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+    CriteriaQuery<RecipeFacetCountDto> query = cb.createQuery(RecipeFacetCountDto.class);
+    Root<Recipe> root = query.from(Recipe.class);
+
+    Predicate predicate = specification.toPredicate(root, query, cb);
+    Expression<?> value = groupedValue.apply(root);
+    query.orderBy(Collections.emptyList());
+    // the joins of the specification may repeat a recipe: recipes are counted once per value
+    query.distinct(false)
+        .select(cb.construct(RecipeFacetCountDto.class, value, cb.countDistinct(root)))
+        .where(predicate).groupBy(value);
+
+    return this.entityManager.createQuery(query).getResultList();
+  }
+
+  private TypedQuery<UUID> createIdsQuery(Specification<Recipe> specification) {
+    CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+    CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+    Root<Recipe> root = query.from(Recipe.class);
+
+    // filters + sort, exactly as SimpleJpaRepository.findAll(specification, pageable) would
+    Predicate predicate = specification.toPredicate(root, query, cb);
+    query.select(root.get(Recipe_.id)).where(predicate);
+
+    return this.entityManager.createQuery(query);
+  }
+
+}
@@ -0,0 +1,25 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.UUID;
+
+/**
+ * In-memory index over recipes, kept up to date by {@link RecipeIndexManager}
+ */
+public interface RecipeIndex {
+
+  /**
+   * Adds the recipe, or replaces it if it was already indexed
+   */
+  void index(RecipeDocument recipeDocument);
+
+  void remove(UUID recipeId);
+
+  void clear();
+
+  /**
+   * Called once a full rebuild is complete (every recipe has been indexed), before the indexes are
+   * used
+   */
+  default void onRebuilt() {}
+
+}
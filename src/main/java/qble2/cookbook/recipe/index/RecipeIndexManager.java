@@ -0,0 +1,203 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.event.RecipeChangedEvent;
+import qble2.cookbook.review.event.ReviewChangedEvent;
+
+/**
+ * Keeps every {@link RecipeIndex} up to date:
+ *
+ * <pre>
+ * - full rebuild (in parallel) once the application is ready
+ * - incremental update after each committed recipe write
+ * </pre>
+ *
+ * Indexes are not used for searching until the first rebuild is complete (see {@link #isReady()})
+ */
+@Component
+@Slf4j
+public class RecipeIndexManager {
+
+  /**
+   * Order of the after-commit listeners updating the indexes: caches of results computed from the
+   * indexes must be invalidated by listeners of a higher order, otherwise a result computed from
+   * the previous state of the indexes could be cached as fresh (see RecipeSearchCache)
+   */
+  public static final int LISTENER_ORDER = 0;
+
+  private static final int REFRESH_LOCKS_COUNT = 64;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private List<RecipeIndex> recipeIndexes;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${recipe.index.enabled:true}")
+  private boolean enabled;
+
+  @Value("${recipe.index.rebuild.threads:4}")
+  private int rebuildThreads;
+
+  @Value("${recipe.index.rebuild.batch-size:500}")
+  private int rebuildBatchSize;
+
+  private volatile boolean ready = false;
+
+  private volatile boolean rebuilding = false;
+
+  // recipes written while a rebuild is running, re-indexed once it is complete (the rebuild may
+  // have read them before the write)
+  private final Set<UUID> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+  // refreshes of the same recipe are serialized (striped by recipe id), from the read of the recipe
+  // to the update of the indexes: the last one reads the last committed state, and is applied last
+  private final Object[] refreshLocks = new Object[REFRESH_LOCKS_COUNT];
+
+  public RecipeIndexManager() {
+    for (int i = 0; i < this.refreshLocks.length; i++) {
+      this.refreshLocks[i] = new Object();
+    }
+  }
+
+  public boolean isReady() {
+    return this.enabled && this.ready;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (this.enabled) {
+      rebuild();
+    } else {
+      log.info("Recipe indexes are disabled");
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  @Order(LISTENER_ORDER)
+  public void onRecipeChanged(RecipeChangedEvent event) {
+    onChanged(event.getRecipeId());
+  }
+
+  // average ratings are indexed (see RecipeFacetIndex)
+  @TransactionalEventListener(fallbackExecution = true)
+  @Order(LISTENER_ORDER)
+  public void onReviewChanged(ReviewChangedEvent event) {
+    onChanged(event.getRecipeId());
+  }
+
+  public synchronized void rebuild() {
+    long start = System.currentTimeMillis();
+    this.ready = false;
+    this.rebuilding = true;
+    this.changedDuringRebuild.clear();
+    this.recipeIndexes.forEach(RecipeIndex::clear);
+
+    List<UUID> recipeIds =
+        newReadOnlyTransaction().execute(status -> this.recipeRepository.findAllIds());
+    List<List<UUID>> batches = ListUtils.partition(recipeIds, this.rebuildBatchSize);
+
+    ExecutorService executorService = Executors.newFixedThreadPool(this.rebuildThreads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      batches.forEach(batch -> futures.add(executorService.submit(() -> indexBatch(batch))));
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Recipe indexes rebuild has been interrupted", e);
+      return;
+    } catch (ExecutionException e) {
+      log.error("Recipe indexes rebuild has failed, indexes will not be used", e);
+      return;
+    } finally {
+      executorService.shutdown();
+      this.rebuilding = false;
+    }
+
+    // writes that happened during the rebuild
+    this.changedDuringRebuild.forEach(this::refresh);
+    this.changedDuringRebuild.clear();
+    this.recipeIndexes.forEach(RecipeIndex::onRebuilt);
+
+    this.ready = true;
+    log.info("Recipe indexes rebuilt: {} recipe(s) indexed in {} ms ({} batch(es), {} thread(s))",
+        recipeIds.size(), System.currentTimeMillis() - start, batches.size(),
+        this.rebuildThreads);
+  }
+
+  private void indexBatch(List<UUID> recipeIds) {
+    List<RecipeDocument> recipeDocuments =
+        newReadOnlyTransaction().execute(status -> this.recipeRepository
+            .findAllByIdInAndLoadIndexedFields(recipeIds).stream().distinct()
+            .map(RecipeDocument::of).toList());
+
+    recipeDocuments.forEach(recipeDocument -> this.recipeIndexes
+        .forEach(recipeIndex -> recipeIndex.index(recipeDocument)));
+  }
+
+  private void onChanged(UUID recipeId) {
+    if (!this.enabled) {
+      return;
+    }
+
+    if (this.rebuilding) {
+      this.changedDuringRebuild.add(recipeId);
+    }
+    refresh(recipeId);
+  }
+
+  private void refresh(UUID recipeId) {
+    synchronized (getRefreshLock(recipeId)) {
+      RecipeDocument recipeDocument =
+          newReadOnlyTransaction().execute(status -> this.recipeRepository
+              .findByIdAndLoadIndexedFields(recipeId).map(RecipeDocument::of).orElse(null));
+
+      if (recipeDocument == null) {
+        this.recipeIndexes.forEach(recipeIndex -> recipeIndex.remove(recipeId));
+      } else {
+        this.recipeIndexes.forEach(recipeIndex -> recipeIndex.index(recipeDocument));
+      }
+    }
+  }
+
+  private Object getRefreshLock(UUID recipeId) {
+    return this.refreshLocks[Math.floorMod(recipeId.hashCode(), this.refreshLocks.length)];
+  }
+
+  // a new transaction is required: after commit, the resources of the previous one may still be
+  // bound to the thread
+  private TransactionTemplate newReadOnlyTransaction() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    transactionTemplate.setReadOnly(true);
+
+    return transactionTemplate;
+  }
+
+}
@@ -0,0 +1,20 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.BitSet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Recipes (ordinals) matching a search filter according to an index
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeIndexMatch {
+
+  private BitSet ordinals;
+
+  // true: the filter is fully resolved, false: the ordinals are only candidates and the filter
+  // still has to be applied by the database
+  private boolean exact;
+
+}
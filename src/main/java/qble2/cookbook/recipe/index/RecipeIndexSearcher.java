@@ -0,0 +1,194 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchSortKeyEnum;
+import qble2.cookbook.recipe.index.RecipeTextIndex.ScoredOrdinal;
+import qble2.cookbook.recipe.specification.RecipeSpecification;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+
+/**
+ * Resolves the search filters supported by the in-memory indexes into a set of candidate recipe
+ * ids, before the database is asked for the page
+ */
+@Component
+@Slf4j
+public class RecipeIndexSearcher {
+
+  @Autowired
+  private RecipeIndexManager recipeIndexManager;
+
+  @Autowired
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  @Autowired
+  private List<RecipeFilterIndex> recipeFilterIndexes;
+
+  @Autowired
+  private RecipeTextIndex recipeTextIndex;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  // above this number of candidates, a "id IN (...)" predicate costs more than it saves
+  @Value("${recipe.index.max-candidates:1000}")
+  private int maxCandidates;
+
+  public RecipeSearchCandidates resolve(RecipeSearchRequest recipeSearch) {
+    if (!this.recipeIndexManager.isReady() || CollectionUtils.isEmpty(recipeSearch.getFilters())) {
+      return RecipeSearchCandidates.NONE;
+    }
+
+    BitSet candidates = null;
+    List<RecipeSearchFilter> resolvedFilters = new ArrayList<>();
+    for (RecipeSearchFilter recipeSearchFilter : recipeSearch.getFilters()) {
+      for (RecipeFilterIndex recipeFilterIndex : this.recipeFilterIndexes) {
+        if (recipeFilterIndex.supports(recipeSearchFilter)) {
+          RecipeIndexMatch match = recipeFilterIndex.match(recipeSearchFilter);
+          if (candidates == null) {
+            candidates = match.getOrdinals();
+          } else {
+            candidates.and(match.getOrdinals());
+          }
+          if (match.isExact()) {
+            resolvedFilters.add(recipeSearchFilter);
+          }
+          break;
+        }
+      }
+    }
+
+    if (candidates == null) {
+      return RecipeSearchCandidates.NONE;
+    }
+
+    int candidatesCount = candidates.cardinality();
+    if (candidatesCount > this.maxCandidates) {
+      log.debug("Too many candidates ({}), search filters are left to the database",
+          candidatesCount);
+      return RecipeSearchCandidates.NONE;
+    }
+
+    log.debug("Search narrowed to {} candidate(s) by the in-memory indexes", candidatesCount);
+    return new RecipeSearchCandidates(this.recipeOrdinalRegistry.toRecipeIds(candidates),
+        resolvedFilters);
+  }
+
+  /**
+   * Relevance can only be computed by the text index: when it is not available, the "relevance"
+   * sort falls back to the creation date (see RecipeQuerySorter)
+   */
+  public boolean supportsRelevanceSearch(RecipeSearchRequest recipeSearch) {
+    return this.recipeIndexManager.isReady() && recipeSearch.getSort() != null
+        && recipeSearch.getSort().getKey() == RecipeSearchSortKeyEnum.RELEVANCE
+        && findTextFilter(recipeSearch) != null;
+  }
+
+  /**
+   * Ids of the recipes matching every filter, best BM25 score first (whatever the sort direction),
+   * null when the filters are left to the database (the search is then sorted by creation date)
+   */
+  public Page<UUID> searchByRelevance(RecipeSearchRequest recipeSearch, Pageable pageable) {
+    RecipeSearchFilter textFilter = findTextFilter(recipeSearch);
+    BitSet allowedOrdinals = findMatchingOrdinals(recipeSearch);
+    if (allowedOrdinals == null) {
+      return null;
+    }
+
+    int first = (int) pageable.getOffset();
+    List<ScoredOrdinal> topRecipes = this.recipeTextIndex.findTopRecipes(textFilter,
+        first + pageable.getPageSize(), allowedOrdinals);
+    List<UUID> pageRecipeIds = topRecipes.stream().skip(first)
+        .map(scoredOrdinal -> this.recipeOrdinalRegistry.getRecipeId(scoredOrdinal.getOrdinal()))
+        .toList();
+
+    return new PageImpl<>(pageRecipeIds, pageable, allowedOrdinals.cardinality());
+  }
+
+  /**
+   * Ordinals of the recipes matching every filter, null when the filters are left to the database.
+   * Indexes must be ready.
+   *
+   * Filters resolved by the in-memory indexes are applied in memory, the other ones are applied by
+   * the database on the candidate ids, as long as some filter is resolved in memory and there are
+   * at most "max-candidates" candidates.
+   */
+  public BitSet findMatchingOrdinals(RecipeSearchRequest recipeSearch) {
+    if (CollectionUtils.isEmpty(recipeSearch.getFilters())) {
+      // every indexed recipe
+      BitSet allOrdinals = new BitSet();
+      allOrdinals.set(0, this.recipeOrdinalRegistry.size());
+      return allOrdinals;
+    }
+
+    BitSet allowedOrdinals = null;
+    List<RecipeSearchFilter> resolvedFilters = new ArrayList<>();
+    for (RecipeSearchFilter recipeSearchFilter : recipeSearch.getFilters()) {
+      for (RecipeFilterIndex recipeFilterIndex : this.recipeFilterIndexes) {
+        if (recipeFilterIndex.supports(recipeSearchFilter)) {
+          RecipeIndexMatch match = recipeFilterIndex.match(recipeSearchFilter);
+          if (match.isExact()) {
+            if (allowedOrdinals == null) {
+              allowedOrdinals = match.getOrdinals();
+            } else {
+              allowedOrdinals.and(match.getOrdinals());
+            }
+            resolvedFilters.add(recipeSearchFilter);
+          }
+          break;
+        }
+      }
+    }
+
+    if (resolvedFilters.size() == recipeSearch.getFilters().size()
+        || (allowedOrdinals != null && allowedOrdinals.isEmpty())) {
+      return allowedOrdinals;
+    }
+
+    if (allowedOrdinals == null) {
+      log.debug("No search filter resolved by the in-memory indexes, left to the database");
+      return null;
+    }
+
+    int candidatesCount = allowedOrdinals.cardinality();
+    if (candidatesCount > this.maxCandidates) {
+      log.debug("Too many candidates ({}), search filters are left to the database",
+          candidatesCount);
+      return null;
+    }
+
+    BitSet matchingOrdinals = new BitSet();
+    this.recipeRepository
+        .findIdsBySpecification(new RecipeSpecification(recipeSearch, new RecipeSearchCandidates(
+            this.recipeOrdinalRegistry.toRecipeIds(allowedOrdinals), resolvedFilters)))
+        .stream().mapToInt(this.recipeOrdinalRegistry::getOrdinal).filter(ordinal -> ordinal >= 0)
+        .forEach(matchingOrdinals::set);
+
+    return matchingOrdinals;
+  }
+
+  private RecipeSearchFilter findTextFilter(RecipeSearchRequest recipeSearch) {
+    if (CollectionUtils.isEmpty(recipeSearch.getFilters())) {
+      return null;
+    }
+
+    return recipeSearch.getFilters().stream()
+        .filter(recipeSearchFilter -> recipeSearchFilter
+            .getKey() == RecipeSearchFilterKeyEnum.RECIPE_TEXT)
+        .filter(this.recipeTextIndex::supports).findFirst().orElse(null);
+  }
+
+}
@@ -0,0 +1,61 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps recipe ids to dense int ordinals, so that in-memory indexes can store sets of recipes as
+ * bitmaps.
+ *
+ * Ordinals are never reused: the ordinal of a deleted recipe simply stops appearing in the indexes.
+ */
+@Component
+public class RecipeOrdinalRegistry {
+
+  private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+
+  // guarded by "this"
+  private final List<UUID> recipeIds = new ArrayList<>();
+
+  public int getOrCreateOrdinal(UUID recipeId) {
+    Integer ordinal = this.ordinals.get(recipeId);
+    if (ordinal != null) {
+      return ordinal;
+    }
+
+    synchronized (this) {
+      return this.ordinals.computeIfAbsent(recipeId, id -> {
+        this.recipeIds.add(id);
+        return this.recipeIds.size() - 1;
+      });
+    }
+  }
+
+  /**
+   * @return the ordinal of the recipe, -1 if the recipe has never been indexed
+   */
+  public int getOrdinal(UUID recipeId) {
+    return this.ordinals.getOrDefault(recipeId, -1);
+  }
+
+  public synchronized UUID getRecipeId(int ordinal) {
+    return this.recipeIds.get(ordinal);
+  }
+
+  public synchronized List<UUID> toRecipeIds(BitSet ordinals) {
+    List<UUID> ids = new ArrayList<>(ordinals.cardinality());
+    ordinals.stream().forEach(ordinal -> ids.add(this.recipeIds.get(ordinal)));
+
+    return ids;
+  }
+
+  public synchronized int size() {
+    return this.recipeIds.size();
+  }
+
+}
@@ -0,0 +1,207 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ingredients of every recipe, as sorted arrays of ingredient ordinals (dense ints, same idea as
+ * {@link RecipeOrdinalRegistry}), plus ingredient -> recipes bitmaps.
+ *
+ * A pantry search only visits the recipes using at least one pantry ingredient, and scores each of
+ * them with a membership test per ingredient against the pantry bitmap: no grouping, no boxing.
+ */
+@Component
+public class RecipePantryIndex implements RecipeIndex {
+
+  private static final int[] NO_INGREDIENTS = new int[0];
+
+  @Autowired
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // guarded by "lock"
+  private final Map<UUID, Integer> ingredientOrdinals = new HashMap<>();
+  private final List<UUID> ingredientIds = new ArrayList<>();
+  private final List<BitSet> ingredientRecipes = new ArrayList<>();
+  private int[][] recipeIngredients = new int[1024][];
+
+  @AllArgsConstructor
+  private static class Candidate {
+
+    private final int recipeOrdinal;
+
+    private final int ingredientsCount;
+
+    private final int matchedIngredientsCount;
+
+  }
+
+  @Override
+  public void index(RecipeDocument recipeDocument) {
+    int recipeOrdinal = this.recipeOrdinalRegistry.getOrCreateOrdinal(recipeDocument.getRecipeId());
+
+    this.lock.writeLock().lock();
+    try {
+      removePostings(recipeOrdinal);
+
+      int[] ingredients = recipeDocument.getIngredientIds().stream()
+          .mapToInt(this::getOrCreateIngredientOrdinal).sorted().toArray();
+      if (recipeOrdinal >= this.recipeIngredients.length) {
+        this.recipeIngredients = Arrays.copyOf(this.recipeIngredients,
+            Math.max(recipeOrdinal + 1, this.recipeIngredients.length * 2));
+      }
+      this.recipeIngredients[recipeOrdinal] = ingredients.length == 0 ? NO_INGREDIENTS : ingredients;
+      for (int ingredientOrdinal : ingredients) {
+        this.ingredientRecipes.get(ingredientOrdinal).set(recipeOrdinal);
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(UUID recipeId) {
+    int recipeOrdinal = this.recipeOrdinalRegistry.getOrdinal(recipeId);
+    if (recipeOrdinal < 0) {
+      return;
+    }
+
+    this.lock.writeLock().lock();
+    try {
+      removePostings(recipeOrdinal);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    this.lock.writeLock().lock();
+    try {
+      this.ingredientOrdinals.clear();
+      this.ingredientIds.clear();
+      this.ingredientRecipes.clear();
+      Arrays.fill(this.recipeIngredients, null);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param maxMissingIngredients null for no limit
+   * @return the k best recipes (see {@link RecipePantryMatch#compare}), best first; recipes
+   *         without any pantry ingredient are never returned
+   */
+  public List<RecipePantryMatch> findTopMatches(Collection<UUID> pantryIngredientIds,
+      Integer maxMissingIngredients, int k) {
+    // worst candidate at the head, so that it is the one dropped past k
+    PriorityQueue<Candidate> topCandidates = new PriorityQueue<>(k + 1,
+        (a, b) -> compare(b, a));
+
+    this.lock.readLock().lock();
+    try {
+      BitSet pantry = new BitSet();
+      BitSet candidateRecipes = new BitSet();
+      for (UUID ingredientId : pantryIngredientIds) {
+        Integer ingredientOrdinal = this.ingredientOrdinals.get(ingredientId);
+        if (ingredientOrdinal != null) {
+          pantry.set(ingredientOrdinal);
+          candidateRecipes.or(this.ingredientRecipes.get(ingredientOrdinal));
+        }
+      }
+
+      for (int recipeOrdinal = candidateRecipes.nextSetBit(0); recipeOrdinal >= 0;
+          recipeOrdinal = candidateRecipes.nextSetBit(recipeOrdinal + 1)) {
+        int[] ingredients = this.recipeIngredients[recipeOrdinal];
+        int matchedIngredientsCount = 0;
+        for (int ingredientOrdinal : ingredients) {
+          if (pantry.get(ingredientOrdinal)) {
+            matchedIngredientsCount++;
+          }
+        }
+
+        if (maxMissingIngredients != null
+            && ingredients.length - matchedIngredientsCount > maxMissingIngredients) {
+          continue;
+        }
+
+        topCandidates
+            .offer(new Candidate(recipeOrdinal, ingredients.length, matchedIngredientsCount));
+        if (topCandidates.size() > k) {
+          topCandidates.poll();
+        }
+      }
+
+      List<RecipePantryMatch> topMatches = new ArrayList<>(topCandidates.size());
+      while (!topCandidates.isEmpty()) {
+        topMatches.add(toMatch(topCandidates.poll(), pantry));
+      }
+      // polled worst first
+      Collections.reverse(topMatches);
+
+      return topMatches;
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  // must be called while holding the write lock
+  private int getOrCreateIngredientOrdinal(UUID ingredientId) {
+    return this.ingredientOrdinals.computeIfAbsent(ingredientId, key -> {
+      this.ingredientIds.add(key);
+      this.ingredientRecipes.add(new BitSet());
+      return this.ingredientIds.size() - 1;
+    });
+  }
+
+  // must be called while holding the write lock
+  private void removePostings(int recipeOrdinal) {
+    if (recipeOrdinal >= this.recipeIngredients.length
+        || this.recipeIngredients[recipeOrdinal] == null) {
+      return;
+    }
+
+    for (int ingredientOrdinal : this.recipeIngredients[recipeOrdinal]) {
+      this.ingredientRecipes.get(ingredientOrdinal).clear(recipeOrdinal);
+    }
+    this.recipeIngredients[recipeOrdinal] = null;
+  }
+
+  // must be called while holding the read lock
+  private RecipePantryMatch toMatch(Candidate candidate, BitSet pantry) {
+    List<UUID> missingIngredientIds = new ArrayList<>();
+    for (int ingredientOrdinal : this.recipeIngredients[candidate.recipeOrdinal]) {
+      if (!pantry.get(ingredientOrdinal)) {
+        missingIngredientIds.add(this.ingredientIds.get(ingredientOrdinal));
+      }
+    }
+    // ordinals follow the indexing order: sorted by id, as the database fallback does
+    missingIngredientIds.sort(null);
+
+    return new RecipePantryMatch(this.recipeOrdinalRegistry.getRecipeId(candidate.recipeOrdinal),
+        candidate.ingredientsCount, candidate.matchedIngredientsCount, missingIngredientIds);
+  }
+
+  // ties are broken by ordinal, for a stable ranking
+  private static int compare(Candidate a, Candidate b) {
+    int comparison = RecipePantryMatch.compare(a.matchedIngredientsCount, a.ingredientsCount,
+        b.matchedIngredientsCount, b.ingredientsCount);
+
+    return comparison != 0 ? comparison : Integer.compare(a.recipeOrdinal, b.recipeOrdinal);
+  }
+
+}
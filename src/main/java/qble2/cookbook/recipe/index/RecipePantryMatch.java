@@ -0,0 +1,50 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Coverage of the ingredients of a recipe by a pantry (set of available ingredients)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipePantryMatch {
+
+  private UUID recipeId;
+
+  private int ingredientsCount;
+
+  private int matchedIngredientsCount;
+
+  // sorted by id, empty when the recipe is fully covered
+  private List<UUID> missingIngredientIds;
+
+  public double getCoverage() {
+    return (double) this.matchedIngredientsCount / this.ingredientsCount;
+  }
+
+  /**
+   * Pantry search ranking, best first: highest coverage, then fewest missing ingredients, then most
+   * matched ingredients. Coverages are compared without floating point (cross-multiplication).
+   *
+   * @return a negative value when (matchedA, countA) ranks before (matchedB, countB), 0 on a tie
+   */
+  public static int compare(int matchedA, int countA, int matchedB, int countB) {
+    int byCoverage = Long.compare((long) matchedB * countA, (long) matchedA * countB);
+    if (byCoverage != 0) {
+      return byCoverage;
+    }
+
+    int byMissing = Integer.compare(countA - matchedA, countB - matchedB);
+    if (byMissing != 0) {
+      return byMissing;
+    }
+
+    return Integer.compare(matchedB, matchedA);
+  }
+
+}
@@ -0,0 +1,42 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.UUID;
+import lombok.Getter;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+/**
+ * Result of the resolution of search filters by the in-memory indexes: the recipes that can
+ * possibly match, and the filters that do not need to be applied by the database anymore
+ */
+@Getter
+public class RecipeSearchCandidates {
+
+  // the database has to apply every filter
+  public static final RecipeSearchCandidates NONE = new RecipeSearchCandidates(null, Set.of());
+
+  // null when the search has not been narrowed
+  private final Collection<UUID> recipeIds;
+
+  // compared by identity: a filter is either this exact request filter or not
+  private final Set<RecipeSearchFilter> resolvedFilters =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  public RecipeSearchCandidates(Collection<UUID> recipeIds,
+      Collection<RecipeSearchFilter> resolvedFilters) {
+    this.recipeIds = recipeIds;
+    this.resolvedFilters.addAll(resolvedFilters);
+  }
+
+  public boolean isNarrowed() {
+    return this.recipeIds != null;
+  }
+
+  public boolean isResolved(RecipeSearchFilter recipeSearchFilter) {
+    return this.resolvedFilters.contains(recipeSearchFilter);
+  }
+
+}
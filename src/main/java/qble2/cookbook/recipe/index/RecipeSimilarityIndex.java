@@ -0,0 +1,311 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.LongStream;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+
+/**
+ * Similar recipes, by Jaccard similarity of their features (ingredients and tags).
+ *
+ * Each recipe gets a MinHash signature of {@value #HASHES} values, cut into {@value #BANDS} bands
+ * of {@value #ROWS} rows (locality-sensitive hashing): two recipes sharing a band bucket are
+ * candidates, which happens with a probability of 1 - (1 - s^ROWS)^BANDS for a similarity s
+ * (about 50% at s = 0.15, 99% at s = 0.4). Candidates are then ranked by their exact similarity,
+ * computed from the sorted feature hashes kept for every recipe.
+ */
+@Component
+public class RecipeSimilarityIndex implements RecipeIndex {
+
+  private static final int ROWS = 2;
+  private static final int BANDS = 32;
+  private static final int HASHES = ROWS * BANDS;
+
+  // fixed seed: signatures only have to be consistent within this index
+  private static final long[] HASH_SEEDS = new SplittableRandom(0x5EEDL).longs(HASHES).toArray();
+
+  private static final long TAG_FEATURE_SEED = 0x7A6L;
+
+  @Autowired
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // guarded by "lock"
+  private final Map<Long, Bucket> buckets = new HashMap<>();
+  private long[][] recipeFeatures = new long[1024][];
+  private long[][] recipeBandKeys = new long[1024][];
+
+  /**
+   * Recipe ordinals of a band bucket
+   */
+  private static class Bucket {
+
+    private int[] ordinals = new int[2];
+
+    private int size = 0;
+
+    private void add(int ordinal) {
+      if (this.size == this.ordinals.length) {
+        this.ordinals = Arrays.copyOf(this.ordinals, this.size * 2);
+      }
+      this.ordinals[this.size++] = ordinal;
+    }
+
+    // order is not kept
+    private void remove(int ordinal) {
+      for (int i = 0; i < this.size; i++) {
+        if (this.ordinals[i] == ordinal) {
+          this.ordinals[i] = this.ordinals[--this.size];
+          return;
+        }
+      }
+    }
+
+  }
+
+  @AllArgsConstructor
+  private static class Candidate {
+
+    private final int recipeOrdinal;
+
+    private final double similarity;
+
+  }
+
+  @Override
+  public void index(RecipeDocument recipeDocument) {
+    int recipeOrdinal = this.recipeOrdinalRegistry.getOrCreateOrdinal(recipeDocument.getRecipeId());
+    long[] features = toFeatures(recipeDocument);
+    long[] bandKeys = features.length == 0 ? null : toBandKeys(toSignature(features));
+
+    this.lock.writeLock().lock();
+    try {
+      removePostings(recipeOrdinal);
+
+      if (recipeOrdinal >= this.recipeFeatures.length) {
+        int length = Math.max(recipeOrdinal + 1, this.recipeFeatures.length * 2);
+        this.recipeFeatures = Arrays.copyOf(this.recipeFeatures, length);
+        this.recipeBandKeys = Arrays.copyOf(this.recipeBandKeys, length);
+      }
+      this.recipeFeatures[recipeOrdinal] = features;
+      this.recipeBandKeys[recipeOrdinal] = bandKeys;
+      if (bandKeys != null) {
+        for (long bandKey : bandKeys) {
+          this.buckets.computeIfAbsent(bandKey, key -> new Bucket()).add(recipeOrdinal);
+        }
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(UUID recipeId) {
+    int recipeOrdinal = this.recipeOrdinalRegistry.getOrdinal(recipeId);
+    if (recipeOrdinal < 0) {
+      return;
+    }
+
+    this.lock.writeLock().lock();
+    try {
+      removePostings(recipeOrdinal);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    this.lock.writeLock().lock();
+    try {
+      this.buckets.clear();
+      Arrays.fill(this.recipeFeatures, null);
+      Arrays.fill(this.recipeBandKeys, null);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return null if the recipe is not indexed, otherwise the k most similar recipes, most similar
+   *         first
+   */
+  public List<RecipeSimilarityMatch> findMostSimilar(UUID recipeId, int k) {
+    int recipeOrdinal = this.recipeOrdinalRegistry.getOrdinal(recipeId);
+    if (recipeOrdinal < 0) {
+      return null;
+    }
+
+    // least similar candidate at the head, so that it is the one dropped past k
+    PriorityQueue<Candidate> topCandidates = new PriorityQueue<>(k + 1, (a, b) -> compare(b, a));
+
+    this.lock.readLock().lock();
+    try {
+      if (recipeOrdinal >= this.recipeFeatures.length
+          || this.recipeFeatures[recipeOrdinal] == null) {
+        return null;
+      }
+      long[] features = this.recipeFeatures[recipeOrdinal];
+      long[] bandKeys = this.recipeBandKeys[recipeOrdinal];
+      if (bandKeys == null) {
+        return List.of();
+      }
+
+      BitSet candidateRecipes = new BitSet();
+      for (long bandKey : bandKeys) {
+        Bucket bucket = this.buckets.get(bandKey);
+        for (int i = 0; i < bucket.size; i++) {
+          candidateRecipes.set(bucket.ordinals[i]);
+        }
+      }
+      candidateRecipes.clear(recipeOrdinal);
+
+      for (int candidateOrdinal = candidateRecipes.nextSetBit(0); candidateOrdinal >= 0;
+          candidateOrdinal = candidateRecipes.nextSetBit(candidateOrdinal + 1)) {
+        double similarity = jaccard(features, this.recipeFeatures[candidateOrdinal]);
+        if (similarity > 0) {
+          topCandidates.offer(new Candidate(candidateOrdinal, similarity));
+          if (topCandidates.size() > k) {
+            topCandidates.poll();
+          }
+        }
+      }
+    } finally {
+      this.lock.readLock().unlock();
+    }
+
+    List<RecipeSimilarityMatch> topMatches = new ArrayList<>(topCandidates.size());
+    while (!topCandidates.isEmpty()) {
+      Candidate candidate = topCandidates.poll();
+      topMatches.add(new RecipeSimilarityMatch(
+          this.recipeOrdinalRegistry.getRecipeId(candidate.recipeOrdinal), candidate.similarity));
+    }
+    // polled least similar first
+    Collections.reverse(topMatches);
+
+    return topMatches;
+  }
+
+  /**
+   * @return the sorted and distinct hashes of the ingredients and tags of the recipe
+   */
+  public static long[] toFeatures(RecipeDocument recipeDocument) {
+    return LongStream.concat(
+        recipeDocument.getIngredientIds().stream().mapToLong(RecipeSimilarityIndex::hash),
+        recipeDocument.getTags().stream().mapToLong(RecipeSimilarityIndex::hash)).sorted()
+        .distinct().toArray();
+  }
+
+  /**
+   * @param a sorted and distinct features (see {@link #toFeatures})
+   * @param b sorted and distinct features (see {@link #toFeatures})
+   */
+  public static double jaccard(long[] a, long[] b) {
+    if (a.length == 0 && b.length == 0) {
+      return 0;
+    }
+
+    int intersection = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.length && j < b.length) {
+      int comparison = Long.compare(a[i], b[j]);
+      if (comparison == 0) {
+        intersection++;
+        i++;
+        j++;
+      } else if (comparison < 0) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+
+    return (double) intersection / (a.length + b.length - intersection);
+  }
+
+  // must be called while holding the write lock
+  private void removePostings(int recipeOrdinal) {
+    if (recipeOrdinal >= this.recipeFeatures.length) {
+      return;
+    }
+
+    long[] bandKeys = this.recipeBandKeys[recipeOrdinal];
+    if (bandKeys != null) {
+      for (long bandKey : bandKeys) {
+        Bucket bucket = this.buckets.get(bandKey);
+        bucket.remove(recipeOrdinal);
+        if (bucket.size == 0) {
+          this.buckets.remove(bandKey);
+        }
+      }
+    }
+    this.recipeFeatures[recipeOrdinal] = null;
+    this.recipeBandKeys[recipeOrdinal] = null;
+  }
+
+  private static long[] toSignature(long[] features) {
+    long[] signature = new long[HASHES];
+    for (int i = 0; i < HASHES; i++) {
+      long min = Long.MAX_VALUE;
+      for (long feature : features) {
+        min = Math.min(min, mix(feature ^ HASH_SEEDS[i]));
+      }
+      signature[i] = min;
+    }
+
+    return signature;
+  }
+
+  // the band index is part of the key: buckets of different bands never collide
+  private static long[] toBandKeys(long[] signature) {
+    long[] bandKeys = new long[BANDS];
+    for (int band = 0; band < BANDS; band++) {
+      long bandKey = band;
+      for (int row = 0; row < ROWS; row++) {
+        bandKey = mix(bandKey * 31 + signature[band * ROWS + row]);
+      }
+      bandKeys[band] = bandKey;
+    }
+
+    return bandKeys;
+  }
+
+  private static long hash(UUID ingredientId) {
+    return mix(ingredientId.getMostSignificantBits() ^ mix(ingredientId.getLeastSignificantBits()));
+  }
+
+  private static long hash(RecipeTagEnum tag) {
+    return mix(TAG_FEATURE_SEED + tag.ordinal());
+  }
+
+  // SplitMix64 finalizer
+  private static long mix(long value) {
+    long z = value + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  // ties are broken by ordinal, for a stable ranking
+  private static int compare(Candidate a, Candidate b) {
+    int comparison = Double.compare(b.similarity, a.similarity);
+
+    return comparison != 0 ? comparison : Integer.compare(a.recipeOrdinal, b.recipeOrdinal);
+  }
+
+}
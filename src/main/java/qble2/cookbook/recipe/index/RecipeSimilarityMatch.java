@@ -0,0 +1,20 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Jaccard similarity between the ingredients and tags of two recipes
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeSimilarityMatch {
+
+  private UUID recipeId;
+
+  private double similarity;
+
+}
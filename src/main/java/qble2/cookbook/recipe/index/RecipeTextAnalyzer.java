@@ -0,0 +1,36 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Splits free text into lower-cased terms (letters and digits), without stop words
+ */
+public final class RecipeTextAnalyzer {
+
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private static final int MIN_TERM_LENGTH = 2;
+
+  private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be",
+      "but", "by", "for", "from", "if", "in", "into", "is", "it", "of", "on", "or", "so", "such",
+      "that", "the", "then", "there", "these", "this", "to", "was", "will", "with");
+
+  private RecipeTextAnalyzer() {}
+
+  public static List<String> tokenize(String text) {
+    if (text == null) {
+      return new ArrayList<>();
+    }
+
+    // leading separators give an empty first term, filtered out by its length
+    return SEPARATORS.splitAsStream(text.toLowerCase(Locale.ROOT))
+        .filter(term -> term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term))
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+}
@@ -0,0 +1,395 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+/**
+ * Inverted index over the recipe name, description, instructions and ingredient names, resolving
+ * the "text" filter (ANY / ALL terms) and ranking its results with BM25.
+ *
+ * Top-k retrieval uses WAND: posting lists are sorted by recipe ordinal and each term has an
+ * upper bound of its score, so that recipes which can not enter the current top-k are skipped
+ * without being scored.
+ */
+@Component
+public class RecipeTextIndex implements RecipeFilterIndex {
+
+  // BM25 parameters
+  private static final float K1 = 1.2f;
+  private static final float B = 0.75f;
+
+  // a term found in the name weighs more than a term found in the instructions
+  private static final int NAME_WEIGHT = 3;
+  private static final int INGREDIENT_WEIGHT = 2;
+  private static final int DESCRIPTION_WEIGHT = 1;
+  private static final int INSTRUCTION_WEIGHT = 1;
+
+  private static final int NO_MORE_RECIPES = Integer.MAX_VALUE;
+
+  @Autowired
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // guarded by "lock"
+  private final Map<String, PostingList> postings = new HashMap<>();
+  // weighted term frequencies by recipe ordinal, needed to remove the previous postings
+  private final Map<Integer, Map<String, Integer>> indexedTerms = new HashMap<>();
+  private final Map<Integer, Integer> recipeLengths = new HashMap<>();
+  private long totalLength = 0;
+
+  @Getter
+  @AllArgsConstructor
+  public static class ScoredOrdinal {
+
+    private int ordinal;
+
+    private float score;
+
+  }
+
+  @Override
+  public void index(RecipeDocument recipeDocument) {
+    int ordinal = this.recipeOrdinalRegistry.getOrCreateOrdinal(recipeDocument.getRecipeId());
+
+    Map<String, Integer> termFrequencies = new HashMap<>();
+    addTerms(termFrequencies, recipeDocument.getName(), NAME_WEIGHT);
+    addTerms(termFrequencies, recipeDocument.getDescription(), DESCRIPTION_WEIGHT);
+    recipeDocument.getIngredientNames()
+        .forEach(ingredientName -> addTerms(termFrequencies, ingredientName, INGREDIENT_WEIGHT));
+    recipeDocument.getInstructions()
+        .forEach(instruction -> addTerms(termFrequencies, instruction, INSTRUCTION_WEIGHT));
+    int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+    this.lock.writeLock().lock();
+    try {
+      removePostings(ordinal);
+      termFrequencies.forEach((term, frequency) -> this.postings
+          .computeIfAbsent(term, key -> new PostingList()).add(ordinal, frequency));
+      this.indexedTerms.put(ordinal, termFrequencies);
+      this.recipeLengths.put(ordinal, length);
+      this.totalLength += length;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(UUID recipeId) {
+    int ordinal = this.recipeOrdinalRegistry.getOrdinal(recipeId);
+    if (ordinal < 0) {
+      return;
+    }
+
+    this.lock.writeLock().lock();
+    try {
+      removePostings(ordinal);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    this.lock.writeLock().lock();
+    try {
+      this.postings.clear();
+      this.indexedTerms.clear();
+      this.recipeLengths.clear();
+      this.totalLength = 0;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean supports(RecipeSearchFilter recipeSearchFilter) {
+    return recipeSearchFilter.getKey() == RecipeSearchFilterKeyEnum.RECIPE_TEXT
+        && (recipeSearchFilter.getOperator() == RecipeSearchOperatorEnum.ANY
+            || recipeSearchFilter.getOperator() == RecipeSearchOperatorEnum.ALL)
+        && recipeSearchFilter.getValue() instanceof String text
+        && !RecipeTextAnalyzer.tokenize(text).isEmpty();
+  }
+
+  @Override
+  public RecipeIndexMatch match(RecipeSearchFilter recipeSearchFilter) {
+    List<String> terms = toQueryTerms(recipeSearchFilter);
+    boolean all = recipeSearchFilter.getOperator() == RecipeSearchOperatorEnum.ALL;
+
+    this.lock.readLock().lock();
+    try {
+      BitSet ordinals = null;
+      for (String term : terms) {
+        PostingList postingList = this.postings.get(term);
+        BitSet termOrdinals = postingList == null ? new BitSet() : postingList.toBitSet();
+        if (ordinals == null) {
+          ordinals = termOrdinals;
+        } else if (all) {
+          ordinals.and(termOrdinals);
+        } else {
+          ordinals.or(termOrdinals);
+        }
+      }
+
+      return new RecipeIndexMatch(ordinals, true);
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @param allowedOrdinals only these recipes can be returned
+   * @return the k best recipes by BM25 score, best first
+   */
+  public List<ScoredOrdinal> findTopRecipes(RecipeSearchFilter recipeSearchFilter, int k,
+      BitSet allowedOrdinals) {
+    if (k <= 0 || allowedOrdinals.isEmpty()) {
+      return List.of();
+    }
+
+    // worst of the current top-k first
+    Comparator<ScoredOrdinal> worstFirst = Comparator.comparingDouble(ScoredOrdinal::getScore)
+        .thenComparing(ScoredOrdinal::getOrdinal, Comparator.reverseOrder());
+    PriorityQueue<ScoredOrdinal> topRecipes = new PriorityQueue<>(worstFirst);
+
+    this.lock.readLock().lock();
+    try {
+      float averageLength = this.recipeLengths.isEmpty() ? 1
+          : (float) this.totalLength / this.recipeLengths.size();
+
+      List<TermCursor> cursors = new ArrayList<>();
+      for (String term : toQueryTerms(recipeSearchFilter)) {
+        PostingList postingList = this.postings.get(term);
+        if (postingList != null) {
+          cursors.add(new TermCursor(postingList, idf(postingList.size), averageLength));
+        }
+      }
+      List<TermCursor> queryCursors = List.copyOf(cursors);
+
+      while (true) {
+        float threshold = topRecipes.size() < k ? -1 : topRecipes.peek().getScore();
+
+        // pivot: first recipe whose accumulated upper bounds can beat the threshold
+        cursors.sort(Comparator.comparingInt(TermCursor::currentOrdinal));
+        float upperBounds = 0;
+        int pivotOrdinal = NO_MORE_RECIPES;
+        for (TermCursor cursor : cursors) {
+          if (cursor.currentOrdinal() == NO_MORE_RECIPES) {
+            break;
+          }
+          upperBounds += cursor.upperBound;
+          if (upperBounds > threshold) {
+            pivotOrdinal = cursor.currentOrdinal();
+            break;
+          }
+        }
+        if (pivotOrdinal == NO_MORE_RECIPES) {
+          break;
+        }
+
+        if (!allowedOrdinals.get(pivotOrdinal)) {
+          // no recipe before the next allowed one can enter the top-k
+          int nextAllowedOrdinal = allowedOrdinals.nextSetBit(pivotOrdinal + 1);
+          int target = nextAllowedOrdinal < 0 ? NO_MORE_RECIPES : nextAllowedOrdinal;
+          for (TermCursor cursor : cursors) {
+            if (cursor.currentOrdinal() <= pivotOrdinal) {
+              cursor.advanceTo(target);
+            }
+          }
+        } else if (cursors.get(0).currentOrdinal() == pivotOrdinal) {
+          // every cursor up to the pivot is on the pivot recipe: score it
+          // summed in query order, so that a recipe always gets the exact same score
+          float score = 0;
+          for (TermCursor cursor : queryCursors) {
+            if (cursor.currentOrdinal() == pivotOrdinal) {
+              score += cursor.score(this.recipeLengths.get(pivotOrdinal));
+            }
+          }
+          for (TermCursor cursor : queryCursors) {
+            if (cursor.currentOrdinal() == pivotOrdinal) {
+              cursor.advanceTo(pivotOrdinal + 1);
+            }
+          }
+          if (topRecipes.size() < k) {
+            topRecipes.add(new ScoredOrdinal(pivotOrdinal, score));
+          } else if (score > threshold) {
+            topRecipes.poll();
+            topRecipes.add(new ScoredOrdinal(pivotOrdinal, score));
+          }
+        } else {
+          // recipes before the pivot can not beat the threshold: skip them
+          for (TermCursor cursor : cursors) {
+            if (cursor.currentOrdinal() < pivotOrdinal) {
+              cursor.advanceTo(pivotOrdinal);
+            }
+          }
+        }
+      }
+    } finally {
+      this.lock.readLock().unlock();
+    }
+
+    List<ScoredOrdinal> bestFirst = new ArrayList<>(topRecipes);
+    bestFirst.sort(Collections.reverseOrder(worstFirst));
+
+    return bestFirst;
+  }
+
+  private static List<String> toQueryTerms(RecipeSearchFilter recipeSearchFilter) {
+    // duplicated terms would be scored twice
+    return new ArrayList<>(
+        new LinkedHashSet<>(RecipeTextAnalyzer.tokenize((String) recipeSearchFilter.getValue())));
+  }
+
+  private static void addTerms(Map<String, Integer> termFrequencies, String text, int weight) {
+    RecipeTextAnalyzer.tokenize(text)
+        .forEach(term -> termFrequencies.merge(term, weight, Integer::sum));
+  }
+
+  // must be called while holding the read lock
+  private float idf(int documentFrequency) {
+    int recipesCount = this.recipeLengths.size();
+
+    return (float) Math
+        .log(1 + (recipesCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+  }
+
+  // must be called while holding the write lock
+  private void removePostings(int ordinal) {
+    Map<String, Integer> previousTerms = this.indexedTerms.remove(ordinal);
+    if (previousTerms != null) {
+      previousTerms.keySet().forEach(term -> {
+        PostingList postingList = this.postings.get(term);
+        postingList.remove(ordinal);
+        if (postingList.size == 0) {
+          this.postings.remove(term);
+        }
+      });
+    }
+
+    Integer previousLength = this.recipeLengths.remove(ordinal);
+    if (previousLength != null) {
+      this.totalLength -= previousLength;
+    }
+  }
+
+  /**
+   * Recipes containing a term, sorted by ordinal, with their (weighted) term frequency
+   */
+  private static class PostingList {
+
+    private int[] ordinals = new int[4];
+    private int[] frequencies = new int[4];
+    private int size = 0;
+    // never decreased on removal: still a valid upper bound
+    private int maxFrequency = 0;
+
+    void add(int ordinal, int frequency) {
+      int position = Arrays.binarySearch(this.ordinals, 0, this.size, ordinal);
+      if (position >= 0) {
+        this.frequencies[position] = frequency;
+      } else {
+        position = -position - 1;
+        if (this.size == this.ordinals.length) {
+          this.ordinals = Arrays.copyOf(this.ordinals, this.size * 2);
+          this.frequencies = Arrays.copyOf(this.frequencies, this.size * 2);
+        }
+        // ordinals mostly grow, this is usually an append
+        System.arraycopy(this.ordinals, position, this.ordinals, position + 1,
+            this.size - position);
+        System.arraycopy(this.frequencies, position, this.frequencies, position + 1,
+            this.size - position);
+        this.ordinals[position] = ordinal;
+        this.frequencies[position] = frequency;
+        this.size++;
+      }
+      this.maxFrequency = Math.max(this.maxFrequency, frequency);
+    }
+
+    void remove(int ordinal) {
+      int position = Arrays.binarySearch(this.ordinals, 0, this.size, ordinal);
+      if (position >= 0) {
+        System.arraycopy(this.ordinals, position + 1, this.ordinals, position,
+            this.size - position - 1);
+        System.arraycopy(this.frequencies, position + 1, this.frequencies, position,
+            this.size - position - 1);
+        this.size--;
+      }
+    }
+
+    BitSet toBitSet() {
+      BitSet bitSet = new BitSet();
+      for (int i = 0; i < this.size; i++) {
+        bitSet.set(this.ordinals[i]);
+      }
+
+      return bitSet;
+    }
+
+  }
+
+  /**
+   * Position in the posting list of a query term
+   */
+  private static class TermCursor {
+
+    private final PostingList postingList;
+    private final float idf;
+    private final float averageLength;
+    // highest possible score of the term: highest frequency and shortest possible recipe
+    private final float upperBound;
+    private int position = 0;
+
+    TermCursor(PostingList postingList, float idf, float averageLength) {
+      this.postingList = postingList;
+      this.idf = idf;
+      this.averageLength = averageLength;
+      this.upperBound = idf * postingList.maxFrequency * (K1 + 1)
+          / (postingList.maxFrequency + K1 * (1 - B));
+    }
+
+    int currentOrdinal() {
+      return this.position < this.postingList.size ? this.postingList.ordinals[this.position]
+          : NO_MORE_RECIPES;
+    }
+
+    void advanceTo(int ordinal) {
+      if (ordinal == NO_MORE_RECIPES) {
+        this.position = this.postingList.size;
+        return;
+      }
+
+      int found =
+          Arrays.binarySearch(this.postingList.ordinals, this.position, this.postingList.size,
+              ordinal);
+      this.position = found >= 0 ? found : -found - 1;
+    }
+
+    float score(int recipeLength) {
+      int frequency = this.postingList.frequencies[this.position];
+
+      return this.idf * frequency * (K1 + 1)
+          / (frequency + K1 * (1 - B + B * recipeLength / this.averageLength));
+    }
+
+  }
+
+}
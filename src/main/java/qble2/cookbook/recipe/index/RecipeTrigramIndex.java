@@ -0,0 +1,194 @@
+package qble2.cookbook.recipe.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+/**
+ * Trigram -> recipes bitmaps over the recipe name, description and author username, resolving the
+ * "lower(field) LIKE '%term%'" filters (RECIPE_NAME, RECIPE_DESCRIPTION and RECIPE_AUTHOR) that no
+ * B-tree index can serve.
+ *
+ * Recipes containing every trigram of the term are candidates, which are then verified against
+ * the indexed (lower-cased) value, so that the match is exact.
+ */
+@Component
+public class RecipeTrigramIndex implements RecipeFilterIndex {
+
+  private static final int GRAM_SIZE = 3;
+
+  @Autowired
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // guarded by "lock"
+  private final Map<RecipeSearchFilterKeyEnum, FieldIndex> fieldIndexes =
+      new EnumMap<>(RecipeSearchFilterKeyEnum.class);
+
+  private final Map<RecipeSearchFilterKeyEnum, Function<RecipeDocument, String>> fieldValues =
+      Map.of(RecipeSearchFilterKeyEnum.RECIPE_NAME, RecipeDocument::getName,
+          RecipeSearchFilterKeyEnum.RECIPE_DESCRIPTION, RecipeDocument::getDescription,
+          RecipeSearchFilterKeyEnum.RECIPE_AUTHOR, RecipeDocument::getAuthorUsername);
+
+  public RecipeTrigramIndex() {
+    this.fieldValues.keySet().forEach(key -> this.fieldIndexes.put(key, new FieldIndex()));
+  }
+
+  @Override
+  public void index(RecipeDocument recipeDocument) {
+    int ordinal = this.recipeOrdinalRegistry.getOrCreateOrdinal(recipeDocument.getRecipeId());
+
+    this.lock.writeLock().lock();
+    try {
+      this.fieldIndexes.forEach((key, fieldIndex) -> fieldIndex.index(ordinal,
+          normalize(this.fieldValues.get(key).apply(recipeDocument))));
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(UUID recipeId) {
+    int ordinal = this.recipeOrdinalRegistry.getOrdinal(recipeId);
+    if (ordinal < 0) {
+      return;
+    }
+
+    this.lock.writeLock().lock();
+    try {
+      this.fieldIndexes.values().forEach(fieldIndex -> fieldIndex.index(ordinal, null));
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    this.lock.writeLock().lock();
+    try {
+      this.fieldIndexes.values().forEach(FieldIndex::clear);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean supports(RecipeSearchFilter recipeSearchFilter) {
+    if (!this.fieldIndexes.containsKey(recipeSearchFilter.getKey())
+        || recipeSearchFilter.getOperator() != RecipeSearchOperatorEnum.LIKE
+        || !(recipeSearchFilter.getValue() instanceof String value)) {
+      return false;
+    }
+
+    // shorter terms have no trigram, and LIKE wildcards in the term must be interpreted by the
+    // database
+    return !StringUtils.isBlank(value) && value.length() >= GRAM_SIZE
+        && !StringUtils.containsAny(value, '%', '_');
+  }
+
+  @Override
+  public RecipeIndexMatch match(RecipeSearchFilter recipeSearchFilter) {
+    String term = normalize((String) recipeSearchFilter.getValue());
+
+    this.lock.readLock().lock();
+    try {
+      return new RecipeIndexMatch(
+          this.fieldIndexes.get(recipeSearchFilter.getKey()).findContaining(term), true);
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  static String normalize(String value) {
+    return value == null ? null : value.toLowerCase(Locale.ROOT);
+  }
+
+  static Set<String> toTrigrams(String value) {
+    Set<String> trigrams = new HashSet<>();
+    for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+      trigrams.add(value.substring(i, i + GRAM_SIZE));
+    }
+
+    return trigrams;
+  }
+
+  /**
+   * Trigram postings of a single field, not thread-safe
+   */
+  private static class FieldIndex {
+
+    private final Map<String, BitSet> postings = new HashMap<>();
+
+    // indexed value by recipe ordinal, used to remove previous postings and to verify candidates
+    private final List<String> values = new ArrayList<>();
+
+    void index(int ordinal, String value) {
+      while (this.values.size() <= ordinal) {
+        this.values.add(null);
+      }
+
+      String previousValue = this.values.set(ordinal, value);
+      if (previousValue != null) {
+        toTrigrams(previousValue).forEach(trigram -> {
+          BitSet bitmap = this.postings.get(trigram);
+          bitmap.clear(ordinal);
+          if (bitmap.isEmpty()) {
+            this.postings.remove(trigram);
+          }
+        });
+      }
+
+      if (value != null) {
+        toTrigrams(value).forEach(
+            trigram -> this.postings.computeIfAbsent(trigram, key -> new BitSet()).set(ordinal));
+      }
+    }
+
+    BitSet findContaining(String term) {
+      BitSet candidates = null;
+      for (String trigram : toTrigrams(term)) {
+        BitSet bitmap = this.postings.get(trigram);
+        if (bitmap == null) {
+          return new BitSet();
+        }
+
+        if (candidates == null) {
+          candidates = (BitSet) bitmap.clone();
+        } else {
+          candidates.and(bitmap);
+        }
+      }
+
+      // every trigram matches, the value may still not contain the whole term
+      BitSet result = new BitSet();
+      candidates.stream().filter(ordinal -> this.values.get(ordinal).contains(term))
+          .forEach(result::set);
+
+      return result;
+    }
+
+    void clear() {
+      this.postings.clear();
+      this.values.clear();
+    }
+
+  }
+
+}
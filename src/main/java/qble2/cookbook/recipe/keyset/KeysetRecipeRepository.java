@@ -0,0 +1,22 @@
+package qble2.cookbook.recipe.keyset;
+
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.request.RecipeSearchSort;
+
+public interface KeysetRecipeRepository {
+
+  /**
+   * Keyset (seek) pagination: no offset and no count query, the cost of a page does not depend on
+   * how deep it is
+   *
+   * @param specification filters, sorting the query with RecipeQuerySorter
+   * @param recipeSearchSort sort applied by the specification
+   * @param cursor position of the last recipe of the previous page, null for the first page
+   * @param limit maximum number of recipes returned
+   */
+  List<Recipe> findBySpecificationAfterCursor(Specification<Recipe> specification,
+      RecipeSearchSort recipeSearchSort, RecipeSearchCursor cursor, int limit);
+
+}
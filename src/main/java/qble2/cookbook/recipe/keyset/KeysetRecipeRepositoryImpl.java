@@ -0,0 +1,83 @@
+package qble2.cookbook.recipe.keyset;
+
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import qble2.cookbook.recipe.enums.RecipeSearchSortDirectionEnum;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.model.Recipe_;
+import qble2.cookbook.recipe.request.RecipeSearchSort;
+
+@Repository
+@Slf4j
+public class KeysetRecipeRepositoryImpl implements KeysetRecipeRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<Recipe> findBySpecificationAfterCursor(Specification<Recipe> specification,
+      RecipeSearchSort recipeSearchSort, RecipeSearchCursor cursor, int limit) {
+    CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+    CriteriaQuery<Recipe> query = cb.createQuery(Recipe.class);
+    Root<Recipe> root = query.from(Recipe.class);
+
+    // filters + sort (sort key, then recipe id as tie-breaker)
+    Predicate predicate = specification.toPredicate(root, query, cb);
+
+    if (cursor != null) {
+      cursor.checkMatches(recipeSearchSort);
+      log.info("Seeking after recipe {} ( {}: {} )", cursor.getRecipeId(),
+          cursor.getSortKey(), cursor.getSortValue());
+      // the first order is always the sort key (see RecipeQuerySorter)
+      Expression<?> sortPath = query.getOrderList().get(0).getExpression();
+      predicate = cb.and(predicate, seekAfter(cb, sortPath, root.get(Recipe_.id), cursor));
+    }
+
+    query.select(root).where(predicate);
+
+    return this.entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  /**
+   * Rows strictly after the cursor in the (sort key, id) ordering.
+   *
+   * NULL values are considered lower than any other value (H2 default ordering): they come first
+   * when sorting ASC and last when sorting DESC.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Predicate seekAfter(CriteriaBuilder cb, Expression sortPath, Path<UUID> idPath,
+      RecipeSearchCursor cursor) {
+    Comparable sortValue = cursor.getSortValue();
+    UUID recipeId = cursor.getRecipeId();
+    boolean ascending = cursor.getSortDirection() == RecipeSearchSortDirectionEnum.ASC;
+
+    Predicate sameSortValueAndAfterId = ascending ? cb.greaterThan(idPath, recipeId)
+        : cb.lessThan(idPath, recipeId);
+
+    if (sortValue == null) {
+      Predicate sameNullSortValue = cb.and(cb.isNull(sortPath), sameSortValueAndAfterId);
+      // ASC: every non-null value comes after the nulls
+      return ascending ? cb.or(sameNullSortValue, cb.isNotNull(sortPath)) : sameNullSortValue;
+    }
+
+    Predicate afterSortValue = ascending ? cb.greaterThan(sortPath, sortValue)
+        : cb.lessThan(sortPath, sortValue);
+    Predicate sameSortValue = cb.and(cb.equal(sortPath, sortValue), sameSortValueAndAfterId);
+
+    // DESC: nulls come last
+    return ascending ? cb.or(afterSortValue, sameSortValue)
+        : cb.or(afterSortValue, sameSortValue, cb.isNull(sortPath));
+  }
+
+}
@@ -0,0 +1,115 @@
+package qble2.cookbook.recipe.keyset;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import qble2.cookbook.exception.InvalidArgumentException;
+import qble2.cookbook.recipe.enums.RecipeSearchSortDirectionEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchSortKeyEnum;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.request.RecipeSearchSort;
+
+/**
+ * Position of the last recipe returned by a keyset page: value of the active sort key + recipe id
+ * (tie-breaker).
+ *
+ * Exposed to clients as an opaque URL-safe Base64 string:
+ * {@code sortKey|sortDirection|recipeId|N} (null sort value) or
+ * {@code sortKey|sortDirection|recipeId|V<sortValue>}
+ */
+@Getter
+@AllArgsConstructor
+@Slf4j
+public class RecipeSearchCursor {
+
+  private static final String SEPARATOR = "|";
+  private static final String NULL_VALUE = "N";
+  private static final String VALUE_PREFIX = "V";
+
+  private RecipeSearchSortKeyEnum sortKey;
+
+  private RecipeSearchSortDirectionEnum sortDirection;
+
+  // null when the last recipe has no value for the sort key (e.g. no preparation time)
+  private Comparable<?> sortValue;
+
+  private UUID recipeId;
+
+  public static RecipeSearchCursor of(Recipe recipe, RecipeSearchSort recipeSearchSort) {
+    Comparable<?> sortValue = switch (recipeSearchSort.getKey()) {
+      case RECIPE_AUTHOR -> recipe.getAuthor().getUsername();
+      case RECIPE_NAME -> recipe.getName();
+      case RECIPE_PREPARATION_TIME -> recipe.getPreparationTime();
+      case RECIPE_COOKING_TIME -> recipe.getCookingTime();
+      case RECIPE_AVERAGE_RATING -> recipe.getAverageRating();
+      case RECIPE_CREATED_AT -> recipe.getCreatedAt();
+      // relevance is rejected in keyset mode (see RecipeService)
+      case RELEVANCE -> throw new InvalidArgumentException();
+    };
+
+    return new RecipeSearchCursor(recipeSearchSort.getKey(), recipeSearchSort.getDirection(),
+        sortValue, recipe.getId());
+  }
+
+  public String encode() {
+    String value = this.sortValue == null ? NULL_VALUE : VALUE_PREFIX + this.sortValue.toString();
+    String rawCursor = String.join(SEPARATOR, this.sortKey.name(), this.sortDirection.name(),
+        this.recipeId.toString(), value);
+
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static RecipeSearchCursor decode(String cursor) {
+    try {
+      String rawCursor =
+          new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      // the sort value is the last token, since it can contain the separator (e.g. a recipe name)
+      String[] tokens = rawCursor.split("\\" + SEPARATOR, 4);
+      if (tokens.length != 4) {
+        throw new InvalidArgumentException();
+      }
+
+      RecipeSearchSortKeyEnum sortKey = RecipeSearchSortKeyEnum.valueOf(tokens[0]);
+      RecipeSearchSortDirectionEnum sortDirection = RecipeSearchSortDirectionEnum.valueOf(tokens[1]);
+      UUID recipeId = UUID.fromString(tokens[2]);
+      Comparable<?> sortValue =
+          NULL_VALUE.equals(tokens[3]) ? null : parseSortValue(sortKey, tokens[3].substring(1));
+
+      return new RecipeSearchCursor(sortKey, sortDirection, sortValue, recipeId);
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      // DateTimeParseException and NumberFormatException are IllegalArgumentException as well
+      log.warn("Invalid recipe search cursor: {}", cursor);
+      throw new InvalidArgumentException();
+    }
+  }
+
+  /**
+   * A cursor can only be used with the sort it was created for
+   */
+  public void checkMatches(RecipeSearchSort recipeSearchSort) {
+    if (!Objects.equals(this.sortKey, recipeSearchSort.getKey())
+        || !Objects.equals(this.sortDirection, recipeSearchSort.getDirection())) {
+      log.warn("Recipe search cursor sort {} {} does not match the requested sort {} {}",
+          this.sortKey, this.sortDirection, recipeSearchSort.getKey(),
+          recipeSearchSort.getDirection());
+      throw new InvalidArgumentException();
+    }
+  }
+
+  private static Comparable<?> parseSortValue(RecipeSearchSortKeyEnum sortKey, String value) {
+    return switch (sortKey) {
+      case RECIPE_AUTHOR, RECIPE_NAME -> value;
+      case RECIPE_PREPARATION_TIME, RECIPE_COOKING_TIME -> Long.valueOf(value);
+      case RECIPE_AVERAGE_RATING -> Double.valueOf(value);
+      case RECIPE_CREATED_AT -> LocalDateTime.parse(value);
+      case RELEVANCE -> throw new InvalidArgumentException();
+    };
+  }
+
+}
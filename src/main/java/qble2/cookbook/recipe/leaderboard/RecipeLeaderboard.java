@@ -0,0 +1,128 @@
+package qble2.cookbook.recipe.leaderboard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Bounded top-N of a leaderboard. Writes must be serialized by the caller; reads of
+ * {@link #getEntries()} are lock-free (immutable snapshot of the first "size" entries, republished
+ * after every change).
+ *
+ * Once a recipe has been left out (board full), every recipe outside of the board scores at most as
+ * much as the last entry: a new score only has to be compared with it. An entry that drops below
+ * the last entry, or is removed, leaves the board; the remaining entries are still the best ones.
+ * The board keeps spare entries past "size" (up to "capacity"), so it only has to be recomputed
+ * (see {@link #reset}) once more entries than the spare ones have left it.
+ */
+class RecipeLeaderboard {
+
+  private final TreeSet<RecipeLeaderboardEntry> entries =
+      new TreeSet<>(RecipeLeaderboardEntry.RANKING_COMPARATOR);
+
+  private final Map<UUID, RecipeLeaderboardEntry> entriesByRecipeId = new HashMap<>();
+
+  // some recipe has been left out of the board
+  private boolean truncated = false;
+
+  private volatile List<RecipeLeaderboardEntry> snapshot = List.of();
+
+  /**
+   * @return the entries, best first
+   */
+  List<RecipeLeaderboardEntry> getEntries() {
+    return this.snapshot;
+  }
+
+  /**
+   * Adds the recipe, or updates its score
+   *
+   * @param size number of published entries
+   * @param capacity number of kept entries (published and spare ones)
+   * @return false if the board must be recomputed
+   */
+  boolean offer(UUID recipeId, double score, int size, int capacity) {
+    RecipeLeaderboardEntry entry = new RecipeLeaderboardEntry(recipeId, score);
+    RecipeLeaderboardEntry previousEntry = this.entriesByRecipeId.remove(recipeId);
+
+    if (previousEntry != null) {
+      this.entries.remove(previousEntry);
+      // recipes outside of the board may now rank before it
+      boolean droppedOut = this.truncated
+          && RecipeLeaderboardEntry.RANKING_COMPARATOR.compare(entry, previousEntry) > 0
+          && (this.entries.isEmpty()
+              || RecipeLeaderboardEntry.RANKING_COMPARATOR.compare(entry, this.entries.last()) > 0);
+      if (!droppedOut) {
+        add(entry);
+      }
+    } else if (!this.truncated && this.entries.size() < capacity) {
+      add(entry);
+    } else {
+      this.truncated = true;
+      if (this.entries.isEmpty()
+          || RecipeLeaderboardEntry.RANKING_COMPARATOR.compare(entry, this.entries.last()) >= 0) {
+        return isComplete(size);
+      }
+
+      add(entry);
+      if (this.entries.size() > capacity) {
+        this.entriesByRecipeId.remove(this.entries.pollLast().getRecipeId());
+      }
+    }
+
+    return publish(size);
+  }
+
+  /**
+   * @param size number of published entries
+   * @return false if the board must be recomputed
+   */
+  boolean remove(UUID recipeId, int size) {
+    RecipeLeaderboardEntry previousEntry = this.entriesByRecipeId.remove(recipeId);
+    if (previousEntry == null) {
+      return true;
+    }
+
+    this.entries.remove(previousEntry);
+    return publish(size);
+  }
+
+  /**
+   * @param candidates every recipe eligible to the board
+   * @param size number of published entries
+   * @param capacity number of kept entries (published and spare ones)
+   */
+  void reset(List<RecipeLeaderboardEntry> candidates, int size, int capacity) {
+    this.entries.clear();
+    this.entriesByRecipeId.clear();
+    candidates.stream().sorted(RecipeLeaderboardEntry.RANKING_COMPARATOR).limit(capacity)
+        .forEach(this::add);
+    this.truncated = candidates.size() > capacity;
+
+    publish(size);
+  }
+
+  private void add(RecipeLeaderboardEntry entry) {
+    this.entries.add(entry);
+    this.entriesByRecipeId.put(entry.getRecipeId(), entry);
+  }
+
+  // the first "size" entries are the best ones, unless some recipe was left out and too many
+  // entries have left the board since
+  private boolean isComplete(int size) {
+    return !this.truncated || this.entries.size() >= size;
+  }
+
+  // an incomplete board is not published: the caller recomputes it
+  private boolean publish(int size) {
+    if (!isComplete(size)) {
+      return false;
+    }
+
+    this.snapshot = this.entries.stream().limit(size).toList();
+    return true;
+  }
+
+}
@@ -0,0 +1,46 @@
+package qble2.cookbook.recipe.leaderboard;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+
+@RestController
+@RequestMapping(path = RecipeLeaderboardController.PATH,
+    produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+public class RecipeLeaderboardController {
+
+  public static final String PATH = "api/recipes/leaderboards";
+
+  @Autowired
+  private RecipeLeaderboardService recipeLeaderboardService;
+
+  /**
+   * e.g. GET api/recipes/leaderboards/TRENDING?tag=CAKE&size=10 (all recipes without tag)
+   */
+  @GetMapping(path = "/{type}")
+  public CollectionModel<RecipeLeaderboardEntryDto> getLeaderboard(
+      @PathVariable(name = "type") RecipeLeaderboardTypeEnum type,
+      @RequestParam(name = "tag", required = false) RecipeTagEnum tag,
+      @RequestParam(name = "size", required = false, defaultValue = "10") int size) {
+    List<RecipeLeaderboardEntryDto> entries =
+        this.recipeLeaderboardService.getLeaderboard(type, tag, size);
+
+    Link selfLink =
+        linkTo(methodOn(RecipeLeaderboardController.class).getLeaderboard(type, tag, size))
+            .withSelfRel();
+    return CollectionModel.of(entries, selfLink);
+  }
+
+}
@@ -0,0 +1,26 @@
+package qble2.cookbook.recipe.leaderboard;
+
+import java.util.Comparator;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Ranked recipe of a leaderboard (see {@link RecipeLeaderboardIndex} for the scores)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeLeaderboardEntry {
+
+  // best first, ties are broken by recipe id for a stable ranking
+  static final Comparator<RecipeLeaderboardEntry> RANKING_COMPARATOR =
+      Comparator.comparingDouble(RecipeLeaderboardEntry::getScore).reversed()
+          .thenComparing(RecipeLeaderboardEntry::getRecipeId);
+
+  private UUID recipeId;
+
+  private double score;
+
+}
@@ -0,0 +1,35 @@
+package qble2.cookbook.recipe.leaderboard;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.springframework.hateoas.server.core.Relation;
+import qble2.cookbook.recipe.dto.RecipeDto;
+
+@Getter
+@Setter
+@Accessors(chain = true, fluent = false)
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@Relation(collectionRelation = "leaderboard")
+@JsonPropertyOrder({"rank", "score", "recipe"})
+public class RecipeLeaderboardEntryDto {
+
+  // starting at 1
+  @JsonProperty("rank")
+  private int rank;
+
+  // TOP_RATED: Bayesian average rating, TRENDING: decayed activity (review: 2, favorite: 1)
+  @JsonProperty("score")
+  private double score;
+
+  @JsonProperty("recipe")
+  private RecipeDto recipe;
+
+}
@@ -0,0 +1,345 @@
+package qble2.cookbook.recipe.leaderboard;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.event.RecipeFavoritesChangedEvent;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeIndex;
+import qble2.cookbook.review.ReviewRepository;
+import qble2.cookbook.review.event.ReviewChangedEvent;
+
+/**
+ * Leaderboards of every tag (and of all recipes), kept as bounded top-N (see
+ * {@link RecipeLeaderboard}): reading one is a map lookup.
+ *
+ * <pre>
+ * - TOP_RATED: Bayesian average, (priorWeight * priorMean + ratingSum) / (priorWeight + ratingCount),
+ *   so that a single 5 stars review does not beat a hundred 4.8 ones. The prior mean (average of
+ *   every rating) is refreshed after each rebuild and periodically, not on every review.
+ * - TRENDING: sum of the activity weights (review: 2, favorite: 1), each decayed by its age with a
+ *   configurable half-life. Scores use forward decay: an activity at t adds
+ *   weight * exp(lambda * t), stored as a logarithm, so that scores never have to be decayed
+ *   (the decay factor at read time is the same for every recipe).
+ * </pre>
+ *
+ * Ratings and tags come from the indexed recipes, activity from review and favorite events. After a
+ * rebuild, activity is reloaded from the review dates (favorites are not timestamped, favorite
+ * activity only lives in memory).
+ */
+@Component
+@Slf4j
+public class RecipeLeaderboardIndex implements RecipeIndex {
+
+  static final double REVIEW_WEIGHT = 2;
+  static final double FAVORITE_WEIGHT = 1;
+
+  private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+  // middle of the ratings range, until the first refresh
+  static final double DEFAULT_PRIOR_MEAN = 2.5;
+
+  @Autowired
+  private ReviewRepository reviewRepository;
+
+  @Value("${recipe.leaderboards.size:20}")
+  private int size;
+
+  // kept past "size": a leaderboard is only recomputed (scan of every recipe) once as many of its
+  // entries have dropped out of it
+  @Value("${recipe.leaderboards.spare-entries:20}")
+  private int spareEntries;
+
+  @Value("${recipe.leaderboards.prior-weight:5}")
+  private double priorWeight;
+
+  @Value("${recipe.leaderboards.trending.half-life-hours:72}")
+  private double halfLifeHours;
+
+  // older reviews are not reloaded after a rebuild (1/1000 of their weight left, by default)
+  @Value("${recipe.leaderboards.trending.window-days:30}")
+  private int windowDays;
+
+  /**
+   * Indexed fields and activity of a recipe
+   */
+  private static class RecipeState {
+
+    private boolean indexed = false;
+
+    private Set<RecipeTagEnum> tags = Set.of();
+
+    private long ratingSum = 0;
+
+    private long ratingCount = 0;
+
+    private double activityLogScore = Double.NEGATIVE_INFINITY;
+
+  }
+
+  // guarded by "this"
+  private final Map<UUID, RecipeState> states = new HashMap<>();
+  private long totalRatingSum = 0;
+  private long totalRatingCount = 0;
+  private double priorMean = DEFAULT_PRIOR_MEAN;
+
+  // created once, never modified: lookups do not need any lock
+  private final Map<RecipeLeaderboardTypeEnum, RecipeLeaderboard> overallLeaderboards =
+      new EnumMap<>(RecipeLeaderboardTypeEnum.class);
+  private final Map<RecipeLeaderboardTypeEnum, Map<RecipeTagEnum, RecipeLeaderboard>> tagLeaderboards =
+      new EnumMap<>(RecipeLeaderboardTypeEnum.class);
+
+  public RecipeLeaderboardIndex() {
+    for (RecipeLeaderboardTypeEnum type : RecipeLeaderboardTypeEnum.values()) {
+      this.overallLeaderboards.put(type, new RecipeLeaderboard());
+      Map<RecipeTagEnum, RecipeLeaderboard> leaderboards = new EnumMap<>(RecipeTagEnum.class);
+      for (RecipeTagEnum tag : RecipeTagEnum.values()) {
+        leaderboards.put(tag, new RecipeLeaderboard());
+      }
+      this.tagLeaderboards.put(type, leaderboards);
+    }
+  }
+
+  /**
+   * @param tag null for the leaderboard of all recipes
+   * @return the ranked recipes, best first (TRENDING scores are logarithms, see
+   *         {@link #toTrendingScore})
+   */
+  public List<RecipeLeaderboardEntry> getLeaderboard(RecipeLeaderboardTypeEnum type,
+      RecipeTagEnum tag) {
+    return getRecipeLeaderboard(type, tag).getEntries();
+  }
+
+  @Override
+  public synchronized void index(RecipeDocument recipeDocument) {
+    RecipeState state =
+        this.states.computeIfAbsent(recipeDocument.getRecipeId(), key -> new RecipeState());
+    Set<RecipeTagEnum> previousTags = state.tags;
+
+    this.totalRatingSum += recipeDocument.getRatingSum() - state.ratingSum;
+    this.totalRatingCount += recipeDocument.getRatingCount() - state.ratingCount;
+    state.indexed = true;
+    state.tags = Set.copyOf(recipeDocument.getTags());
+    state.ratingSum = recipeDocument.getRatingSum();
+    state.ratingCount = recipeDocument.getRatingCount();
+
+    updateLeaderboards(recipeDocument.getRecipeId(), state, previousTags);
+  }
+
+  @Override
+  public synchronized void remove(UUID recipeId) {
+    RecipeState state = this.states.remove(recipeId);
+    if (state == null) {
+      return;
+    }
+
+    this.totalRatingSum -= state.ratingSum;
+    this.totalRatingCount -= state.ratingCount;
+    for (RecipeLeaderboardTypeEnum type : RecipeLeaderboardTypeEnum.values()) {
+      removeFromLeaderboard(type, null, recipeId);
+      state.tags.forEach(tag -> removeFromLeaderboard(type, tag, recipeId));
+    }
+  }
+
+  @Override
+  public synchronized void clear() {
+    this.states.clear();
+    this.totalRatingSum = 0;
+    this.totalRatingCount = 0;
+    this.priorMean = DEFAULT_PRIOR_MEAN;
+    refreshLeaderboards();
+  }
+
+  @Override
+  public void onRebuilt() {
+    List<RecipeReviewActivityDto> reviewActivities = this.reviewRepository
+        .findActivitiesSince(LocalDateTime.now().minusDays(this.windowDays));
+
+    synchronized (this) {
+      this.states.values().forEach(state -> state.activityLogScore = Double.NEGATIVE_INFINITY);
+      reviewActivities.forEach(reviewActivity -> {
+        RecipeState state = this.states.get(reviewActivity.getRecipeId());
+        if (state != null) {
+          state.activityLogScore = logAddExp(state.activityLogScore, toActivityLogScore(
+              REVIEW_WEIGHT, toEpochMillis(reviewActivity.getReviewDate()), this.halfLifeHours));
+        }
+      });
+      refresh();
+    }
+    log.info("Recipe leaderboards rebuilt ({} review activities)", reviewActivities.size());
+  }
+
+  /**
+   * Recomputes every leaderboard with the current average rating as prior mean
+   */
+  @Scheduled(fixedDelayString = "${recipe.leaderboards.refresh-delay-ms:600000}")
+  public synchronized void refresh() {
+    if (this.totalRatingCount > 0) {
+      this.priorMean = (double) this.totalRatingSum / this.totalRatingCount;
+    }
+    refreshLeaderboards();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onReviewChanged(ReviewChangedEvent event) {
+    // rating changes come with the re-indexed recipe
+    if (event.isCreated()) {
+      recordActivity(event.getRecipeId(), REVIEW_WEIGHT, System.currentTimeMillis());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRecipeFavoritesChanged(RecipeFavoritesChangedEvent event) {
+    if (event.isFavorited()) {
+      recordActivity(event.getRecipeId(), FAVORITE_WEIGHT, System.currentTimeMillis());
+    }
+  }
+
+  public synchronized void recordActivity(UUID recipeId, double weight, long epochMillis) {
+    RecipeState state = this.states.get(recipeId);
+    // not indexed (yet): reloaded from the reviews after the rebuild
+    if (state == null) {
+      return;
+    }
+
+    state.activityLogScore = logAddExp(state.activityLogScore,
+        toActivityLogScore(weight, epochMillis, this.halfLifeHours));
+    updateLeaderboards(recipeId, state, state.tags);
+  }
+
+  /**
+   * @return the Bayesian average rating
+   */
+  public static double toTopRatedScore(long ratingSum, long ratingCount, double priorMean,
+      double priorWeight) {
+    return (priorWeight * priorMean + ratingSum) / (priorWeight + ratingCount);
+  }
+
+  /**
+   * @return ln(weight * exp(lambda * t)), t in hours since the epoch
+   */
+  public static double toActivityLogScore(double weight, long epochMillis,
+      double halfLifeHours) {
+    return Math.log(weight) + Math.log(2) / halfLifeHours * (epochMillis / MILLIS_PER_HOUR);
+  }
+
+  /**
+   * @return the decayed activity at the given time, from a TRENDING score
+   */
+  public static double toTrendingScore(double activityLogScore, long epochMillis,
+      double halfLifeHours) {
+    return Math.exp(activityLogScore - toActivityLogScore(1, epochMillis, halfLifeHours));
+  }
+
+  /**
+   * @return ln(exp(a) + exp(b))
+   */
+  public static double logAddExp(double a, double b) {
+    double max = Math.max(a, b);
+    if (max == Double.NEGATIVE_INFINITY) {
+      return max;
+    }
+
+    return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+  }
+
+  static long toEpochMillis(LocalDateTime localDateTime) {
+    return localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  // must be called while holding the lock
+  private void updateLeaderboards(UUID recipeId, RecipeState state,
+      Set<RecipeTagEnum> previousTags) {
+    for (RecipeLeaderboardTypeEnum type : RecipeLeaderboardTypeEnum.values()) {
+      for (RecipeTagEnum previousTag : previousTags) {
+        if (!state.tags.contains(previousTag)) {
+          removeFromLeaderboard(type, previousTag, recipeId);
+        }
+      }
+
+      if (!isEligible(type, state)) {
+        removeFromLeaderboard(type, null, recipeId);
+        state.tags.forEach(tag -> removeFromLeaderboard(type, tag, recipeId));
+        continue;
+      }
+
+      double score = toScore(type, state);
+      offerToLeaderboard(type, null, recipeId, score);
+      state.tags.forEach(tag -> offerToLeaderboard(type, tag, recipeId, score));
+    }
+  }
+
+  // must be called while holding the lock
+  private void offerToLeaderboard(RecipeLeaderboardTypeEnum type, RecipeTagEnum tag,
+      UUID recipeId, double score) {
+    if (!getRecipeLeaderboard(type, tag).offer(recipeId, score, this.size,
+        this.size + this.spareEntries)) {
+      resetLeaderboard(type, tag);
+    }
+  }
+
+  // must be called while holding the lock
+  private void removeFromLeaderboard(RecipeLeaderboardTypeEnum type, RecipeTagEnum tag,
+      UUID recipeId) {
+    if (!getRecipeLeaderboard(type, tag).remove(recipeId, this.size)) {
+      resetLeaderboard(type, tag);
+    }
+  }
+
+  // must be called while holding the lock
+  private void refreshLeaderboards() {
+    for (RecipeLeaderboardTypeEnum type : RecipeLeaderboardTypeEnum.values()) {
+      resetLeaderboard(type, null);
+      for (RecipeTagEnum tag : RecipeTagEnum.values()) {
+        resetLeaderboard(type, tag);
+      }
+    }
+  }
+
+  // must be called while holding the lock: scans every recipe
+  private void resetLeaderboard(RecipeLeaderboardTypeEnum type, RecipeTagEnum tag) {
+    List<RecipeLeaderboardEntry> candidates = new ArrayList<>();
+    this.states.forEach((recipeId, state) -> {
+      if (isEligible(type, state) && (tag == null || state.tags.contains(tag))) {
+        candidates.add(new RecipeLeaderboardEntry(recipeId, toScore(type, state)));
+      }
+    });
+
+    getRecipeLeaderboard(type, tag).reset(candidates, this.size, this.size + this.spareEntries);
+  }
+
+  private RecipeLeaderboard getRecipeLeaderboard(RecipeLeaderboardTypeEnum type,
+      RecipeTagEnum tag) {
+    return tag == null ? this.overallLeaderboards.get(type)
+        : this.tagLeaderboards.get(type).get(tag);
+  }
+
+  private static boolean isEligible(RecipeLeaderboardTypeEnum type, RecipeState state) {
+    return state.indexed && switch (type) {
+      case TOP_RATED -> state.ratingCount > 0;
+      case TRENDING -> state.activityLogScore > Double.NEGATIVE_INFINITY;
+    };
+  }
+
+  private double toScore(RecipeLeaderboardTypeEnum type, RecipeState state) {
+    return switch (type) {
+      case TOP_RATED -> toTopRatedScore(state.ratingSum, state.ratingCount, this.priorMean,
+          this.priorWeight);
+      case TRENDING -> state.activityLogScore;
+    };
+  }
+
+}
@@ -0,0 +1,153 @@
+package qble2.cookbook.recipe.leaderboard;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import qble2.cookbook.exception.InvalidArgumentException;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.RecipeSummaryLoader;
+import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dto.RecipeRatingAggregateDto;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.review.ReviewRepository;
+
+/**
+ * Top-rated and trending recipes, overall or by tag (see {@link RecipeLeaderboardIndex}).
+ *
+ * <pre>
+ * - in-memory indexes ready: the precomputed leaderboard is read as is
+ * - otherwise: the leaderboard is computed from the rating aggregates and the review dates (same
+ *   scores, except that favorites, not being timestamped, are not part of the trending activity)
+ * </pre>
+ */
+@Service
+@Transactional
+public class RecipeLeaderboardService {
+
+  @Autowired
+  private RecipeIndexManager recipeIndexManager;
+
+  @Autowired
+  private RecipeLeaderboardIndex recipeLeaderboardIndex;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private ReviewRepository reviewRepository;
+
+  @Autowired
+  private RecipeSummaryLoader recipeSummaryLoader;
+
+  // number of recipes kept by each leaderboard
+  @Value("${recipe.leaderboards.size:20}")
+  private int maxSize;
+
+  @Value("${recipe.leaderboards.prior-weight:5}")
+  private double priorWeight;
+
+  @Value("${recipe.leaderboards.trending.half-life-hours:72}")
+  private double halfLifeHours;
+
+  @Value("${recipe.leaderboards.trending.window-days:30}")
+  private int windowDays;
+
+  /**
+   * @param tag null for the leaderboard of all recipes
+   */
+  public List<RecipeLeaderboardEntryDto> getLeaderboard(RecipeLeaderboardTypeEnum type,
+      RecipeTagEnum tag, int size) {
+    if (size < 1 || size > this.maxSize) {
+      throw new InvalidArgumentException();
+    }
+
+    List<RecipeLeaderboardEntry> entries = this.recipeIndexManager.isReady()
+        ? this.recipeLeaderboardIndex.getLeaderboard(type, tag)
+        : computeLeaderboardInDatabase(type, tag);
+
+    return toDtos(type, entries.stream().limit(size).toList());
+  }
+
+  private List<RecipeLeaderboardEntry> computeLeaderboardInDatabase(
+      RecipeLeaderboardTypeEnum type, RecipeTagEnum tag) {
+    List<RecipeLeaderboardEntry> entries = switch (type) {
+      case TOP_RATED -> computeTopRatedInDatabase(tag);
+      case TRENDING -> computeTrendingInDatabase(tag);
+    };
+
+    return entries.stream().sorted(RecipeLeaderboardEntry.RANKING_COMPARATOR).limit(this.maxSize)
+        .toList();
+  }
+
+  // same scores as RecipeLeaderboardIndex
+  private List<RecipeLeaderboardEntry> computeTopRatedInDatabase(RecipeTagEnum tag) {
+    Double averageRating = this.reviewRepository.findAverageRating();
+    double priorMean =
+        averageRating != null ? averageRating : RecipeLeaderboardIndex.DEFAULT_PRIOR_MEAN;
+
+    List<RecipeRatingAggregateDto> ratingAggregates = tag == null
+        ? this.recipeRepository.findRatedRatingAggregates()
+        : this.recipeRepository.findRatedRatingAggregatesByTag(tag);
+
+    return ratingAggregates.stream()
+        .map(ratingAggregate -> new RecipeLeaderboardEntry(ratingAggregate.getRecipeId(),
+            RecipeLeaderboardIndex.toTopRatedScore(ratingAggregate.getRatingSum(),
+                ratingAggregate.getRatingCount(), priorMean, this.priorWeight)))
+        .toList();
+  }
+
+  // same scores as RecipeLeaderboardIndex
+  private List<RecipeLeaderboardEntry> computeTrendingInDatabase(RecipeTagEnum tag) {
+    LocalDateTime since = LocalDateTime.now().minusDays(this.windowDays);
+    List<RecipeReviewActivityDto> reviewActivities = tag == null
+        ? this.reviewRepository.findActivitiesSince(since)
+        : this.reviewRepository.findActivitiesByRecipeTagSince(tag, since);
+
+    Map<UUID, Double> activityLogScores = new HashMap<>();
+    reviewActivities.forEach(reviewActivity -> activityLogScores.merge(
+        reviewActivity.getRecipeId(),
+        RecipeLeaderboardIndex.toActivityLogScore(RecipeLeaderboardIndex.REVIEW_WEIGHT,
+            RecipeLeaderboardIndex.toEpochMillis(reviewActivity.getReviewDate()),
+            this.halfLifeHours),
+        RecipeLeaderboardIndex::logAddExp));
+
+    return activityLogScores.entrySet().stream()
+        .map(entry -> new RecipeLeaderboardEntry(entry.getKey(), entry.getValue())).toList();
+  }
+
+  private List<RecipeLeaderboardEntryDto> toDtos(RecipeLeaderboardTypeEnum type,
+      List<RecipeLeaderboardEntry> entries) {
+    Map<UUID, RecipeDto> recipeDtos = this.recipeSummaryLoader
+        .loadMinimalDtos(entries.stream().map(RecipeLeaderboardEntry::getRecipeId).toList())
+        .stream().collect(Collectors.toMap(RecipeDto::getId, Function.identity()));
+
+    long now = System.currentTimeMillis();
+    List<RecipeLeaderboardEntryDto> entryDtos = new ArrayList<>(entries.size());
+    for (RecipeLeaderboardEntry entry : entries) {
+      RecipeDto recipeDto = recipeDtos.get(entry.getRecipeId());
+      // deleted in the meantime
+      if (recipeDto == null) {
+        continue;
+      }
+
+      double score = type == RecipeLeaderboardTypeEnum.TRENDING
+          ? RecipeLeaderboardIndex.toTrendingScore(entry.getScore(), now, this.halfLifeHours)
+          : entry.getScore();
+      entryDtos.add(RecipeLeaderboardEntryDto.builder().rank(entryDtos.size() + 1).score(score)
+          .recipe(recipeDto).build());
+    }
+
+    return entryDtos;
+  }
+
+}
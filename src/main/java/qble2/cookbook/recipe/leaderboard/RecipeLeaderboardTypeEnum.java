@@ -0,0 +1,11 @@
+package qble2.cookbook.recipe.leaderboard;
+
+public enum RecipeLeaderboardTypeEnum {
+
+  // Bayesian-smoothed average rating
+  TOP_RATED,
+
+  // time-decayed review and favorite activity
+  TRENDING
+
+}
@@ -0,0 +1,21 @@
+package qble2.cookbook.recipe.leaderboard;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Review of a recipe, as an activity of the trending leaderboards
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeReviewActivityDto {
+
+  private UUID recipeId;
+
+  private LocalDateTime reviewDate;
+
+}
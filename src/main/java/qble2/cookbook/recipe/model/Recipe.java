@@ -1,5 +1,8 @@
 package qble2.cookbook.recipe.model;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -15,6 +18,7 @@ import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
 import javax.persistence.ManyToMany;
@@ -24,7 +28,10 @@ import javax.persistence.NamedEntityGraph;
 import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -33,17 +40,21 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
-import org.hibernate.annotations.Formula;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Type;
 import qble2.cookbook.ingredient.model.Ingredient;
 import qble2.cookbook.ingredient.model.UnitOfMeasureEnum;
 import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.enums.RecipeTagsMaskUtils;
 import qble2.cookbook.review.model.Review;
 import qble2.cookbook.user.model.User;
 
 @Entity(name = "Recipe")
-@Table(name = "Recipe")
+// (sort key, id) indexes used by filters and keyset pagination
+@Table(name = "Recipe",
+    indexes = {@Index(name = "idx_recipe_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_recipe_average_rating_id", columnList = "averageRating, id")})
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Getter
@@ -64,6 +75,9 @@ import qble2.cookbook.user.model.User;
     attributeNodes = {@NamedAttributeNode(value = "reviews")})
 public class Recipe {
 
+  // clock of "modifiedAt" (see RecipeVersionDto)
+  public static final Clock MODIFIED_AT_CLOCK = Clock.systemUTC();
+
   @Id
   @GeneratedValue(generator = "UUID")
   @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
@@ -93,6 +107,17 @@ public class Recipe {
   @Column(name = "editedAt", nullable = true)
   private LocalDateTime editedAt;
 
+  // incremented by every write of the recipe, of its collections, and of its reviews (see
+  // RecipeRepository.addToRatingAggregates): validator (ETag) of the recipe and of its
+  // sub-resources
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
+
+  // set with "version" (Last-Modified), in UTC whatever the time zone of the server
+  @Column(name = "modifiedAt", nullable = false)
+  private LocalDateTime modifiedAt;
+
   @ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
   @JoinColumn(name = "authorId", nullable = false)
   @ToString.Exclude // excluding lazily fetched associations from your toString() to avoid
@@ -180,6 +205,7 @@ public class Recipe {
   public Recipe updateTags(Set<RecipeTagEnum> tags) {
     this.tags.clear();
     this.tags.addAll(tags);
+    this.tagsMask = RecipeTagsMaskUtils.toTagsMask(this.tags);
 
     return this;
   }
@@ -200,18 +226,72 @@ public class Recipe {
   // }
 
   /**
-   * Calculated Properties
+   * Tags mask
    **/
 
-  // @Formula: custom calculation of a transient property on database level
-  @Formula("select cast(avg(rev.rating) as decimal(4, 2))" + " from review rev"
-      + " where rev.recipe_id = id")
+  // denormalized from "tags" (see RecipeTagsMaskUtils): tag filters are bitwise predicates on
+  // this column, and pages of recipes read their tags from it, instead of joining the RecipeTag
+  // table. Not indexed: a B-tree index can not serve a bitwise predicate
+  @Column(name = "tagsMask", nullable = false)
+  @Builder.Default
+  private long tagsMask = 0;
+
+  @PrePersist
+  @PreUpdate
+  void beforeWrite() {
+    updateTagsMask();
+    this.modifiedAt = LocalDateTime.now(MODIFIED_AT_CLOCK);
+  }
+
+  // "tags" may also have been set or modified in place (builder, mapper: every update of a recipe
+  // also sets "editedAt"). Tags that have not been loaded have not been modified (and must not be
+  // loaded while flushing)
+  private void updateTagsMask() {
+    if (Hibernate.isInitialized(this.tags)) {
+      this.tagsMask = RecipeTagsMaskUtils.toTagsMask(this.tags);
+    }
+  }
+
+  /**
+   * Rating aggregates
+   **/
+
+  // denormalized from Review, incremented atomically by ReviewService (see
+  // RecipeRepository.addToRatingAggregates), RecipeRatingsReconciliationJob repairs any drift
+  @Column(name = "ratingSum", nullable = false)
+  @Builder.Default
+  private long ratingSum = 0;
+
+  @Column(name = "ratingCount", nullable = false)
+  @Builder.Default
+  private long ratingCount = 0;
+
+  // null when the recipe has not been reviewed yet
+  @Column(name = "averageRating", nullable = true)
   private Double averageRating;
 
-  // @PostLoad: custom calculation of a transient property on application level
-  // @PostLoad
-  // private void postLoad() {
-  // // ....
-  // }
+  // in-memory only (e.g. new recipe): the reviews of a persisted recipe are rated by ReviewService
+  public Recipe addRating(int rating) {
+    return updateRatingAggregates(this.ratingSum + rating, this.ratingCount + 1);
+  }
+
+  public Recipe updateRatingAggregates(long ratingSum, long ratingCount) {
+    this.modifiedAt = LocalDateTime.now(MODIFIED_AT_CLOCK);
+    this.ratingSum = ratingSum;
+    this.ratingCount = ratingCount;
+    this.averageRating = computeAverageRating(ratingSum, ratingCount);
+
+    return this;
+  }
+
+  // same precision as the previous "cast(avg(rating) as decimal(4, 2))" formula
+  public static Double computeAverageRating(long ratingSum, long ratingCount) {
+    if (ratingCount <= 0) {
+      return null;
+    }
+
+    return BigDecimal.valueOf(ratingSum)
+        .divide(BigDecimal.valueOf(ratingCount), 2, RoundingMode.HALF_UP).doubleValue();
+  }
 
 }
@@ -0,0 +1,46 @@
+package qble2.cookbook.recipe.pantry;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.List;
+import javax.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(path = RecipePantryController.PATH,
+    produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+@Validated
+public class RecipePantryController {
+
+  public static final String PATH = "api/recipes/pantry";
+
+  @Autowired
+  private RecipePantryService recipePantryService;
+
+  /**
+   * e.g. POST api/recipes/pantry?size=10 {"ingredientIds": [...], "maxMissingIngredients": 2}
+   */
+  @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+  public CollectionModel<RecipePantryMatchDto> searchRecipes(
+      @Valid @RequestBody(required = true) RecipePantrySearchRequest pantrySearch,
+      @RequestParam(name = "size", required = false, defaultValue = "10") int size) {
+    List<RecipePantryMatchDto> matches = this.recipePantryService.searchRecipes(pantrySearch, size);
+
+    Link selfLink =
+        linkTo(methodOn(RecipePantryController.class).searchRecipes(pantrySearch, size))
+            .withSelfRel();
+    return CollectionModel.of(matches, selfLink);
+  }
+
+}
@@ -0,0 +1,23 @@
+package qble2.cookbook.recipe.pantry;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Number of ingredients of a recipe, and how many of them are in the pantry (database fallback of
+ * the pantry search)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipePantryCountDto {
+
+  private UUID recipeId;
+
+  private Long ingredientsCount;
+
+  private Long matchedIngredientsCount;
+
+}
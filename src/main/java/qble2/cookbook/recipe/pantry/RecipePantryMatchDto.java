@@ -0,0 +1,45 @@
+package qble2.cookbook.recipe.pantry;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.springframework.hateoas.server.core.Relation;
+import qble2.cookbook.recipe.dto.RecipeDto;
+
+@Getter
+@Setter
+@Accessors(chain = true, fluent = false)
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@Relation(collectionRelation = "matches")
+@JsonPropertyOrder({"coverage", "ingredientsCount", "matchedIngredientsCount",
+    "missingIngredientIds", "recipe"})
+public class RecipePantryMatchDto {
+
+  // fraction of the recipe ingredients present in the pantry
+  @JsonProperty("coverage")
+  private double coverage;
+
+  @JsonProperty("ingredientsCount")
+  private int ingredientsCount;
+
+  @JsonProperty("matchedIngredientsCount")
+  private int matchedIngredientsCount;
+
+  @JsonProperty("missingIngredientIds")
+  @Builder.Default
+  private List<UUID> missingIngredientIds = new ArrayList<>();
+
+  @JsonProperty("recipe")
+  private RecipeDto recipe;
+
+}
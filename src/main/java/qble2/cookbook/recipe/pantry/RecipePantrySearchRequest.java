@@ -0,0 +1,36 @@
+package qble2.cookbook.recipe.pantry;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Accessors(chain = true, fluent = false)
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@Validated
+public class RecipePantrySearchRequest {
+
+  @NotEmpty(message = "{pantry.ingredientIds.NotEmpty.message}")
+  @JsonProperty("ingredientIds")
+  @Builder.Default
+  private Set<UUID> ingredientIds = new HashSet<>();
+
+  // no limit when null
+  @Min(value = 0, message = "{pantry.maxMissingIngredients.Min.message} {value}")
+  @JsonProperty("maxMissingIngredients")
+  private Integer maxMissingIngredients;
+
+}
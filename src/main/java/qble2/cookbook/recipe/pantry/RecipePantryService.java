@@ -0,0 +1,122 @@
+package qble2.cookbook.recipe.pantry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import qble2.cookbook.exception.InvalidArgumentException;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.RecipeSummaryLoader;
+import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.recipe.index.RecipePantryIndex;
+import qble2.cookbook.recipe.index.RecipePantryMatch;
+import qble2.cookbook.recipe.model.Recipe;
+
+/**
+ * Ranks recipes by how much of their ingredients are in the pantry (see
+ * {@link RecipePantryMatch#compare}).
+ *
+ * <pre>
+ * - in-memory indexes ready: top-k over the recipes using at least one pantry ingredient
+ * - otherwise: per recipe ingredient counts are aggregated by the database, then ranked here
+ * </pre>
+ */
+@Service
+@Transactional
+public class RecipePantryService {
+
+  // ties are broken by recipe id, for a stable ranking
+  private static final Comparator<RecipePantryCountDto> PANTRY_COUNT_COMPARATOR =
+      ((Comparator<RecipePantryCountDto>) (a, b) -> RecipePantryMatch.compare(
+          a.getMatchedIngredientsCount().intValue(), a.getIngredientsCount().intValue(),
+          b.getMatchedIngredientsCount().intValue(), b.getIngredientsCount().intValue()))
+              .thenComparing(RecipePantryCountDto::getRecipeId);
+
+  @Autowired
+  private RecipeIndexManager recipeIndexManager;
+
+  @Autowired
+  private RecipePantryIndex recipePantryIndex;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private RecipeSummaryLoader recipeSummaryLoader;
+
+  @Value("${recipe.pantry.max-size:100}")
+  private int maxSize;
+
+  public List<RecipePantryMatchDto> searchRecipes(RecipePantrySearchRequest pantrySearch,
+      int size) {
+    if (size < 1 || size > this.maxSize) {
+      throw new InvalidArgumentException();
+    }
+
+    List<RecipePantryMatch> topMatches = this.recipeIndexManager.isReady()
+        ? this.recipePantryIndex.findTopMatches(pantrySearch.getIngredientIds(),
+            pantrySearch.getMaxMissingIngredients(), size)
+        : findTopMatchesInDatabase(pantrySearch.getIngredientIds(),
+            pantrySearch.getMaxMissingIngredients(), size);
+
+    Map<UUID, RecipeDto> recipeDtos = this.recipeSummaryLoader
+        .loadMinimalDtos(topMatches.stream().map(RecipePantryMatch::getRecipeId).toList()).stream()
+        .collect(Collectors.toMap(RecipeDto::getId, Function.identity()));
+
+    List<RecipePantryMatchDto> matchDtos = new ArrayList<>(topMatches.size());
+    for (RecipePantryMatch match : topMatches) {
+      RecipeDto recipeDto = recipeDtos.get(match.getRecipeId());
+      // deleted since it was indexed
+      if (recipeDto == null) {
+        continue;
+      }
+
+      matchDtos.add(RecipePantryMatchDto.builder().coverage(match.getCoverage())
+          .ingredientsCount(match.getIngredientsCount())
+          .matchedIngredientsCount(match.getMatchedIngredientsCount())
+          .missingIngredientIds(match.getMissingIngredientIds()).recipe(recipeDto).build());
+    }
+
+    return matchDtos;
+  }
+
+  private List<RecipePantryMatch> findTopMatchesInDatabase(Set<UUID> pantryIngredientIds,
+      Integer maxMissingIngredients, int k) {
+    List<RecipePantryCountDto> topCounts = this.recipeRepository
+        .countPantryIngredients(pantryIngredientIds,
+            maxMissingIngredients != null ? maxMissingIngredients : Long.MAX_VALUE)
+        .stream().sorted(PANTRY_COUNT_COMPARATOR).limit(k).toList();
+    if (topCounts.isEmpty()) {
+      return List.of();
+    }
+
+    // fetched collections may repeat the same recipe
+    Map<UUID, Recipe> recipes = this.recipeRepository
+        .findAllByIdInAndLoadIndexedFields(
+            topCounts.stream().map(RecipePantryCountDto::getRecipeId).toList())
+        .stream().collect(Collectors.toMap(Recipe::getId, Function.identity(), (a, b) -> a));
+
+    List<RecipePantryMatch> topMatches = new ArrayList<>(topCounts.size());
+    for (RecipePantryCountDto count : topCounts) {
+      Recipe recipe = recipes.get(count.getRecipeId());
+      List<UUID> missingIngredientIds = RecipeDocument.of(recipe).getIngredientIds().stream()
+          .filter(ingredientId -> !pantryIngredientIds.contains(ingredientId)).sorted().toList();
+      topMatches.add(new RecipePantryMatch(count.getRecipeId(),
+          count.getIngredientsCount().intValue(), count.getMatchedIngredientsCount().intValue(),
+          missingIngredientIds));
+    }
+
+    return topMatches;
+  }
+
+}
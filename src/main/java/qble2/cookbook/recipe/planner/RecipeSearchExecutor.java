@@ -0,0 +1,153 @@
+package qble2.cookbook.recipe.planner;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.cache.RecipeSearchCache;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+
+/**
+ * Executes the page query and the count query of a search at the same time, instead of one after
+ * the other:
+ * <ul>
+ * <li>the count runs on another pooled connection, in its own read-only transaction, and is shared
+ * with the search cache (it does not depend on the page)</li>
+ * <li>the ids of the page are fetched meanwhile by the calling transaction, with one extra id: the
+ * count is cancelled when the page tells the total by itself (last page)</li>
+ * </ul>
+ * The number of extra connections is bounded by the number of threads. When every thread is busy
+ * and the queue is full, the count is run by the calling thread, in the calling transaction; a
+ * count that is not done in time is run again sequentially, so that a slow count can not hold the
+ * request (nor its connection) indefinitely.
+ */
+@Component
+@Slf4j
+public class RecipeSearchExecutor {
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private RecipeSearchCache recipeSearchCache;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${recipe.search.concurrent-count-enabled:false}")
+  private boolean concurrentCountEnabled;
+
+  @Value("${recipe.search.concurrent-count.threads:4}")
+  private int threads;
+
+  @Value("${recipe.search.concurrent-count.queue-capacity:16}")
+  private int queueCapacity;
+
+  @Value("${recipe.search.concurrent-count.timeout-ms:2000}")
+  private long timeoutMillis;
+
+  private ExecutorService countExecutorService;
+
+  @PostConstruct
+  public void start() {
+    if (this.concurrentCountEnabled) {
+      this.countExecutorService = new ThreadPoolExecutor(this.threads, this.threads, 0L,
+          TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(this.queueCapacity), newThreadFactory(),
+          new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (this.countExecutorService != null) {
+      this.countExecutorService.shutdownNow();
+    }
+  }
+
+  /**
+   * Same page as findIdsBySpecification(specification, pageable)
+   *
+   * @param recipeSearch the search of the specification (count cache key)
+   */
+  public Page<UUID> findIdsBySpecification(RecipeSearchRequest recipeSearch,
+      Specification<Recipe> specification, Pageable pageable) {
+    if (this.countExecutorService == null || pageable.isUnpaged()) {
+      return this.recipeRepository.findIdsBySpecification(specification, pageable);
+    }
+
+    CompletableFuture<Long> count = CompletableFuture.supplyAsync(
+        () -> this.recipeSearchCache.getCount(recipeSearch,
+            () -> newReadOnlyTransaction()
+                .execute(status -> this.recipeRepository.countBySpecification(specification))),
+        this.countExecutorService);
+
+    Slice<UUID> slice =
+        this.recipeRepository.findSliceOfIdsBySpecification(specification, pageable);
+    List<UUID> recipeIds = slice.getContent();
+    if (!slice.hasNext() && (!recipeIds.isEmpty() || pageable.getOffset() == 0)) {
+      // a queued count is not run anymore, a running one is left to the cache
+      count.cancel(false);
+      return new PageImpl<>(recipeIds, pageable, pageable.getOffset() + recipeIds.size());
+    }
+
+    try {
+      return new PageImpl<>(recipeIds, pageable,
+          count.get(this.timeoutMillis, TimeUnit.MILLISECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Recipe search count has been interrupted, it is executed again sequentially");
+    } catch (ExecutionException | TimeoutException e) {
+      // e.g. no connection available: the page query has succeeded, the count is retried here
+      log.warn("Recipe search count has failed or timed out, it is executed again sequentially",
+          e instanceof ExecutionException ? e.getCause() : e);
+    }
+
+    count.cancel(false);
+    return new PageImpl<>(recipeIds, pageable,
+        this.recipeRepository.countBySpecification(specification));
+  }
+
+  // a count thread has its own transaction, and thus its own connection; a count run by the calling
+  // thread (every count thread busy) joins the calling transaction instead of taking a second
+  // connection
+  private TransactionTemplate newReadOnlyTransaction() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+    transactionTemplate.setReadOnly(true);
+
+    return transactionTemplate;
+  }
+
+  private static ThreadFactory newThreadFactory() {
+    AtomicInteger threadsCount = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, "recipe-search-count-" + threadsCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+}
@@ -0,0 +1,35 @@
+package qble2.cookbook.recipe.planner;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import qble2.cookbook.recipe.index.RecipeSearchCandidates;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.recipe.specification.RecipeSpecification;
+
+/**
+ * How a search is executed by the database (see RecipeSearchPlanner)
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeSearchPlan {
+
+  // recipes pre-selected by the in-memory indexes or by the pre-filter
+  private final RecipeSearchCandidates recipeSearchCandidates;
+
+  // every filter of the search, most selective first
+  private final List<RecipeSearchFilter> orderedFilters;
+
+  // human readable plan (debug)
+  private final String description;
+
+  // upper bound of the number of matching recipes, RecipeFilterStatistics.UNKNOWN when a filter
+  // can not be estimated
+  private final long estimatedCount;
+
+  public RecipeSpecification toSpecification(RecipeSearchRequest recipeSearch) {
+    return new RecipeSpecification(recipeSearch, this.recipeSearchCandidates, this.orderedFilters);
+  }
+
+}
@@ -0,0 +1,202 @@
+package qble2.cookbook.recipe.planner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.index.RecipeFilterStatistics;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.recipe.index.RecipeIndexSearcher;
+import qble2.cookbook.recipe.index.RecipeSearchCandidates;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.recipe.specification.RecipeSpecification;
+
+/**
+ * Plans the execution of a search by the database:
+ * <ul>
+ * <li>filters supported by the in-memory indexes are resolved first (see RecipeIndexSearcher)</li>
+ * <li>the remaining filters are ordered by estimated selectivity (see RecipeFilterStatistics),
+ * filters that can not be estimated come last</li>
+ * <li>when the search has not been narrowed by the indexes, and its most selective filter matches
+ * few recipes, that filter is executed alone first (pre-filter): the main query (and its count
+ * query) then only checks the other filters on a list of ids</li>
+ * </ul>
+ * Without statistics (indexes not ready), filters are applied in request order.
+ *
+ * The statistics also give approximate totals to the pages that are not counted (see
+ * PageCountModeEnum).
+ */
+@Component
+@Slf4j
+public class RecipeSearchPlanner {
+
+  // filters that can not be estimated come last
+  private static final Comparator<FilterEstimate> ESTIMATE_COMPARATOR = Comparator
+      .comparing((FilterEstimate filterEstimate) -> filterEstimate.isUnknown())
+      .thenComparingLong(filterEstimate -> filterEstimate.estimate);
+
+  @Autowired
+  private RecipeIndexManager recipeIndexManager;
+
+  @Autowired
+  private RecipeIndexSearcher recipeIndexSearcher;
+
+  @Autowired
+  private RecipeFilterStatistics recipeFilterStatistics;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  // above this number of candidates, a "id IN (...)" predicate costs more than it saves
+  @Value("${recipe.index.max-candidates:1000}")
+  private int maxCandidates;
+
+  @AllArgsConstructor
+  private static class FilterEstimate {
+
+    private RecipeSearchFilter recipeSearchFilter;
+
+    private long estimate;
+
+    private boolean isUnknown() {
+      return this.estimate == RecipeFilterStatistics.UNKNOWN;
+    }
+
+    @Override
+    public String toString() {
+      return RecipeSearchPlanner.toString(this.recipeSearchFilter) + "~"
+          + (isUnknown() ? "?" : this.estimate);
+    }
+
+  }
+
+  public RecipeSearchPlan plan(RecipeSearchRequest recipeSearch) {
+    RecipeSearchCandidates recipeSearchCandidates = this.recipeIndexSearcher.resolve(recipeSearch);
+    List<RecipeSearchFilter> filters =
+        Optional.ofNullable(recipeSearch.getFilters()).orElse(Collections.emptyList());
+    if (!this.recipeIndexManager.isReady()) {
+      return new RecipeSearchPlan(recipeSearchCandidates, filters,
+          "statistics=not ready; order=request", RecipeFilterStatistics.UNKNOWN);
+    }
+
+    // filters left to the database, most selective first (sort is stable)
+    List<FilterEstimate> orderedEstimates = new ArrayList<>();
+    for (RecipeSearchFilter recipeSearchFilter : filters) {
+      if (!recipeSearchCandidates.isResolved(recipeSearchFilter)) {
+        orderedEstimates.add(new FilterEstimate(recipeSearchFilter,
+            this.recipeFilterStatistics.estimate(recipeSearchFilter)));
+      }
+    }
+    orderedEstimates.sort(ESTIMATE_COMPARATOR);
+
+    StringBuilder description = new StringBuilder();
+    description.append("indexes=").append(recipeSearchCandidates.isNarrowed()
+        ? recipeSearchCandidates.getRecipeIds().size() + " candidate(s)"
+        : "not narrowed");
+    description.append("; prefilter=");
+
+    FilterEstimate mostSelective = orderedEstimates.isEmpty() ? null : orderedEstimates.get(0);
+    RecipeSearchFilter mostSelectiveFilter =
+        mostSelective == null ? null : mostSelective.recipeSearchFilter;
+    long mostSelectiveEstimate =
+        mostSelective == null ? RecipeFilterStatistics.UNKNOWN : mostSelective.estimate;
+    // with a single filter, the pre-filter would be the query itself
+    if (!recipeSearchCandidates.isNarrowed() && orderedEstimates.size() > 1
+        && mostSelectiveEstimate != RecipeFilterStatistics.UNKNOWN
+        && mostSelectiveEstimate <= this.maxCandidates
+        && mostSelectiveEstimate < this.recipeFilterStatistics.getRecipesCount()) {
+      List<UUID> recipeIds = this.recipeRepository
+          .findIdsBySpecification(new RecipeSpecification(toSingleFilterSearch(recipeSearch,
+              mostSelectiveFilter)));
+      description.append(toString(mostSelectiveFilter)).append(" (estimated ")
+          .append(mostSelectiveEstimate).append(", found ").append(recipeIds.size()).append(")");
+
+      if (recipeIds.size() <= this.maxCandidates) {
+        recipeSearchCandidates =
+            new RecipeSearchCandidates(recipeIds, List.of(mostSelectiveFilter));
+        orderedEstimates.remove(0);
+      } else {
+        // stale statistics: the filter is left to the main query
+        description.append(" discarded");
+      }
+    } else {
+      description.append("none");
+    }
+
+    description.append("; order=").append(
+        orderedEstimates.stream().map(FilterEstimate::toString).collect(Collectors.joining(", ")));
+
+    log.debug("Recipe search plan: {}", description);
+    List<RecipeSearchFilter> orderedFilters = orderedEstimates.stream()
+        .map(filterEstimate -> filterEstimate.recipeSearchFilter).collect(Collectors.toList());
+    return new RecipeSearchPlan(recipeSearchCandidates, orderedFilters, description.toString(),
+        estimateCount(recipeSearchCandidates, orderedEstimates));
+  }
+
+  /**
+   * Estimates the total number of recipes from the statistics of the in-memory indexes.
+   *
+   * @return the number of recipes, {@link RecipeFilterStatistics#UNKNOWN} when the statistics are
+   *         not ready
+   */
+  public long estimateRecipesCount() {
+    return this.recipeIndexManager.isReady() ? this.recipeFilterStatistics.getRecipesCount()
+        : RecipeFilterStatistics.UNKNOWN;
+  }
+
+  /**
+   * Estimates the number of recipes of an author from the statistics of the in-memory indexes.
+   *
+   * @return the number of recipes of the author, {@link RecipeFilterStatistics#UNKNOWN} when the
+   *         statistics are not ready
+   */
+  public long estimateAuthorRecipesCount(UUID authorId) {
+    return this.recipeIndexManager.isReady()
+        ? this.recipeFilterStatistics.getAuthorRecipesCount(authorId)
+        : RecipeFilterStatistics.UNKNOWN;
+  }
+
+  // the smallest estimate: the recipes must match every filter
+  private long estimateCount(RecipeSearchCandidates recipeSearchCandidates,
+      List<FilterEstimate> orderedEstimates) {
+    long estimatedCount = recipeSearchCandidates.isNarrowed()
+        ? recipeSearchCandidates.getRecipeIds().size()
+        : this.recipeFilterStatistics.getRecipesCount();
+    for (FilterEstimate filterEstimate : orderedEstimates) {
+      if (filterEstimate.isUnknown()) {
+        // the number of recipes would be a poor estimate
+        return RecipeFilterStatistics.UNKNOWN;
+      }
+      estimatedCount = Math.min(estimatedCount, filterEstimate.estimate);
+    }
+
+    return estimatedCount;
+  }
+
+  private static RecipeSearchRequest toSingleFilterSearch(RecipeSearchRequest recipeSearch,
+      RecipeSearchFilter recipeSearchFilter) {
+    RecipeSearchRequest singleFilterSearch = new RecipeSearchRequest();
+    // user filters are relative to the user
+    singleFilterSearch.setUserId(recipeSearch.getUserId());
+    singleFilterSearch.setFilters(List.of(recipeSearchFilter));
+
+    return singleFilterSearch;
+  }
+
+  private static String toString(RecipeSearchFilter recipeSearchFilter) {
+    return (recipeSearchFilter.getKey() == null ? null : recipeSearchFilter.getKey().getKey())
+        + ":" + (recipeSearchFilter.getOperator() == null ? null
+            : recipeSearchFilter.getOperator().name().toLowerCase());
+  }
+
+}
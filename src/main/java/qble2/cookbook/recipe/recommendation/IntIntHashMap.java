@@ -0,0 +1,155 @@
+package qble2.cookbook.recipe.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Map of non-negative int keys to int values, with open addressing (linear probing): no boxing,
+ * and 8 bytes per slot instead of a HashMap node per entry.
+ *
+ * Not thread-safe.
+ */
+class IntIntHashMap {
+
+  private static final int EMPTY = -1;
+
+  private static final float MAX_LOAD_FACTOR = 0.6f;
+
+  @FunctionalInterface
+  interface IntIntConsumer {
+
+    void accept(int key, int value);
+
+  }
+
+  private int[] keys;
+
+  private int[] values;
+
+  private int size = 0;
+
+  IntIntHashMap() {
+    this(4);
+  }
+
+  IntIntHashMap(int expectedSize) {
+    // smallest power of 2 keeping the load factor under its maximum
+    int minCapacity = Math.max(4, (int) (expectedSize / MAX_LOAD_FACTOR) + 1);
+    int capacity = Integer.highestOneBit(minCapacity * 2 - 1);
+    this.keys = new int[capacity];
+    this.values = new int[capacity];
+    Arrays.fill(this.keys, EMPTY);
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * @return 0 when the key is absent
+   */
+  int get(int key) {
+    int slot = findSlot(key);
+
+    return this.keys[slot] == EMPTY ? 0 : this.values[slot];
+  }
+
+  /**
+   * Adds delta to the value of the key (absent keys have a value of 0); the key is removed when its
+   * value drops to 0
+   *
+   * @return the new value
+   */
+  int addTo(int key, int delta) {
+    int slot = findSlot(key);
+    if (this.keys[slot] == EMPTY) {
+      if (delta == 0) {
+        return 0;
+      }
+      this.keys[slot] = key;
+      this.values[slot] = delta;
+      if (++this.size > this.keys.length * MAX_LOAD_FACTOR) {
+        resize(this.keys.length * 2);
+      }
+
+      return delta;
+    }
+
+    int value = this.values[slot] + delta;
+    if (value == 0) {
+      removeSlot(slot);
+    } else {
+      this.values[slot] = value;
+    }
+
+    return value;
+  }
+
+  void remove(int key) {
+    int slot = findSlot(key);
+    if (this.keys[slot] != EMPTY) {
+      removeSlot(slot);
+    }
+  }
+
+  void forEach(IntIntConsumer consumer) {
+    for (int slot = 0; slot < this.keys.length; slot++) {
+      if (this.keys[slot] != EMPTY) {
+        consumer.accept(this.keys[slot], this.values[slot]);
+      }
+    }
+  }
+
+  // slot of the key, or the empty slot where it would be inserted
+  private int findSlot(int key) {
+    int mask = this.keys.length - 1;
+    int slot = mix(key) & mask;
+    while (this.keys[slot] != EMPTY && this.keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+
+    return slot;
+  }
+
+  // backward shift deletion: the following entries of the probe sequence are moved back, so that
+  // no tombstone is needed
+  private void removeSlot(int slot) {
+    int mask = this.keys.length - 1;
+    int gap = slot;
+    int next = (gap + 1) & mask;
+    while (this.keys[next] != EMPTY) {
+      int home = mix(this.keys[next]) & mask;
+      // the entry can fill the gap if its home slot is not within (gap, next]
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        this.keys[gap] = this.keys[next];
+        this.values[gap] = this.values[next];
+        gap = next;
+      }
+      next = (next + 1) & mask;
+    }
+    this.keys[gap] = EMPTY;
+    this.size--;
+  }
+
+  private void resize(int capacity) {
+    int[] previousKeys = this.keys;
+    int[] previousValues = this.values;
+    this.keys = new int[capacity];
+    this.values = new int[capacity];
+    Arrays.fill(this.keys, EMPTY);
+
+    for (int slot = 0; slot < previousKeys.length; slot++) {
+      if (previousKeys[slot] != EMPTY) {
+        int newSlot = findSlot(previousKeys[slot]);
+        this.keys[newSlot] = previousKeys[slot];
+        this.values[newSlot] = previousValues[slot];
+      }
+    }
+  }
+
+  // ordinals are sequential: spread them over the table
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+}
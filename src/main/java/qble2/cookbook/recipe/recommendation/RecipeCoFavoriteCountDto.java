@@ -0,0 +1,23 @@
+package qble2.cookbook.recipe.recommendation;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Co-occurrences of a recipe with a set of favorite recipes (database fallback of the
+ * recommendations)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeCoFavoriteCountDto {
+
+  private UUID recipeId;
+
+  private Long coFavoritesCount;
+
+  private Integer favoritesCount;
+
+}
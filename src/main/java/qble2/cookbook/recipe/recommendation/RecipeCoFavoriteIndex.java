@@ -0,0 +1,325 @@
+package qble2.cookbook.recipe.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import qble2.cookbook.recipe.index.RecipeOrdinalRegistry;
+
+/**
+ * Sparse co-occurrence matrix of favorite recipes: for every recipe, the number of users having
+ * favorited it together with each other recipe (see {@link IntIntHashMap}, keyed by recipe
+ * ordinal).
+ *
+ * The favorites of every user (and the users of every recipe) are kept as sorted int arrays, so
+ * that a favorite change only updates the row and column of the recipe: no scan of the
+ * FAVORITE_RECIPE join table is ever needed after the initial load.
+ *
+ * Recommendations score each candidate recipe y with sum(co(f, y)) / sqrt(favorites(y)) over the
+ * seed recipes f: co-occurrences damped by the popularity of y, so that recipes favorited by
+ * everyone do not top every list.
+ */
+@Component
+public class RecipeCoFavoriteIndex {
+
+  private static final int[] EMPTY = new int[0];
+
+  @Autowired
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // guarded by "lock"
+  private Matrix matrix = new Matrix();
+  // guarded by "lock": favorite changes applied during a rebuild, replayed on the rebuilt matrix
+  private List<Consumer<Matrix>> pendingChanges;
+
+  @AllArgsConstructor
+  private static class Candidate {
+
+    private final int recipeOrdinal;
+
+    private final int coFavoritesCount;
+
+    private final double score;
+
+  }
+
+  /**
+   * Replaces the whole matrix. Favorites are loaded, and the new matrix built, without holding the
+   * lock: favorite changes committed in the meantime are applied to the current matrix, then
+   * replayed on the new one before it replaces it. Since they are idempotent, the result does not
+   * depend on whether the load has seen them.
+   */
+  public synchronized void rebuild(Supplier<List<RecipeFavoriteDto>> favoritesLoader) {
+    this.lock.writeLock().lock();
+    try {
+      this.pendingChanges = new ArrayList<>();
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+
+    Matrix rebuiltMatrix = null;
+    try {
+      rebuiltMatrix = load(favoritesLoader);
+    } finally {
+      this.lock.writeLock().lock();
+      try {
+        if (rebuiltMatrix != null) {
+          for (Consumer<Matrix> pendingChange : this.pendingChanges) {
+            pendingChange.accept(rebuiltMatrix);
+          }
+          this.matrix = rebuiltMatrix;
+        }
+        this.pendingChanges = null;
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+  }
+
+  public void addFavorite(UUID userId, UUID recipeId) {
+    applyChange(changedMatrix -> changedMatrix.addFavorite(userId, recipeId));
+  }
+
+  public void removeFavorite(UUID userId, UUID recipeId) {
+    applyChange(changedMatrix -> changedMatrix.removeFavorite(userId, recipeId));
+  }
+
+  /**
+   * Removes the recipe from the favorites of every user (recipe deleted)
+   */
+  public void removeRecipe(UUID recipeId) {
+    applyChange(changedMatrix -> changedMatrix.removeRecipe(recipeId));
+  }
+
+  /**
+   * "Users who favorited this recipe also favorited"
+   *
+   * @return the k best recipes, best first
+   */
+  public List<RecipeRecommendationMatch> recommendForRecipe(UUID recipeId, int k) {
+    int recipeOrdinal = this.recipeOrdinalRegistry.getOrdinal(recipeId);
+    if (recipeOrdinal < 0) {
+      return List.of();
+    }
+
+    this.lock.readLock().lock();
+    try {
+      return this.matrix.recommend(new int[] {recipeOrdinal}, k);
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Recipes co-favorited with the favorites of the user, excluding them
+   *
+   * @return the k best recipes, best first
+   */
+  public List<RecipeRecommendationMatch> recommendForUser(UUID userId, int k) {
+    this.lock.readLock().lock();
+    try {
+      Integer userOrdinal = this.matrix.userOrdinals.get(userId);
+      if (userOrdinal == null) {
+        return List.of();
+      }
+
+      return this.matrix.recommend(this.matrix.getUserFavorites(userOrdinal), k);
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  private Matrix load(Supplier<List<RecipeFavoriteDto>> favoritesLoader) {
+    Matrix loadedMatrix = new Matrix();
+    favoritesLoader.get().forEach(
+        favorite -> loadedMatrix.addFavorite(favorite.getUserId(), favorite.getRecipeId()));
+
+    return loadedMatrix;
+  }
+
+  private void applyChange(Consumer<Matrix> change) {
+    this.lock.writeLock().lock();
+    try {
+      change.accept(this.matrix);
+      if (this.pendingChanges != null) {
+        this.pendingChanges.add(change);
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  // not thread-safe: the current matrix is guarded by "lock", a matrix being rebuilt is not shared
+  private class Matrix {
+
+    private final Map<UUID, Integer> userOrdinals = new HashMap<>();
+    private int[][] userFavorites = new int[256][];
+    private int[][] recipeUsers = new int[1024][];
+    private IntIntHashMap[] coFavorites = new IntIntHashMap[1024];
+
+    private void addFavorite(UUID userId, UUID recipeId) {
+      int recipeOrdinal =
+          RecipeCoFavoriteIndex.this.recipeOrdinalRegistry.getOrCreateOrdinal(recipeId);
+      int userOrdinal = this.userOrdinals.computeIfAbsent(userId, key -> this.userOrdinals.size());
+
+      int[] favorites = getUserFavorites(userOrdinal);
+      if (Arrays.binarySearch(favorites, recipeOrdinal) >= 0) {
+        return;
+      }
+
+      IntIntHashMap row = getOrCreateCoFavorites(recipeOrdinal);
+      for (int favoriteOrdinal : favorites) {
+        row.addTo(favoriteOrdinal, 1);
+        getOrCreateCoFavorites(favoriteOrdinal).addTo(recipeOrdinal, 1);
+      }
+
+      this.userFavorites = ensureCapacity(this.userFavorites, userOrdinal);
+      this.userFavorites[userOrdinal] = insert(favorites, recipeOrdinal);
+      this.recipeUsers = ensureCapacity(this.recipeUsers, recipeOrdinal);
+      this.recipeUsers[recipeOrdinal] = insert(getRecipeUsers(recipeOrdinal), userOrdinal);
+    }
+
+    private void removeFavorite(UUID userId, UUID recipeId) {
+      int recipeOrdinal = RecipeCoFavoriteIndex.this.recipeOrdinalRegistry.getOrdinal(recipeId);
+      Integer userOrdinal = this.userOrdinals.get(userId);
+      if (recipeOrdinal >= 0 && userOrdinal != null) {
+        removeFavorite(userOrdinal, recipeOrdinal);
+      }
+    }
+
+    private void removeRecipe(UUID recipeId) {
+      int recipeOrdinal = RecipeCoFavoriteIndex.this.recipeOrdinalRegistry.getOrdinal(recipeId);
+      if (recipeOrdinal >= 0) {
+        for (int userOrdinal : getRecipeUsers(recipeOrdinal)) {
+          removeFavorite(userOrdinal, recipeOrdinal);
+        }
+      }
+    }
+
+    private void removeFavorite(int userOrdinal, int recipeOrdinal) {
+      int[] favorites = getUserFavorites(userOrdinal);
+      if (Arrays.binarySearch(favorites, recipeOrdinal) < 0) {
+        return;
+      }
+
+      int[] otherFavorites = remove(favorites, recipeOrdinal);
+      IntIntHashMap row = this.coFavorites[recipeOrdinal];
+      for (int favoriteOrdinal : otherFavorites) {
+        row.addTo(favoriteOrdinal, -1);
+        this.coFavorites[favoriteOrdinal].addTo(recipeOrdinal, -1);
+      }
+
+      this.userFavorites[userOrdinal] = otherFavorites;
+      this.recipeUsers[recipeOrdinal] = remove(getRecipeUsers(recipeOrdinal), userOrdinal);
+    }
+
+    private List<RecipeRecommendationMatch> recommend(int[] sortedSeedOrdinals, int k) {
+      IntIntHashMap coFavoritesCounts = new IntIntHashMap();
+      for (int seedOrdinal : sortedSeedOrdinals) {
+        if (seedOrdinal < this.coFavorites.length && this.coFavorites[seedOrdinal] != null) {
+          this.coFavorites[seedOrdinal].forEach(coFavoritesCounts::addTo);
+        }
+      }
+
+      // worst candidate at the head, so that it is the one dropped past k
+      PriorityQueue<Candidate> topCandidates =
+          new PriorityQueue<>(k + 1, (a, b) -> compare(b, a));
+      coFavoritesCounts.forEach((recipeOrdinal, coFavoritesCount) -> {
+        if (Arrays.binarySearch(sortedSeedOrdinals, recipeOrdinal) >= 0) {
+          return;
+        }
+
+        double score = coFavoritesCount / Math.sqrt(getRecipeUsers(recipeOrdinal).length);
+        topCandidates.offer(new Candidate(recipeOrdinal, coFavoritesCount, score));
+        if (topCandidates.size() > k) {
+          topCandidates.poll();
+        }
+      });
+
+      List<RecipeRecommendationMatch> topMatches = new ArrayList<>(topCandidates.size());
+      while (!topCandidates.isEmpty()) {
+        Candidate candidate = topCandidates.poll();
+        topMatches.add(new RecipeRecommendationMatch(
+            RecipeCoFavoriteIndex.this.recipeOrdinalRegistry.getRecipeId(candidate.recipeOrdinal),
+            candidate.coFavoritesCount, candidate.score));
+      }
+      // polled worst first
+      Collections.reverse(topMatches);
+
+      return topMatches;
+    }
+
+    private int[] getUserFavorites(int userOrdinal) {
+      return userOrdinal < this.userFavorites.length && this.userFavorites[userOrdinal] != null
+          ? this.userFavorites[userOrdinal]
+          : EMPTY;
+    }
+
+    private int[] getRecipeUsers(int recipeOrdinal) {
+      return recipeOrdinal < this.recipeUsers.length && this.recipeUsers[recipeOrdinal] != null
+          ? this.recipeUsers[recipeOrdinal]
+          : EMPTY;
+    }
+
+    private IntIntHashMap getOrCreateCoFavorites(int recipeOrdinal) {
+      if (recipeOrdinal >= this.coFavorites.length) {
+        this.coFavorites = Arrays.copyOf(this.coFavorites,
+            Math.max(recipeOrdinal + 1, this.coFavorites.length * 2));
+      }
+      if (this.coFavorites[recipeOrdinal] == null) {
+        this.coFavorites[recipeOrdinal] = new IntIntHashMap();
+      }
+
+      return this.coFavorites[recipeOrdinal];
+    }
+
+  }
+
+  private static int[][] ensureCapacity(int[][] array, int index) {
+    return index < array.length ? array
+        : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+  }
+
+  // the value must not be in the sorted array
+  private static int[] insert(int[] sortedArray, int value) {
+    int insertionPoint = -Arrays.binarySearch(sortedArray, value) - 1;
+    int[] result = new int[sortedArray.length + 1];
+    System.arraycopy(sortedArray, 0, result, 0, insertionPoint);
+    result[insertionPoint] = value;
+    System.arraycopy(sortedArray, insertionPoint, result, insertionPoint + 1,
+        sortedArray.length - insertionPoint);
+
+    return result;
+  }
+
+  // the value must be in the sorted array
+  private static int[] remove(int[] sortedArray, int value) {
+    int index = Arrays.binarySearch(sortedArray, value);
+    int[] result = new int[sortedArray.length - 1];
+    System.arraycopy(sortedArray, 0, result, 0, index);
+    System.arraycopy(sortedArray, index + 1, result, index, sortedArray.length - index - 1);
+
+    return result;
+  }
+
+  // ties are broken by ordinal, for a stable ranking
+  private static int compare(Candidate a, Candidate b) {
+    int comparison = Double.compare(b.score, a.score);
+
+    return comparison != 0 ? comparison : Integer.compare(a.recipeOrdinal, b.recipeOrdinal);
+  }
+
+}
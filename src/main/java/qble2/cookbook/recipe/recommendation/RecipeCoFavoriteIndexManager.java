@@ -0,0 +1,96 @@
+package qble2.cookbook.recipe.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.event.RecipeChangedEvent;
+import qble2.cookbook.recipe.event.RecipeChangedEvent.ChangeType;
+import qble2.cookbook.recipe.event.RecipeFavoritesChangedEvent;
+
+/**
+ * Keeps {@link RecipeCoFavoriteIndex} up to date:
+ *
+ * <pre>
+ * - full load of the favorites once the application is ready
+ * - incremental update after each committed favorite change (see
+ *   RecipeService.addRecipeToFavorites / removeRecipeFromFavorites) or recipe deletion
+ * </pre>
+ *
+ * The index is not used until the first load is complete (see {@link #isReady()})
+ */
+@Component
+@Slf4j
+public class RecipeCoFavoriteIndexManager {
+
+  @Autowired
+  private RecipeCoFavoriteIndex recipeCoFavoriteIndex;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${recipe.recommendations.index-enabled:true}")
+  private boolean enabled;
+
+  private volatile boolean ready = false;
+
+  public boolean isReady() {
+    return this.enabled && this.ready;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (this.enabled) {
+      rebuild();
+    } else {
+      log.info("Recipe co-favorites index is disabled");
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRecipeFavoritesChanged(RecipeFavoritesChangedEvent event) {
+    if (!this.enabled) {
+      return;
+    }
+
+    if (event.isFavorited()) {
+      this.recipeCoFavoriteIndex.addFavorite(event.getUserId(), event.getRecipeId());
+    } else {
+      this.recipeCoFavoriteIndex.removeFavorite(event.getUserId(), event.getRecipeId());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRecipeChanged(RecipeChangedEvent event) {
+    if (this.enabled && event.getChangeType() == ChangeType.DELETED) {
+      this.recipeCoFavoriteIndex.removeRecipe(event.getRecipeId());
+    }
+  }
+
+  public synchronized void rebuild() {
+    long start = System.currentTimeMillis();
+    this.ready = false;
+
+    // a new transaction is required: after commit, the resources of the previous one may still be
+    // bound to the thread
+    TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    transactionTemplate.setReadOnly(true);
+    this.recipeCoFavoriteIndex.rebuild(
+        () -> transactionTemplate.execute(status -> this.recipeRepository.findAllFavorites()));
+
+    this.ready = true;
+    log.info("Recipe co-favorites index rebuilt in {} ms", System.currentTimeMillis() - start);
+  }
+
+}
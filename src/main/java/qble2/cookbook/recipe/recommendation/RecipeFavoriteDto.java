@@ -0,0 +1,20 @@
+package qble2.cookbook.recipe.recommendation;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Row of the FAVORITE_RECIPE join table (initial load of {@link RecipeCoFavoriteIndex})
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeFavoriteDto {
+
+  private UUID userId;
+
+  private UUID recipeId;
+
+}
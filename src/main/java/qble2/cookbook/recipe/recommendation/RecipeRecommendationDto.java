@@ -0,0 +1,34 @@
+package qble2.cookbook.recipe.recommendation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.springframework.hateoas.server.core.Relation;
+import qble2.cookbook.recipe.dto.RecipeDto;
+
+@Getter
+@Setter
+@Accessors(chain = true, fluent = false)
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@Relation(collectionRelation = "recommendations")
+@JsonPropertyOrder({"score", "coFavoritesCount", "recipe"})
+public class RecipeRecommendationDto {
+
+  @JsonProperty("score")
+  private double score;
+
+  // number of times the recipe has been favorited together with the seed recipe(s)
+  @JsonProperty("coFavoritesCount")
+  private int coFavoritesCount;
+
+  @JsonProperty("recipe")
+  private RecipeDto recipe;
+
+}
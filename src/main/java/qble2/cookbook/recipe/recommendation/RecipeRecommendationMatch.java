@@ -0,0 +1,23 @@
+package qble2.cookbook.recipe.recommendation;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Recommended recipe (see {@link RecipeCoFavoriteIndex} for the score)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeRecommendationMatch {
+
+  private UUID recipeId;
+
+  // number of times the recipe has been favorited together with the seed recipes
+  private int coFavoritesCount;
+
+  private double score;
+
+}
@@ -0,0 +1,124 @@
+package qble2.cookbook.recipe.recommendation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import qble2.cookbook.exception.InvalidArgumentException;
+import qble2.cookbook.exception.ResourceNotFoundException;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.RecipeSummaryLoader;
+import qble2.cookbook.recipe.dto.RecipeDto;
+
+/**
+ * Item-to-item recommendations from favorites co-occurrences (see {@link RecipeCoFavoriteIndex}).
+ *
+ * <pre>
+ * - co-favorites index ready: co-occurrences are read from the in-memory matrix
+ * - otherwise: co-occurrences are counted by the database
+ * </pre>
+ */
+@Service
+@Transactional
+public class RecipeRecommendationService {
+
+  // ties are broken by recipe id, for a stable ranking
+  private static final Comparator<RecipeRecommendationMatch> RECOMMENDATION_COMPARATOR =
+      Comparator.comparingDouble(RecipeRecommendationMatch::getScore).reversed()
+          .thenComparing(RecipeRecommendationMatch::getRecipeId);
+
+  @Autowired
+  private RecipeCoFavoriteIndexManager recipeCoFavoriteIndexManager;
+
+  @Autowired
+  private RecipeCoFavoriteIndex recipeCoFavoriteIndex;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private RecipeSummaryLoader recipeSummaryLoader;
+
+  @Value("${recipe.recommendations.max-size:50}")
+  private int maxSize;
+
+  /**
+   * "Users who favorited this recipe also favorited"
+   */
+  public List<RecipeRecommendationDto> getRecipeRecommendations(UUID recipeId, int size) {
+    checkSize(size);
+    // a recipe without any favorite has no recommendation, an unknown one is not found
+    if (!this.recipeRepository.existsById(recipeId)) {
+      throw new ResourceNotFoundException();
+    }
+
+    List<RecipeRecommendationMatch> topMatches = this.recipeCoFavoriteIndexManager.isReady()
+        ? this.recipeCoFavoriteIndex.recommendForRecipe(recipeId, size)
+        : recommendInDatabase(Set.of(recipeId), size);
+
+    return toDtos(topMatches);
+  }
+
+  /**
+   * Recipes co-favorited with the favorites of the user
+   */
+  public List<RecipeRecommendationDto> getUserRecommendations(UUID userId, int size) {
+    checkSize(size);
+
+    List<RecipeRecommendationMatch> topMatches = this.recipeCoFavoriteIndexManager.isReady()
+        ? this.recipeCoFavoriteIndex.recommendForUser(userId, size)
+        : recommendInDatabase(this.recipeRepository.findIdsByFavoritedBy_Id(userId), size);
+
+    return toDtos(topMatches);
+  }
+
+  private void checkSize(int size) {
+    if (size < 1 || size > this.maxSize) {
+      throw new InvalidArgumentException();
+    }
+  }
+
+  // same scoring as RecipeCoFavoriteIndex
+  private List<RecipeRecommendationMatch> recommendInDatabase(Collection<UUID> seedRecipeIds,
+      int k) {
+    if (seedRecipeIds.isEmpty()) {
+      return List.of();
+    }
+
+    return this.recipeRepository.countCoFavorites(seedRecipeIds).stream()
+        .map(count -> new RecipeRecommendationMatch(count.getRecipeId(),
+            count.getCoFavoritesCount().intValue(),
+            count.getCoFavoritesCount() / Math.sqrt(count.getFavoritesCount())))
+        .sorted(RECOMMENDATION_COMPARATOR).limit(k).toList();
+  }
+
+  private List<RecipeRecommendationDto> toDtos(List<RecipeRecommendationMatch> topMatches) {
+    Map<UUID, RecipeDto> recipeDtos = this.recipeSummaryLoader
+        .loadMinimalDtos(topMatches.stream().map(RecipeRecommendationMatch::getRecipeId).toList())
+        .stream().collect(Collectors.toMap(RecipeDto::getId, Function.identity()));
+
+    List<RecipeRecommendationDto> recommendationDtos = new ArrayList<>(topMatches.size());
+    for (RecipeRecommendationMatch match : topMatches) {
+      RecipeDto recipeDto = recipeDtos.get(match.getRecipeId());
+      // deleted in the meantime
+      if (recipeDto == null) {
+        continue;
+      }
+
+      recommendationDtos.add(RecipeRecommendationDto.builder().score(match.getScore())
+          .coFavoritesCount(match.getCoFavoritesCount()).recipe(recipeDto).build());
+    }
+
+    return recommendationDtos;
+  }
+
+}
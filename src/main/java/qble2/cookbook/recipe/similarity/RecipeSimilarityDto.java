@@ -0,0 +1,31 @@
+package qble2.cookbook.recipe.similarity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.springframework.hateoas.server.core.Relation;
+import qble2.cookbook.recipe.dto.RecipeDto;
+
+@Getter
+@Setter
+@Accessors(chain = true, fluent = false)
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@Relation(collectionRelation = "similarRecipes")
+@JsonPropertyOrder({"similarity", "recipe"})
+public class RecipeSimilarityDto {
+
+  // Jaccard similarity of the ingredients and tags of both recipes
+  @JsonProperty("similarity")
+  private double similarity;
+
+  @JsonProperty("recipe")
+  private RecipeDto recipe;
+
+}
@@ -0,0 +1,125 @@
+package qble2.cookbook.recipe.similarity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.transaction.Transactional;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import qble2.cookbook.exception.InvalidArgumentException;
+import qble2.cookbook.exception.ResourceNotFoundException;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.RecipeSummaryLoader;
+import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.recipe.index.RecipeSimilarityIndex;
+import qble2.cookbook.recipe.index.RecipeSimilarityMatch;
+
+/**
+ * Recipes similar to a given recipe (see {@link RecipeSimilarityIndex}).
+ *
+ * <pre>
+ * - in-memory indexes ready: MinHash/LSH candidates, ranked by exact similarity
+ * - otherwise: the recipes sharing at least one feature (ingredient or tag) are loaded by batches
+ *   and ranked by exact similarity
+ * </pre>
+ */
+@Service
+@Transactional
+public class RecipeSimilarityService {
+
+  // bounds the size of the "id IN (...)" predicates of the database fallback
+  private static final int DATABASE_BATCH_SIZE = 1000;
+
+  // ties are broken by recipe id, for a stable ranking
+  private static final Comparator<RecipeSimilarityMatch> SIMILARITY_COMPARATOR = Comparator
+      .comparingDouble(RecipeSimilarityMatch::getSimilarity).reversed()
+      .thenComparing(RecipeSimilarityMatch::getRecipeId);
+
+  @Autowired
+  private RecipeIndexManager recipeIndexManager;
+
+  @Autowired
+  private RecipeSimilarityIndex recipeSimilarityIndex;
+
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Autowired
+  private RecipeSummaryLoader recipeSummaryLoader;
+
+  @Value("${recipe.similarity.max-size:50}")
+  private int maxSize;
+
+  public List<RecipeSimilarityDto> getSimilarRecipes(UUID recipeId, int size) {
+    if (size < 1 || size > this.maxSize) {
+      throw new InvalidArgumentException();
+    }
+
+    List<RecipeSimilarityMatch> topMatches = this.recipeIndexManager.isReady()
+        ? this.recipeSimilarityIndex.findMostSimilar(recipeId, size)
+        : null;
+    if (topMatches == null) {
+      // not indexed (yet): the recipe may have just been created
+      topMatches = findMostSimilarInDatabase(recipeId, size);
+    }
+
+    Map<UUID, RecipeDto> recipeDtos = this.recipeSummaryLoader
+        .loadMinimalDtos(topMatches.stream().map(RecipeSimilarityMatch::getRecipeId).toList())
+        .stream().collect(Collectors.toMap(RecipeDto::getId, Function.identity()));
+
+    List<RecipeSimilarityDto> similarityDtos = new ArrayList<>(topMatches.size());
+    for (RecipeSimilarityMatch match : topMatches) {
+      RecipeDto recipeDto = recipeDtos.get(match.getRecipeId());
+      // deleted since it was indexed
+      if (recipeDto == null) {
+        continue;
+      }
+
+      similarityDtos.add(RecipeSimilarityDto.builder().similarity(match.getSimilarity())
+          .recipe(recipeDto).build());
+    }
+
+    return similarityDtos;
+  }
+
+  private List<RecipeSimilarityMatch> findMostSimilarInDatabase(UUID recipeId, int k) {
+    RecipeDocument recipeDocument = this.recipeRepository.findByIdAndLoadIndexedFields(recipeId)
+        .map(RecipeDocument::of).orElseThrow(ResourceNotFoundException::new);
+    long[] features = RecipeSimilarityIndex.toFeatures(recipeDocument);
+
+    // same candidates as the index could return: any shared feature gives a non-zero similarity
+    Set<UUID> candidateIds = new LinkedHashSet<>();
+    if (!recipeDocument.getIngredientIds().isEmpty()) {
+      candidateIds
+          .addAll(this.recipeRepository.findIdsByIngredientIdIn(recipeDocument.getIngredientIds()));
+    }
+    if (!recipeDocument.getTags().isEmpty()) {
+      candidateIds.addAll(this.recipeRepository.findIdsByTagIn(recipeDocument.getTags()));
+    }
+    candidateIds.remove(recipeId);
+
+    List<RecipeSimilarityMatch> matches = new ArrayList<>();
+    for (List<UUID> batch : ListUtils.partition(new ArrayList<>(candidateIds),
+        DATABASE_BATCH_SIZE)) {
+      // fetched collections may repeat the same recipe
+      this.recipeRepository.findAllByIdInAndLoadIndexedFields(batch).stream().distinct()
+          .map(RecipeDocument::of)
+          .forEach(candidate -> matches.add(new RecipeSimilarityMatch(candidate.getRecipeId(),
+              RecipeSimilarityIndex.jaccard(features,
+                  RecipeSimilarityIndex.toFeatures(candidate)))));
+    }
+
+    return matches.stream().sorted(SIMILARITY_COMPARATOR).limit(k).toList();
+  }
+
+}
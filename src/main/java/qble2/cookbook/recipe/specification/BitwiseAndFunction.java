@@ -0,0 +1,64 @@
+package qble2.cookbook.recipe.specification;
+
+import java.util.List;
+import org.hibernate.QueryException;
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.engine.spi.Mapping;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.LongType;
+import org.hibernate.type.Type;
+
+/**
+ * "bitwise_and(a, b)" function of the criteria queries (see RecipeTagsSpecification), rendered
+ * with the syntax of the database: a BITAND function on H2, the "&amp;" operator on PostgreSQL (and
+ * most other databases).
+ *
+ * Registered by the "hibernate.metadata_builder_contributor" property (see
+ * {@link Contributor}).
+ */
+public class BitwiseAndFunction implements SQLFunction {
+
+  public static final String NAME = "bitwise_and";
+
+  public static class Contributor implements MetadataBuilderContributor {
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+      metadataBuilder.applySqlFunction(NAME, new BitwiseAndFunction());
+    }
+
+  }
+
+  @Override
+  public boolean hasArguments() {
+    return true;
+  }
+
+  @Override
+  public boolean hasParenthesesIfNoArguments() {
+    return true;
+  }
+
+  @Override
+  public Type getReturnType(Type firstArgumentType, Mapping mapping) {
+    return LongType.INSTANCE;
+  }
+
+  @Override
+  public String render(Type firstArgumentType, @SuppressWarnings("rawtypes") List arguments,
+      SessionFactoryImplementor factory) {
+    if (arguments.size() != 2) {
+      throw new QueryException(NAME + "() requires two arguments");
+    }
+
+    Dialect dialect = factory.getJdbcServices().getDialect();
+    return dialect instanceof H2Dialect
+        ? "BITAND(" + arguments.get(0) + ", " + arguments.get(1) + ")"
+        : "(" + arguments.get(0) + " & " + arguments.get(1) + ")";
+  }
+
+}
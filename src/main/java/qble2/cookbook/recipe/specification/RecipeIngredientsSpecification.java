@@ -1,12 +1,12 @@
 package qble2.cookbook.recipe.specification;
 
 import java.io.Serial;
-import java.util.List;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.JoinType;
-import javax.persistence.criteria.ListJoin;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Subquery;
@@ -36,27 +36,50 @@ public class RecipeIngredientsSpecification implements Specification<Recipe> {
       return null;
     }
 
+    // ingredient ids are received as strings, an invalid id can not be matched (same semantics
+    // as RecipeBitmapIndex)
+    Set<UUID> ingredientIds = new HashSet<>();
+    boolean invalidIngredientId = false;
+    for (Object value : recipeSearchFilter.getValues()) {
+      UUID ingredientId = toIngredientId(value);
+      if (ingredientId == null) {
+        invalidIngredientId = true;
+      } else {
+        ingredientIds.add(ingredientId);
+      }
+    }
+
     return switch (recipeSearchFilter.getOperator()) {
-      case ANY -> containsAny(recipeSearchFilter.getValues()).toPredicate(root, query, cb);
-      case ALL -> containsAll(recipeSearchFilter.getValues()).toPredicate(root, query, cb);
-      case NONE -> cb.not(containsAny(recipeSearchFilter.getValues()).toPredicate(root, query, cb));
+      case ANY -> ingredientIds.isEmpty() ? cb.disjunction()
+          : containsAny(ingredientIds).toPredicate(root, query, cb);
+      case ALL -> invalidIngredientId ? cb.disjunction()
+          : containsAll(ingredientIds).toPredicate(root, query, cb);
+      case NONE -> ingredientIds.isEmpty() ? cb.conjunction()
+          : cb.not(containsAny(ingredientIds).toPredicate(root, query, cb));
 
       default -> throw new IllegalArgumentException(
           "Unexpected value: " + recipeSearchFilter.getOperator());
     };
   }
 
-  private static Specification<Recipe> containsAny(List<Object> listOfIngredientId) {
+  // using a subquery: a join would duplicate the recipes having several of the ingredients, and
+  // negating it (NONE) would match any recipe having another ingredient
+  private static Specification<Recipe> containsAny(Collection<UUID> listOfIngredientId) {
     return (root, query, cb) -> {
-      ListJoin<Recipe, RecipeIngredient> recipeIngredients =
-          root.join(Recipe_.recipeIngredients, JoinType.INNER);
+      Subquery<UUID> subQuery = query.subquery(UUID.class);
+      Root<RecipeIngredient> subRoot = subQuery.from(RecipeIngredient.class);
+      subQuery.select(subRoot.get(RecipeIngredient_.recipe).get(Recipe_.id));
+      subQuery.where(
+          subRoot.get(RecipeIngredient_.ingredient).get(Ingredient_.id).in(listOfIngredientId));
 
-      return recipeIngredients.get(RecipeIngredient_.ingredient).get(Ingredient_.id)
-          .in(listOfIngredientId);
+      return root.get(Recipe_.id).in(subQuery);
     };
   }
 
-  public static Specification<Recipe> containsAll(List<Object> listOfIngredientId) {
+  /**
+   * @param listOfIngredientId distinct ingredient ids (compared to the number of matching rows)
+   */
+  public static Specification<Recipe> containsAll(Collection<UUID> listOfIngredientId) {
     // XXX BKE this version messes up the count query
     // return (root, query, cb) -> {
     // ListJoin<Recipe, RecipeIngredient> recipeIngredients = root
@@ -84,4 +107,16 @@ public class RecipeIngredientsSpecification implements Specification<Recipe> {
     };
   }
 
+  private static UUID toIngredientId(Object value) {
+    if (value instanceof UUID ingredientId) {
+      return ingredientId;
+    }
+
+    try {
+      return value == null ? null : UUID.fromString(value.toString());
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
 }
@@ -12,7 +12,10 @@ import javax.persistence.criteria.Root;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.jpa.domain.Specification;
 import qble2.cookbook.recipe.RecipeQuerySorter;
+import qble2.cookbook.recipe.index.RecipeSearchCandidates;
 import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.model.Recipe_;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
 import qble2.cookbook.recipe.request.RecipeSearchRequest;
 
 @Slf4j
@@ -23,8 +26,34 @@ public class RecipeSpecification implements Specification<Recipe> {
 
   private RecipeSearchRequest recipeSearch;
 
+  private transient RecipeSearchCandidates recipeSearchCandidates;
+
+  // filters translated into predicates, in that order
+  private List<RecipeSearchFilter> recipeSearchFilters;
+
   public RecipeSpecification(RecipeSearchRequest recipeSearch) {
+    this(recipeSearch, RecipeSearchCandidates.NONE);
+  }
+
+  /**
+   * @param recipeSearchCandidates recipes pre-selected by the in-memory indexes, the filters they
+   *        resolved are not translated into SQL predicates
+   */
+  public RecipeSpecification(RecipeSearchRequest recipeSearch,
+      RecipeSearchCandidates recipeSearchCandidates) {
+    this(recipeSearch, recipeSearchCandidates, recipeSearch.getFilters());
+  }
+
+  /**
+   * @param recipeSearchFilters filters of the search, in the order of their predicates (see
+   *        RecipeSearchPlanner)
+   */
+  public RecipeSpecification(RecipeSearchRequest recipeSearch,
+      RecipeSearchCandidates recipeSearchCandidates, List<RecipeSearchFilter> recipeSearchFilters) {
     this.recipeSearch = recipeSearch;
+    this.recipeSearchCandidates =
+        recipeSearchCandidates != null ? recipeSearchCandidates : RecipeSearchCandidates.NONE;
+    this.recipeSearchFilters = recipeSearchFilters;
   }
 
   /**
@@ -36,7 +65,13 @@ public class RecipeSpecification implements Specification<Recipe> {
   public Predicate toPredicate(Root<Recipe> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
     List<Predicate> predicates = new ArrayList<>();
 
-    Optional.ofNullable(recipeSearch.getFilters()).orElse(Collections.emptyList()).stream()
+    if (recipeSearchCandidates.isNarrowed()) {
+      predicates.add(recipeSearchCandidates.getRecipeIds().isEmpty() ? cb.disjunction()
+          : root.get(Recipe_.id).in(recipeSearchCandidates.getRecipeIds()));
+    }
+
+    Optional.ofNullable(recipeSearchFilters).orElse(Collections.emptyList()).stream()
+        .filter(recipeSearchFilter -> !recipeSearchCandidates.isResolved(recipeSearchFilter))
         .forEach(recipeSearchFilter -> {
           log.info("Recipe search filter:: key: {} , operator: {} , value: {}, values: {}",
               recipeSearchFilter.getKey(), recipeSearchFilter.getOperator(),
@@ -83,6 +118,9 @@ public class RecipeSpecification implements Specification<Recipe> {
             case RECIPE_AVERAGE_RATING -> predicates
                 .add(new RecipeAverageRatingSpecification(recipeSearchFilter).toPredicate(root,
                     query, cb));
+
+            case RECIPE_TEXT -> predicates
+                .add(new RecipeTextSpecification(recipeSearchFilter).toPredicate(root, query, cb));
           }
         });
 
@@ -1,21 +1,34 @@
 package qble2.cookbook.recipe.specification;
 
 import java.io.Serial;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
-import javax.persistence.criteria.SetJoin;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.jpa.domain.Specification;
 import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.enums.RecipeTagsMaskUtils;
 import qble2.cookbook.recipe.model.Recipe;
 import qble2.cookbook.recipe.model.Recipe_;
 import qble2.cookbook.recipe.request.RecipeSearchFilter;
 
+/**
+ * Bitwise predicates on Recipe.tagsMask (no join with the RecipeTag table, nor grouping), see
+ * {@link BitwiseAndFunction}:
+ *
+ * <pre>
+ * - ANY: bitwise_and(tagsMask, mask) != 0
+ * - ALL: bitwise_and(tagsMask, mask) = mask
+ * - NONE: bitwise_and(tagsMask, mask) = 0
+ * </pre>
+ *
+ * Unknown tags are ignored, except by ALL which can not match them.
+ */
 public class RecipeTagsSpecification implements Specification<Recipe> {
 
   @Serial
@@ -33,35 +46,33 @@ public class RecipeTagsSpecification implements Specification<Recipe> {
       return null;
     }
 
+    Set<RecipeTagEnum> tags = convertToEnum(recipeSearchFilter.getValues());
+    long tagsMask = RecipeTagsMaskUtils.toTagsMask(tags);
+    Expression<Long> matchingTagsMask =
+        cb.function(BitwiseAndFunction.NAME, Long.class, root.get(Recipe_.tagsMask),
+            cb.literal(tagsMask));
+
     return switch (recipeSearchFilter.getOperator()) {
-      case ANY -> containsAny(recipeSearchFilter.getValues()).toPredicate(root, query, cb);
-      case ALL -> containsAll(recipeSearchFilter.getValues()).toPredicate(root, query, cb);
+      case ANY -> cb.notEqual(matchingTagsMask, 0L);
+      case ALL -> tags.size() < new HashSet<>(recipeSearchFilter.getValues()).size()
+          ? cb.disjunction()
+          : cb.equal(matchingTagsMask, tagsMask);
+      case NONE -> cb.equal(matchingTagsMask, 0L);
 
       default -> throw new IllegalArgumentException(
           "Unexpected value: " + recipeSearchFilter.getOperator());
     };
   }
 
-  private static Specification<Recipe> containsAny(List<Object> tags) {
-    return (root, query, cb) -> {
-      SetJoin<Recipe, RecipeTagEnum> recipeTags = root.join(Recipe_.tags, JoinType.INNER);
-
-      return recipeTags.in(convertToEnum(tags));
-    };
-  }
-
-  private static Specification<Recipe> containsAll(List<Object> tags) {
-    return (root, query, cb) -> {
-      SetJoin<Recipe, RecipeTagEnum> recipeTags = root.join(Recipe_.tags, JoinType.INNER);
-      query.groupBy(root.get(Recipe_.id));
-      query.having(cb.equal(cb.count(root.get(Recipe_.id)), tags.size()));
-
-      return recipeTags.in(convertToEnum(tags));
-    };
-  }
+  private static Set<RecipeTagEnum> convertToEnum(List<Object> tags) {
+    Set<RecipeTagEnum> recipeTags = new HashSet<>();
+    for (RecipeTagEnum recipeTag : RecipeTagEnum.values()) {
+      if (tags.contains(recipeTag.getCode())) {
+        recipeTags.add(recipeTag);
+      }
+    }
 
-  private static List<RecipeTagEnum> convertToEnum(List<Object> tags) {
-    return Arrays.stream(RecipeTagEnum.values()).filter(t -> tags.contains(t.getCode())).toList();
+    return recipeTags;
   }
 
 }
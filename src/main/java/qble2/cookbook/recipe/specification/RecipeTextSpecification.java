@@ -0,0 +1,102 @@
+package qble2.cookbook.recipe.specification;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import qble2.cookbook.ingredient.model.Ingredient_;
+import qble2.cookbook.recipe.index.RecipeTextAnalyzer;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.model.RecipeIngredient;
+import qble2.cookbook.recipe.model.RecipeIngredient_;
+import qble2.cookbook.recipe.model.Recipe_;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+/**
+ * Database fallback of the "text" filter, used when the in-memory text index can not resolve it
+ * (indexes not ready, too many candidates): the same fields as RecipeTextIndex are searched (name,
+ * description, instructions and ingredient names) for whole terms, but results are not ranked.
+ *
+ * Terms are matched between separators: the usual punctuation is translated to spaces (TRANSLATE
+ * is supported by H2 and PostgreSQL), a term is then searched as " term " in the padded field.
+ */
+public class RecipeTextSpecification implements Specification<Recipe> {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private static final String SEPARATORS = "\t\r\n.,;:!?'\"()[]{}<>+-*/\\|_=&%$#@~^`";
+
+  private static final String SPACES = " ".repeat(SEPARATORS.length());
+
+  private RecipeSearchFilter recipeSearchFilter;
+
+  public RecipeTextSpecification(RecipeSearchFilter recipeSearchFilter) {
+    this.recipeSearchFilter = recipeSearchFilter;
+  }
+
+  @Override
+  public Predicate toPredicate(Root<Recipe> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+    if (!(recipeSearchFilter.getValue() instanceof String text)) {
+      return null;
+    }
+
+    List<String> terms = RecipeTextAnalyzer.tokenize(text);
+    if (terms.isEmpty()) {
+      return null;
+    }
+
+    Predicate[] termPredicates = terms.stream()
+        .map(term -> cb.or(containsTerm(cb, root.get(Recipe_.name), term),
+            containsTerm(cb, root.get(Recipe_.description), term),
+            root.get(Recipe_.id).in(instructionsContaining(query, cb, term)),
+            root.get(Recipe_.id).in(ingredientNamesContaining(query, cb, term))))
+        .toArray(Predicate[]::new);
+
+    return switch (recipeSearchFilter.getOperator()) {
+      case ANY -> cb.or(termPredicates);
+      case ALL -> cb.and(termPredicates);
+
+      default -> throw new IllegalArgumentException(
+          "Unexpected value: " + recipeSearchFilter.getOperator());
+    };
+  }
+
+  // using subqueries: a join would duplicate the recipes having several matching rows
+  private static Subquery<UUID> instructionsContaining(CriteriaQuery<?> query,
+      CriteriaBuilder cb, String term) {
+    Subquery<UUID> subQuery = query.subquery(UUID.class);
+    Root<Recipe> subRoot = subQuery.from(Recipe.class);
+    subQuery.select(subRoot.get(Recipe_.id));
+    subQuery.where(containsTerm(cb, subRoot.join(Recipe_.instructions), term));
+
+    return subQuery;
+  }
+
+  private static Subquery<UUID> ingredientNamesContaining(CriteriaQuery<?> query,
+      CriteriaBuilder cb, String term) {
+    Subquery<UUID> subQuery = query.subquery(UUID.class);
+    Root<RecipeIngredient> subRoot = subQuery.from(RecipeIngredient.class);
+    subQuery.select(subRoot.get(RecipeIngredient_.recipe).get(Recipe_.id));
+    subQuery.where(containsTerm(cb,
+        subRoot.get(RecipeIngredient_.ingredient).get(Ingredient_.name), term));
+
+    return subQuery;
+  }
+
+  // terms only contain letters and digits: nothing to escape in the pattern
+  private static Predicate containsTerm(CriteriaBuilder cb, Expression<String> field,
+      String term) {
+    Expression<String> words = cb.function("TRANSLATE", String.class, cb.lower(field),
+        cb.literal(SEPARATORS), cb.literal(SPACES));
+
+    return cb.like(cb.concat(cb.concat(" ", words), " "), "% " + term + " %");
+  }
+
+}
@@ -5,6 +5,7 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import javax.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +15,7 @@ import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.CurrentSecurityContext;
 import org.springframework.validation.annotation.Validated;
@@ -25,7 +27,9 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import qble2.cookbook.recipe.dto.RecipeVersionDto;
 import qble2.cookbook.review.dto.ReviewDto;
 
 @RestController
@@ -42,13 +46,23 @@ public class ReviewController {
 
   // TODO BKE pagination
   @GetMapping(path = "/recipes/{recipeId}")
-  public CollectionModel<ReviewDto> getRecipeReviews(
-      @PathVariable(name = "recipeId", required = true) UUID recipeId) {
+  public ResponseEntity<CollectionModel<ReviewDto>> getRecipeReviews(
+      @PathVariable(name = "recipeId", required = true) UUID recipeId, WebRequest webRequest) {
+    // conditional request: the reviews are only loaded when the recipe version has changed
+    Optional<RecipeVersionDto> recipeVersion = this.reviewService.findRecipeVersion(recipeId);
+    if (recipeVersion.isPresent() && webRequest.checkNotModified(recipeVersion.get().toETag(),
+        recipeVersion.get().toLastModified())) {
+      return null;
+    }
+
     List<ReviewDto> reviews = this.reviewService.getRecipeReviews(recipeId);
 
     Link selfLink =
-        linkTo(methodOn(ReviewController.class).getRecipeReviews(recipeId)).withSelfRel();
-    return CollectionModel.of(reviews, selfLink);
+        linkTo(methodOn(ReviewController.class).getRecipeReviews(recipeId, null)).withSelfRel();
+    BodyBuilder responseBuilder = ResponseEntity.ok();
+    recipeVersion.ifPresent(version -> responseBuilder.eTag(version.toETag())
+        .lastModified(version.toLastModified()));
+    return responseBuilder.body(CollectionModel.of(reviews, selfLink));
   }
 
   // TODO BKE pagination
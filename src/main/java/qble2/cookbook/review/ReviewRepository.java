@@ -1,9 +1,14 @@
 package qble2.cookbook.review;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import qble2.cookbook.recipe.dto.RecipeRatingAggregateDto;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.leaderboard.RecipeReviewActivityDto;
 import qble2.cookbook.review.model.Review;
 
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
@@ -14,4 +19,25 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
   Optional<Review> findByRecipe_IdAndAuthor_Id(UUID recipeId, UUID authorId);
 
+  @Query("SELECT new qble2.cookbook.recipe.dto.RecipeRatingAggregateDto("
+      + "rev.recipe.id, sum(rev.rating), count(rev.rating)) FROM Review rev GROUP BY rev.recipe.id")
+  List<RecipeRatingAggregateDto> findRatingAggregates();
+
+  /**
+   * Leaderboards
+   **/
+
+  @Query("SELECT avg(rev.rating) FROM Review rev")
+  Double findAverageRating();
+
+  @Query("SELECT new qble2.cookbook.recipe.leaderboard.RecipeReviewActivityDto("
+      + "rev.recipe.id, rev.reviewDate) FROM Review rev WHERE rev.reviewDate >= ?1")
+  List<RecipeReviewActivityDto> findActivitiesSince(LocalDateTime since);
+
+  @Query("SELECT new qble2.cookbook.recipe.leaderboard.RecipeReviewActivityDto("
+      + "rev.recipe.id, rev.reviewDate) FROM Review rev JOIN rev.recipe r JOIN r.tags t"
+      + " WHERE t = ?1 AND rev.reviewDate >= ?2")
+  List<RecipeReviewActivityDto> findActivitiesByRecipeTagSince(RecipeTagEnum tag,
+      LocalDateTime since);
+
 }
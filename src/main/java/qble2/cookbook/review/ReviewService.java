@@ -1,19 +1,24 @@
 package qble2.cookbook.review;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import javax.transaction.Transactional;
 import javax.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 import qble2.cookbook.exception.ResourceNotFoundException;
 import qble2.cookbook.recipe.RecipeRepository;
 import qble2.cookbook.recipe.RecipeService;
+import qble2.cookbook.recipe.dto.RecipeVersionDto;
 import qble2.cookbook.recipe.model.Recipe;
 import qble2.cookbook.review.dto.ReviewDto;
+import qble2.cookbook.review.event.ReviewChangedEvent;
 import qble2.cookbook.review.model.Review;
 import qble2.cookbook.user.UserService;
 import qble2.cookbook.user.model.User;
@@ -40,6 +45,18 @@ public class ReviewService {
   @Autowired
   private ReviewMapper reviewMapper;
 
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  /**
+   * The reviews of a recipe change with its version (see RecipeRepository.addToRatingAggregates)
+   *
+   * @return empty when the recipe does not exist (its reviews are an empty list)
+   */
+  public Optional<RecipeVersionDto> findRecipeVersion(UUID recipeId) {
+    return this.recipeRepository.findVersionById(recipeId);
+  }
+
   // TODO BKE pagination
   public List<ReviewDto> getRecipeReviews(UUID recipeId) {
     return this.reviewMapper.toDtoList(this.reviewRepository.findByRecipe_Id(recipeId));
@@ -65,6 +82,8 @@ public class ReviewService {
     Review review = new Review(recipe, user);
     this.reviewMapper.updateReviewEntity(reviewDto, review);
     this.recipeRepository.save(recipe.addReview(review));
+    updateRatingAggregates(recipeId, review.getRating(), 1);
+    this.eventPublisher.publishEvent(ReviewChangedEvent.created(recipeId, user.getId()));
 
     return this.reviewMapper
         .toDto(this.reviewRepository.findByRecipe_IdAndAuthor_Id(recipeId, user.getId())
@@ -75,14 +94,31 @@ public class ReviewService {
   public ReviewDto updateReview(String username, UUID recipeId, UUID userId,
       @Valid ReviewDto reviewDto) {
     Review review = getReviewAndCheckOwnershipOrThrow(recipeId, userId);
+    int previousRating = review.getRating();
     this.reviewMapper.updateReviewEntity(reviewDto, review);
+    // the version of the recipe is incremented even if the rating is unchanged (e.g. new comment)
+    updateRatingAggregates(recipeId, (long) review.getRating() - previousRating, 0);
+    this.eventPublisher.publishEvent(new ReviewChangedEvent(recipeId, userId));
 
     return this.reviewMapper.toDto(review);
   }
 
   public void deleteRecipeRecipe(UUID recipeId, UUID userId) {
     Review review = getReviewAndCheckOwnershipOrThrow(recipeId, userId);
+    int rating = review.getRating();
     this.recipeRepository.save(review.getRecipe().removeReview(review));
+    updateRatingAggregates(recipeId, -rating, -1);
+    this.eventPublisher.publishEvent(new ReviewChangedEvent(recipeId, userId));
+  }
+
+  // atomic increments, instead of a read-modify-write of the loaded recipe (lost updates)
+  private void updateRatingAggregates(UUID recipeId, long ratingSumDelta, long ratingCountDelta) {
+    this.recipeRepository.addToRatingAggregates(recipeId, ratingSumDelta, ratingCountDelta,
+        LocalDateTime.now(Recipe.MODIFIED_AT_CLOCK));
+    this.recipeRepository.findRatingAggregateById(recipeId)
+        .ifPresent(ratingAggregate -> this.recipeRepository.updateAverageRating(recipeId,
+            Recipe.computeAverageRating(ratingAggregate.getRatingSum(),
+                ratingAggregate.getRatingCount())));
   }
 
   private Review getReviewOrThrow(UUID recipeId, UUID userId) {
@@ -0,0 +1,32 @@
+package qble2.cookbook.review.event;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by ReviewService on every review write (the rating aggregates of the reviewed recipe
+ * change with it)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ReviewChangedEvent {
+
+  private UUID recipeId;
+
+  private UUID userId;
+
+  // false on updates and deletions
+  private boolean created;
+
+  public ReviewChangedEvent(UUID recipeId, UUID userId) {
+    this(recipeId, userId, false);
+  }
+
+  public static ReviewChangedEvent created(UUID recipeId, UUID userId) {
+    return new ReviewChangedEvent(recipeId, userId, true);
+  }
+
+}
@@ -1,12 +1,23 @@
 package qble2.cookbook.role;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+import java.util.List;
 import java.util.UUID;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import qble2.cookbook.role.model.Role;
 import qble2.cookbook.role.model.RoleEnum;
 
 public interface RoleRepository extends JpaRepository<Role, UUID> {
 
+  // query cache: invalidated by any write to the Role table
+  @Override
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+  List<Role> findAll();
+
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   boolean existsByName(RoleEnum name);
 
 }
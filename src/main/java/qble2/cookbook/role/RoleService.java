@@ -6,6 +6,7 @@ import javax.transaction.Transactional;
 import javax.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 import qble2.cookbook.exception.ResourceNotFoundException;
@@ -14,6 +15,7 @@ import qble2.cookbook.role.model.Role;
 import qble2.cookbook.user.UserMapper;
 import qble2.cookbook.user.UserRepository;
 import qble2.cookbook.user.dto.UserDto;
+import qble2.cookbook.user.event.UserRolesChangedEvent;
 import qble2.cookbook.user.model.User;
 
 @Service
@@ -35,6 +37,9 @@ public class RoleService {
   @Autowired
   private RoleMapper roleMapper;
 
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
   public List<RoleDto> getRoles() {
     List<Role> listOfRoleEntity = this.roleRepository.findAll();
 
@@ -61,6 +66,7 @@ public class RoleService {
 
     user.addRole(role);
     user = this.userRepository.save(user);
+    this.eventPublisher.publishEvent(new UserRolesChangedEvent(userId));
 
     return userMapper.toDto(user);
   }
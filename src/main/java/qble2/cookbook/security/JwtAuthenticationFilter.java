@@ -20,6 +20,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import qble2.cookbook.exception.ResponseErrorDto;
 import qble2.cookbook.user.UserService;
+import qble2.cookbook.user.dto.UserDto;
 
 @Slf4j
 public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
@@ -53,15 +54,15 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     org.springframework.security.core.userdetails.User user =
         (org.springframework.security.core.userdetails.User) authentication.getPrincipal();
 
+    UserDto userDto = this.userService.getUserByUsername(user.getUsername());
     List<String> roles =
         user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
-    String accessToken = this.jwtUtils.createAccessToken(user.getUsername(), roles,
-        request.getRequestURL().toString());
+    String accessToken = this.jwtUtils.createAccessToken(userDto.getId(), user.getUsername(),
+        roles, request.getRequestURL().toString());
     String refreshToken =
         this.jwtUtils.createRefreshToken(user.getUsername(), request.getRequestURL().toString());
     Map<String, String> tokens = this.jwtUtils.formatTokens(accessToken, refreshToken);
-    Map<String, Object> loggedInUserWithTokens =
-        Map.of("tokens", tokens, "user", this.userService.getUserByUsername(user.getUsername()));
+    Map<String, Object> loggedInUserWithTokens = Map.of("tokens", tokens, "user", userDto);
 
     log.info("User {} has been successfully authenticated", user.getUsername());
     response.setContentType(MediaType.APPLICATION_JSON_VALUE);
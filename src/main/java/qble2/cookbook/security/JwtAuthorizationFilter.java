@@ -1,10 +1,12 @@
 package qble2.cookbook.security;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.UUID;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -20,15 +22,27 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import qble2.cookbook.exception.ResponseErrorDto;
 import qble2.cookbook.user.UserService;
 
+/**
+ * Authorizes the requests carrying an access token.
+ *
+ * With stateless authorization, the user is built from the claims of the verified token (user id,
+ * username and roles) instead of being loaded from the database, the revoked tokens are rejected
+ * (see JwtRevocationList). Tokens issued without user id are still authorized by loading the user.
+ */
 @Slf4j
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
   private JwtUtils jwtUtils;
   private UserService userService;
+  private JwtRevocationList jwtRevocationList;
+  private boolean statelessAuthorizationEnabled;
 
-  public JwtAuthorizationFilter(JwtUtils jwtUtils, UserService userService) {
+  public JwtAuthorizationFilter(JwtUtils jwtUtils, UserService userService,
+      JwtRevocationList jwtRevocationList, boolean statelessAuthorizationEnabled) {
     this.jwtUtils = jwtUtils;
     this.userService = userService;
+    this.jwtRevocationList = jwtRevocationList;
+    this.statelessAuthorizationEnabled = statelessAuthorizationEnabled;
   }
 
   @Override
@@ -49,11 +63,20 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
       DecodedJWT decodedJWT = this.jwtUtils.getDecodedJwt(accessToken);
 
       String username = decodedJWT.getSubject();
-      UserDetails userDetails = this.userService.loadUserByUsername(username);
-      String[] roles = decodedJWT.getClaim("roles").asArray(String.class);
+      String[] roles = decodedJWT.getClaim(JwtUtils.ROLES_CLAIM).asArray(String.class);
 
       Collection<SimpleGrantedAuthority> authorities =
           Arrays.stream(roles).map(SimpleGrantedAuthority::new).toList();
+
+      UUID userId = this.jwtUtils.getUserId(decodedJWT);
+      if (userId != null && this.jwtRevocationList.isRevoked(userId,
+          this.jwtUtils.getIssuedAt(decodedJWT))) {
+        throw new JWTVerificationException("The token has been revoked");
+      }
+      UserDetails userDetails = this.statelessAuthorizationEnabled && userId != null
+          // no password: the user is already authenticated by the token
+          ? new CurrentUserDetails(userId, username, "", authorities)
+          : this.userService.loadUserByUsername(username);
       // UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new
       // UsernamePasswordAuthenticationToken(
       // username, null, authorities);
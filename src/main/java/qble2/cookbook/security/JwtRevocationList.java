@@ -0,0 +1,86 @@
+package qble2.cookbook.security;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import qble2.cookbook.user.event.UserRolesChangedEvent;
+
+/**
+ * In-memory list of the users whose access tokens issued so far must be rejected, checked by
+ * JwtAuthorizationFilter when the user is not loaded from the database (stateless authorization).
+ * <ul>
+ * <li>a revocation only has to outlive the access tokens it revokes: it is dropped once they have
+ * expired</li>
+ * <li>tokens are compared by their issue time in milliseconds (see JwtUtils#getIssuedAt): a token
+ * issued during the millisecond of the revocation is revoked as well, and so is a token having
+ * only the "iat" claim (in seconds) issued during the second of the revocation</li>
+ * </ul>
+ * The list is local to the instance.
+ */
+@Component
+@Slf4j
+public class JwtRevocationList {
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  // user id -> revocation time (epoch milliseconds)
+  private final Map<UUID, Long> revocations = new ConcurrentHashMap<>();
+
+  private final LongSupplier clock;
+
+  public JwtRevocationList() {
+    this(System::currentTimeMillis);
+  }
+
+  // for testing
+  JwtRevocationList(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * Revokes the access tokens of the user issued until now, the user has to refresh them
+   */
+  public void revoke(UUID userId) {
+    removeExpiredRevocations();
+    this.revocations.put(userId, this.clock.getAsLong());
+    log.info("Access tokens of user {} have been revoked", userId);
+  }
+
+  /**
+   * @param issuedAt null for the tokens without "iat" claim (always revoked once the user is)
+   */
+  public boolean isRevoked(UUID userId, Date issuedAt) {
+    Long revokedAt = this.revocations.get(userId);
+    if (revokedAt == null) {
+      return false;
+    }
+    if (isExpired(revokedAt)) {
+      this.revocations.remove(userId, revokedAt);
+      return false;
+    }
+
+    return issuedAt == null || issuedAt.getTime() <= revokedAt;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserRolesChanged(UserRolesChangedEvent userRolesChangedEvent) {
+    revoke(userRolesChangedEvent.getUserId());
+  }
+
+  private void removeExpiredRevocations() {
+    this.revocations.values().removeIf(this::isExpired);
+  }
+
+  // every access token issued before has expired
+  private boolean isExpired(long revokedAt) {
+    return revokedAt + this.jwtUtils.getAccessTokenExpirationInMillis() < this.clock.getAsLong();
+  }
+
+}
@@ -7,7 +7,9 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.http.HttpHeaders;
@@ -17,6 +19,13 @@ import org.springframework.stereotype.Component;
 @PropertySource("classpath:jwt.properties")
 public class JwtUtils {
 
+  public static final String ROLES_CLAIM = "roles";
+  // the user id, so that the user can be authorized without being loaded
+  public static final String USER_ID_CLAIM = "uid";
+  // the issue time in milliseconds ("iat" is in seconds), so that a token issued just after a
+  // revocation is not revoked (see JwtRevocationList)
+  public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
   @Value("${jwt.secret}")
   private String authorizationSecret;
 
@@ -35,19 +44,27 @@ public class JwtUtils {
   @Value("${jwt.refresh.token.expîration.in.hours}")
   private int refreshTokenExpirationInHours;
 
+  @Autowired
+  private VerifiedJwtCache verifiedJwtCache;
+
   private Algorithm algorithm;
 
-  public Map<String, String> createAndFormatTokens(String username, List<String> roles,
-      String issuer) {
-    return formatTokens(createAccessToken(username, roles, issuer),
+  // thread-safe, shared by every verification
+  private JWTVerifier jwtVerifier;
+
+  public Map<String, String> createAndFormatTokens(UUID userId, String username,
+      List<String> roles, String issuer) {
+    return formatTokens(createAccessToken(userId, username, roles, issuer),
         createRefreshToken(username, issuer));
   }
 
-  public String createAccessToken(String username, List<String> roles, String issuer) {
-    return JWT.create().withSubject(username)
-        .withExpiresAt(new Date(
-            System.currentTimeMillis() + this.accessTokenExpirationInHours * 60 * 60 * 1000))
-        .withIssuer(issuer).withClaim("roles", roles).sign(getAlgorithm());
+  public String createAccessToken(UUID userId, String username, List<String> roles,
+      String issuer) {
+    long now = System.currentTimeMillis();
+    return JWT.create().withSubject(username).withIssuedAt(new Date(now))
+        .withExpiresAt(new Date(now + getAccessTokenExpirationInMillis())).withIssuer(issuer)
+        .withClaim(USER_ID_CLAIM, userId.toString()).withClaim(ROLES_CLAIM, roles)
+        .withClaim(ISSUED_AT_MILLIS_CLAIM, now).sign(getAlgorithm());
   }
 
   public String createRefreshToken(String username, String issuer) {
@@ -58,8 +75,28 @@ public class JwtUtils {
   }
 
   public DecodedJWT getDecodedJwt(String token) {
-    JWTVerifier jwtVerifier = JWT.require(getAlgorithm()).build();
-    return jwtVerifier.verify(token);
+    return this.verifiedJwtCache.get(token, getJwtVerifier()::verify);
+  }
+
+  /**
+   * @return null for the access tokens issued without user id
+   */
+  public UUID getUserId(DecodedJWT decodedJWT) {
+    String userId = decodedJWT.getClaim(USER_ID_CLAIM).asString();
+    return userId == null ? null : UUID.fromString(userId);
+  }
+
+  /**
+   * @return the "iat" claim (in seconds) for the access tokens issued without issue time in
+   *         milliseconds, null for the tokens issued without any
+   */
+  public Date getIssuedAt(DecodedJWT decodedJWT) {
+    Long issuedAtMillis = decodedJWT.getClaim(ISSUED_AT_MILLIS_CLAIM).asLong();
+    return issuedAtMillis == null ? decodedJWT.getIssuedAt() : new Date(issuedAtMillis);
+  }
+
+  public long getAccessTokenExpirationInMillis() {
+    return this.accessTokenExpirationInHours * 60L * 60 * 1000;
   }
 
   public Map<String, String> formatTokens(String accessToken, String refreshToken) {
@@ -84,4 +121,12 @@ public class JwtUtils {
     return algorithm;
   }
 
+  private JWTVerifier getJwtVerifier() {
+    // concurrent first calls may each build one: the verifiers are equivalent
+    if (jwtVerifier == null) {
+      jwtVerifier = JWT.require(getAlgorithm()).build();
+    }
+    return jwtVerifier;
+  }
+
 }
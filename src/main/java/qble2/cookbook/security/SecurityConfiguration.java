@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -35,6 +36,12 @@ public class SecurityConfiguration {
   @Autowired
   private JwtUtils jwtUtils;
 
+  @Autowired
+  private JwtRevocationList jwtRevocationList;
+
+  @Value("${jwt.stateless-authorization-enabled:false}")
+  private boolean statelessAuthorizationEnabled;
+
   @Bean
   SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     AuthenticationConfiguration authenticationConfiguration =
@@ -91,7 +98,8 @@ public class SecurityConfiguration {
         .antMatchers(HttpMethod.DELETE, "/api/users/**")
         .hasAnyAuthority(RoleEnum.ROLE_ADMIN.toString())
 
-        .antMatchers(HttpMethod.POST, "/api/recipes/search/**").permitAll()
+        .antMatchers(HttpMethod.POST, "/api/recipes/search/**", "/api/recipes/pantry/**")
+        .permitAll()
 
         .antMatchers(HttpMethod.POST, "/api/recipes/**", "/api/reviews/**")
         .hasAnyAuthority(RoleEnum.ROLE_ADMIN.toString(), RoleEnum.ROLE_USER.toString())
@@ -113,7 +121,8 @@ public class SecurityConfiguration {
         .and().addFilter(jwtAuthenticationFilter)
 
         // will be processed before
-        .addFilterBefore(new JwtAuthorizationFilter(this.jwtUtils, this.userService),
+        .addFilterBefore(new JwtAuthorizationFilter(this.jwtUtils, this.userService,
+            this.jwtRevocationList, this.statelessAuthorizationEnabled),
             UsernamePasswordAuthenticationFilter.class)
 
         // handlers
@@ -0,0 +1,109 @@
+package qble2.cookbook.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tokens already verified (signature, expiration), so that a token sent with every request is only
+ * verified once:
+ * <ul>
+ * <li>keyed by the SHA-256 of the token: the tokens themselves are not kept in memory</li>
+ * <li>a token is evicted at its expiration, invalid and expired tokens are never cached</li>
+ * <li>bounded by a number of entries: once full, new tokens are verified without being cached until
+ * the expired tokens are purged (periodically, not by the requests)</li>
+ * </ul>
+ */
+@Component
+public class VerifiedJwtCache {
+
+  // MessageDigest is not thread-safe (reset by digest())
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(VerifiedJwtCache::newSha256);
+
+  @Value("${jwt.verified-token-cache.enabled:false}")
+  private boolean enabled;
+
+  @Value("${jwt.verified-token-cache.max-entries:10000}")
+  private int maxEntries;
+
+  private final Map<String, DecodedJWT> entries = new ConcurrentHashMap<>();
+
+  private final LongSupplier clock;
+
+  public VerifiedJwtCache() {
+    this(System::currentTimeMillis);
+  }
+
+  // for testing
+  VerifiedJwtCache(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * @param verifier verifies the token on a miss, throws when the token is invalid or expired
+   */
+  public DecodedJWT get(String token, Function<String, DecodedJWT> verifier) {
+    if (!this.enabled) {
+      return verifier.apply(token);
+    }
+
+    String key = hash(token);
+    DecodedJWT decodedJWT = this.entries.get(key);
+    if (decodedJWT != null) {
+      if (!isExpired(decodedJWT)) {
+        return decodedJWT;
+      }
+      this.entries.remove(key, decodedJWT);
+    }
+
+    // an expired token is rejected by the verifier, as without cache
+    decodedJWT = verifier.apply(token);
+    if (decodedJWT.getExpiresAt() != null) {
+      put(key, decodedJWT);
+    }
+
+    return decodedJWT;
+  }
+
+  @Scheduled(fixedDelayString = "${jwt.verified-token-cache.purge-delay-ms:60000}")
+  public void purgeExpired() {
+    this.entries.values().removeIf(this::isExpired);
+  }
+
+  private void put(String key, DecodedJWT decodedJWT) {
+    if (this.entries.size() >= this.maxEntries) {
+      return;
+    }
+
+    this.entries.put(key, decodedJWT);
+  }
+
+  private boolean isExpired(DecodedJWT decodedJWT) {
+    return decodedJWT.getExpiresAt().getTime() <= this.clock.getAsLong();
+  }
+
+  private static String hash(String token) {
+    byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+    return Base64.getEncoder().encodeToString(digest);
+  }
+
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is supported by every JVM
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import qble2.cookbook.pagination.PageCountModeEnum;
 import qble2.cookbook.user.dto.UserDto;
 import qble2.cookbook.user.dto.UsersPageDto;
 
@@ -36,11 +37,15 @@ public class UserController {
   @PreAuthorize("hasRole('ROLE_ADMIN')")
   public ResponseEntity<UsersPageDto> getUsers(
       @RequestParam(name = "page", required = false, defaultValue = "0") int page,
-      @RequestParam(name = "size", required = false, defaultValue = "5") int size) {
+      @RequestParam(name = "size", required = false, defaultValue = "5") int size,
+      @RequestParam(name = "count", required = false) PageCountModeEnum count) {
     Pageable pageable = PageRequest.of(page, size);
-    UsersPageDto usersPageDto = this.userService.getUsers(pageable);
+    UsersPageDto usersPageDto =
+        this.userService.getUsers(pageable, PageCountModeEnum.orDefault(count));
 
-    Link selfLink = linkTo(methodOn(UserController.class).getUsers(page, size)).withSelfRel();
+    // expanded: the count mode is left out of the link when it has not been requested
+    Link selfLink =
+        linkTo(methodOn(UserController.class).getUsers(page, size, count)).withSelfRel().expand();
     usersPageDto.add(selfLink);
 
     return ResponseEntity.ok().body(usersPageDto);
@@ -4,6 +4,7 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import java.util.List;
+import java.util.UUID;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Builder;
@@ -15,6 +16,7 @@ import org.mapstruct.Named;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import qble2.cookbook.recipe.RecipeController;
+import qble2.cookbook.recipe.dtoprojection.RecipeSummaryProjectionDto;
 import qble2.cookbook.review.ReviewController;
 import qble2.cookbook.role.RoleMapper;
 import qble2.cookbook.user.dto.UserDto;
@@ -61,18 +63,35 @@ public interface UserMapper {
   @Mapping(target = "username", source = "username")
   UserDto toMinmalDto(User source);
 
+  /**
+   * Author of a recipe projection (the author is not loaded as an entity)
+   */
+  @Named(value = "toMinimalUserDtoFromProjection")
+  @BeanMapping(ignoreByDefault = true)
+  @Mapping(target = "id", source = "authorId")
+  @Mapping(target = "username", source = "authorUsername")
+  UserDto toMinimalDto(RecipeSummaryProjectionDto source);
+
   @AfterMapping
   default void addLinks(User source, @MappingTarget UserDto target) {
-    Link selfLink =
-        WebMvcLinkBuilder.linkTo(UserController.class).slash(source.getId()).withSelfRel();
+    addLinks(source.getId(), target);
+  }
+
+  @AfterMapping
+  default void addLinks(RecipeSummaryProjectionDto source, @MappingTarget UserDto target) {
+    addLinks(source.getAuthorId(), target);
+  }
+
+  private void addLinks(UUID userId, UserDto target) {
+    Link selfLink = WebMvcLinkBuilder.linkTo(UserController.class).slash(userId).withSelfRel();
     target.add(selfLink);
 
-    Link recipesLink = linkTo(methodOn(RecipeController.class).getUserRecipes(source.getId(), 0, 5))
-        .withRel("recipes");
+    Link recipesLink = linkTo(methodOn(RecipeController.class).getUserRecipes(userId, 0, 5, null))
+        .withRel("recipes").expand();
     target.add(recipesLink);
 
     Link reviewsLink =
-        linkTo(methodOn(ReviewController.class).getUserReviews(source.getId())).withRel("reviews");
+        linkTo(methodOn(ReviewController.class).getUserReviews(userId)).withRel("reviews");
     target.add(reviewsLink);
   }
 
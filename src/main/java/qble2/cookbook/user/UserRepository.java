@@ -2,6 +2,8 @@ package qble2.cookbook.user;
 
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -23,4 +25,8 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
   Optional<User> findByUsername(String username);
 
+  // one extra user is fetched to know whether there is a next page, no count query
+  @Query("SELECT c FROM User c")
+  Slice<User> findSliceOfAll(Pageable pageable);
+
 }
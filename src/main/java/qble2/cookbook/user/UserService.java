@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,6 +18,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 import qble2.cookbook.exception.ResourceNotFoundException;
+import qble2.cookbook.pagination.PageCountModeEnum;
+import qble2.cookbook.pagination.PaginationUtils;
 import qble2.cookbook.role.model.RoleEnum;
 import qble2.cookbook.security.CurrentUserDetails;
 import qble2.cookbook.user.dto.UserDto;
@@ -53,9 +56,12 @@ public class UserService implements UserDetailsService {
         authorities);
   }
 
-  public UsersPageDto getUsers(Pageable pageable) {
-    return toUsersPage(this.userRepository.findAll(pageable));
-
+  /**
+   * Users have no statistics: APPROXIMATE totals are counted
+   */
+  public UsersPageDto getUsers(Pageable pageable, PageCountModeEnum countMode) {
+    return toUsersPage(PaginationUtils.find(countMode, pageable, this.userRepository::findAll,
+        this.userRepository::findSliceOfAll, () -> PaginationUtils.UNKNOWN_TOTAL));
   }
 
   public UserDto getUser(UUID userId) {
@@ -97,9 +103,17 @@ public class UserService implements UserDetailsService {
 
   //
 
-  private UsersPageDto toUsersPage(Page<User> page) {
-    return UsersPageDto.builder().users(this.userMapper.toDetailedDtoList(page.getContent()))
-        .currentPage(page.getNumber()).totalPages(page.getTotalPages())
-        .totalElements(page.getTotalElements()).build();
+  // the totals of a slice are not known (see PageCountModeEnum)
+  private UsersPageDto toUsersPage(Slice<User> slice) {
+    UsersPageDto usersPageDto =
+        UsersPageDto.builder().users(this.userMapper.toDetailedDtoList(slice.getContent()))
+            .currentPage(slice.getNumber()).hasNext(slice.hasNext()).build();
+    if (slice instanceof Page<User> page) {
+      usersPageDto.setTotalPages(page.getTotalPages()).setTotalElements(page.getTotalElements());
+    } else {
+      usersPageDto.setTotalPages(null).setTotalElements(null);
+    }
+
+    return usersPageDto;
   }
 }
@@ -19,7 +19,8 @@ import org.springframework.hateoas.RepresentationModel;
 @NoArgsConstructor
 @Builder
 @AllArgsConstructor
-@JsonPropertyOrder({"currentPage", "totalPages", "totalElements", "users"})
+@JsonPropertyOrder({"currentPage", "totalPages", "totalElements", "approximateTotals", "hasNext",
+    "users"})
 public class UsersPageDto extends RepresentationModel<UsersPageDto> {
 
   @Builder.Default
@@ -28,10 +29,16 @@ public class UsersPageDto extends RepresentationModel<UsersPageDto> {
   @Builder.Default
   int currentPage = 0;
 
+  // null when the totals are not computed (see PageCountModeEnum)
   @Builder.Default
-  int totalPages = 0;
+  Integer totalPages = 0;
 
   @Builder.Default
-  long totalElements = 0;
+  Long totalElements = 0L;
+
+  // only set (true) when the totals have been estimated instead of counted
+  Boolean approximateTotals;
+
+  Boolean hasNext;
 
 }
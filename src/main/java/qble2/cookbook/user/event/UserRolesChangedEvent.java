@@ -0,0 +1,19 @@
+package qble2.cookbook.user.event;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by RoleService when the roles of a user change (the access tokens of the user carry
+ * the previous roles)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class UserRolesChangedEvent {
+
+  private UUID userId;
+
+}
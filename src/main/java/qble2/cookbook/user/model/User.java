@@ -28,6 +28,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Type;
 import qble2.cookbook.recipe.model.Recipe;
@@ -76,6 +78,8 @@ public class User {
   private String email;
 
   @ManyToMany(fetch = FetchType.EAGER) // has to be always fetched
+  // ids of the roles only, the roles themselves are cached too
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
   @Builder.Default
   private Set<Role> roles = new HashSet<>();
 
@@ -0,0 +1,132 @@
+package qble2.cookbook.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.security.JwtAuthorizationFilter;
+import qble2.cookbook.security.JwtRevocationList;
+import qble2.cookbook.security.JwtUtils;
+import qble2.cookbook.security.VerifiedJwtCache;
+
+/**
+ * Hot path of an authenticated request (JwtAuthorizationFilter with stateless authorization):
+ * every token verified (cache disabled, cold path) vs verified tokens cached (VerifiedJwtCache),
+ * from a single thread and from many threads sharing the cache and the verifier.
+ *
+ * Each operation authorizes a new request (the filter only runs once per request), with the token
+ * of one of the users in turn. The GC profiler reports the allocation rate per operation
+ * ("gc.alloc.rate.norm").
+ *
+ * <pre>
+ * mvn test-compile
+ * run JwtAuthorizationFilterBenchmark.main (test classpath)
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class JwtAuthorizationFilterBenchmark {
+
+  private static final int USERS_COUNT = 1_000;
+
+  @Param({"false", "true"})
+  private boolean cacheEnabled;
+
+  private JwtAuthorizationFilter jwtAuthorizationFilter;
+
+  private String[] authorizationHeaders;
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+
+    private int requestsCount;
+
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    VerifiedJwtCache verifiedJwtCache = new VerifiedJwtCache();
+    ReflectionTestUtils.setField(verifiedJwtCache, "enabled", cacheEnabled);
+    ReflectionTestUtils.setField(verifiedJwtCache, "maxEntries", USERS_COUNT);
+
+    JwtUtils jwtUtils = new JwtUtils();
+    ReflectionTestUtils.setField(jwtUtils, "authorizationSecret", "benchmarksecret");
+    ReflectionTestUtils.setField(jwtUtils, "authorizationHeaderPrefix", "Bearer ");
+    ReflectionTestUtils.setField(jwtUtils, "accessTokenExpirationInHours", 1);
+    ReflectionTestUtils.setField(jwtUtils, "verifiedJwtCache", verifiedJwtCache);
+
+    JwtRevocationList jwtRevocationList = new JwtRevocationList();
+    ReflectionTestUtils.setField(jwtRevocationList, "jwtUtils", jwtUtils);
+
+    // stateless: the user service is never called
+    jwtAuthorizationFilter = new JwtAuthorizationFilter(jwtUtils, null, jwtRevocationList, true);
+
+    authorizationHeaders = new String[USERS_COUNT];
+    for (int i = 0; i < USERS_COUNT; i++) {
+      authorizationHeaders[i] = "Bearer " + jwtUtils.createAccessToken(UUID.randomUUID(),
+          "user" + i, List.of("ROLE_USER"), "http://localhost:8080/api/auth/login");
+    }
+  }
+
+  @Benchmark
+  public void authorize(ThreadState threadState, Blackhole blackhole)
+      throws IOException, ServletException {
+    blackhole.consume(authorizeNextRequest(threadState));
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void authorizeConcurrently(ThreadState threadState, Blackhole blackhole)
+      throws IOException, ServletException {
+    blackhole.consume(authorizeNextRequest(threadState));
+  }
+
+  private Object authorizeNextRequest(ThreadState threadState)
+      throws IOException, ServletException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+    request.setServletPath("/api/users");
+    request.addHeader(HttpHeaders.AUTHORIZATION,
+        authorizationHeaders[threadState.requestsCount++ % USERS_COUNT]);
+
+    jwtAuthorizationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    SecurityContextHolder.clearContext();
+
+    return principal;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(JwtAuthorizationFilterBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class).build()).run();
+  }
+
+}
@@ -0,0 +1,371 @@
+package qble2.cookbook.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import lombok.Getter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import qble2.cookbook.CookBookSpringApplication;
+import qble2.cookbook.ingredient.IngredientRepository;
+import qble2.cookbook.ingredient.model.Ingredient;
+import qble2.cookbook.ingredient.model.UnitOfMeasureEnum;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.engine.RecipeSearchEngine;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchSortDirectionEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchSortKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.recipe.request.RecipeSearchSort;
+import qble2.cookbook.review.model.Review;
+import qble2.cookbook.user.UserRepository;
+import qble2.cookbook.user.model.User;
+
+/**
+ * Differential harness of the search engines (see RecipeSearchEngine): randomized searches are
+ * executed by every engine supporting their filters, on a generated dataset. Every engine must
+ * return the same page of recipe ids as the reference engine ("specification"), latency
+ * percentiles are reported per engine.
+ *
+ * <pre>
+ * mvn test-compile
+ * run RecipeSearchEngineHarness.main [recipes count] [searches count] (test classpath)
+ * </pre>
+ */
+public class RecipeSearchEngineHarness {
+
+  private static final String REFERENCE_ENGINE = "specification";
+
+  private static final int USERS_COUNT = 50;
+  private static final int INGREDIENTS_COUNT = 200;
+  private static final int BATCH_SIZE = 500;
+  private static final int PAGE_SIZE = 20;
+
+  private static final List<String> WORDS = List.of("apple", "basil", "butter", "cheese",
+      "chicken", "chocolate", "garlic", "honey", "lemon", "mushroom", "onion", "pepper", "rice",
+      "salmon", "tomato", "vanilla");
+
+  private final List<RecipeSearchEngine> recipeSearchEngines;
+  private final UserRepository userRepository;
+  private final IngredientRepository ingredientRepository;
+  private final RecipeRepository recipeRepository;
+  private final RecipeIndexManager recipeIndexManager;
+  private final TransactionTemplate transactionTemplate;
+  private final Random random;
+
+  private final List<UUID> userIds = new ArrayList<>();
+  private final List<UUID> ingredientIds = new ArrayList<>();
+
+  public RecipeSearchEngineHarness(ApplicationContext applicationContext, long seed) {
+    this.recipeSearchEngines =
+        new ArrayList<>(applicationContext.getBeansOfType(RecipeSearchEngine.class).values());
+    this.userRepository = applicationContext.getBean(UserRepository.class);
+    this.ingredientRepository = applicationContext.getBean(IngredientRepository.class);
+    this.recipeRepository = applicationContext.getBean(RecipeRepository.class);
+    this.recipeIndexManager = applicationContext.getBean(RecipeIndexManager.class);
+    this.transactionTemplate =
+        new TransactionTemplate(applicationContext.getBean(PlatformTransactionManager.class));
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Users, ingredients, recipes (tags, ingredients, reviews, favorites), then rebuilds the
+   * in-memory indexes
+   */
+  public void insertDataset(int recipesCount) {
+    this.transactionTemplate.executeWithoutResult(status -> {
+      for (int i = 0; i < USERS_COUNT; i++) {
+        this.userIds.add(this.userRepository.save(User.builder().username("author" + i)
+            .password("password").firstName("first name " + i).lastName("last name " + i)
+            .email("author" + i + "@cookbook.com").build()).getId());
+      }
+      for (int i = 0; i < INGREDIENTS_COUNT; i++) {
+        this.ingredientIds.add(this.ingredientRepository
+            .save(Ingredient.builder().name("ingredient " + i).build()).getId());
+      }
+    });
+
+    for (int firstRecipe = 0; firstRecipe < recipesCount; firstRecipe += BATCH_SIZE) {
+      int lastRecipe = Math.min(firstRecipe + BATCH_SIZE, recipesCount);
+      int batchFirstRecipe = firstRecipe;
+      this.transactionTemplate.executeWithoutResult(status -> {
+        for (int i = batchFirstRecipe; i < lastRecipe; i++) {
+          insertRecipe(i);
+        }
+      });
+    }
+
+    this.recipeIndexManager.rebuild();
+  }
+
+  public Report run(int searchesCount) {
+    Report report = new Report();
+    for (int i = 0; i < searchesCount; i++) {
+      RecipeSearchRequest recipeSearch = randomSearch();
+      PageRequest pageRequest = PageRequest.of(this.random.nextInt(3), PAGE_SIZE);
+
+      // execution order must not favor any engine (caches)
+      List<RecipeSearchEngine> engines = new ArrayList<>(this.recipeSearchEngines);
+      Collections.shuffle(engines, this.random);
+
+      Map<String, Page<UUID>> pages = new LinkedHashMap<>();
+      for (RecipeSearchEngine recipeSearchEngine : engines) {
+        if (recipeSearchEngine.supports(recipeSearch)) {
+          long start = System.nanoTime();
+          pages.put(recipeSearchEngine.getName(),
+              recipeSearchEngine.search(recipeSearch, pageRequest));
+          report.addLatency(recipeSearchEngine.getName(), System.nanoTime() - start);
+        }
+      }
+
+      Page<UUID> referencePage = pages.get(REFERENCE_ENGINE);
+      pages.forEach((engineName, page) -> {
+        if (!page.getContent().equals(referencePage.getContent())
+            || page.getTotalElements() != referencePage.getTotalElements()) {
+          report.addMismatch(String.format("%s (%d recipe(s)) vs %s (%d recipe(s)): %s, page %d",
+              engineName, page.getTotalElements(), REFERENCE_ENGINE,
+              referencePage.getTotalElements(), toString(recipeSearch),
+              pageRequest.getPageNumber()));
+        }
+      });
+    }
+
+    return report;
+  }
+
+  private void insertRecipe(int index) {
+    RecipeTagEnum[] tags = RecipeTagEnum.values();
+    UUID authorId = this.userIds.get(this.random.nextInt(USERS_COUNT));
+    User author = this.userRepository.getReferenceById(authorId);
+
+    Recipe recipe = Recipe.builder().name(randomWord() + " " + randomWord() + " " + index)
+        .description("with " + randomWord() + " and " + randomWord())
+        .servings(1 + this.random.nextInt(8)).preparationTime((long) this.random.nextInt(120))
+        .cookingTime((long) this.random.nextInt(120))
+        .createdAt(LocalDateTime.now().minusMinutes(this.random.nextInt(10_000))).author(author)
+        .build();
+    Set<RecipeTagEnum> recipeTags = EnumSet.noneOf(RecipeTagEnum.class);
+    for (int i = this.random.nextInt(4); i > 0; i--) {
+      recipeTags.add(tags[this.random.nextInt(tags.length)]);
+    }
+    recipe.updateTags(recipeTags);
+    this.recipeRepository.save(recipe);
+
+    for (int i = this.random.nextInt(6); i > 0; i--) {
+      UUID ingredientId = this.ingredientIds.get(this.random.nextInt(INGREDIENTS_COUNT));
+      if (recipe.getRecipeIngredients().stream().noneMatch(
+          recipeIngredient -> recipeIngredient.getIngredient().getId().equals(ingredientId))) {
+        recipe.addIngredient(this.ingredientRepository.getReferenceById(ingredientId), 1,
+            UnitOfMeasureEnum.GRAM);
+      }
+    }
+
+    for (int i = this.random.nextInt(5); i > 0; i--) {
+      UUID userId = this.userIds.get(this.random.nextInt(USERS_COUNT));
+      User user = this.userRepository.getReferenceById(userId);
+      if (this.random.nextBoolean()) {
+        user.addFavoriteRecipe(recipe);
+      } else if (!userId.equals(authorId) && recipe.getReviews().stream()
+          .noneMatch(review -> review.getAuthor().getId().equals(userId))) {
+        int rating = this.random.nextInt(6);
+        Review review = new Review(recipe, user, rating, null);
+        review.setReviewDate(LocalDateTime.now());
+        recipe.addReview(review).addRating(rating);
+      }
+    }
+  }
+
+  private RecipeSearchRequest randomSearch() {
+    RecipeSearchRequest recipeSearch = new RecipeSearchRequest();
+    recipeSearch.setUserId(this.userIds.get(this.random.nextInt(USERS_COUNT)));
+
+    List<RecipeSearchFilter> filters = new ArrayList<>();
+    for (int i = 1 + this.random.nextInt(3); i > 0; i--) {
+      filters.add(randomFilter());
+    }
+    recipeSearch.setFilters(filters);
+
+    if (this.random.nextInt(4) > 0) {
+      RecipeSearchSortKeyEnum[] sortKeys = RecipeSearchSortKeyEnum.values();
+      RecipeSearchSortKeyEnum sortKey = sortKeys[this.random.nextInt(sortKeys.length)];
+      // relevance is only computed by the in-memory text index (see RecipeService)
+      if (sortKey != RecipeSearchSortKeyEnum.RELEVANCE) {
+        recipeSearch.setSort(new RecipeSearchSort(sortKey,
+            this.random.nextBoolean() ? RecipeSearchSortDirectionEnum.ASC
+                : RecipeSearchSortDirectionEnum.DESC));
+      }
+    }
+
+    return recipeSearch;
+  }
+
+  private RecipeSearchFilter randomFilter() {
+    RecipeSearchFilterKeyEnum[] keys = RecipeSearchFilterKeyEnum.values();
+    RecipeSearchFilter recipeSearchFilter = new RecipeSearchFilter();
+    recipeSearchFilter.setKey(keys[this.random.nextInt(keys.length)]);
+
+    switch (recipeSearchFilter.getKey()) {
+      case USER_RECIPES, FAVORITE_RECIPES -> {
+        recipeSearchFilter.setOperator(RecipeSearchOperatorEnum.EQUAL);
+        recipeSearchFilter.setValue(Boolean.TRUE);
+      }
+      case RECIPE_AUTHOR -> {
+        recipeSearchFilter.setOperator(RecipeSearchOperatorEnum.LIKE);
+        recipeSearchFilter.setValue("author" + this.random.nextInt(USERS_COUNT));
+      }
+      case RECIPE_NAME, RECIPE_DESCRIPTION -> {
+        recipeSearchFilter.setOperator(RecipeSearchOperatorEnum.LIKE);
+        recipeSearchFilter.setValue(randomWord());
+      }
+      case RECIPE_TEXT -> {
+        recipeSearchFilter.setOperator(
+            randomOperator(RecipeSearchOperatorEnum.ANY, RecipeSearchOperatorEnum.ALL));
+        recipeSearchFilter.setValue(randomWord() + " " + randomWord());
+      }
+      case RECIPE_SERVINGS -> {
+        recipeSearchFilter.setOperator(randomOperator(RecipeSearchOperatorEnum.EQUAL,
+            RecipeSearchOperatorEnum.GTE, RecipeSearchOperatorEnum.LTE));
+        recipeSearchFilter.setValue(1 + this.random.nextInt(8));
+      }
+      case RECIPE_PREPARATION_TIME, RECIPE_COOKING_TIME -> {
+        recipeSearchFilter.setOperator(
+            randomOperator(RecipeSearchOperatorEnum.GTE, RecipeSearchOperatorEnum.LTE));
+        recipeSearchFilter.setValue(this.random.nextInt(120));
+      }
+      case RECIPE_TAGS -> {
+        RecipeTagEnum[] tags = RecipeTagEnum.values();
+        recipeSearchFilter.setOperator(randomOperator(RecipeSearchOperatorEnum.ANY,
+            RecipeSearchOperatorEnum.ALL, RecipeSearchOperatorEnum.NONE));
+        List<Object> values = new ArrayList<>();
+        for (int i = 1 + this.random.nextInt(2); i > 0; i--) {
+          values.add(tags[this.random.nextInt(tags.length)].getCode());
+        }
+        recipeSearchFilter.setValues(values);
+      }
+      case RECIPE_INGREDIENTS -> {
+        recipeSearchFilter.setOperator(randomOperator(RecipeSearchOperatorEnum.ANY,
+            RecipeSearchOperatorEnum.ALL, RecipeSearchOperatorEnum.NONE));
+        List<Object> values = new ArrayList<>();
+        for (int i = 1 + this.random.nextInt(2); i > 0; i--) {
+          // as deserialized from a JSON request
+          values.add(this.ingredientIds.get(this.random.nextInt(INGREDIENTS_COUNT)).toString());
+        }
+        recipeSearchFilter.setValues(values);
+      }
+      case RECIPE_AVERAGE_RATING -> {
+        recipeSearchFilter.setOperator(RecipeSearchOperatorEnum.GTE);
+        recipeSearchFilter.setValue(this.random.nextInt(11) / 2d);
+      }
+    }
+
+    return recipeSearchFilter;
+  }
+
+  private RecipeSearchOperatorEnum randomOperator(RecipeSearchOperatorEnum... operators) {
+    return operators[this.random.nextInt(operators.length)];
+  }
+
+  private String randomWord() {
+    return WORDS.get(this.random.nextInt(WORDS.size()));
+  }
+
+  private static String toString(RecipeSearchRequest recipeSearch) {
+    StringBuilder description = new StringBuilder();
+    recipeSearch.getFilters()
+        .forEach(recipeSearchFilter -> description.append(recipeSearchFilter.getKey().getKey())
+            .append(' ').append(recipeSearchFilter.getOperator()).append(' ')
+            .append(recipeSearchFilter.getValue() != null ? recipeSearchFilter.getValue()
+                : recipeSearchFilter.getValues())
+            .append("; "));
+    description.append("sort ").append(recipeSearch.getSort() == null ? null
+        : recipeSearch.getSort().getKey() + " " + recipeSearch.getSort().getDirection());
+
+    return description.toString();
+  }
+
+  @Getter
+  public static class Report {
+
+    private final List<String> mismatches = new ArrayList<>();
+
+    // nanoseconds, by engine
+    private final Map<String, List<Long>> latencies = new LinkedHashMap<>();
+
+    void addMismatch(String mismatch) {
+      this.mismatches.add(mismatch);
+    }
+
+    void addLatency(String engineName, long latency) {
+      this.latencies.computeIfAbsent(engineName, k -> new ArrayList<>()).add(latency);
+    }
+
+    /**
+     * @return one line per engine: number of searches, p50, p90, p99 and max latencies (ms)
+     */
+    public String format() {
+      StringBuilder formattedReport = new StringBuilder(
+          String.format("%-15s %8s %8s %8s %8s %8s%n", "engine", "searches", "p50", "p90", "p99",
+              "max"));
+      this.latencies.forEach((engineName, engineLatencies) -> {
+        List<Long> sortedLatencies = engineLatencies.stream().sorted().toList();
+        formattedReport.append(String.format("%-15s %8d %8.2f %8.2f %8.2f %8.2f%n", engineName,
+            sortedLatencies.size(), percentile(sortedLatencies, 50),
+            percentile(sortedLatencies, 90), percentile(sortedLatencies, 99),
+            percentile(sortedLatencies, 100)));
+      });
+      formattedReport.append(this.mismatches.size()).append(" mismatch(es)");
+
+      return formattedReport.toString();
+    }
+
+    // nearest-rank percentile, in milliseconds
+    private static double percentile(List<Long> sortedLatencies, int percentile) {
+      int rank = (int) Math.ceil(percentile / 100d * sortedLatencies.size());
+      return sortedLatencies.get(Math.max(rank, 1) - 1) / 1_000_000d;
+    }
+
+  }
+
+  public static void main(String[] args) {
+    int recipesCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    int searchesCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+    SpringApplication application = new SpringApplication(CookBookSpringApplication.class);
+    application.setWebApplicationType(WebApplicationType.NONE);
+    application.setAdditionalProfiles("test");
+    try (ConfigurableApplicationContext applicationContext =
+        application.run("--spring.datasource.url=jdbc:h2:mem:search_engines_harness",
+            "--logging.level.root=WARN")) {
+      RecipeSearchEngineHarness harness = new RecipeSearchEngineHarness(applicationContext, 42);
+      harness.insertDataset(recipesCount);
+      // warm-up
+      harness.run(searchesCount / 5);
+
+      Report report = harness.run(searchesCount);
+      System.out.println(report.format());
+      report.getMismatches().forEach(System.out::println);
+      if (!report.getMismatches().isEmpty()) {
+        throw new IllegalStateException("Search engines do not return the same recipes");
+      }
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+package qble2.cookbook.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import qble2.cookbook.CookBookSpringApplication;
+import qble2.cookbook.recipe.RecipeMapper;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.user.UserRepository;
+import qble2.cookbook.user.model.User;
+
+/**
+ * Minimal DTOs of a page of recipes: projection (RecipeSummaryLoader default) vs entities loaded
+ * with their author and tags (H2 in-memory database, whole application context).
+ *
+ * The GC profiler reports the allocation rate per operation ("gc.alloc.rate.norm").
+ *
+ * <pre>
+ * mvn test-compile
+ * run RecipeSummaryLoaderBenchmark.main (test classpath)
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class RecipeSummaryLoaderBenchmark {
+
+  private static final int RECIPES_COUNT = 10_000;
+  private static final int AUTHORS_COUNT = 100;
+
+  @Param({"10", "50"})
+  private int pageSize;
+
+  private ConfigurableApplicationContext applicationContext;
+
+  private RecipeRepository recipeRepository;
+
+  private RecipeMapper recipeMapper;
+
+  private TransactionTemplate readOnlyTransaction;
+
+  private List<UUID> pageRecipeIds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    SpringApplication application = new SpringApplication(CookBookSpringApplication.class);
+    application.setWebApplicationType(WebApplicationType.NONE);
+    application.setAdditionalProfiles("test");
+    applicationContext = application.run("--spring.datasource.url=jdbc:h2:mem:summary_benchmark",
+        "--recipe.index.enabled=false", "--logging.level.root=WARN");
+
+    recipeRepository = applicationContext.getBean(RecipeRepository.class);
+    recipeMapper = applicationContext.getBean(RecipeMapper.class);
+    PlatformTransactionManager transactionManager =
+        applicationContext.getBean(PlatformTransactionManager.class);
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+
+    insertRecipes(applicationContext.getBean(UserRepository.class),
+        new TransactionTemplate(transactionManager));
+
+    pageRecipeIds = recipeRepository.findAllIds(PageRequest.of(3, pageSize)).getContent();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    applicationContext.close();
+  }
+
+  @Benchmark
+  public List<RecipeDto> entities() {
+    return readOnlyTransaction.execute(status -> recipeMapper
+        .toMinimalDtoList(recipeRepository.findAllByIdInOrderAndLoadAuthorAndTags(pageRecipeIds)));
+  }
+
+  @Benchmark
+  public List<RecipeDto> projection() {
+    return readOnlyTransaction.execute(status -> recipeMapper.toMinimalDtoListFromProjections(
+        recipeRepository.findSummariesByIdInOrder(pageRecipeIds)));
+  }
+
+  private void insertRecipes(UserRepository userRepository,
+      TransactionTemplate transactionTemplate) {
+    Random random = new Random(42);
+    RecipeTagEnum[] tags = RecipeTagEnum.values();
+
+    List<User> authors = transactionTemplate.execute(status -> {
+      List<User> users = new ArrayList<>();
+      for (int i = 0; i < AUTHORS_COUNT; i++) {
+        users.add(userRepository.save(User.builder().username("author" + i).password("password")
+            .firstName("first name " + i).lastName("last name " + i)
+            .email("author" + i + "@cookbook.com").build()));
+      }
+
+      return users;
+    });
+
+    for (int batch = 0; batch < RECIPES_COUNT / 1000; batch++) {
+      int firstRecipe = batch * 1000;
+      transactionTemplate.executeWithoutResult(status -> {
+        for (int i = firstRecipe; i < firstRecipe + 1000; i++) {
+          User author = userRepository.getReferenceById(authors.get(i % AUTHORS_COUNT).getId());
+          Recipe recipe = Recipe.builder().name("Recipe " + i).description("Description " + i)
+              .servings(1 + random.nextInt(8)).preparationTime((long) random.nextInt(120))
+              .cookingTime((long) random.nextInt(120)).createdAt(LocalDateTime.now())
+              .author(author).build();
+          recipe.updateTags(EnumSet.of(tags[random.nextInt(tags.length)],
+              tags[random.nextInt(tags.length)]));
+          recipeRepository.save(recipe);
+        }
+      });
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(RecipeSummaryLoaderBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class).build()).run();
+  }
+
+}
@@ -0,0 +1,154 @@
+package qble2.cookbook.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeOrdinalRegistry;
+import qble2.cookbook.recipe.index.RecipeTrigramIndex;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+/**
+ * RECIPE_NAME / RECIPE_DESCRIPTION "LIKE '%term%'" filters: trigram index vs plain SQL LIKE (H2
+ * in-memory database, same predicate as RecipeNameSpecification)
+ *
+ * <pre>
+ * mvn test-compile
+ * run RecipeTrigramIndexBenchmark.main (test classpath)
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RecipeTrigramIndexBenchmark {
+
+  private static final List<String> WORDS = List.of("chocolate", "lemon", "tart", "apple", "pie",
+      "roasted", "chicken", "garlic", "butter", "soup", "tomato", "basil", "creamy", "pasta",
+      "spicy", "curry", "vanilla", "cake", "fresh", "salad", "honey", "glazed", "salmon", "bread");
+
+  @Param({"1000000"})
+  private int recipeCount;
+
+  @Param({"lemon tart", "vanil", "glazed salmon"})
+  private String term;
+
+  private Connection connection;
+
+  private RecipeTrigramIndex recipeTrigramIndex;
+
+  private RecipeSearchFilter nameFilter;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    RecipeOrdinalRegistry recipeOrdinalRegistry = new RecipeOrdinalRegistry();
+    recipeTrigramIndex = new RecipeTrigramIndex();
+    ReflectionTestUtils.setField(recipeTrigramIndex, "recipeOrdinalRegistry",
+        recipeOrdinalRegistry);
+
+    connection = DriverManager.getConnection("jdbc:h2:mem:trigram_benchmark", "sa", "");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("create table recipe (id varchar(36) primary key,"
+          + " name varchar(255) not null, description varchar(255))");
+    }
+
+    Random random = new Random(42);
+    try (PreparedStatement insert =
+        connection.prepareStatement("insert into recipe values (?, ?, ?)")) {
+      for (int i = 0; i < recipeCount; i++) {
+        UUID recipeId = UUID.randomUUID();
+        String name = randomWords(random, 3) + " " + i;
+        String description = randomWords(random, 8);
+
+        insert.setString(1, recipeId.toString());
+        insert.setString(2, name);
+        insert.setString(3, description);
+        insert.addBatch();
+        if (i % 10_000 == 0) {
+          insert.executeBatch();
+        }
+
+        recipeTrigramIndex.index(RecipeDocument.builder().recipeId(recipeId).name(name)
+            .description(description).build());
+      }
+      insert.executeBatch();
+    }
+
+    nameFilter = new RecipeSearchFilter();
+    nameFilter.setKey(RecipeSearchFilterKeyEnum.RECIPE_NAME);
+    nameFilter.setOperator(RecipeSearchOperatorEnum.LIKE);
+    nameFilter.setValue(term);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    connection.close();
+  }
+
+  @Benchmark
+  public int sqlLike() throws SQLException {
+    try (PreparedStatement query =
+        connection.prepareStatement("select id from recipe where lower(name) like ?")) {
+      query.setString(1, "%" + term.toLowerCase() + "%");
+      int count = 0;
+      try (ResultSet resultSet = query.executeQuery()) {
+        while (resultSet.next()) {
+          count++;
+        }
+      }
+
+      return count;
+    }
+  }
+
+  @Benchmark
+  public int trigramIndex() {
+    return recipeTrigramIndex.match(nameFilter).getOrdinals().cardinality();
+  }
+
+  private static String randomWords(Random random, int count) {
+    StringBuilder words = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        words.append(' ');
+      }
+      words.append(WORDS.get(random.nextInt(WORDS.size())));
+    }
+
+    return words.toString();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(RecipeTrigramIndexBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+}
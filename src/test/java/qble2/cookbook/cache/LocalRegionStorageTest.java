@@ -0,0 +1,73 @@
+package qble2.cookbook.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// unit testing
+class LocalRegionStorageTest {
+
+  private final AtomicLong currentTimeMillis = new AtomicLong(1_000);
+
+  private LocalRegionStorage localRegionStorage; // underTest
+
+  @BeforeEach
+  void setUp() {
+    localRegionStorage = new LocalRegionStorage("ingredient", 2, 60_000, currentTimeMillis::get);
+  }
+
+  @Test
+  void given_maxEntriesReached_putIntoCache_willEvictLeastRecentlyUsedEntry() {
+    // given
+    localRegionStorage.putIntoCache("flour", "Flour", null);
+    localRegionStorage.putIntoCache("sugar", "Sugar", null);
+    localRegionStorage.getFromCache("flour", null);
+
+    // when
+    localRegionStorage.putIntoCache("salt", "Salt", null);
+
+    // then
+    assertThat(localRegionStorage.contains("flour")).isTrue();
+    assertThat(localRegionStorage.contains("sugar")).isFalse();
+    assertThat(localRegionStorage.contains("salt")).isTrue();
+    assertThat(localRegionStorage.getStats().getEvictions()).isEqualTo(1);
+  }
+
+  @Test
+  void given_expiredEntry_getFromCache_willReturnNull() {
+    // given
+    localRegionStorage.putIntoCache("flour", "Flour", null);
+    currentTimeMillis.addAndGet(60_000);
+
+    // when
+    Object value = localRegionStorage.getFromCache("flour", null);
+
+    // then
+    assertThat(value).isNull();
+    assertThat(localRegionStorage.contains("flour")).isFalse();
+    assertThat(localRegionStorage.getStats().getExpirations()).isEqualTo(1);
+  }
+
+  @Test
+  void given_hitsAndMisses_getStats_willReturnHitRatio() {
+    // given
+    localRegionStorage.putIntoCache("flour", "Flour", null);
+    localRegionStorage.getFromCache("flour", null);
+    localRegionStorage.getFromCache("flour", null);
+    localRegionStorage.getFromCache("flour", null);
+    localRegionStorage.getFromCache("sugar", null);
+
+    // when
+    SecondLevelCacheRegionStatsDto stats = localRegionStorage.getStats();
+
+    // then
+    assertThat(stats.getRegion()).isEqualTo("ingredient");
+    assertThat(stats.getHits()).isEqualTo(3);
+    assertThat(stats.getMisses()).isEqualTo(1);
+    assertThat(stats.getHitRatio()).isEqualTo(0.75);
+    assertThat(stats.getEntries()).isEqualTo(1);
+    assertThat(stats.getTtlSeconds()).isEqualTo(60);
+  }
+
+}
@@ -0,0 +1,123 @@
+package qble2.cookbook.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.ingredient.IngredientService;
+import qble2.cookbook.ingredient.dto.IngredientDto;
+import qble2.cookbook.ingredient.event.IngredientChangedEvent;
+import qble2.cookbook.metadata.MetadataCache;
+import qble2.cookbook.metadata.MetadataCache.MetadataSnapshot;
+
+// unit testing
+@ExtendWith(MockitoExtension.class)
+class MetadataCacheTest {
+
+  private static final String BASE_URI = "http://localhost:8080";
+
+  @Mock
+  private IngredientService ingredientService;
+
+  @Mock
+  private HalMediaTypeConfiguration halMediaTypeConfiguration;
+
+  private MetadataCache metadataCache; // underTest
+
+  @BeforeEach
+  void setUp() {
+    given(halMediaTypeConfiguration.configureObjectMapper(any())).will(returnsFirstArg());
+    metadataCache = new MetadataCache();
+    ReflectionTestUtils.setField(metadataCache, "ingredientService", ingredientService);
+    HalJsonSerializer halJsonSerializer = new HalJsonSerializer();
+    ReflectionTestUtils.setField(halJsonSerializer, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(halJsonSerializer, "halMediaTypeConfiguration",
+        halMediaTypeConfiguration);
+    ReflectionTestUtils.setField(metadataCache, "halJsonSerializer", halJsonSerializer);
+  }
+
+  @Test
+  void given_snapshotExists_getSnapshot_willNotLoadIngredientsAgain() {
+    // given
+    given(ingredientService.getIngredients()).willReturn(List.of(ingredient("flour")));
+    MetadataSnapshot firstSnapshot = metadataCache.getSnapshot(BASE_URI);
+
+    // when
+    MetadataSnapshot secondSnapshot = metadataCache.getSnapshot(BASE_URI);
+
+    // then
+    verify(ingredientService, times(1)).getIngredients();
+    assertThat(secondSnapshot).isSameAs(firstSnapshot);
+    assertThat(new String(secondSnapshot.getBody(), StandardCharsets.UTF_8)).contains("flour");
+    assertThat(secondSnapshot.getETag()).startsWith("\"").endsWith("\"");
+  }
+
+  @Test
+  void given_ingredientChanged_getSnapshot_willRebuildSnapshotWithNewETag() {
+    // given
+    given(ingredientService.getIngredients()).willReturn(List.of(ingredient("flour")),
+        List.of(ingredient("flour"), ingredient("sugar")));
+    MetadataSnapshot previousSnapshot = metadataCache.getSnapshot(BASE_URI);
+
+    // when
+    metadataCache.onIngredientChanged(new IngredientChangedEvent(UUID.randomUUID()));
+    MetadataSnapshot snapshot = metadataCache.getSnapshot(BASE_URI);
+
+    // then
+    verify(ingredientService, times(2)).getIngredients();
+    assertThat(new String(snapshot.getBody(), StandardCharsets.UTF_8)).contains("sugar");
+    assertThat(snapshot.getETag()).isNotEqualTo(previousSnapshot.getETag());
+  }
+
+  @Test
+  void given_otherBaseUri_getSnapshot_willBuildAnotherSnapshot() {
+    // given
+    given(ingredientService.getIngredients()).willReturn(List.of(ingredient("flour")));
+    MetadataSnapshot snapshot = metadataCache.getSnapshot(BASE_URI);
+
+    // when
+    MetadataSnapshot otherSnapshot = metadataCache.getSnapshot("https://cookbook.org");
+
+    // then
+    verify(ingredientService, times(2)).getIngredients();
+    assertThat(otherSnapshot).isNotSameAs(snapshot);
+  }
+
+  @Test
+  void given_manyBaseUris_getSnapshot_willOnlyDropLeastRecentlyUsedSnapshot() {
+    // given
+    given(ingredientService.getIngredients()).willReturn(List.of(ingredient("flour")));
+    MetadataSnapshot firstSnapshot = metadataCache.getSnapshot(BASE_URI);
+    MetadataSnapshot secondSnapshot = metadataCache.getSnapshot(BASE_URI + "/1");
+    for (int i = 2; i <= 8; i++) {
+      metadataCache.getSnapshot(BASE_URI + "/" + i);
+    }
+
+    // when
+    MetadataSnapshot keptSnapshot = metadataCache.getSnapshot(BASE_URI + "/1");
+    MetadataSnapshot rebuiltSnapshot = metadataCache.getSnapshot(BASE_URI);
+
+    // then
+    verify(ingredientService, times(10)).getIngredients();
+    assertThat(keptSnapshot).isSameAs(secondSnapshot);
+    assertThat(rebuiltSnapshot).isNotSameAs(firstSnapshot);
+  }
+
+  private static IngredientDto ingredient(String name) {
+    return IngredientDto.builder().id(UUID.randomUUID()).name(name).build();
+  }
+
+}
@@ -0,0 +1,150 @@
+package qble2.cookbook.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.cache.RecipeDetailCache;
+import qble2.cookbook.recipe.cache.RecipeDetailCache.RenderedRecipe;
+import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.event.RecipeChangedEvent;
+import qble2.cookbook.review.event.ReviewChangedEvent;
+
+// unit testing
+@ExtendWith(MockitoExtension.class)
+class RecipeDetailCacheTest {
+
+  private static final String BASE_URI = "http://localhost:8080";
+
+  @Mock
+  private HalMediaTypeConfiguration halMediaTypeConfiguration;
+
+  private AtomicInteger loadsCount;
+
+  private RecipeDetailCache recipeDetailCache; // underTest
+
+  @BeforeEach
+  void setUp() {
+    given(halMediaTypeConfiguration.configureObjectMapper(any())).will(returnsFirstArg());
+    loadsCount = new AtomicInteger();
+    recipeDetailCache = new RecipeDetailCache();
+    HalJsonSerializer halJsonSerializer = new HalJsonSerializer();
+    ReflectionTestUtils.setField(halJsonSerializer, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(halJsonSerializer, "halMediaTypeConfiguration",
+        halMediaTypeConfiguration);
+    ReflectionTestUtils.setField(recipeDetailCache, "halJsonSerializer", halJsonSerializer);
+    ReflectionTestUtils.setField(recipeDetailCache, "enabled", true);
+    ReflectionTestUtils.setField(recipeDetailCache, "maxWeight", 1_000_000L);
+  }
+
+  @Test
+  void given_cachedRecipe_get_willNotRenderRecipeAgain() {
+    // given
+    UUID recipeId = UUID.randomUUID();
+    byte[] firstBody =
+        recipeDetailCache.get(recipeId, BASE_URI, loader(recipeId, "cake")).getBody();
+
+    // when
+    byte[] secondBody =
+        recipeDetailCache.get(recipeId, BASE_URI, loader(recipeId, "cake")).getBody();
+
+    // then
+    assertThat(loadsCount).hasValue(1);
+    assertThat(secondBody).isSameAs(firstBody);
+    assertThat(new String(secondBody, StandardCharsets.UTF_8)).contains("cake");
+  }
+
+  @Test
+  void given_reviewChanged_get_willRenderRecipeAgain() {
+    // given
+    UUID recipeId = UUID.randomUUID();
+    UUID otherRecipeId = UUID.randomUUID();
+    recipeDetailCache.get(recipeId, BASE_URI, loader(recipeId, "cake"));
+    recipeDetailCache.get(otherRecipeId, BASE_URI, loader(otherRecipeId, "bread"));
+
+    // when
+    recipeDetailCache.onReviewChanged(new ReviewChangedEvent(recipeId, UUID.randomUUID()));
+    byte[] body =
+        recipeDetailCache.get(recipeId, BASE_URI, loader(recipeId, "rated cake")).getBody();
+    recipeDetailCache.get(otherRecipeId, BASE_URI, loader(otherRecipeId, "bread"));
+
+    // then
+    assertThat(loadsCount).hasValue(3);
+    assertThat(new String(body, StandardCharsets.UTF_8)).contains("rated cake");
+  }
+
+  @Test
+  void given_recipeChangedDuringRendering_get_willNotCacheRecipe() {
+    // given
+    UUID recipeId = UUID.randomUUID();
+    Supplier<RecipeDto> concurrentlyWrittenLoader = () -> {
+      RecipeDto recipeDto = loader(recipeId, "cake").get();
+      recipeDetailCache.onRecipeChanged(RecipeChangedEvent.saved(recipeId));
+      return recipeDto;
+    };
+    recipeDetailCache.get(recipeId, BASE_URI, concurrentlyWrittenLoader);
+
+    // when
+    byte[] body =
+        recipeDetailCache.get(recipeId, BASE_URI, loader(recipeId, "renamed cake")).getBody();
+
+    // then
+    assertThat(loadsCount).hasValue(2);
+    assertThat(new String(body, StandardCharsets.UTF_8)).contains("renamed cake");
+  }
+
+  @Test
+  void given_versionedRecipe_get_willReturnValidatorsWithBody() {
+    // given
+    UUID recipeId = UUID.randomUUID();
+    LocalDateTime modifiedAt = LocalDateTime.now();
+    Supplier<RecipeDto> versionedLoader = () -> RecipeDto.builder().id(recipeId).name("cake")
+        .version(3L).modifiedAt(modifiedAt).build();
+
+    // when
+    RenderedRecipe renderedRecipe = recipeDetailCache.get(recipeId, BASE_URI, versionedLoader);
+
+    // then
+    assertThat(renderedRecipe.getRecipeVersion().toETag()).isEqualTo("W/\"3\"");
+    assertThat(renderedRecipe.getRecipeVersion().getModifiedAt()).isEqualTo(modifiedAt);
+    assertThat(new String(renderedRecipe.getBody(), StandardCharsets.UTF_8))
+        .doesNotContain("version");
+  }
+
+  @Test
+  void given_maxWeightReached_get_willEvictLeastRecentlyUsedRecipe() {
+    // given
+    ReflectionTestUtils.setField(recipeDetailCache, "maxWeight", 1_000L); // a single recipe
+    UUID cakeId = UUID.randomUUID();
+    UUID breadId = UUID.randomUUID();
+    recipeDetailCache.get(cakeId, BASE_URI, loader(cakeId, "cake"));
+    recipeDetailCache.get(breadId, BASE_URI, loader(breadId, "bread"));
+
+    // when
+    recipeDetailCache.get(cakeId, BASE_URI, loader(cakeId, "cake"));
+
+    // then
+    assertThat(loadsCount).hasValue(3);
+  }
+
+  private Supplier<RecipeDto> loader(UUID recipeId, String name) {
+    return () -> {
+      loadsCount.incrementAndGet();
+      return RecipeDto.builder().id(recipeId).name(name).build();
+    };
+  }
+
+}
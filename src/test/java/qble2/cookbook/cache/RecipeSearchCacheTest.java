@@ -0,0 +1,227 @@
+package qble2.cookbook.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import qble2.cookbook.pagination.PageCountModeEnum;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.cache.RecipeSearchCache;
+import qble2.cookbook.recipe.cache.RecipeSearchCacheKey;
+import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dto.RecipesPageDto;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.event.RecipeChangedEvent;
+import qble2.cookbook.recipe.event.RecipeFavoritesChangedEvent;
+import qble2.cookbook.recipe.index.RecipeIndex;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.review.event.ReviewChangedEvent;
+
+// unit testing
+class RecipeSearchCacheTest {
+
+  private AtomicInteger loadsCount;
+
+  private RecipeSearchCache recipeSearchCache; // underTest
+
+  @BeforeEach
+  void setUp() {
+    loadsCount = new AtomicInteger();
+    recipeSearchCache = new RecipeSearchCache();
+    ReflectionTestUtils.setField(recipeSearchCache, "enabled", true);
+    ReflectionTestUtils.setField(recipeSearchCache, "maxWeight", 1_000_000L);
+  }
+
+  @Test
+  void given_sameFiltersInAnotherOrder_key_willBeEqual() {
+    // given
+    RecipeSearchRequest recipeSearch = search(
+        filter(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ANY, null,
+            List.<Object>of("VEGAN", "DESSERT", "VEGAN")),
+        filter(RecipeSearchFilterKeyEnum.RECIPE_AVERAGE_RATING, RecipeSearchOperatorEnum.GTE, 4,
+            null));
+    RecipeSearchRequest sameRecipeSearch = search(
+        filter(RecipeSearchFilterKeyEnum.RECIPE_AVERAGE_RATING, RecipeSearchOperatorEnum.GTE, 4.0,
+            null),
+        filter(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ANY, null,
+            List.<Object>of("DESSERT", "VEGAN")));
+
+    // when
+    // then
+    PageCountModeEnum exact = PageCountModeEnum.EXACT;
+    assertThat(RecipeSearchCacheKey.of(recipeSearch, PageRequest.of(0, 5), exact))
+        .isEqualTo(RecipeSearchCacheKey.of(sameRecipeSearch, PageRequest.of(0, 5), exact))
+        .isNotEqualTo(RecipeSearchCacheKey.of(sameRecipeSearch, PageRequest.of(1, 5), exact))
+        .isNotEqualTo(RecipeSearchCacheKey.of(sameRecipeSearch, PageRequest.of(0, 5),
+            PageCountModeEnum.NONE));
+  }
+
+  @Test
+  void given_cachedPage_get_willNotLoadItAgainAndReturnCopy() {
+    // given
+    RecipesPageDto firstPage = get(search());
+
+    // when
+    RecipesPageDto secondPage = get(search());
+
+    // then
+    assertThat(loadsCount.get()).isEqualTo(1);
+    assertThat(secondPage).isNotSameAs(firstPage);
+    assertThat(secondPage.getRecipes()).isEqualTo(firstPage.getRecipes());
+    assertThat(recipeSearchCache.getStats().getHits()).isEqualTo(1);
+    assertThat(recipeSearchCache.getStats().getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  void given_cachedPage_get_willNotReportThePlanOfTheFirstComputation() {
+    // given
+    RecipesPageDto firstPage = recipeSearchCache.get(search(), PageRequest.of(0, 5),
+        PageCountModeEnum.EXACT, () -> RecipesPageDto.builder().recipes(new ArrayList<>())
+            .searchPlan("indexes=not narrowed; prefilter=none; order=").build());
+
+    // when
+    RecipesPageDto secondPage = get(search());
+
+    // then
+    assertThat(firstPage.getSearchPlan()).isEqualTo("indexes=not narrowed; prefilter=none; order=");
+    assertThat(secondPage.getSearchPlan()).isEqualTo(RecipeSearchCache.CACHED_SEARCH_PLAN);
+  }
+
+  @Test
+  void given_recipeOrReviewWrite_get_willLoadPageAgain() {
+    // given
+    get(search());
+
+    // when
+    recipeSearchCache.onRecipeChanged(RecipeChangedEvent.saved(UUID.randomUUID()));
+    get(search());
+    recipeSearchCache.onReviewChanged(new ReviewChangedEvent(UUID.randomUUID(), null));
+    get(search());
+
+    // then
+    assertThat(loadsCount.get()).isEqualTo(3);
+    assertThat(recipeSearchCache.getStats().getInvalidations()).isEqualTo(2);
+  }
+
+  @Test
+  void given_favoritesChange_get_willOnlyLoadFavoritesDependentPagesAgain() {
+    // given
+    RecipeSearchRequest favoritesSearch = search(filter(
+        RecipeSearchFilterKeyEnum.FAVORITE_RECIPES, RecipeSearchOperatorEnum.EQUAL, true, null));
+    get(search());
+    get(favoritesSearch);
+
+    // when
+    recipeSearchCache
+        .onRecipeFavoritesChanged(RecipeFavoritesChangedEvent.added(UUID.randomUUID(), null));
+    get(search());
+    get(favoritesSearch);
+
+    // then
+    assertThat(loadsCount.get()).isEqualTo(3);
+  }
+
+  @Test
+  void given_maxWeightReached_get_willEvictLeastRecentlyUsedPage() {
+    // given
+    ReflectionTestUtils.setField(recipeSearchCache, "maxWeight", 3_000L);
+    get(search(), PageRequest.of(0, 1));
+    get(search(), PageRequest.of(1, 1));
+    get(search(), PageRequest.of(0, 1)); // page 1 is now the least recently used
+
+    // when
+    get(search(), PageRequest.of(2, 1));
+
+    // then
+    assertThat(recipeSearchCache.getStats().getEvictions()).isEqualTo(1);
+    get(search(), PageRequest.of(0, 1));
+    assertThat(loadsCount.get()).isEqualTo(3);
+  }
+
+  @Test
+  void given_pageCachedWhileIndexesAreUpdated_get_willLoadPageAgainAfterCommit() {
+    // given
+    // a search served while the indexes are updated is computed from their previous state
+    RecipeIndex recipeIndex = Mockito.mock(RecipeIndex.class);
+    Mockito.doAnswer(invocation -> get(search())).when(recipeIndex).remove(any());
+
+    try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+      context.registerBean(TransactionalEventListenerFactory.class);
+      context.registerBean(RecipeSearchCache.class, () -> recipeSearchCache);
+      context.registerBean(RecipeIndexManager.class);
+      context.registerBean(RecipeIndex.class, () -> recipeIndex);
+      context.registerBean(RecipeRepository.class, () -> Mockito.mock(RecipeRepository.class));
+      context.registerBean(PlatformTransactionManager.class,
+          () -> Mockito.mock(PlatformTransactionManager.class));
+      context.refresh();
+
+      // when
+      // a deleted recipe is committed: its after-commit listeners are run in their order
+      List<TransactionSynchronization> synchronizations;
+      TransactionSynchronizationManager.initSynchronization();
+      TransactionSynchronizationManager.setActualTransactionActive(true);
+      try {
+        context.publishEvent(RecipeChangedEvent.deleted(UUID.randomUUID()));
+        synchronizations = TransactionSynchronizationManager.getSynchronizations();
+      } finally {
+        TransactionSynchronizationManager.clear();
+      }
+      TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+          TransactionSynchronization.STATUS_COMMITTED);
+    }
+    get(search());
+
+    // then
+    // the page cached during the update has been invalidated by the stamps bumped afterwards
+    assertThat(loadsCount.get()).isEqualTo(2);
+  }
+
+  private RecipesPageDto get(RecipeSearchRequest recipeSearch) {
+    return get(recipeSearch, PageRequest.of(0, 5));
+  }
+
+  private RecipesPageDto get(RecipeSearchRequest recipeSearch, PageRequest pageRequest) {
+    return recipeSearchCache.get(recipeSearch, pageRequest, PageCountModeEnum.EXACT, () -> {
+      loadsCount.incrementAndGet();
+      return RecipesPageDto.builder()
+          .recipes(new ArrayList<>(List.of(RecipeDto.builder().id(UUID.randomUUID()).build())))
+          .build();
+    });
+  }
+
+  private static RecipeSearchRequest search(RecipeSearchFilter... filters) {
+    RecipeSearchRequest recipeSearch = new RecipeSearchRequest();
+    recipeSearch.setUserId(UUID.nameUUIDFromBytes("user".getBytes()));
+    recipeSearch.setFilters(List.of(filters));
+
+    return recipeSearch;
+  }
+
+  private static RecipeSearchFilter filter(RecipeSearchFilterKeyEnum key,
+      RecipeSearchOperatorEnum operator, Object value, List<Object> values) {
+    RecipeSearchFilter recipeSearchFilter = new RecipeSearchFilter();
+    recipeSearchFilter.setKey(key);
+    recipeSearchFilter.setOperator(operator);
+    recipeSearchFilter.setValue(value);
+    recipeSearchFilter.setValues(values);
+
+    return recipeSearchFilter;
+  }
+
+}
@@ -2,7 +2,10 @@ package qble2.cookbook.controller;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -11,6 +14,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -20,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -33,17 +38,27 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import qble2.cookbook.exception.ExceptionsControllerAdvice;
+import qble2.cookbook.exception.InvalidArgumentException;
 import qble2.cookbook.exception.ResourceNotFoundException;
+import qble2.cookbook.pagination.PageCountModeEnum;
 import qble2.cookbook.recipe.RecipeController;
 import qble2.cookbook.recipe.RecipeRepository;
 import qble2.cookbook.recipe.RecipeService;
+import qble2.cookbook.recipe.cache.RecipeDetailCache;
 import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dto.RecipeVersionDto;
 import qble2.cookbook.recipe.dto.RecipesPageDto;
+import qble2.cookbook.recipe.facet.RecipeFacetService;
 import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.recommendation.RecipeRecommendationService;
+import qble2.cookbook.recipe.similarity.RecipeSimilarityDto;
+import qble2.cookbook.recipe.similarity.RecipeSimilarityService;
 import qble2.cookbook.utils.TestUtils;
 
 @WebMvcTest(controllers = RecipeController.class,
     excludeAutoConfiguration = SecurityAutoConfiguration.class)
+// real cache: it renders what the mocked service returns
+@Import(RecipeDetailCache.class)
 @ActiveProfiles("test")
 @TestPropertySource(locations = "classpath:ValidationMessages.properties")
 class RecipeControllerTest {
@@ -63,6 +78,15 @@ class RecipeControllerTest {
   @MockBean
   private RecipeRepository recipeRepository; // called during Validation
 
+  @MockBean
+  private RecipeFacetService recipeFacetService;
+
+  @MockBean
+  private RecipeSimilarityService recipeSimilarityService;
+
+  @MockBean
+  private RecipeRecommendationService recipeRecommendationService;
+
   /////
   ///// NOMINAL CASES
   /////
@@ -77,7 +101,7 @@ class RecipeControllerTest {
     Pageable pageable = PageRequest.of(page, size);
     RecipesPageDto recipesPageDto = RecipesPageDto.builder()
         .recipes(List.of(TestUtils.createRecipe(UUID.randomUUID()))).build();
-    given(recipeService.getRecipes(pageable)).willReturn(recipesPageDto);
+    given(recipeService.getRecipes(pageable, PageCountModeEnum.EXACT)).willReturn(recipesPageDto);
 
     // when
     // then
@@ -116,6 +140,8 @@ class RecipeControllerTest {
     URI uri = TestUtils.toUri(TestUtils.RECIPES_PATH + "/{recipeId}/tags", existingRecipeId);
     String urlTemplate = TestUtils.toHttpUriString(uri);
     given(recipeService.getRecipe(any())).willReturn(existingRecipe);
+    given(recipeService.getRecipeVersion(any()))
+        .willReturn(new RecipeVersionDto(0, LocalDateTime.now()));
 
     // when
     // then
@@ -136,6 +162,8 @@ class RecipeControllerTest {
     URI uri = TestUtils.toUri(TestUtils.RECIPES_PATH + "/{recipeId}/ingredients", existingRecipeId);
     String urlTemplate = TestUtils.toHttpUriString(uri);
     given(recipeService.getRecipe(any())).willReturn(existingRecipe);
+    given(recipeService.getRecipeVersion(any()))
+        .willReturn(new RecipeVersionDto(0, LocalDateTime.now()));
 
     // when
     // then
@@ -156,6 +184,8 @@ class RecipeControllerTest {
     URI uri = TestUtils.toUri(TestUtils.RECIPES_PATH + "/{recipeId}/instructions", existingRecipeId);
     String urlTemplate = TestUtils.toHttpUriString(uri);
     given(recipeService.getRecipe(any())).willReturn(existingRecipe);
+    given(recipeService.getRecipeVersion(any()))
+        .willReturn(new RecipeVersionDto(0, LocalDateTime.now()));
 
     // when
     // then
@@ -167,6 +197,53 @@ class RecipeControllerTest {
         .andExpect(jsonPath("$._links.self.href", is(selfLink)));
   }
 
+  @Test
+  void given_recipeExists_getSimilarRecipes_willReturnSimilarRecipes() throws Exception {
+    // given
+    UUID existingRecipeId = UUID.randomUUID();
+    UUID similarRecipeId = UUID.randomUUID();
+    int size = 3;
+    URI uri = TestUtils.toUri(TestUtils.RECIPES_PATH + "/{recipeId}/similar", existingRecipeId);
+    String urlTemplate = TestUtils.toHttpUriString(uri);
+    given(recipeSimilarityService.getSimilarRecipes(existingRecipeId, size))
+        .willReturn(List.of(RecipeSimilarityDto.builder().similarity(0.8)
+            .recipe(TestUtils.createRecipe(similarRecipeId)).build()));
+
+    // when
+    // then
+    String selfLink = TestUtils.toHttpUriString(TestUtils.RECIPES_PATH + "/{recipeId}/similar",
+        Map.of("size", size), existingRecipeId);
+
+    this.mockMvc
+        .perform(get(urlTemplate).param("size", String.valueOf(size))
+            .accept(MediaTypes.HAL_JSON_VALUE))
+        .andDo(print())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE))
+        .andExpect(status().isOk()) //
+        .andExpect(jsonPath("$._embedded.similarRecipes[0].similarity", is(0.8)))
+        .andExpect(jsonPath("$._embedded.similarRecipes[0].recipe.id",
+            is(similarRecipeId.toString())))
+        .andExpect(jsonPath("$._links.self.href", is(selfLink)));
+  }
+
+  @Test
+  void given_unchangedRecipe_getRecipeTags_willReturnNotModified() throws Exception {
+    // given
+    UUID existingRecipeId = UUID.randomUUID();
+    URI uri = TestUtils.toUri(TestUtils.RECIPES_PATH + "/{recipeId}/tags", existingRecipeId);
+    String urlTemplate = TestUtils.toHttpUriString(uri);
+    RecipeVersionDto recipeVersion = new RecipeVersionDto(3, LocalDateTime.now());
+    given(recipeService.getRecipeVersion(any())).willReturn(recipeVersion);
+
+    // when
+    // then
+    this.mockMvc
+        .perform(get(urlTemplate).accept(MediaTypes.HAL_JSON_VALUE)
+            .header(HttpHeaders.IF_NONE_MATCH, recipeVersion.toETag()))
+        .andDo(print()).andExpect(status().isNotModified());
+    verify(recipeService, never()).getRecipeTags(any());
+  }
+
   @Test
   void given_userExistsAndValidRecipe_createRecipe_willReturnCreatedRecipe() throws Exception {
     // given
@@ -273,6 +350,47 @@ class RecipeControllerTest {
         ResourceNotFoundException.getFormattedMessage());
   }
 
+  @Test
+  void given_recipeDoesNotExist_getRecipeRecommendations_willReturnResourceNotFound()
+      throws Exception {
+    // given
+    UUID unknownRecipeId = UUID.randomUUID();
+    URI uri =
+        TestUtils.toUri(TestUtils.RECIPES_PATH + "/{recipeId}/recommendations", unknownRecipeId);
+    String urlTemplate = TestUtils.toHttpUriString(uri);
+    given(recipeRecommendationService.getRecipeRecommendations(any(), anyInt()))
+        .willThrow(new ResourceNotFoundException());
+
+    // when
+    // then
+    final ResultActions resultActions =
+        this.mockMvc.perform(get(urlTemplate).accept(MediaTypes.HAL_JSON_VALUE)).andDo(print())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE));
+
+    TestUtils.verifyResponseError(resultActions, uri, status().isNotFound(), HttpStatus.NOT_FOUND,
+        ResourceNotFoundException.getFormattedMessage());
+  }
+
+  @Test
+  void given_invalidSize_getSimilarRecipes_willReturnBadRequest() throws Exception {
+    // given
+    UUID existingRecipeId = UUID.randomUUID();
+    URI uri = TestUtils.toUri(TestUtils.RECIPES_PATH + "/{recipeId}/similar", existingRecipeId);
+    String urlTemplate = TestUtils.toHttpUriString(uri);
+    given(recipeSimilarityService.getSimilarRecipes(any(), anyInt()))
+        .willThrow(new InvalidArgumentException());
+
+    // when
+    // then
+    final ResultActions resultActions = this.mockMvc
+        .perform(get(urlTemplate).param("size", "0").accept(MediaTypes.HAL_JSON_VALUE))
+        .andDo(print())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE));
+
+    TestUtils.verifyResponseError(resultActions, uri, status().isBadRequest(),
+        HttpStatus.BAD_REQUEST, InvalidArgumentException.getFormattedMessage());
+  }
+
   @Test
   void given_userDoesNotExist_createRecipe_willReturnResourceNotFound() throws Exception {
     // given
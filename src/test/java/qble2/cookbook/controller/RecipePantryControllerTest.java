@@ -0,0 +1,149 @@
+package qble2.cookbook.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.env.Environment;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import qble2.cookbook.exception.ExceptionsControllerAdvice;
+import qble2.cookbook.recipe.pantry.RecipePantryController;
+import qble2.cookbook.recipe.pantry.RecipePantryMatchDto;
+import qble2.cookbook.recipe.pantry.RecipePantrySearchRequest;
+import qble2.cookbook.recipe.pantry.RecipePantryService;
+import qble2.cookbook.utils.TestUtils;
+
+@WebMvcTest(controllers = RecipePantryController.class,
+    excludeAutoConfiguration = SecurityAutoConfiguration.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:ValidationMessages.properties")
+class RecipePantryControllerTest {
+
+  private static final String PANTRY_PATH = TestUtils.RECIPES_PATH + "/pantry";
+
+  @Autowired
+  private Environment env;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @MockBean
+  private RecipePantryService recipePantryService;
+
+  /////
+  ///// NOMINAL CASES
+  /////
+
+  @Test
+  void given_validPantry_searchRecipes_willReturnMatches() throws Exception {
+    // given
+    URI uri = TestUtils.toUri(PANTRY_PATH);
+    String urlTemplate = TestUtils.toHttpUriString(uri);
+    UUID recipeId = UUID.randomUUID();
+    UUID missingIngredientId = UUID.randomUUID();
+    int size = 3;
+    RecipePantrySearchRequest pantrySearch = RecipePantrySearchRequest.builder()
+        .ingredientIds(Set.of(UUID.randomUUID())).maxMissingIngredients(1).build();
+    given(recipePantryService.searchRecipes(any(), eq(size))).willReturn(List.of(
+        RecipePantryMatchDto.builder().coverage(0.5).ingredientsCount(2).matchedIngredientsCount(1)
+            .missingIngredientIds(List.of(missingIngredientId))
+            .recipe(TestUtils.createRecipe(recipeId)).build()));
+
+    // when
+    // then
+    String selfLink = TestUtils.toHttpUriString(PANTRY_PATH, Map.of("size", size));
+
+    this.mockMvc
+        .perform(post(urlTemplate).param("size", String.valueOf(size))
+            .accept(MediaTypes.HAL_JSON_VALUE).contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(pantrySearch)))
+        .andDo(print())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE))
+        .andExpect(status().isOk()) //
+        .andExpect(jsonPath("$._embedded.matches[0].coverage", is(0.5)))
+        .andExpect(jsonPath("$._embedded.matches[0].missingIngredientIds[0]",
+            is(missingIngredientId.toString())))
+        .andExpect(jsonPath("$._embedded.matches[0].recipe.id", is(recipeId.toString())))
+        .andExpect(jsonPath("$._links.self.href", is(selfLink)));
+  }
+
+  /////
+  ///// NON-NOMINAL CASES
+  /////
+
+  @Test
+  void given_emptyPantry_searchRecipes_willReturnBadRequest() throws Exception {
+    // given
+    URI uri = TestUtils.toUri(PANTRY_PATH);
+    String urlTemplate = TestUtils.toHttpUriString(uri);
+    RecipePantrySearchRequest pantrySearch = RecipePantrySearchRequest.builder().build();
+
+    // when
+    // then
+    final ResultActions resultActions = this.mockMvc
+        .perform(post(urlTemplate).accept(MediaTypes.HAL_JSON_VALUE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(pantrySearch)))
+        .andDo(print())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE));
+
+    TestUtils.verifyResponseError(resultActions, uri, status().isBadRequest(),
+        HttpStatus.BAD_REQUEST, ExceptionsControllerAdvice.METHOD_ARGUMENT_NOT_VALID_MESSAGE,
+        env.getProperty("pantry.ingredientIds.NotEmpty.message"));
+    verify(recipePantryService, never()).searchRecipes(any(), anyInt());
+  }
+
+  @Test
+  void given_negativeMaxMissingIngredients_searchRecipes_willReturnBadRequest()
+      throws Exception {
+    // given
+    URI uri = TestUtils.toUri(PANTRY_PATH);
+    String urlTemplate = TestUtils.toHttpUriString(uri);
+    RecipePantrySearchRequest pantrySearch = RecipePantrySearchRequest.builder()
+        .ingredientIds(Set.of(UUID.randomUUID())).maxMissingIngredients(-1).build();
+
+    // when
+    // then
+    final ResultActions resultActions = this.mockMvc
+        .perform(post(urlTemplate).accept(MediaTypes.HAL_JSON_VALUE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(pantrySearch)))
+        .andDo(print())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE));
+
+    TestUtils.verifyResponseError(resultActions, uri, status().isBadRequest(),
+        HttpStatus.BAD_REQUEST, ExceptionsControllerAdvice.METHOD_ARGUMENT_NOT_VALID_MESSAGE,
+        env.getProperty("pantry.maxMissingIngredients.Min.message") + " 0");
+    verify(recipePantryService, never()).searchRecipes(any(), anyInt());
+  }
+
+}
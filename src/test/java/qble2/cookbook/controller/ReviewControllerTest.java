@@ -12,6 +12,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +33,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import qble2.cookbook.exception.ExceptionsControllerAdvice;
 import qble2.cookbook.exception.ResourceNotFoundException;
 import qble2.cookbook.recipe.RecipeService;
+import qble2.cookbook.recipe.dto.RecipeVersionDto;
 import qble2.cookbook.review.ReviewController;
 import qble2.cookbook.review.ReviewRepository;
 import qble2.cookbook.review.ReviewService;
@@ -76,6 +79,8 @@ class ReviewControllerTest {
     URI uri = TestUtils.toUri(TestUtils.REVIEWS_PATH + "/recipes/{recipeId}", existingRecipeId);
     String urlTemplate = TestUtils.toHttpUriString(uri);
     given(reviewService.getRecipeReviews(any())).willReturn(anyList());
+    given(reviewService.findRecipeVersion(any()))
+        .willReturn(Optional.of(new RecipeVersionDto(2, LocalDateTime.now())));
 
     // when
     // then
@@ -84,6 +89,7 @@ class ReviewControllerTest {
     this.mockMvc.perform(get(urlTemplate).accept(MediaTypes.HAL_JSON_VALUE)).andDo(print())
         .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaTypes.HAL_JSON_VALUE))
         .andExpect(status().isOk()) //
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"2\""))
         .andExpect(jsonPath("$._links.self.href", is(selfLink)));
   }
 
@@ -26,6 +26,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import qble2.cookbook.exception.ResourceNotFoundException;
+import qble2.cookbook.pagination.PageCountModeEnum;
 import qble2.cookbook.user.UserController;
 import qble2.cookbook.user.UserService;
 import qble2.cookbook.user.dto.UserDto;
@@ -56,7 +57,8 @@ class UserControllerTest {
     int size = 5;
     UsersPageDto usersPageDto =
         UsersPageDto.builder().users(List.of(TestUtils.createUser(UUID.randomUUID()))).build();
-    given(userService.getUsers(PageRequest.of(page, size))).willReturn(usersPageDto);
+    given(userService.getUsers(PageRequest.of(page, size), PageCountModeEnum.EXACT))
+        .willReturn(usersPageDto);
 
     // when
     // then
@@ -0,0 +1,117 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.index.RecipeBitmapIndex;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeOrdinalRegistry;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+// unit testing
+class RecipeBitmapIndexTest {
+
+  private static final UUID FLOUR_ID = UUID.randomUUID();
+  private static final UUID SUGAR_ID = UUID.randomUUID();
+
+  private final UUID cakeId = UUID.randomUUID();
+  private final UUID breadId = UUID.randomUUID();
+  private final UUID soupId = UUID.randomUUID();
+
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private RecipeBitmapIndex recipeBitmapIndex; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipeOrdinalRegistry = new RecipeOrdinalRegistry();
+    recipeBitmapIndex = new RecipeBitmapIndex();
+    ReflectionTestUtils.setField(recipeBitmapIndex, "recipeOrdinalRegistry",
+        recipeOrdinalRegistry);
+
+    recipeBitmapIndex.index(RecipeDocument.builder().recipeId(cakeId)
+        .tags(Set.of(RecipeTagEnum.DESSERT, RecipeTagEnum.CAKE))
+        .ingredientIds(Set.of(FLOUR_ID, SUGAR_ID)).build());
+    recipeBitmapIndex.index(RecipeDocument.builder().recipeId(breadId)
+        .tags(Set.of(RecipeTagEnum.BREAD)).ingredientIds(Set.of(FLOUR_ID)).build());
+    recipeBitmapIndex.index(
+        RecipeDocument.builder().recipeId(soupId).tags(Set.of(RecipeTagEnum.SOUP)).build());
+  }
+
+  @Test
+  void given_anyTags_match_willReturnRecipesWithAtLeastOneTag() {
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ANY,
+        List.of("Cake", "Bread"))).containsExactlyInAnyOrder(cakeId, breadId);
+  }
+
+  @Test
+  void given_allTags_match_willReturnRecipesWithEveryTag() {
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ALL,
+        List.of("Cake", "Dessert"))).containsExactly(cakeId);
+  }
+
+  @Test
+  void given_noneIngredients_match_willReturnRecipesWithoutAnyIngredient() {
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_INGREDIENTS, RecipeSearchOperatorEnum.NONE,
+        List.of(SUGAR_ID.toString()))).containsExactlyInAnyOrder(breadId, soupId);
+  }
+
+  @Test
+  void given_updatedRecipe_match_willUseItsNewTagsOnly() {
+    // given
+    recipeBitmapIndex.index(
+        RecipeDocument.builder().recipeId(cakeId).tags(Set.of(RecipeTagEnum.PIE)).build());
+
+    // when
+    // then
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ANY,
+        List.of("Cake"))).isEmpty();
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ANY,
+        List.of("Pie"))).containsExactly(cakeId);
+  }
+
+  @Test
+  void given_removedRecipe_match_willNotReturnIt() {
+    // given
+    recipeBitmapIndex.remove(breadId);
+
+    // when
+    // then
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_INGREDIENTS, RecipeSearchOperatorEnum.ANY,
+        List.of(FLOUR_ID.toString()))).containsExactly(cakeId);
+  }
+
+  @Test
+  void given_invalidIngredientId_supports_willReturnFalse() {
+    assertThat(recipeBitmapIndex.supports(filter(RecipeSearchFilterKeyEnum.RECIPE_INGREDIENTS,
+        RecipeSearchOperatorEnum.ANY, List.of("not-an-id")))).isFalse();
+  }
+
+  private List<UUID> match(RecipeSearchFilterKeyEnum key, RecipeSearchOperatorEnum operator,
+      List<Object> values) {
+    RecipeSearchFilter recipeSearchFilter = filter(key, operator, values);
+    assertThat(recipeBitmapIndex.supports(recipeSearchFilter)).isTrue();
+    BitSet ordinals = recipeBitmapIndex.match(recipeSearchFilter).getOrdinals();
+
+    return recipeOrdinalRegistry.toRecipeIds(ordinals);
+  }
+
+  private static RecipeSearchFilter filter(RecipeSearchFilterKeyEnum key,
+      RecipeSearchOperatorEnum operator, List<Object> values) {
+    RecipeSearchFilter recipeSearchFilter = new RecipeSearchFilter();
+    recipeSearchFilter.setKey(key);
+    recipeSearchFilter.setOperator(operator);
+    recipeSearchFilter.setValues(values);
+
+    return recipeSearchFilter;
+  }
+
+}
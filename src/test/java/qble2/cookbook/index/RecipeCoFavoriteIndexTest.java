@@ -0,0 +1,116 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.index.RecipeOrdinalRegistry;
+import qble2.cookbook.recipe.recommendation.RecipeCoFavoriteIndex;
+import qble2.cookbook.recipe.recommendation.RecipeFavoriteDto;
+import qble2.cookbook.recipe.recommendation.RecipeRecommendationMatch;
+
+// unit testing
+class RecipeCoFavoriteIndexTest {
+
+  private final UUID userAId = UUID.randomUUID();
+  private final UUID userBId = UUID.randomUUID();
+  private final UUID userCId = UUID.randomUUID();
+
+  private final UUID cakeId = UUID.randomUUID();
+  private final UUID pieId = UUID.randomUUID();
+  private final UUID tartId = UUID.randomUUID();
+  private final UUID soupId = UUID.randomUUID();
+
+  private RecipeCoFavoriteIndex recipeCoFavoriteIndex; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipeCoFavoriteIndex = new RecipeCoFavoriteIndex();
+    ReflectionTestUtils.setField(recipeCoFavoriteIndex, "recipeOrdinalRegistry",
+        new RecipeOrdinalRegistry());
+
+    // A: cake, pie, tart / B: cake, pie / C: cake, soup
+    recipeCoFavoriteIndex.rebuild(() -> List.of(new RecipeFavoriteDto(userAId, cakeId),
+        new RecipeFavoriteDto(userAId, pieId), new RecipeFavoriteDto(userAId, tartId),
+        new RecipeFavoriteDto(userBId, cakeId), new RecipeFavoriteDto(userBId, pieId),
+        new RecipeFavoriteDto(userCId, cakeId), new RecipeFavoriteDto(userCId, soupId)));
+  }
+
+  @Test
+  void given_recipe_recommendForRecipe_willRankCoFavoritedRecipes() {
+    List<RecipeRecommendationMatch> matches = recipeCoFavoriteIndex.recommendForRecipe(cakeId, 5);
+
+    assertThat(matches)
+        .extracting(RecipeRecommendationMatch::getRecipeId,
+            RecipeRecommendationMatch::getCoFavoritesCount)
+        .containsExactly(tuple(pieId, 2), tuple(tartId, 1), tuple(soupId, 1));
+    assertThat(matches.get(0).getScore()).isEqualTo(2 / Math.sqrt(2));
+  }
+
+  @Test
+  void given_user_recommendForUser_willExcludeTheirFavorites() {
+    List<RecipeRecommendationMatch> matches = recipeCoFavoriteIndex.recommendForUser(userCId, 5);
+
+    assertThat(matches).extracting(RecipeRecommendationMatch::getRecipeId).containsExactly(pieId,
+        tartId);
+  }
+
+  @Test
+  void given_removedFavorite_recommendForRecipe_willNotCountIt() {
+    recipeCoFavoriteIndex.removeFavorite(userAId, tartId);
+    recipeCoFavoriteIndex.removeFavorite(userBId, pieId);
+
+    assertThat(recipeCoFavoriteIndex.recommendForRecipe(cakeId, 5))
+        .extracting(RecipeRecommendationMatch::getRecipeId,
+            RecipeRecommendationMatch::getCoFavoritesCount)
+        .containsExactly(tuple(pieId, 1), tuple(soupId, 1));
+  }
+
+  @Test
+  void given_addedFavorite_recommendForRecipe_willCountItOnce() {
+    recipeCoFavoriteIndex.addFavorite(userCId, tartId);
+    recipeCoFavoriteIndex.addFavorite(userCId, tartId);
+
+    assertThat(recipeCoFavoriteIndex.recommendForRecipe(tartId, 5))
+        .extracting(RecipeRecommendationMatch::getRecipeId,
+            RecipeRecommendationMatch::getCoFavoritesCount)
+        .containsExactly(tuple(cakeId, 2), tuple(soupId, 1), tuple(pieId, 1));
+  }
+
+  @Test
+  void given_removedRecipe_recommendForUser_willNotReturnIt() {
+    recipeCoFavoriteIndex.removeRecipe(pieId);
+
+    assertThat(recipeCoFavoriteIndex.recommendForUser(userCId, 5))
+        .extracting(RecipeRecommendationMatch::getRecipeId).containsExactly(tartId);
+    assertThat(recipeCoFavoriteIndex.recommendForRecipe(pieId, 5)).isEmpty();
+  }
+
+  @Test
+  void given_favoritesChangedDuringRebuild_rebuild_willReplayThem() {
+    // the load has seen A: cake, pie / B: cake, tart, then A drops pie and favorites tart
+    recipeCoFavoriteIndex.rebuild(() -> {
+      List<RecipeFavoriteDto> loadedFavorites = List.of(new RecipeFavoriteDto(userAId, cakeId),
+          new RecipeFavoriteDto(userAId, pieId), new RecipeFavoriteDto(userBId, cakeId),
+          new RecipeFavoriteDto(userBId, tartId));
+      recipeCoFavoriteIndex.removeFavorite(userAId, pieId);
+      recipeCoFavoriteIndex.addFavorite(userAId, tartId);
+
+      return loadedFavorites;
+    });
+
+    assertThat(recipeCoFavoriteIndex.recommendForRecipe(cakeId, 5))
+        .extracting(RecipeRecommendationMatch::getRecipeId,
+            RecipeRecommendationMatch::getCoFavoritesCount)
+        .containsExactly(tuple(tartId, 2));
+  }
+
+  @Test
+  void given_unknownUser_recommendForUser_willReturnNothing() {
+    assertThat(recipeCoFavoriteIndex.recommendForUser(UUID.randomUUID(), 5)).isEmpty();
+  }
+
+}
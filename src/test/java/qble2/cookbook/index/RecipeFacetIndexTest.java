@@ -0,0 +1,96 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.dto.RecipeFacetValueDto;
+import qble2.cookbook.recipe.dto.RecipeFacetsDto;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeFacetIndex;
+import qble2.cookbook.recipe.index.RecipeOrdinalRegistry;
+
+// unit testing
+class RecipeFacetIndexTest {
+
+  private static final UUID FLOUR_ID = UUID.randomUUID();
+  private static final UUID SUGAR_ID = UUID.randomUUID();
+  private static final Map<UUID, String> INGREDIENT_NAMES =
+      Map.of(FLOUR_ID, "Flour", SUGAR_ID, "Sugar");
+
+  private final UUID cakeId = UUID.randomUUID();
+  private final UUID breadId = UUID.randomUUID();
+  private final UUID soupId = UUID.randomUUID();
+
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private RecipeFacetIndex recipeFacetIndex; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipeOrdinalRegistry = new RecipeOrdinalRegistry();
+    recipeFacetIndex = new RecipeFacetIndex();
+    ReflectionTestUtils.setField(recipeFacetIndex, "recipeOrdinalRegistry", recipeOrdinalRegistry);
+
+    recipeFacetIndex.index(RecipeDocument.builder().recipeId(cakeId)
+        .tags(Set.of(RecipeTagEnum.DESSERT, RecipeTagEnum.CAKE))
+        .ingredientIds(Set.of(FLOUR_ID, SUGAR_ID)).averageRating(4.5).build());
+    recipeFacetIndex.index(RecipeDocument.builder().recipeId(breadId)
+        .tags(Set.of(RecipeTagEnum.BREAD)).ingredientIds(Set.of(FLOUR_ID)).averageRating(4.0)
+        .build());
+    recipeFacetIndex.index(
+        RecipeDocument.builder().recipeId(soupId).tags(Set.of(RecipeTagEnum.SOUP)).build());
+  }
+
+  @Test
+  void given_noFilter_count_willCountEveryRecipe() {
+    RecipeFacetsDto recipeFacets = recipeFacetIndex.count(null).toDto(10, INGREDIENT_NAMES::get);
+
+    assertThat(recipeFacets.getTags()).extracting(RecipeFacetValueDto::getValue)
+        .containsExactlyInAnyOrder("Dessert", "Cake", "Bread", "Soup");
+    assertThat(recipeFacets.getIngredients())
+        .extracting(RecipeFacetValueDto::getLabel, RecipeFacetValueDto::getCount)
+        .containsExactly(tuple("Flour", 2L), tuple("Sugar", 1L));
+    assertThat(recipeFacets.getRatings())
+        .extracting(RecipeFacetValueDto::getValue, RecipeFacetValueDto::getCount)
+        .containsExactly(tuple("4", 2L), tuple("unrated", 1L));
+  }
+
+  @Test
+  void given_matchingRecipes_count_willOnlyCountMatchingRecipes() {
+    BitSet ordinals = new BitSet();
+    ordinals.set(recipeOrdinalRegistry.getOrdinal(breadId));
+    ordinals.set(recipeOrdinalRegistry.getOrdinal(soupId));
+
+    RecipeFacetsDto recipeFacets =
+        recipeFacetIndex.count(ordinals).toDto(10, INGREDIENT_NAMES::get);
+
+    assertThat(recipeFacets.getTags()).extracting(RecipeFacetValueDto::getValue)
+        .containsExactlyInAnyOrder("Bread", "Soup");
+    assertThat(recipeFacets.getIngredients())
+        .extracting(RecipeFacetValueDto::getLabel, RecipeFacetValueDto::getCount)
+        .containsExactly(tuple("Flour", 1L));
+  }
+
+  @Test
+  void given_reindexedRecipe_count_willOnlyCountItsLatestVersion() {
+    recipeFacetIndex.index(RecipeDocument.builder().recipeId(soupId)
+        .tags(Set.of(RecipeTagEnum.SOUP)).averageRating(2.5).build());
+    recipeFacetIndex.remove(cakeId);
+
+    RecipeFacetsDto recipeFacets = recipeFacetIndex.count(null).toDto(10, INGREDIENT_NAMES::get);
+
+    assertThat(recipeFacets.getTags()).extracting(RecipeFacetValueDto::getValue)
+        .containsExactlyInAnyOrder("Bread", "Soup");
+    assertThat(recipeFacets.getRatings())
+        .extracting(RecipeFacetValueDto::getValue, RecipeFacetValueDto::getCount)
+        .containsExactly(tuple("4", 1L), tuple("2", 1L));
+  }
+
+}
@@ -0,0 +1,119 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeFilterStatistics;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+// unit testing
+class RecipeFilterStatisticsTest {
+
+  private static final UUID FLOUR_ID = UUID.randomUUID();
+  private static final UUID SUGAR_ID = UUID.randomUUID();
+
+  private final UUID cakeId = UUID.randomUUID();
+  private final UUID breadId = UUID.randomUUID();
+  private final UUID soupId = UUID.randomUUID();
+
+  private RecipeFilterStatistics recipeFilterStatistics; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipeFilterStatistics = new RecipeFilterStatistics();
+
+    recipeFilterStatistics.index(RecipeDocument.builder().recipeId(cakeId)
+        .tags(Set.of(RecipeTagEnum.DESSERT, RecipeTagEnum.CAKE))
+        .ingredientIds(Set.of(FLOUR_ID, SUGAR_ID)).servings(8).preparationTime(30L).build());
+    recipeFilterStatistics.index(RecipeDocument.builder().recipeId(breadId)
+        .tags(Set.of(RecipeTagEnum.BREAD)).ingredientIds(Set.of(FLOUR_ID)).servings(4)
+        .preparationTime(120L).build());
+    recipeFilterStatistics.index(RecipeDocument.builder().recipeId(soupId)
+        .tags(Set.of(RecipeTagEnum.SOUP)).servings(4).build());
+  }
+
+  @Test
+  void given_setFilters_estimate_willCountRecipesByValue() {
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_INGREDIENTS, RecipeSearchOperatorEnum.ANY,
+        List.of(FLOUR_ID.toString()))).isEqualTo(2);
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ANY,
+        List.of("Cake", "Bread"))).isEqualTo(2);
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ALL,
+        List.of("Cake", "Dessert"))).isEqualTo(1);
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.NONE,
+        List.of("Soup"))).isEqualTo(2);
+  }
+
+  @Test
+  void given_unknownValue_estimate_willNotMatchAnyRecipe() {
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ALL,
+        List.of("Cake", "unknown"))).isZero();
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_INGREDIENTS, RecipeSearchOperatorEnum.ANY,
+        List.of(UUID.randomUUID().toString()))).isZero();
+  }
+
+  @Test
+  void given_numericFilters_estimate_willUseHistograms() {
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_SERVINGS, RecipeSearchOperatorEnum.EQUAL,
+        4)).isEqualTo(2);
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_SERVINGS, RecipeSearchOperatorEnum.GTE,
+        5)).isEqualTo(1);
+    // recipes without preparation time never match
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_PREPARATION_TIME,
+        RecipeSearchOperatorEnum.LTE, 120)).isEqualTo(2);
+  }
+
+  @Test
+  void given_reindexedRecipe_estimate_willCountNewValues() {
+    recipeFilterStatistics.index(RecipeDocument.builder().recipeId(soupId)
+        .tags(Set.of(RecipeTagEnum.BREAD)).servings(2).build());
+    recipeFilterStatistics.remove(cakeId);
+
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_TAGS, RecipeSearchOperatorEnum.ANY,
+        List.of("Bread", "Soup", "Cake"))).isEqualTo(2);
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_SERVINGS, RecipeSearchOperatorEnum.LTE,
+        4)).isEqualTo(2);
+    assertThat(recipeFilterStatistics.getRecipesCount()).isEqualTo(2);
+  }
+
+  @Test
+  void given_authoredRecipes_getAuthorRecipesCount_willCountRecipesByAuthor() {
+    UUID authorId = UUID.randomUUID();
+    recipeFilterStatistics.index(RecipeDocument.builder().recipeId(cakeId).authorId(authorId)
+        .build());
+    recipeFilterStatistics.index(RecipeDocument.builder().recipeId(breadId).authorId(authorId)
+        .build());
+    recipeFilterStatistics.remove(breadId);
+
+    assertThat(recipeFilterStatistics.getAuthorRecipesCount(authorId)).isEqualTo(1);
+    assertThat(recipeFilterStatistics.getAuthorRecipesCount(UUID.randomUUID())).isZero();
+  }
+
+  @Test
+  void given_textFilter_estimate_willReturnUnknown() {
+    assertThat(estimate(RecipeSearchFilterKeyEnum.RECIPE_NAME, RecipeSearchOperatorEnum.LIKE,
+        "cake")).isEqualTo(RecipeFilterStatistics.UNKNOWN);
+  }
+
+  private long estimate(RecipeSearchFilterKeyEnum key, RecipeSearchOperatorEnum operator,
+      Object value) {
+    RecipeSearchFilter recipeSearchFilter = new RecipeSearchFilter();
+    recipeSearchFilter.setKey(key);
+    recipeSearchFilter.setOperator(operator);
+    if (value instanceof List<?> values) {
+      recipeSearchFilter.setValues(List.copyOf(values));
+    } else {
+      recipeSearchFilter.setValue(value);
+    }
+
+    return recipeFilterStatistics.estimate(recipeSearchFilter);
+  }
+
+}
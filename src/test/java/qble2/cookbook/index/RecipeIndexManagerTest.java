@@ -0,0 +1,109 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.event.RecipeChangedEvent;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeIndex;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.recipe.model.Recipe;
+
+// unit testing
+@ExtendWith(MockitoExtension.class) // allows to get rid of the autoCloseable code
+class RecipeIndexManagerTest {
+
+  @Mock
+  private RecipeRepository recipeRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  // last indexed name
+  private final AtomicReference<String> indexedName = new AtomicReference<>();
+
+  private RecipeIndexManager recipeIndexManager; // underTest
+
+  @BeforeEach
+  void setUp() {
+    RecipeIndex recipeIndex = new RecipeIndex() {
+
+      @Override
+      public void index(RecipeDocument recipeDocument) {
+        indexedName.set(recipeDocument.getName());
+      }
+
+      @Override
+      public void remove(UUID recipeId) {
+        indexedName.set(null);
+      }
+
+      @Override
+      public void clear() {
+        indexedName.set(null);
+      }
+
+    };
+
+    recipeIndexManager = new RecipeIndexManager();
+    ReflectionTestUtils.setField(recipeIndexManager, "recipeRepository", recipeRepository);
+    ReflectionTestUtils.setField(recipeIndexManager, "recipeIndexes", List.of(recipeIndex));
+    ReflectionTestUtils.setField(recipeIndexManager, "transactionManager", transactionManager);
+    ReflectionTestUtils.setField(recipeIndexManager, "enabled", true);
+  }
+
+  @Test
+  void given_overlappingRefreshesOfSameRecipe_onRecipeChanged_willIndexLastCommittedState()
+      throws Exception {
+    // given
+    UUID recipeId = UUID.randomUUID();
+    CountDownLatch firstLoadStarted = new CountDownLatch(1);
+    CountDownLatch firstLoadReleased = new CountDownLatch(1);
+    AtomicInteger loadsCount = new AtomicInteger();
+    // the first refresh reads the first write, and is slow to apply it
+    given(recipeRepository.findByIdAndLoadIndexedFields(recipeId)).willAnswer(invocation -> {
+      if (loadsCount.incrementAndGet() == 1) {
+        firstLoadStarted.countDown();
+        firstLoadReleased.await(10, TimeUnit.SECONDS);
+        return Optional.of(Recipe.builder().id(recipeId).name("first write").build());
+      }
+      return Optional.of(Recipe.builder().id(recipeId).name("second write").build());
+    });
+
+    Thread firstRefresh =
+        new Thread(() -> recipeIndexManager.onRecipeChanged(RecipeChangedEvent.saved(recipeId)));
+    firstRefresh.start();
+    firstLoadStarted.await(10, TimeUnit.SECONDS);
+
+    // when
+    Thread secondRefresh =
+        new Thread(() -> recipeIndexManager.onRecipeChanged(RecipeChangedEvent.saved(recipeId)));
+    secondRefresh.start();
+    // waits for the first refresh (or completes, when refreshes are not serialized)
+    while (secondRefresh.getState() != Thread.State.BLOCKED
+        && secondRefresh.getState() != Thread.State.TERMINATED) {
+      Thread.sleep(1);
+    }
+    firstLoadReleased.countDown();
+    firstRefresh.join();
+    secondRefresh.join();
+
+    // then
+    assertThat(indexedName).hasValue("second write");
+  }
+
+}
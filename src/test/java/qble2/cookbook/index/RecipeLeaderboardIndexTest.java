@@ -0,0 +1,155 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.leaderboard.RecipeLeaderboardEntry;
+import qble2.cookbook.recipe.leaderboard.RecipeLeaderboardIndex;
+import qble2.cookbook.recipe.leaderboard.RecipeLeaderboardTypeEnum;
+
+// unit testing
+class RecipeLeaderboardIndexTest {
+
+  private static final double HALF_LIFE_HOURS = 72;
+  private static final long HOUR_MILLIS = 3_600_000L;
+
+  private final UUID cakeId = UUID.randomUUID();
+  private final UUID soupId = UUID.randomUUID();
+  private final UUID pieId = UUID.randomUUID();
+  private final UUID breadId = UUID.randomUUID();
+
+  private RecipeLeaderboardIndex recipeLeaderboardIndex; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipeLeaderboardIndex = new RecipeLeaderboardIndex();
+    ReflectionTestUtils.setField(recipeLeaderboardIndex, "size", 2);
+    ReflectionTestUtils.setField(recipeLeaderboardIndex, "spareEntries", 1);
+    ReflectionTestUtils.setField(recipeLeaderboardIndex, "priorWeight", 5d);
+    ReflectionTestUtils.setField(recipeLeaderboardIndex, "halfLifeHours", HALF_LIFE_HOURS);
+
+    // a single 5 stars review, 4.8 over 10 reviews, 2 over 5 reviews, not rated
+    recipeLeaderboardIndex.index(RecipeDocument.builder().recipeId(cakeId).ratingSum(5)
+        .ratingCount(1).tags(Set.of(RecipeTagEnum.CAKE)).build());
+    recipeLeaderboardIndex.index(RecipeDocument.builder().recipeId(soupId).ratingSum(48)
+        .ratingCount(10).tags(Set.of(RecipeTagEnum.SOUP)).build());
+    recipeLeaderboardIndex.index(RecipeDocument.builder().recipeId(pieId).ratingSum(10)
+        .ratingCount(5).tags(Set.of(RecipeTagEnum.CAKE, RecipeTagEnum.PIE)).build());
+    recipeLeaderboardIndex.index(
+        RecipeDocument.builder().recipeId(breadId).tags(Set.of(RecipeTagEnum.CAKE)).build());
+    // prior mean: 63 / 16
+    recipeLeaderboardIndex.refresh();
+  }
+
+  @Test
+  void given_ratedRecipes_getLeaderboard_willRankByBayesianAverage() {
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TOP_RATED, null))
+        .extracting(RecipeLeaderboardEntry::getRecipeId).containsExactly(soupId, cakeId);
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TOP_RATED, null)
+        .get(0).getScore()).isCloseTo((5 * 63 / 16d + 48) / 15, within(1e-9));
+  }
+
+  @Test
+  void given_tag_getLeaderboard_willOnlyRankRecipesHavingTheTag() {
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TOP_RATED,
+        RecipeTagEnum.CAKE)).extracting(RecipeLeaderboardEntry::getRecipeId)
+            .containsExactly(cakeId, pieId);
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TOP_RATED,
+        RecipeTagEnum.BREAD)).isEmpty();
+  }
+
+  @Test
+  void given_activities_getLeaderboard_willRankByDecayedActivity() {
+    long now = System.currentTimeMillis();
+    recipeLeaderboardIndex.recordActivity(cakeId, 2, now);
+    for (int i = 0; i < 3; i++) {
+      recipeLeaderboardIndex.recordActivity(soupId, 1, now);
+    }
+    // half of its weight left
+    recipeLeaderboardIndex.recordActivity(pieId, 2, now - (long) HALF_LIFE_HOURS * HOUR_MILLIS);
+
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TRENDING, null))
+        .extracting(RecipeLeaderboardEntry::getRecipeId).containsExactly(soupId, cakeId);
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TRENDING,
+        RecipeTagEnum.PIE)).singleElement()
+            .extracting(entry -> RecipeLeaderboardIndex.toTrendingScore(entry.getScore(), now,
+                HALF_LIFE_HOURS))
+            .isEqualTo(1d, within(1e-9));
+  }
+
+  @Test
+  void given_removedRecipe_getLeaderboard_willRefillLeaderboard() {
+    recipeLeaderboardIndex.remove(soupId);
+
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TOP_RATED, null))
+        .extracting(RecipeLeaderboardEntry::getRecipeId).containsExactly(cakeId, pieId);
+  }
+
+  @Test
+  void given_reindexedRecipe_getLeaderboard_willRankByNewRatings() {
+    recipeLeaderboardIndex.index(RecipeDocument.builder().recipeId(soupId).ratingSum(10)
+        .ratingCount(10).tags(Set.of(RecipeTagEnum.SOUP)).build());
+
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TOP_RATED, null))
+        .extracting(RecipeLeaderboardEntry::getRecipeId).containsExactly(cakeId, pieId);
+  }
+
+  @Test
+  void given_retaggedRecipe_getLeaderboard_willMoveRecipeToNewTag() {
+    recipeLeaderboardIndex.index(RecipeDocument.builder().recipeId(cakeId).ratingSum(5)
+        .ratingCount(1).tags(Set.of(RecipeTagEnum.PIE)).build());
+
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TOP_RATED,
+        RecipeTagEnum.CAKE)).extracting(RecipeLeaderboardEntry::getRecipeId)
+            .containsExactly(pieId);
+    assertThat(recipeLeaderboardIndex.getLeaderboard(RecipeLeaderboardTypeEnum.TOP_RATED,
+        RecipeTagEnum.PIE)).extracting(RecipeLeaderboardEntry::getRecipeId)
+            .containsExactly(cakeId, pieId);
+  }
+
+  @Test
+  void given_entriesDroppingOutOfTruncatedLeaderboard_getLeaderboard_willStayExact() {
+    // 5 bread recipes rated 5, 4.5, 4, 3.5 and 3 (10 reviews each): 2 ranked, 1 spare, 2 left out
+    List<UUID> breadIds = Stream.generate(UUID::randomUUID).limit(5).toList();
+    for (int i = 0; i < breadIds.size(); i++) {
+      indexBread(breadIds.get(i), 50 - 5 * i);
+    }
+    recipeLeaderboardIndex.refresh();
+
+    // stays ahead of the spare entry
+    indexBread(breadIds.get(0), 42);
+    assertThat(breadLeaderboard()).containsExactly(breadIds.get(1), breadIds.get(0));
+
+    // drops out: the spare entry is ranked
+    indexBread(breadIds.get(1), 10);
+    assertThat(breadLeaderboard()).containsExactly(breadIds.get(0), breadIds.get(2));
+
+    // drops out, no spare entry left: recomputed
+    indexBread(breadIds.get(0), 10);
+    assertThat(breadLeaderboard()).containsExactly(breadIds.get(2), breadIds.get(3));
+
+    // left out recipe rated again
+    indexBread(breadIds.get(4), 48);
+    assertThat(breadLeaderboard()).containsExactly(breadIds.get(4), breadIds.get(2));
+  }
+
+  private void indexBread(UUID recipeId, long ratingSum) {
+    recipeLeaderboardIndex.index(RecipeDocument.builder().recipeId(recipeId).ratingSum(ratingSum)
+        .ratingCount(10).tags(Set.of(RecipeTagEnum.BREAD)).build());
+  }
+
+  private List<UUID> breadLeaderboard() {
+    return recipeLeaderboardIndex
+        .getLeaderboard(RecipeLeaderboardTypeEnum.TOP_RATED, RecipeTagEnum.BREAD).stream()
+        .map(RecipeLeaderboardEntry::getRecipeId).toList();
+  }
+
+}
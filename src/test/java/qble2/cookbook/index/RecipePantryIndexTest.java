@@ -0,0 +1,111 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeOrdinalRegistry;
+import qble2.cookbook.recipe.index.RecipePantryIndex;
+import qble2.cookbook.recipe.index.RecipePantryMatch;
+
+// unit testing
+class RecipePantryIndexTest {
+
+  private static final UUID FLOUR_ID = UUID.randomUUID();
+  private static final UUID SUGAR_ID = UUID.randomUUID();
+  private static final UUID EGG_ID = UUID.randomUUID();
+  private static final UUID SALT_ID = UUID.randomUUID();
+
+  private final UUID cakeId = UUID.randomUUID();
+  private final UUID breadId = UUID.randomUUID();
+  private final UUID omeletteId = UUID.randomUUID();
+
+  private RecipePantryIndex recipePantryIndex; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipePantryIndex = new RecipePantryIndex();
+    ReflectionTestUtils.setField(recipePantryIndex, "recipeOrdinalRegistry",
+        new RecipeOrdinalRegistry());
+
+    recipePantryIndex.index(RecipeDocument.builder().recipeId(cakeId)
+        .ingredientIds(Set.of(FLOUR_ID, SUGAR_ID, EGG_ID)).build());
+    recipePantryIndex.index(
+        RecipeDocument.builder().recipeId(breadId).ingredientIds(Set.of(FLOUR_ID, SALT_ID)).build());
+    recipePantryIndex.index(
+        RecipeDocument.builder().recipeId(omeletteId).ingredientIds(Set.of(EGG_ID)).build());
+  }
+
+  @Test
+  void given_pantry_findTopMatches_willRankByCoverage() {
+    List<RecipePantryMatch> matches =
+        recipePantryIndex.findTopMatches(Set.of(FLOUR_ID, EGG_ID), null, 10);
+
+    assertThat(matches)
+        .extracting(RecipePantryMatch::getRecipeId, RecipePantryMatch::getMatchedIngredientsCount,
+            RecipePantryMatch::getIngredientsCount)
+        .containsExactly(tuple(omeletteId, 1, 1), tuple(cakeId, 2, 3), tuple(breadId, 1, 2));
+    assertThat(matches.get(1).getMissingIngredientIds()).containsExactly(SUGAR_ID);
+    assertThat(matches.get(2).getMissingIngredientIds()).containsExactly(SALT_ID);
+  }
+
+  @Test
+  void given_maxMissingIngredients_findTopMatches_willSkipIncompleteRecipes() {
+    List<RecipePantryMatch> matches =
+        recipePantryIndex.findTopMatches(Set.of(FLOUR_ID, EGG_ID), 0, 10);
+
+    assertThat(matches).extracting(RecipePantryMatch::getRecipeId).containsExactly(omeletteId);
+  }
+
+  @Test
+  void given_size_findTopMatches_willOnlyReturnBestMatches() {
+    List<RecipePantryMatch> matches =
+        recipePantryIndex.findTopMatches(Set.of(FLOUR_ID, EGG_ID), null, 2);
+
+    assertThat(matches).extracting(RecipePantryMatch::getRecipeId).containsExactly(omeletteId,
+        cakeId);
+  }
+
+  @Test
+  void given_unknownIngredient_findTopMatches_willReturnNothing() {
+    assertThat(recipePantryIndex.findTopMatches(Set.of(UUID.randomUUID()), null, 10)).isEmpty();
+  }
+
+  @Test
+  void given_reindexedRecipe_findTopMatches_willUseNewIngredients() {
+    recipePantryIndex.index(
+        RecipeDocument.builder().recipeId(breadId).ingredientIds(Set.of(SALT_ID)).build());
+    recipePantryIndex.remove(omeletteId);
+
+    List<RecipePantryMatch> matches =
+        recipePantryIndex.findTopMatches(Set.of(FLOUR_ID, EGG_ID), null, 10);
+
+    assertThat(matches).extracting(RecipePantryMatch::getRecipeId).containsExactly(cakeId);
+  }
+
+  @Test
+  void given_ingredientsIndexedOutOfIdOrder_findTopMatches_willSortMissingIngredientsById() {
+    UUID firstId = new UUID(0, 1);
+    UUID secondId = new UUID(0, 2);
+    UUID thirdId = new UUID(0, 3);
+    UUID basilId = UUID.randomUUID();
+    UUID pieId = UUID.randomUUID();
+    // the last id gets the lowest ingredient ordinal
+    recipePantryIndex.index(RecipeDocument.builder().recipeId(UUID.randomUUID())
+        .ingredientIds(Set.of(thirdId)).build());
+    recipePantryIndex.index(RecipeDocument.builder().recipeId(pieId)
+        .ingredientIds(Set.of(basilId, secondId, thirdId, firstId)).build());
+
+    List<RecipePantryMatch> matches = recipePantryIndex.findTopMatches(Set.of(basilId), null, 10);
+
+    assertThat(matches).extracting(RecipePantryMatch::getRecipeId).containsExactly(pieId);
+    assertThat(matches.get(0).getMissingIngredientIds()).containsExactly(firstId, secondId,
+        thirdId);
+  }
+
+}
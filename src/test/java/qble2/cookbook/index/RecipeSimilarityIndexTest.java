@@ -0,0 +1,151 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeOrdinalRegistry;
+import qble2.cookbook.recipe.index.RecipeSimilarityIndex;
+import qble2.cookbook.recipe.index.RecipeSimilarityMatch;
+
+// unit testing
+class RecipeSimilarityIndexTest {
+
+  private static final UUID FLOUR_ID = UUID.randomUUID();
+  private static final UUID SUGAR_ID = UUID.randomUUID();
+  private static final UUID EGG_ID = UUID.randomUUID();
+  private static final UUID BUTTER_ID = UUID.randomUUID();
+  private static final UUID TOMATO_ID = UUID.randomUUID();
+
+  private final UUID cakeId = UUID.randomUUID();
+  private final UUID spongeCakeId = UUID.randomUUID();
+  private final UUID soupId = UUID.randomUUID();
+
+  private RecipeSimilarityIndex recipeSimilarityIndex; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipeSimilarityIndex = new RecipeSimilarityIndex();
+    ReflectionTestUtils.setField(recipeSimilarityIndex, "recipeOrdinalRegistry",
+        new RecipeOrdinalRegistry());
+
+    recipeSimilarityIndex.index(RecipeDocument.builder().recipeId(cakeId)
+        .tags(Set.of(RecipeTagEnum.CAKE))
+        .ingredientIds(Set.of(FLOUR_ID, SUGAR_ID, EGG_ID, BUTTER_ID)).build());
+    recipeSimilarityIndex.index(RecipeDocument.builder().recipeId(spongeCakeId)
+        .tags(Set.of(RecipeTagEnum.CAKE)).ingredientIds(Set.of(FLOUR_ID, SUGAR_ID, EGG_ID))
+        .build());
+    recipeSimilarityIndex.index(RecipeDocument.builder().recipeId(soupId)
+        .tags(Set.of(RecipeTagEnum.SOUP)).ingredientIds(Set.of(TOMATO_ID)).build());
+  }
+
+  @Test
+  void given_similarRecipe_findMostSimilar_willReturnItWithExactSimilarity() {
+    List<RecipeSimilarityMatch> matches = recipeSimilarityIndex.findMostSimilar(cakeId, 5);
+
+    // 4 shared features out of 5
+    assertThat(matches).extracting(RecipeSimilarityMatch::getRecipeId)
+        .containsExactly(spongeCakeId);
+    assertThat(matches.get(0).getSimilarity()).isCloseTo(0.8, within(1e-9));
+  }
+
+  @Test
+  void given_unknownRecipe_findMostSimilar_willReturnNull() {
+    assertThat(recipeSimilarityIndex.findMostSimilar(UUID.randomUUID(), 5)).isNull();
+  }
+
+  @Test
+  void given_removedRecipe_findMostSimilar_willNotReturnIt() {
+    recipeSimilarityIndex.remove(spongeCakeId);
+
+    assertThat(recipeSimilarityIndex.findMostSimilar(cakeId, 5)).isEmpty();
+    assertThat(recipeSimilarityIndex.findMostSimilar(spongeCakeId, 5)).isNull();
+  }
+
+  @Test
+  void given_reindexedRecipe_findMostSimilar_willUseNewFeatures() {
+    recipeSimilarityIndex.index(RecipeDocument.builder().recipeId(soupId)
+        .tags(Set.of(RecipeTagEnum.CAKE)).ingredientIds(Set.of(FLOUR_ID, SUGAR_ID, EGG_ID))
+        .build());
+
+    assertThat(recipeSimilarityIndex.findMostSimilar(spongeCakeId, 5))
+        .extracting(RecipeSimilarityMatch::getRecipeId).containsExactly(soupId, cakeId);
+  }
+
+  @Test
+  void given_features_jaccard_willDivideIntersectionByUnion() {
+    long[] cake = RecipeSimilarityIndex.toFeatures(RecipeDocument.builder().recipeId(cakeId)
+        .ingredientIds(Set.of(FLOUR_ID, SUGAR_ID)).build());
+    long[] soup = RecipeSimilarityIndex.toFeatures(RecipeDocument.builder().recipeId(soupId)
+        .ingredientIds(Set.of(SUGAR_ID, TOMATO_ID)).build());
+
+    assertThat(RecipeSimilarityIndex.jaccard(cake, soup)).isCloseTo(1.0 / 3, within(1e-9));
+  }
+
+  @Test
+  void given_manyRecipes_findMostSimilar_willRecallMostOfTheExactTopK() {
+    // given
+    // recipes derived from a few base ingredient lists (dropped and extra ingredients), seeded
+    Random random = new Random(42);
+    List<UUID> ingredientIds = Stream.generate(() -> new UUID(random.nextLong(), random.nextLong()))
+        .limit(500).toList();
+    List<List<UUID>> baseIngredientIds = Stream.generate(() -> Stream
+        .generate(() -> ingredientIds.get(random.nextInt(ingredientIds.size()))).limit(8).toList())
+        .limit(100).toList();
+    RecipeTagEnum[] tags = RecipeTagEnum.values();
+
+    recipeSimilarityIndex.clear();
+    List<RecipeDocument> recipeDocuments = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      Set<UUID> recipeIngredientIds = new HashSet<>();
+      for (UUID ingredientId : baseIngredientIds.get(random.nextInt(baseIngredientIds.size()))) {
+        if (random.nextInt(4) > 0) {
+          recipeIngredientIds.add(ingredientId);
+        }
+      }
+      recipeIngredientIds.add(ingredientIds.get(random.nextInt(ingredientIds.size())));
+      recipeIngredientIds.add(ingredientIds.get(random.nextInt(ingredientIds.size())));
+
+      RecipeDocument recipeDocument = RecipeDocument.builder()
+          .recipeId(new UUID(random.nextLong(), random.nextLong()))
+          .tags(Set.of(tags[random.nextInt(tags.length)])).ingredientIds(recipeIngredientIds)
+          .build();
+      recipeDocuments.add(recipeDocument);
+      recipeSimilarityIndex.index(recipeDocument);
+    }
+    List<long[]> features =
+        recipeDocuments.stream().map(RecipeSimilarityIndex::toFeatures).toList();
+
+    // when
+    int k = 10;
+    int queries = 200;
+    int recalled = 0;
+    for (int i = 0; i < queries; i++) {
+      // exact k-th best similarity, by brute force: any match at least as similar is a hit (ties)
+      long[] queryFeatures = features.get(i);
+      double kthSimilarity = features.stream().filter(candidate -> candidate != queryFeatures)
+          .mapToDouble(candidate -> RecipeSimilarityIndex.jaccard(queryFeatures, candidate))
+          .boxed().sorted(Comparator.reverseOrder()).skip(k - 1).findFirst().orElseThrow();
+
+      recalled += (int) recipeSimilarityIndex
+          .findMostSimilar(recipeDocuments.get(i).getRecipeId(), k).stream()
+          .filter(match -> match.getSimilarity() >= kthSimilarity - 1e-9).count();
+    }
+
+    // then
+    // about 0.98 with this data set
+    assertThat((double) recalled / (queries * k)).isGreaterThanOrEqualTo(0.95);
+  }
+
+}
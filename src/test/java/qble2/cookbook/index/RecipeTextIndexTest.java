@@ -0,0 +1,155 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeOrdinalRegistry;
+import qble2.cookbook.recipe.index.RecipeTextIndex;
+import qble2.cookbook.recipe.index.RecipeTextIndex.ScoredOrdinal;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+// unit testing
+class RecipeTextIndexTest {
+
+  private final UUID lemonTartId = UUID.randomUUID();
+  private final UUID lemonChickenId = UUID.randomUUID();
+  private final UUID appleTartId = UUID.randomUUID();
+
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private RecipeTextIndex recipeTextIndex; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipeOrdinalRegistry = new RecipeOrdinalRegistry();
+    recipeTextIndex = new RecipeTextIndex();
+    ReflectionTestUtils.setField(recipeTextIndex, "recipeOrdinalRegistry", recipeOrdinalRegistry);
+
+    recipeTextIndex.index(RecipeDocument.builder().recipeId(lemonTartId).name("Lemon tart")
+        .description("A tangy dessert").ingredientNames(Set.of("Lemon", "Butter"))
+        .instructions(List.of("Squeeze the lemons", "Bake the tart")).build());
+    recipeTextIndex.index(RecipeDocument.builder().recipeId(lemonChickenId).name("Roast chicken")
+        .description("With a hint of lemon").ingredientNames(Set.of("Chicken")).build());
+    recipeTextIndex.index(RecipeDocument.builder().recipeId(appleTartId).name("Apple tart")
+        .ingredientNames(Set.of("Apple", "Butter")).build());
+  }
+
+  @Test
+  void given_anyTerms_match_willReturnRecipesContainingOneOfThem() {
+    assertThat(match(RecipeSearchOperatorEnum.ANY, "lemon apple"))
+        .containsExactlyInAnyOrder(lemonTartId, lemonChickenId, appleTartId);
+  }
+
+  @Test
+  void given_allTerms_match_willReturnRecipesContainingAllOfThem() {
+    assertThat(match(RecipeSearchOperatorEnum.ALL, "LEMON, tart!")).containsExactly(lemonTartId);
+  }
+
+  @Test
+  void given_stopWordsOnly_supports_willReturnFalse() {
+    assertThat(recipeTextIndex.supports(filter(RecipeSearchOperatorEnum.ANY, "the a"))).isFalse();
+  }
+
+  @Test
+  void given_term_findTopRecipes_willRankRecipesWithTermInNameFirst() {
+    // when
+    List<UUID> topRecipeIds = findTopRecipes("lemon", 10, allOrdinals());
+
+    // then
+    assertThat(topRecipeIds).containsExactly(lemonTartId, lemonChickenId);
+  }
+
+  @Test
+  void given_notAllowedRecipes_findTopRecipes_willSkipThem() {
+    // given
+    BitSet allowedOrdinals = allOrdinals();
+    allowedOrdinals.clear(recipeOrdinalRegistry.getOrdinal(lemonTartId));
+
+    // when
+    List<UUID> topRecipeIds = findTopRecipes("lemon tart", 10, allowedOrdinals);
+
+    // then
+    assertThat(topRecipeIds).containsExactly(appleTartId, lemonChickenId);
+  }
+
+  @Test
+  void given_removedRecipe_findTopRecipes_willNotReturnIt() {
+    // given
+    recipeTextIndex.remove(lemonTartId);
+
+    // when
+    List<UUID> topRecipeIds = findTopRecipes("lemon", 10, allOrdinals());
+
+    // then
+    assertThat(topRecipeIds).containsExactly(lemonChickenId);
+  }
+
+  @Test
+  void given_manyRecipes_findTopRecipes_willReturnSameRecipesAsFullRanking() {
+    // given
+    String[] words = {"lemon", "tart", "apple", "chicken", "butter", "sugar", "roast", "cream"};
+    Random random = new Random(42);
+    for (int i = 0; i < 500; i++) {
+      List<String> name = new ArrayList<>();
+      for (int j = 0; j < 1 + random.nextInt(4); j++) {
+        name.add(words[random.nextInt(words.length)]);
+      }
+      recipeTextIndex.index(RecipeDocument.builder().recipeId(UUID.randomUUID())
+          .name(String.join(" ", name)).description(words[random.nextInt(words.length)]).build());
+    }
+
+    // when
+    List<ScoredOrdinal> fullRanking = recipeTextIndex
+        .findTopRecipes(filter(RecipeSearchOperatorEnum.ANY, "lemon tart cream"), 1000,
+            allOrdinals());
+    List<ScoredOrdinal> topRanking = recipeTextIndex
+        .findTopRecipes(filter(RecipeSearchOperatorEnum.ANY, "lemon tart cream"), 20,
+            allOrdinals());
+
+    // then
+    assertThat(topRanking).extracting(ScoredOrdinal::getOrdinal).containsExactlyElementsOf(
+        fullRanking.subList(0, 20).stream().map(ScoredOrdinal::getOrdinal).toList());
+  }
+
+  private BitSet allOrdinals() {
+    BitSet ordinals = new BitSet();
+    ordinals.set(0, recipeOrdinalRegistry.size());
+
+    return ordinals;
+  }
+
+  private List<UUID> findTopRecipes(String text, int k, BitSet allowedOrdinals) {
+    return recipeTextIndex.findTopRecipes(filter(RecipeSearchOperatorEnum.ANY, text), k,
+        allowedOrdinals).stream()
+        .map(scoredOrdinal -> recipeOrdinalRegistry.getRecipeId(scoredOrdinal.getOrdinal()))
+        .toList();
+  }
+
+  private List<UUID> match(RecipeSearchOperatorEnum operator, String text) {
+    RecipeSearchFilter recipeSearchFilter = filter(operator, text);
+    assertThat(recipeTextIndex.supports(recipeSearchFilter)).isTrue();
+
+    return recipeOrdinalRegistry
+        .toRecipeIds(recipeTextIndex.match(recipeSearchFilter).getOrdinals());
+  }
+
+  private static RecipeSearchFilter filter(RecipeSearchOperatorEnum operator, String text) {
+    RecipeSearchFilter recipeSearchFilter = new RecipeSearchFilter();
+    recipeSearchFilter.setKey(RecipeSearchFilterKeyEnum.RECIPE_TEXT);
+    recipeSearchFilter.setOperator(operator);
+    recipeSearchFilter.setValue(text);
+
+    return recipeSearchFilter;
+  }
+
+}
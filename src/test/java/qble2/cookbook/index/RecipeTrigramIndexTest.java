@@ -0,0 +1,92 @@
+package qble2.cookbook.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.index.RecipeDocument;
+import qble2.cookbook.recipe.index.RecipeOrdinalRegistry;
+import qble2.cookbook.recipe.index.RecipeTrigramIndex;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+
+// unit testing
+class RecipeTrigramIndexTest {
+
+  private final UUID lemonTartId = UUID.randomUUID();
+  private final UUID lemonCakeId = UUID.randomUUID();
+
+  private RecipeOrdinalRegistry recipeOrdinalRegistry;
+
+  private RecipeTrigramIndex recipeTrigramIndex; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipeOrdinalRegistry = new RecipeOrdinalRegistry();
+    recipeTrigramIndex = new RecipeTrigramIndex();
+    ReflectionTestUtils.setField(recipeTrigramIndex, "recipeOrdinalRegistry",
+        recipeOrdinalRegistry);
+
+    recipeTrigramIndex.index(RecipeDocument.builder().recipeId(lemonTartId).name("Lemon Tart")
+        .description("Short tart and a tangy crust").authorUsername("johnwick").build());
+    recipeTrigramIndex.index(RecipeDocument.builder().recipeId(lemonCakeId).name("Lemon cake")
+        .authorUsername("janedoe").build());
+  }
+
+  @Test
+  void given_term_match_willReturnRecipesContainingTermIgnoringCase() {
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_NAME, "LEMON"))
+        .containsExactlyInAnyOrder(lemonTartId, lemonCakeId);
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_NAME, "on ta")).containsExactly(lemonTartId);
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_AUTHOR, "wick"))
+        .containsExactly(lemonTartId);
+  }
+
+  @Test
+  void given_termWithAllTrigramsButNotContained_match_willNotReturnRecipe() {
+    // every trigram of "tart tan" is in "short tart and a tangy crust", but not the whole term
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_DESCRIPTION, "tart tan")).isEmpty();
+  }
+
+  @Test
+  void given_updatedRecipe_match_willUseItsNewValue() {
+    // given
+    recipeTrigramIndex.index(RecipeDocument.builder().recipeId(lemonCakeId).name("Orange cake")
+        .authorUsername("janedoe").build());
+
+    // when
+    // then
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_NAME, "lemon")).containsExactly(lemonTartId);
+    assertThat(match(RecipeSearchFilterKeyEnum.RECIPE_NAME, "orange"))
+        .containsExactly(lemonCakeId);
+  }
+
+  @Test
+  void given_shortTermOrWildcard_supports_willReturnFalse() {
+    assertThat(recipeTrigramIndex.supports(filter(RecipeSearchFilterKeyEnum.RECIPE_NAME, "le")))
+        .isFalse();
+    assertThat(recipeTrigramIndex.supports(filter(RecipeSearchFilterKeyEnum.RECIPE_NAME, "le_on")))
+        .isFalse();
+  }
+
+  private List<UUID> match(RecipeSearchFilterKeyEnum key, String term) {
+    RecipeSearchFilter recipeSearchFilter = filter(key, term);
+    assertThat(recipeTrigramIndex.supports(recipeSearchFilter)).isTrue();
+
+    return recipeOrdinalRegistry
+        .toRecipeIds(recipeTrigramIndex.match(recipeSearchFilter).getOrdinals());
+  }
+
+  private static RecipeSearchFilter filter(RecipeSearchFilterKeyEnum key, String term) {
+    RecipeSearchFilter recipeSearchFilter = new RecipeSearchFilter();
+    recipeSearchFilter.setKey(key);
+    recipeSearchFilter.setOperator(RecipeSearchOperatorEnum.LIKE);
+    recipeSearchFilter.setValue(term);
+
+    return recipeSearchFilter;
+  }
+
+}
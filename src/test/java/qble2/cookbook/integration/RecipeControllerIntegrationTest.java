@@ -1,11 +1,17 @@
 package qble2.cookbook.integration;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import java.net.URI;
 import org.junit.jupiter.api.BeforeAll;
@@ -20,9 +26,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import qble2.cookbook.ingredient.IngredientService;
 import qble2.cookbook.ingredient.dto.IngredientDto;
@@ -85,4 +93,32 @@ class RecipeControllerIntegrationTest {
     TestUtils.verifyRecipeLinks(resultActions, recipe.getId());
   }
 
+  @Test
+  void given_recipeExists_exportRecipes_willStreamRecipeLine() throws Exception {
+    // given
+    RecipeDto recipe = recipeService.createRecipe(user.getUsername(), TestUtils.createRecipe(null,
+        ingredient.setQuantity(1).setUnitOfMeasure(UnitOfMeasureEnum.GRAM)));
+
+    URI uri = TestUtils.toUri(TestUtils.RECIPES_PATH + "/export");
+    String urlTemplate = TestUtils.toHttpUriString(uri);
+
+    // when
+    MvcResult mvcResult = this.mockMvc
+        .perform(get(urlTemplate).param("include", "INGREDIENTS")
+            .accept(MediaType.APPLICATION_NDJSON_VALUE))
+        .andExpect(request().asyncStarted()).andReturn();
+
+    // then
+    // the export timeout, not the default async request timeout
+    assertThat(mvcResult.getRequest().getAsyncContext().getTimeout(), is(1800000L));
+    this.mockMvc.perform(asyncDispatch(mvcResult)).andDo(print()) //
+        .andExpect(status().isOk()) //
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+            containsString("recipes.ndjson")))
+        .andExpect(content().string(containsString("\"id\":\"" + recipe.getId() + "\"")))
+        .andExpect(
+            content().string(containsString("\"name\":\"" + ingredient.getName() + "\"")))
+        .andExpect(content().string(endsWith("\n")));
+  }
+
 }
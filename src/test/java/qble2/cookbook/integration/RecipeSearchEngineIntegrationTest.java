@@ -0,0 +1,37 @@
+package qble2.cookbook.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import qble2.cookbook.benchmark.RecipeSearchEngineHarness;
+import qble2.cookbook.benchmark.RecipeSearchEngineHarness.Report;
+
+@ExtendWith(SpringExtension.class)
+// dedicated database: the generated dataset must not be seen by the other tests
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:search_engines_testing")
+@ActiveProfiles("test")
+class RecipeSearchEngineIntegrationTest {
+
+  @Autowired
+  private ApplicationContext applicationContext;
+
+  @Test
+  void given_randomSearches_search_willReturnSameRecipesWithEveryEngine() {
+    // given
+    RecipeSearchEngineHarness harness = new RecipeSearchEngineHarness(applicationContext, 42);
+    harness.insertDataset(500);
+
+    // when
+    Report report = harness.run(200);
+
+    // then
+    assertThat(report.getMismatches()).isEmpty();
+    assertThat(report.getLatencies()).containsOnlyKeys("specification", "planned", "criteria");
+  }
+
+}
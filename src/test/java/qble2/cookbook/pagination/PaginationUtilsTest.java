@@ -0,0 +1,93 @@
+package qble2.cookbook.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+// unit testing
+class PaginationUtilsTest {
+
+  private static final List<Integer> ELEMENTS = IntStream.range(0, 12).boxed().toList();
+
+  private final AtomicInteger countsCount = new AtomicInteger();
+
+  @Test
+  void given_exactMode_find_willCountElements() {
+    Slice<Integer> slice = find(PageCountModeEnum.EXACT, PageRequest.of(1, 5), 100);
+
+    assertThat(slice).isInstanceOf(Page.class).isNotInstanceOf(ApproximatePage.class);
+    assertThat(((Page<Integer>) slice).getTotalElements()).isEqualTo(12);
+    assertThat(countsCount).hasValue(1);
+  }
+
+  @Test
+  void given_noneMode_find_willNotCountElements() {
+    Slice<Integer> slice = find(PageCountModeEnum.NONE, PageRequest.of(1, 5), 100);
+
+    assertThat(slice).isNotInstanceOf(Page.class);
+    assertThat(slice.getContent()).containsExactly(5, 6, 7, 8, 9);
+    assertThat(slice.hasNext()).isTrue();
+    assertThat(countsCount).hasValue(0);
+  }
+
+  @Test
+  void given_approximateMode_find_willCorrectEstimateWithSlice() {
+    // too small: there is at least one more element
+    Page<Integer> page =
+        (Page<Integer>) find(PageCountModeEnum.APPROXIMATE, PageRequest.of(1, 5), 3);
+    assertThat(page).isInstanceOf(ApproximatePage.class);
+    assertThat(page.getTotalElements()).isEqualTo(11);
+
+    // kept while there is a next page
+    page = (Page<Integer>) find(PageCountModeEnum.APPROXIMATE, PageRequest.of(0, 5), 100);
+    assertThat(page.getTotalElements()).isEqualTo(100);
+
+    // the last page gives the exact total
+    page = (Page<Integer>) find(PageCountModeEnum.APPROXIMATE, PageRequest.of(2, 5), 100);
+    assertThat(page.getTotalElements()).isEqualTo(12);
+
+    // past the last page
+    page = (Page<Integer>) find(PageCountModeEnum.APPROXIMATE, PageRequest.of(5, 5), 100);
+    assertThat(page.getTotalElements()).isEqualTo(25);
+    assertThat(countsCount).hasValue(0);
+  }
+
+  @Test
+  void given_unknownEstimate_find_willCountElements() {
+    Slice<Integer> slice = find(PageCountModeEnum.APPROXIMATE, PageRequest.of(0, 5), -1);
+
+    assertThat(slice).isNotInstanceOf(ApproximatePage.class);
+    assertThat(((Page<Integer>) slice).getTotalElements()).isEqualTo(12);
+    assertThat(countsCount).hasValue(1);
+  }
+
+  private Slice<Integer> find(PageCountModeEnum countMode, Pageable pageable,
+      long estimatedTotal) {
+    Function<Pageable, Page<Integer>> pageFinder = p -> {
+      countsCount.incrementAndGet();
+      return new PageImpl<>(content(p, p.getPageSize()), p, ELEMENTS.size());
+    };
+    Function<Pageable, Slice<Integer>> sliceFinder = p -> {
+      List<Integer> content = content(p, p.getPageSize() + 1);
+      boolean hasNext = content.size() > p.getPageSize();
+      return new SliceImpl<>(hasNext ? content.subList(0, p.getPageSize()) : content, p, hasNext);
+    };
+
+    return PaginationUtils.find(countMode, pageable, pageFinder, sliceFinder,
+        () -> estimatedTotal);
+  }
+
+  private static List<Integer> content(Pageable pageable, int limit) {
+    return ELEMENTS.stream().skip(pageable.getOffset()).limit(limit).toList();
+  }
+
+}
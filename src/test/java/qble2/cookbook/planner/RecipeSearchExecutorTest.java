@@ -0,0 +1,217 @@
+package qble2.cookbook.planner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.cache.RecipeSearchCache;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.planner.RecipeSearchExecutor;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+
+// unit testing
+@ExtendWith(MockitoExtension.class)
+class RecipeSearchExecutorTest {
+
+  @Mock
+  private RecipeRepository recipeRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private Specification<Recipe> specification;
+
+  private final RecipeSearchRequest recipeSearch = new RecipeSearchRequest();
+
+  private RecipeSearchExecutor recipeSearchExecutor; // underTest
+
+  @BeforeEach
+  void setUp() {
+    RecipeSearchCache recipeSearchCache = new RecipeSearchCache();
+    ReflectionTestUtils.setField(recipeSearchCache, "enabled", true);
+    ReflectionTestUtils.setField(recipeSearchCache, "maxWeight", 1_000_000L);
+
+    recipeSearchExecutor = new RecipeSearchExecutor();
+    ReflectionTestUtils.setField(recipeSearchExecutor, "recipeRepository", recipeRepository);
+    ReflectionTestUtils.setField(recipeSearchExecutor, "recipeSearchCache", recipeSearchCache);
+    ReflectionTestUtils.setField(recipeSearchExecutor, "transactionManager", transactionManager);
+    ReflectionTestUtils.setField(recipeSearchExecutor, "concurrentCountEnabled", true);
+    ReflectionTestUtils.setField(recipeSearchExecutor, "threads", 2);
+    ReflectionTestUtils.setField(recipeSearchExecutor, "queueCapacity", 1);
+    ReflectionTestUtils.setField(recipeSearchExecutor, "timeoutMillis", 2_000L);
+    recipeSearchExecutor.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    recipeSearchExecutor.stop();
+  }
+
+  @Test
+  void given_middlePage_findIdsBySpecification_willMergeConcurrentCount() {
+    // given
+    PageRequest pageRequest = PageRequest.of(1, 2);
+    given(recipeRepository.findSliceOfIdsBySpecification(specification, pageRequest))
+        .willReturn(new SliceImpl<>(recipeIds(2), pageRequest, true));
+    given(recipeRepository.countBySpecification(specification)).willReturn(7L);
+
+    // when
+    Page<UUID> page =
+        recipeSearchExecutor.findIdsBySpecification(recipeSearch, specification, pageRequest);
+
+    // then
+    assertThat(page.getContent()).hasSize(2);
+    assertThat(page.getTotalElements()).isEqualTo(7);
+    assertThat(page.getTotalPages()).isEqualTo(4);
+    verify(recipeRepository, never()).findIdsBySpecification(any(), any(PageRequest.class));
+  }
+
+  @Test
+  void given_countedSearch_findIdsBySpecification_willServeCountFromCache() {
+    // given
+    given(recipeRepository.findSliceOfIdsBySpecification(any(), any()))
+        .willAnswer(invocation -> new SliceImpl<>(recipeIds(2), invocation.getArgument(1), true));
+    given(recipeRepository.countBySpecification(specification)).willReturn(7L);
+
+    // when
+    recipeSearchExecutor.findIdsBySpecification(recipeSearch, specification, PageRequest.of(0, 2));
+    Page<UUID> page = recipeSearchExecutor.findIdsBySpecification(recipeSearch, specification,
+        PageRequest.of(1, 2));
+
+    // then
+    assertThat(page.getTotalElements()).isEqualTo(7);
+    verify(recipeRepository, times(1)).countBySpecification(specification);
+  }
+
+  @Test
+  void given_lastPage_findIdsBySpecification_willComputeTotalFromPage() {
+    // given
+    PageRequest pageRequest = PageRequest.of(3, 2);
+    given(recipeRepository.findSliceOfIdsBySpecification(specification, pageRequest))
+        .willReturn(new SliceImpl<>(recipeIds(1), pageRequest, false));
+
+    // when
+    Page<UUID> page =
+        recipeSearchExecutor.findIdsBySpecification(recipeSearch, specification, pageRequest);
+
+    // then
+    assertThat(page.getTotalElements()).isEqualTo(7);
+    assertThat(page.hasNext()).isFalse();
+  }
+
+  @Test
+  void given_concurrentCountDisabled_findIdsBySpecification_willRunQueriesSequentially() {
+    // given
+    recipeSearchExecutor.stop();
+    ReflectionTestUtils.setField(recipeSearchExecutor, "concurrentCountEnabled", false);
+    ReflectionTestUtils.setField(recipeSearchExecutor, "countExecutorService", null);
+    recipeSearchExecutor.start();
+    PageRequest pageRequest = PageRequest.of(0, 2);
+
+    // when
+    recipeSearchExecutor.findIdsBySpecification(recipeSearch, specification, pageRequest);
+
+    // then
+    verify(recipeRepository).findIdsBySpecification(specification, pageRequest);
+    verify(recipeRepository, never()).countBySpecification(any());
+  }
+
+  @Test
+  void given_slowCount_findIdsBySpecification_willCountAgainSequentially() {
+    // given
+    ReflectionTestUtils.setField(recipeSearchExecutor, "timeoutMillis", 50L);
+    PageRequest pageRequest = PageRequest.of(1, 2);
+    given(recipeRepository.findSliceOfIdsBySpecification(specification, pageRequest))
+        .willReturn(new SliceImpl<>(recipeIds(2), pageRequest, true));
+    given(recipeRepository.countBySpecification(specification)).willAnswer(invocation -> {
+      if (isCountThread()) {
+        Thread.sleep(5_000);
+      }
+      return 7L;
+    });
+
+    // when
+    long start = System.currentTimeMillis();
+    Page<UUID> page =
+        recipeSearchExecutor.findIdsBySpecification(recipeSearch, specification, pageRequest);
+
+    // then
+    assertThat(page.getTotalElements()).isEqualTo(7);
+    assertThat(System.currentTimeMillis() - start).isLessThan(5_000);
+  }
+
+  @Test
+  void given_everyCountThreadBusy_findIdsBySpecification_willCountInCallingThread()
+      throws InterruptedException {
+    // given
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    Runnable blockingTask = () -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+    ExecutorService countExecutorService =
+        (ExecutorService) ReflectionTestUtils.getField(recipeSearchExecutor,
+            "countExecutorService");
+    // 2 running tasks, then 1 queued task: the queue is full
+    countExecutorService.execute(blockingTask);
+    countExecutorService.execute(blockingTask);
+    started.await();
+    countExecutorService.execute(blockingTask);
+    PageRequest pageRequest = PageRequest.of(1, 2);
+    given(recipeRepository.findSliceOfIdsBySpecification(specification, pageRequest))
+        .willReturn(new SliceImpl<>(recipeIds(2), pageRequest, true));
+    List<Boolean> countedByCountThread = new CopyOnWriteArrayList<>();
+    given(recipeRepository.countBySpecification(specification)).willAnswer(invocation -> {
+      countedByCountThread.add(isCountThread());
+      return 7L;
+    });
+
+    // when
+    Page<UUID> page;
+    try {
+      page = recipeSearchExecutor.findIdsBySpecification(recipeSearch, specification, pageRequest);
+    } finally {
+      release.countDown();
+    }
+
+    // then
+    assertThat(page.getTotalElements()).isEqualTo(7);
+    assertThat(countedByCountThread).containsExactly(false);
+  }
+
+  private static boolean isCountThread() {
+    return Thread.currentThread().getName().startsWith("recipe-search-count-");
+  }
+
+  private static List<UUID> recipeIds(int size) {
+    return Stream.generate(UUID::randomUUID).limit(size).toList();
+  }
+
+}
@@ -0,0 +1,107 @@
+package qble2.cookbook.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.dtoprojection.RecipeSummaryProjectionDto;
+import qble2.cookbook.recipe.enums.RecipeSearchFilterKeyEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchOperatorEnum;
+import qble2.cookbook.recipe.enums.RecipeTagEnum;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.request.RecipeSearchFilter;
+import qble2.cookbook.recipe.specification.RecipeTagsSpecification;
+import qble2.cookbook.user.UserRepository;
+import qble2.cookbook.user.model.User;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class RecipeRepositoryTest {
+
+  @Autowired
+  private RecipeRepository recipeRepository; // underTest
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private UUID cakeId;
+  private UUID soupId;
+  private UUID pieId;
+
+  @BeforeEach
+  void setUp() {
+    recipeRepository.deleteAll();
+    userRepository.deleteAll();
+
+    User author = userRepository.save(User.builder().username("john").password("password")
+        .firstName("john").lastName("wick").email("john.wick@xyz.com").build());
+    cakeId = save(author, "cake", Set.of(RecipeTagEnum.CAKE, RecipeTagEnum.SWEET));
+    soupId = save(author, "soup", Set.of(RecipeTagEnum.SOUP, RecipeTagEnum.SALTY));
+    pieId = save(author, "pie", Set.of(RecipeTagEnum.PIE, RecipeTagEnum.SWEET));
+  }
+
+  @Test
+  void given_anyTags_findIdsBySpecification_willReturnRecipesHavingOneOfTheTags() {
+    assertThat(findIdsByTags(RecipeSearchOperatorEnum.ANY, List.of("Cake", "Soup")))
+        .containsExactlyInAnyOrder(cakeId, soupId);
+  }
+
+  @Test
+  void given_allTags_findIdsBySpecification_willReturnRecipesHavingEveryTag() {
+    assertThat(findIdsByTags(RecipeSearchOperatorEnum.ALL, List.of("Sweet", "Pie")))
+        .containsExactly(pieId);
+    // an unknown tag can not be matched
+    assertThat(findIdsByTags(RecipeSearchOperatorEnum.ALL, List.of("Sweet", "unknown")))
+        .isEmpty();
+  }
+
+  @Test
+  void given_noneTags_findIdsBySpecification_willReturnRecipesHavingNoneOfTheTags() {
+    assertThat(findIdsByTags(RecipeSearchOperatorEnum.NONE, List.of("Sweet")))
+        .containsExactly(soupId);
+  }
+
+  @Test
+  void given_updatedTags_findIdsBySpecification_willMatchNewTags() {
+    Recipe soup = recipeRepository.findByIdAndLoadTags(soupId).orElseThrow();
+    soup.updateTags(Set.of(RecipeTagEnum.SOUP, RecipeTagEnum.SWEET));
+    recipeRepository.saveAndFlush(soup);
+
+    assertThat(findIdsByTags(RecipeSearchOperatorEnum.NONE, List.of("Sweet"))).isEmpty();
+  }
+
+  @Test
+  void given_recipeIds_findSummariesByIdInOrder_willDecodeTagsMask() {
+    List<RecipeSummaryProjectionDto> summaries =
+        recipeRepository.findSummariesByIdInOrder(List.of(soupId, cakeId));
+
+    assertThat(summaries).extracting(RecipeSummaryProjectionDto::getId).containsExactly(soupId,
+        cakeId);
+    // same order as Recipe.tags
+    assertThat(summaries.get(0).getTags()).containsExactly(RecipeTagEnum.SALTY,
+        RecipeTagEnum.SOUP);
+  }
+
+  private UUID save(User author, String name, Set<RecipeTagEnum> tags) {
+    return recipeRepository.save(Recipe.builder().name(name).author(author)
+        .createdAt(LocalDateTime.now()).tags(new HashSet<>(tags)).build()).getId();
+  }
+
+  private List<UUID> findIdsByTags(RecipeSearchOperatorEnum operator, List<Object> values) {
+    RecipeSearchFilter recipeSearchFilter = new RecipeSearchFilter();
+    recipeSearchFilter.setKey(RecipeSearchFilterKeyEnum.RECIPE_TAGS);
+    recipeSearchFilter.setOperator(operator);
+    recipeSearchFilter.setValues(values);
+
+    return recipeRepository.findIdsBySpecification(new RecipeTagsSpecification(recipeSearchFilter));
+  }
+
+}
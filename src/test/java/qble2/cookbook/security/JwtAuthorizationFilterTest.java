@@ -0,0 +1,176 @@
+package qble2.cookbook.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.user.UserService;
+import qble2.cookbook.user.event.UserRolesChangedEvent;
+
+// unit testing
+@ExtendWith(MockitoExtension.class)
+class JwtAuthorizationFilterTest {
+
+  private static final String ACCESS_TOKEN = "access-token";
+
+  private static final String USERNAME = "username";
+
+  @Mock
+  private JwtUtils jwtUtils;
+
+  @Mock
+  private UserService userService;
+
+  @Mock
+  private JwtRevocationList jwtRevocationList;
+
+  @Mock
+  private DecodedJWT decodedJWT;
+
+  private JwtAuthorizationFilter jwtAuthorizationFilter; // underTest
+
+  @BeforeEach
+  void setUp() {
+    jwtAuthorizationFilter =
+        new JwtAuthorizationFilter(jwtUtils, userService, jwtRevocationList, true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void given_statelessToken_doFilter_willAuthorizeUserBuiltFromClaims() throws Exception {
+    // given
+    UUID userId = UUID.randomUUID();
+    givenAccessToken(userId, "ROLE_USER", "ROLE_ADMIN");
+    MockFilterChain filterChain = new MockFilterChain();
+
+    // when
+    MockHttpServletResponse response = doFilter(filterChain);
+
+    // then
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+    assertThat(filterChain.getRequest()).isNotNull();
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    assertThat(authentication.getPrincipal()).isInstanceOf(CurrentUserDetails.class);
+    CurrentUserDetails currentUserDetails = (CurrentUserDetails) authentication.getPrincipal();
+    assertThat(currentUserDetails.getId()).isEqualTo(userId);
+    assertThat(currentUserDetails.getUsername()).isEqualTo(USERNAME);
+    assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+        .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    verify(userService, never()).loadUserByUsername(any());
+  }
+
+  @Test
+  void given_revokedToken_doFilter_willRespondUnauthorized() throws Exception {
+    // given
+    UUID userId = UUID.randomUUID();
+    givenAccessToken(userId, "ROLE_USER");
+    given(jwtRevocationList.isRevoked(any(), any())).willReturn(true);
+    MockFilterChain filterChain = new MockFilterChain();
+
+    // when
+    MockHttpServletResponse response = doFilter(filterChain);
+
+    // then
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+    assertThat(response.getContentAsString()).contains("The token has been revoked");
+    assertThat(filterChain.getRequest()).isNull();
+    assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+  }
+
+  @Test
+  void given_tokenIssuedBeforeRolesChanged_doFilter_willRespondUnauthorized() throws Exception {
+    // given
+    long now = 1_700_000_000_000L;
+    JwtRevocationList realJwtRevocationList = new JwtRevocationList(() -> now);
+    ReflectionTestUtils.setField(realJwtRevocationList, "jwtUtils", jwtUtils);
+    given(jwtUtils.getAccessTokenExpirationInMillis()).willReturn(60 * 60 * 1000L);
+    jwtAuthorizationFilter =
+        new JwtAuthorizationFilter(jwtUtils, userService, realJwtRevocationList, true);
+    UUID userId = UUID.randomUUID();
+    givenAccessToken(userId, new Date(now - 60_000L), "ROLE_USER");
+    realJwtRevocationList.onUserRolesChanged(new UserRolesChangedEvent(userId));
+    MockFilterChain filterChain = new MockFilterChain();
+
+    // when
+    MockHttpServletResponse response = doFilter(filterChain);
+
+    // then
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+    assertThat(response.getContentAsString()).contains("The token has been revoked");
+    assertThat(filterChain.getRequest()).isNull();
+    assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+  }
+
+  @Test
+  void given_tokenWithoutUserId_doFilter_willLoadUser() throws Exception {
+    // given
+    givenAccessToken(null, "ROLE_USER");
+    CurrentUserDetails loadedUser = new CurrentUserDetails(UUID.randomUUID(), USERNAME,
+        "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    given(userService.loadUserByUsername(USERNAME)).willReturn(loadedUser);
+
+    // when
+    MockHttpServletResponse response = doFilter(new MockFilterChain());
+
+    // then
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+    assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+        .isSameAs(loadedUser);
+    verify(jwtRevocationList, never()).isRevoked(any(), any());
+  }
+
+  private void givenAccessToken(UUID userId, String... roles) {
+    givenAccessToken(userId, new Date(), roles);
+  }
+
+  private void givenAccessToken(UUID userId, Date issuedAt, String... roles) {
+    Claim rolesClaim = mock(Claim.class);
+    given(rolesClaim.asArray(String.class)).willReturn(roles);
+    given(decodedJWT.getSubject()).willReturn(USERNAME);
+    given(decodedJWT.getClaim(JwtUtils.ROLES_CLAIM)).willReturn(rolesClaim);
+
+    given(jwtUtils.existsToken(any())).willReturn(true);
+    given(jwtUtils.getToken(any())).willReturn(ACCESS_TOKEN);
+    given(jwtUtils.getDecodedJwt(ACCESS_TOKEN)).willReturn(decodedJWT);
+    given(jwtUtils.getUserId(decodedJWT)).willReturn(userId);
+    if (userId != null) {
+      given(jwtUtils.getIssuedAt(decodedJWT)).willReturn(issuedAt);
+    }
+  }
+
+  private MockHttpServletResponse doFilter(MockFilterChain filterChain) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/recipes");
+    request.setServletPath("/api/recipes");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    jwtAuthorizationFilter.doFilter(request, response, filterChain);
+
+    return response;
+  }
+
+}
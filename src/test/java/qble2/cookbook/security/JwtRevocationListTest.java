@@ -0,0 +1,86 @@
+package qble2.cookbook.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.user.event.UserRolesChangedEvent;
+
+// unit testing
+@ExtendWith(MockitoExtension.class)
+class JwtRevocationListTest {
+
+  private static final long ACCESS_TOKEN_EXPIRATION = 60 * 60 * 1000L;
+
+  @Mock
+  private JwtUtils jwtUtils;
+
+  private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+  private JwtRevocationList jwtRevocationList; // underTest
+
+  @BeforeEach
+  void setUp() {
+    jwtRevocationList = new JwtRevocationList(now::get);
+    ReflectionTestUtils.setField(jwtRevocationList, "jwtUtils", jwtUtils);
+  }
+
+  @Test
+  void given_rolesChanged_isRevoked_willRejectTokensIssuedBefore() {
+    // given
+    given(jwtUtils.getAccessTokenExpirationInMillis()).willReturn(ACCESS_TOKEN_EXPIRATION);
+    UUID userId = UUID.randomUUID();
+    Date issuedAt = new Date(now.get());
+    now.addAndGet(60_000L);
+
+    // when
+    jwtRevocationList.onUserRolesChanged(new UserRolesChangedEvent(userId));
+
+    // then
+    assertThat(jwtRevocationList.isRevoked(userId, issuedAt)).isTrue();
+    assertThat(jwtRevocationList.isRevoked(userId, null)).isTrue();
+    assertThat(jwtRevocationList.isRevoked(userId, new Date(now.get() + 1_000L))).isFalse();
+    assertThat(jwtRevocationList.isRevoked(UUID.randomUUID(), issuedAt)).isFalse();
+  }
+
+  @Test
+  void given_tokenIssuedDuringSecondOfRevocation_isRevoked_willOnlyRejectTokensIssuedBefore() {
+    // given
+    UUID userId = UUID.randomUUID();
+    now.addAndGet(400L);
+    Date issuedBefore = new Date(now.get() - 1L);
+    Date issuedAfter = new Date(now.get() + 1L);
+
+    // when
+    jwtRevocationList.revoke(userId);
+
+    // then
+    assertThat(jwtRevocationList.isRevoked(userId, issuedBefore)).isTrue();
+    assertThat(jwtRevocationList.isRevoked(userId, issuedAfter)).isFalse();
+    // "iat" only: issued during the second of the revocation, before or after it
+    assertThat(jwtRevocationList.isRevoked(userId, new Date(now.get() / 1000 * 1000))).isTrue();
+  }
+
+  @Test
+  void given_revokedTokensExpired_isRevoked_willForgetRevocation() {
+    // given
+    given(jwtUtils.getAccessTokenExpirationInMillis()).willReturn(ACCESS_TOKEN_EXPIRATION);
+    UUID userId = UUID.randomUUID();
+    Date issuedAt = new Date(now.get());
+    jwtRevocationList.revoke(userId);
+
+    // when
+    now.addAndGet(ACCESS_TOKEN_EXPIRATION + 1_000L);
+
+    // then
+    assertThat(jwtRevocationList.isRevoked(userId, issuedAt)).isFalse();
+  }
+
+}
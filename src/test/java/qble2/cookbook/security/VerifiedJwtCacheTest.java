@@ -0,0 +1,144 @@
+package qble2.cookbook.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// unit testing
+class VerifiedJwtCacheTest {
+
+  private static final Algorithm ALGORITHM = Algorithm.HMAC256("secret");
+
+  private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+  private AtomicInteger verificationsCount;
+
+  private Function<String, DecodedJWT> verifier;
+
+  private VerifiedJwtCache verifiedJwtCache; // underTest
+
+  @BeforeEach
+  void setUp() {
+    verificationsCount = new AtomicInteger();
+    JWTVerifier jwtVerifier = JWT.require(ALGORITHM).build();
+    verifier = token -> {
+      verificationsCount.incrementAndGet();
+      return jwtVerifier.verify(token);
+    };
+
+    verifiedJwtCache = new VerifiedJwtCache(now::get);
+    ReflectionTestUtils.setField(verifiedJwtCache, "enabled", true);
+    ReflectionTestUtils.setField(verifiedJwtCache, "maxEntries", 2);
+  }
+
+  @Test
+  void given_verifiedToken_get_willNotVerifyTokenAgain() {
+    // given
+    String token = createToken("user", 60_000L);
+    DecodedJWT firstDecodedJwt = verifiedJwtCache.get(token, verifier);
+
+    // when
+    DecodedJWT secondDecodedJwt = verifiedJwtCache.get(token, verifier);
+
+    // then
+    assertThat(verificationsCount).hasValue(1);
+    assertThat(secondDecodedJwt).isSameAs(firstDecodedJwt);
+    assertThat(secondDecodedJwt.getSubject()).isEqualTo("user");
+  }
+
+  @Test
+  void given_cachedTokenExpired_get_willVerifyTokenAgain() {
+    // given
+    String token = createToken("user", 60_000L);
+    verifiedJwtCache.get(token, verifier);
+
+    // when
+    now.addAndGet(60_000L);
+
+    // then
+    verifiedJwtCache.get(token, verifier);
+    assertThat(verificationsCount).hasValue(2);
+  }
+
+  @Test
+  void given_invalidToken_get_willThrowAndNotCacheToken() {
+    // given
+    String token = JWT.create().withSubject("user")
+        .withExpiresAt(new Date(System.currentTimeMillis() + 60_000L))
+        .sign(Algorithm.HMAC256("another secret"));
+
+    // when
+    // then
+    assertThatThrownBy(() -> verifiedJwtCache.get(token, verifier))
+        .isInstanceOf(JWTVerificationException.class);
+    assertThatThrownBy(() -> verifiedJwtCache.get(token, verifier))
+        .isInstanceOf(JWTVerificationException.class);
+    assertThat(verificationsCount).hasValue(2);
+  }
+
+  @Test
+  void given_maxEntriesReached_get_willNotCacheNewToken() {
+    // given
+    verifiedJwtCache.get(createToken("user1", 60_000L), verifier);
+    verifiedJwtCache.get(createToken("user2", 60_000L), verifier);
+    String token = createToken("user3", 60_000L);
+
+    // when
+    verifiedJwtCache.get(token, verifier);
+    verifiedJwtCache.get(token, verifier);
+
+    // then
+    assertThat(verificationsCount).hasValue(4);
+  }
+
+  @Test
+  void given_expiredTokensPurged_get_willCacheNewToken() {
+    // given
+    verifiedJwtCache.get(createToken("user1", 60_000L), verifier);
+    verifiedJwtCache.get(createToken("user2", 60_000L), verifier);
+    now.addAndGet(61_000L);
+    String token = createToken("user3", 120_000L);
+    // full until purged, even though every cached token has expired
+    verifiedJwtCache.get(token, verifier);
+
+    // when
+    verifiedJwtCache.purgeExpired();
+
+    // then
+    verifiedJwtCache.get(token, verifier);
+    verifiedJwtCache.get(token, verifier);
+    assertThat(verificationsCount).hasValue(4);
+  }
+
+  @Test
+  void given_cacheDisabled_get_willAlwaysVerifyToken() {
+    // given
+    ReflectionTestUtils.setField(verifiedJwtCache, "enabled", false);
+    String token = createToken("user", 60_000L);
+
+    // when
+    verifiedJwtCache.get(token, verifier);
+    verifiedJwtCache.get(token, verifier);
+
+    // then
+    assertThat(verificationsCount).hasValue(2);
+  }
+
+  // verified against the system clock: expirations are relative to the current time
+  private String createToken(String username, long timeToLiveMillis) {
+    return JWT.create().withSubject(username)
+        .withExpiresAt(new Date(System.currentTimeMillis() + timeToLiveMillis)).sign(ALGORITHM);
+  }
+
+}
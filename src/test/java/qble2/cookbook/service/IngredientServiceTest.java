@@ -13,11 +13,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import qble2.cookbook.exception.ResourceNotFoundException;
 import qble2.cookbook.ingredient.IngredientMapper;
 import qble2.cookbook.ingredient.IngredientRepository;
 import qble2.cookbook.ingredient.IngredientService;
 import qble2.cookbook.ingredient.dto.IngredientDto;
+import qble2.cookbook.ingredient.event.IngredientChangedEvent;
 import qble2.cookbook.ingredient.model.Ingredient;
 
 // unit testing
@@ -30,11 +32,14 @@ class IngredientServiceTest {
   @Mock
   private IngredientMapper ingredientMapper;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   private IngredientService ingredientService; // underTest
 
   @BeforeEach
   void setUp() {
-    ingredientService = new IngredientService(ingredientRepository, ingredientMapper);
+    ingredientService = new IngredientService(ingredientRepository, ingredientMapper, eventPublisher);
   }
 
   @Test
@@ -86,6 +91,7 @@ class IngredientServiceTest {
     Ingredient ingredientPayloadMappedToEntity =
         Ingredient.builder().name(ingredientPayload.getName()).build();
     given(ingredientMapper.toEntity(any())).willReturn(ingredientPayloadMappedToEntity);
+    given(ingredientRepository.save(any())).willReturn(ingredientPayloadMappedToEntity);
 
     // when
     ingredientService.createIngredient(ingredientPayload);
@@ -94,6 +100,7 @@ class IngredientServiceTest {
     ArgumentCaptor<Ingredient> ingredientArgumentCaptor = ArgumentCaptor.forClass(Ingredient.class);
     verify(ingredientRepository).save(ingredientArgumentCaptor.capture());
     assertThat(ingredientArgumentCaptor.getValue()).isEqualTo(ingredientPayloadMappedToEntity);
+    verify(eventPublisher).publishEvent(any(IngredientChangedEvent.class));
   }
 
 }
@@ -0,0 +1,151 @@
+package qble2.cookbook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.exception.InvalidArgumentException;
+import qble2.cookbook.ingredient.model.Ingredient;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.RecipeSummaryLoader;
+import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.index.RecipeIndexManager;
+import qble2.cookbook.recipe.index.RecipePantryIndex;
+import qble2.cookbook.recipe.index.RecipePantryMatch;
+import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.pantry.RecipePantryCountDto;
+import qble2.cookbook.recipe.pantry.RecipePantryMatchDto;
+import qble2.cookbook.recipe.pantry.RecipePantrySearchRequest;
+import qble2.cookbook.recipe.pantry.RecipePantryService;
+import qble2.cookbook.utils.TestUtils;
+
+// unit testing
+@ExtendWith(MockitoExtension.class) // allows to get rid of the autoCloseable code
+class RecipePantryServiceTest {
+
+  // ordered ids
+  private static final UUID FLOUR_ID = new UUID(0, 1);
+  private static final UUID SUGAR_ID = new UUID(0, 2);
+  private static final UUID EGG_ID = new UUID(0, 3);
+
+  @Mock
+  private RecipeIndexManager recipeIndexManager;
+
+  @Mock
+  private RecipePantryIndex recipePantryIndex;
+
+  @Mock
+  private RecipeRepository recipeRepository;
+
+  @Mock
+  private RecipeSummaryLoader recipeSummaryLoader;
+
+  private RecipePantryService recipePantryService; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipePantryService = new RecipePantryService();
+    ReflectionTestUtils.setField(recipePantryService, "recipeIndexManager", recipeIndexManager);
+    ReflectionTestUtils.setField(recipePantryService, "recipePantryIndex", recipePantryIndex);
+    ReflectionTestUtils.setField(recipePantryService, "recipeRepository", recipeRepository);
+    ReflectionTestUtils.setField(recipePantryService, "recipeSummaryLoader", recipeSummaryLoader);
+    ReflectionTestUtils.setField(recipePantryService, "maxSize", 100);
+  }
+
+  @Test
+  void given_invalidSize_searchRecipes_willThrowInvalidArgumentException() {
+    // given
+    RecipePantrySearchRequest pantrySearch =
+        RecipePantrySearchRequest.builder().ingredientIds(Set.of(FLOUR_ID)).build();
+
+    // when
+    // then
+    assertThatThrownBy(() -> recipePantryService.searchRecipes(pantrySearch, 0))
+        .isInstanceOf(InvalidArgumentException.class);
+    assertThatThrownBy(() -> recipePantryService.searchRecipes(pantrySearch, 101))
+        .isInstanceOf(InvalidArgumentException.class);
+  }
+
+  @Test
+  void given_indexesReady_searchRecipes_willReturnIndexMatchesOfExistingRecipes() {
+    // given
+    UUID cakeId = UUID.randomUUID();
+    UUID deletedRecipeId = UUID.randomUUID();
+    RecipePantrySearchRequest pantrySearch = RecipePantrySearchRequest.builder()
+        .ingredientIds(Set.of(FLOUR_ID, SUGAR_ID)).maxMissingIngredients(1).build();
+    given(recipeIndexManager.isReady()).willReturn(true);
+    given(recipePantryIndex.findTopMatches(pantrySearch.getIngredientIds(), 1, 5))
+        .willReturn(List.of(new RecipePantryMatch(cakeId, 3, 2, List.of(EGG_ID)),
+            new RecipePantryMatch(deletedRecipeId, 1, 1, List.of())));
+    given(recipeSummaryLoader.loadMinimalDtos(List.of(cakeId, deletedRecipeId)))
+        .willReturn(List.of(TestUtils.createRecipe(cakeId)));
+
+    // when
+    List<RecipePantryMatchDto> matches = recipePantryService.searchRecipes(pantrySearch, 5);
+
+    // then
+    assertThat(matches)
+        .extracting(match -> match.getRecipe().getId(),
+            RecipePantryMatchDto::getMatchedIngredientsCount,
+            RecipePantryMatchDto::getIngredientsCount,
+            RecipePantryMatchDto::getMissingIngredientIds)
+        .containsExactly(tuple(cakeId, 2, 3, List.of(EGG_ID)));
+    verify(recipeRepository, never()).countPantryIngredients(any(), anyLong());
+  }
+
+  @Test
+  void given_indexesNotReady_searchRecipes_willRankDatabaseCounts() {
+    // given
+    UUID cakeId = UUID.randomUUID();
+    UUID pancakeId = UUID.randomUUID();
+    RecipePantrySearchRequest pantrySearch =
+        RecipePantrySearchRequest.builder().ingredientIds(Set.of(FLOUR_ID)).build();
+    given(recipeIndexManager.isReady()).willReturn(false);
+    given(recipeRepository.countPantryIngredients(pantrySearch.getIngredientIds(),
+        Long.MAX_VALUE))
+        .willReturn(List.of(new RecipePantryCountDto(cakeId, 3L, 1L),
+            new RecipePantryCountDto(pancakeId, 2L, 1L)));
+    given(recipeRepository.findAllByIdInAndLoadIndexedFields(List.of(pancakeId, cakeId)))
+        .willReturn(List.of(createRecipe(cakeId, EGG_ID, FLOUR_ID, SUGAR_ID),
+            createRecipe(pancakeId, FLOUR_ID, EGG_ID)));
+    given(recipeSummaryLoader.loadMinimalDtos(List.of(pancakeId, cakeId)))
+        .willReturn(List.of(TestUtils.createRecipe(cakeId), TestUtils.createRecipe(pancakeId)));
+
+    // when
+    List<RecipePantryMatchDto> matches = recipePantryService.searchRecipes(pantrySearch, 5);
+
+    // then
+    // highest coverage first, missing ingredients sorted by id (as the index does)
+    assertThat(matches)
+        .extracting(match -> match.getRecipe().getId(),
+            RecipePantryMatchDto::getMissingIngredientIds)
+        .containsExactly(tuple(pancakeId, List.of(EGG_ID)),
+            tuple(cakeId, List.of(SUGAR_ID, EGG_ID)));
+    verify(recipePantryIndex, never()).findTopMatches(any(), any(), anyInt());
+  }
+
+  private static Recipe createRecipe(UUID recipeId, UUID... ingredientIds) {
+    Recipe recipe = Recipe.builder().id(recipeId).build();
+    for (UUID ingredientId : ingredientIds) {
+      recipe.addIngredient(
+          Ingredient.builder().id(ingredientId).name(ingredientId.toString()).build(), 1, null);
+    }
+
+    return recipe;
+  }
+
+}
@@ -0,0 +1,122 @@
+package qble2.cookbook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import qble2.cookbook.recipe.RecipeRatingsReconciliationJob;
+import qble2.cookbook.recipe.RecipeRepository;
+import qble2.cookbook.recipe.dto.RecipeRatingAggregateDto;
+import qble2.cookbook.review.ReviewRepository;
+import qble2.cookbook.review.event.ReviewChangedEvent;
+
+// unit testing
+@ExtendWith(MockitoExtension.class) // allows to get rid of the autoCloseable code
+class RecipeRatingsReconciliationJobTest {
+
+  @Mock
+  private RecipeRepository recipeRepository;
+
+  @Mock
+  private ReviewRepository reviewRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private RecipeRatingsReconciliationJob recipeRatingsReconciliationJob; // underTest
+
+  @BeforeEach
+  void setUp() {
+    recipeRatingsReconciliationJob = new RecipeRatingsReconciliationJob();
+    ReflectionTestUtils.setField(recipeRatingsReconciliationJob, "recipeRepository",
+        recipeRepository);
+    ReflectionTestUtils.setField(recipeRatingsReconciliationJob, "reviewRepository",
+        reviewRepository);
+    ReflectionTestUtils.setField(recipeRatingsReconciliationJob, "eventPublisher",
+        eventPublisher);
+  }
+
+  @Test
+  void given_consistentAggregates_reconcileRatings_willRepairNothing() {
+    // given
+    UUID recipeId = UUID.randomUUID();
+    given(reviewRepository.findRatingAggregates())
+        .willReturn(List.of(new RecipeRatingAggregateDto(recipeId, 9L, 2L)));
+    given(recipeRepository.findRatingAggregates())
+        .willReturn(List.of(new RecipeRatingAggregateDto(recipeId, 9L, 2L, 4.5)));
+
+    // when
+    int repairedRecipesCount = recipeRatingsReconciliationJob.reconcileRatings();
+
+    // then
+    assertThat(repairedRecipesCount).isZero();
+    verify(recipeRepository, never()).replaceRatingAggregates(any(), anyLong(), anyLong(),
+        anyLong(), anyLong(), any(), any());
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void given_driftedAggregates_reconcileRatings_willReplaceStoredAggregates() {
+    // given
+    UUID recipeId = UUID.randomUUID();
+    UUID recipeWithoutReviewsId = UUID.randomUUID();
+    given(reviewRepository.findRatingAggregates())
+        .willReturn(List.of(new RecipeRatingAggregateDto(recipeId, 9L, 2L)));
+    given(recipeRepository.findRatingAggregates())
+        .willReturn(List.of(new RecipeRatingAggregateDto(recipeId, 4L, 1L, 4.0),
+            new RecipeRatingAggregateDto(recipeWithoutReviewsId, 3L, 1L, 3.0)));
+    given(recipeRepository.replaceRatingAggregates(any(), anyLong(), anyLong(), anyLong(),
+        anyLong(), any(), any())).willReturn(1);
+
+    // when
+    int repairedRecipesCount = recipeRatingsReconciliationJob.reconcileRatings();
+
+    // then
+    assertThat(repairedRecipesCount).isEqualTo(2);
+    verify(recipeRepository).replaceRatingAggregates(eq(recipeId), eq(4L), eq(1L), eq(9L),
+        eq(2L), eq(4.5), any());
+    verify(recipeRepository).replaceRatingAggregates(eq(recipeWithoutReviewsId), eq(3L), eq(1L),
+        eq(0L), eq(0L), isNull(), any());
+    ArgumentCaptor<ReviewChangedEvent> eventCaptor =
+        ArgumentCaptor.forClass(ReviewChangedEvent.class);
+    verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+    assertThat(eventCaptor.getAllValues()).extracting(ReviewChangedEvent::getRecipeId)
+        .containsExactly(recipeId, recipeWithoutReviewsId);
+  }
+
+  @Test
+  void given_aggregatesChangedMeanwhile_reconcileRatings_willSkipRecipe() {
+    // given
+    UUID recipeId = UUID.randomUUID();
+    given(reviewRepository.findRatingAggregates())
+        .willReturn(List.of(new RecipeRatingAggregateDto(recipeId, 9L, 2L)));
+    given(recipeRepository.findRatingAggregates())
+        .willReturn(List.of(new RecipeRatingAggregateDto(recipeId, 4L, 1L, 4.0)));
+    // a review has been written between the read and the compare-and-set update
+    given(recipeRepository.replaceRatingAggregates(any(), anyLong(), anyLong(), anyLong(),
+        anyLong(), any(), any())).willReturn(0);
+
+    // when
+    int repairedRecipesCount = recipeRatingsReconciliationJob.reconcileRatings();
+
+    // then
+    assertThat(repairedRecipesCount).isZero();
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
+}
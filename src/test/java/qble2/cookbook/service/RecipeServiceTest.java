@@ -1,9 +1,15 @@
 package qble2.cookbook.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,15 +19,33 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import qble2.cookbook.exception.InvalidArgumentException;
 import qble2.cookbook.exception.ResourceNotFoundException;
 import qble2.cookbook.ingredient.IngredientMapper;
 import qble2.cookbook.ingredient.IngredientRepository;
+import qble2.cookbook.pagination.PageCountModeEnum;
 import qble2.cookbook.recipe.RecipeMapper;
 import qble2.cookbook.recipe.RecipeRepository;
 import qble2.cookbook.recipe.RecipeService;
+import qble2.cookbook.recipe.RecipeSummaryLoader;
+import qble2.cookbook.recipe.cache.RecipeSearchCache;
 import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dto.RecipesPageDto;
+import qble2.cookbook.recipe.enums.RecipeSearchSortDirectionEnum;
+import qble2.cookbook.recipe.enums.RecipeSearchSortKeyEnum;
+import qble2.cookbook.recipe.index.RecipeFilterStatistics;
+import qble2.cookbook.recipe.index.RecipeIndexSearcher;
+import qble2.cookbook.recipe.index.RecipeSearchCandidates;
+import qble2.cookbook.recipe.keyset.RecipeSearchCursor;
 import qble2.cookbook.recipe.model.Recipe;
+import qble2.cookbook.recipe.planner.RecipeSearchExecutor;
+import qble2.cookbook.recipe.planner.RecipeSearchPlan;
+import qble2.cookbook.recipe.planner.RecipeSearchPlanner;
+import qble2.cookbook.recipe.request.RecipeSearchRequest;
+import qble2.cookbook.recipe.request.RecipeSearchSort;
 import qble2.cookbook.recipe.request.UpdateRecipeRequest;
 import qble2.cookbook.user.UserRepository;
 import qble2.cookbook.user.UserService;
@@ -49,23 +73,47 @@ class RecipeServiceTest {
   @Mock
   private IngredientMapper ingredientMapper;
 
+  @Mock
+  private RecipeIndexSearcher recipeIndexSearcher;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private RecipeSearchCache recipeSearchCache;
+
+  @Mock
+  private RecipeSummaryLoader recipeSummaryLoader;
+
+  @Mock
+  private RecipeSearchPlanner recipeSearchPlanner;
+
+  @Mock
+  private RecipeSearchExecutor recipeSearchExecutor;
+
   private RecipeService recipeService; // underTest
 
   @BeforeEach
   void setUp() {
     recipeService = new RecipeService(userService, userRepository, recipeRepository, recipeMapper,
-        ingredientRepository, ingredientMapper);
+        ingredientRepository, ingredientMapper, recipeIndexSearcher, eventPublisher,
+        recipeSearchCache, recipeSummaryLoader, recipeSearchPlanner, recipeSearchExecutor);
   }
 
   @Test
   void can_getRecipes() {
     // given
+    PageRequest pageRequest = PageRequest.of(1, 5);
+    List<UUID> recipeIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+    given(recipeRepository.findAllIds(pageRequest))
+        .willReturn(new PageImpl<>(recipeIds, pageRequest, 7));
 
     // when
-    recipeService.getRecipes(PageRequest.of(1, 5));
+    recipeService.getRecipes(pageRequest, PageCountModeEnum.EXACT);
 
     // then
-    verify(recipeRepository).findAll();
+    verify(recipeRepository).findAllIds(pageRequest);
+    verify(recipeSummaryLoader).loadMinimalDtos(recipeIds);
   }
 
   @Test
@@ -210,4 +258,74 @@ class RecipeServiceTest {
     inOrder.verifyNoMoreInteractions();
   }
 
+  @Test
+  void given_moreRecipesThanPageSize_getRecipesBySpecificationAfterCursor_willReturnNextCursor() {
+    // given
+    int size = 2;
+    List<Recipe> recipes = List.of(
+        Recipe.builder().id(UUID.randomUUID()).createdAt(LocalDateTime.now()).build(),
+        Recipe.builder().id(UUID.randomUUID()).createdAt(LocalDateTime.now()).build(),
+        Recipe.builder().id(UUID.randomUUID()).createdAt(LocalDateTime.now()).build());
+    given(recipeSearchPlanner.plan(any()))
+        .willReturn(new RecipeSearchPlan(RecipeSearchCandidates.NONE, List.of(), null,
+            RecipeFilterStatistics.UNKNOWN));
+    given(recipeRepository.findBySpecificationAfterCursor(any(), any(), any(), eq(size + 1)))
+        .willReturn(recipes);
+
+    // when
+    RecipesPageDto recipesPageDto = recipeService
+        .getRecipesBySpecificationAfterCursor(new RecipeSearchRequest(), null, size);
+
+    // then
+    RecipeSearchCursor nextCursor = RecipeSearchCursor.decode(recipesPageDto.getNextCursor());
+    assertThat(nextCursor.getRecipeId()).isEqualTo(recipes.get(1).getId());
+    assertThat(nextCursor.getSortValue()).isEqualTo(recipes.get(1).getCreatedAt());
+    verify(recipeMapper).toMinimalDtoList(recipes.subList(0, size));
+  }
+
+  @Test
+  void given_lastPage_getRecipesBySpecificationAfterCursor_willReturnNoNextCursor() {
+    // given
+    given(recipeSearchPlanner.plan(any()))
+        .willReturn(new RecipeSearchPlan(RecipeSearchCandidates.NONE, List.of(), null,
+            RecipeFilterStatistics.UNKNOWN));
+    given(recipeRepository.findBySpecificationAfterCursor(any(), any(), any(), anyInt()))
+        .willReturn(List.of(Recipe.builder().id(UUID.randomUUID()).build()));
+
+    // when
+    RecipesPageDto recipesPageDto =
+        recipeService.getRecipesBySpecificationAfterCursor(new RecipeSearchRequest(), null, 2);
+
+    // then
+    assertThat(recipesPageDto.getNextCursor()).isNull();
+  }
+
+  @Test
+  void given_invalidCursor_getRecipesBySpecificationAfterCursor_willThrowInvalidArgumentException() {
+    // given
+    String invalidCursor = "not-a-cursor";
+
+    // when
+    // then
+    assertThatThrownBy(() -> recipeService
+        .getRecipesBySpecificationAfterCursor(new RecipeSearchRequest(), invalidCursor, 5))
+            .isInstanceOf(InvalidArgumentException.class);
+  }
+
+  @Test
+  void given_relevanceSort_getRecipesBySpecificationAfterCursor_willThrowInvalidArgumentException() {
+    // given
+    RecipeSearchRequest recipeSearch = new RecipeSearchRequest();
+    recipeSearch.setSort(new RecipeSearchSort(RecipeSearchSortKeyEnum.RELEVANCE,
+        RecipeSearchSortDirectionEnum.DESC));
+
+    // when
+    // then
+    assertThatThrownBy(
+        () -> recipeService.getRecipesBySpecificationAfterCursor(recipeSearch, null, 5))
+            .isInstanceOf(InvalidArgumentException.class);
+    verify(recipeRepository, never()).findBySpecificationAfterCursor(any(), any(), any(),
+        anyInt());
+  }
+
 }
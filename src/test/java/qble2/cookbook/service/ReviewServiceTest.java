@@ -3,7 +3,10 @@ package qble2.cookbook.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,10 +18,12 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import qble2.cookbook.exception.ResourceNotFoundException;
 import qble2.cookbook.recipe.RecipeRepository;
 import qble2.cookbook.recipe.RecipeService;
 import qble2.cookbook.recipe.dto.RecipeDto;
+import qble2.cookbook.recipe.dto.RecipeRatingAggregateDto;
 import qble2.cookbook.recipe.model.Recipe;
 import qble2.cookbook.review.ReviewMapper;
 import qble2.cookbook.review.ReviewRepository;
@@ -26,6 +31,7 @@ import qble2.cookbook.review.ReviewService;
 import qble2.cookbook.review.dto.ReviewDto;
 import qble2.cookbook.review.model.Review;
 import qble2.cookbook.user.UserService;
+import qble2.cookbook.user.model.User;
 
 // unit testing
 @ExtendWith(MockitoExtension.class) // allows to get rid of the autoCloseable code
@@ -46,12 +52,15 @@ class ReviewServiceTest {
   @Mock
   private ReviewMapper reviewMapper;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   private ReviewService reviewService; // underTest
 
   @BeforeEach
   void setUp() {
     reviewService = new ReviewService(userService, recipeService, recipeRepository,
-        reviewRepository, reviewMapper);
+        reviewRepository, reviewMapper, eventPublisher);
   }
 
   @Test
@@ -181,4 +190,83 @@ class ReviewServiceTest {
     inOrder.verifyNoMoreInteractions();
   }
 
+  @Test
+  void given_newReview_createReview_willIncrementRatingAggregatesAtomically() {
+    // given
+    User author = User.builder().id(UUID.randomUUID()).username("author").build();
+    User reviewer = User.builder().id(UUID.randomUUID()).username("reviewer").build();
+    Recipe recipe = Recipe.builder().id(UUID.randomUUID()).author(author).build();
+    ReviewService reviewServiceOfReviewer = newReviewService(reviewer);
+    given(recipeService.getRecipeByIdOrThrow(any())).willReturn(recipe);
+    willAnswer(invocation -> invocation.<Review>getArgument(1).setRating(5)).given(reviewMapper)
+        .updateReviewEntity(any(), any());
+    given(reviewRepository.findByRecipe_IdAndAuthor_Id(any(), any()))
+        .willReturn(Optional.of(new Review(recipe, reviewer, 5, null)));
+    given(recipeRepository.findRatingAggregateById(recipe.getId()))
+        .willReturn(Optional.of(new RecipeRatingAggregateDto(recipe.getId(), 9L, 2L, null)));
+
+    // when
+    reviewServiceOfReviewer.createReview(reviewer.getUsername(), recipe.getId(),
+        ReviewDto.builder().rating(5).build());
+
+    // then
+    verify(recipeRepository).addToRatingAggregates(eq(recipe.getId()), eq(5L), eq(1L), any());
+    verify(recipeRepository).updateAverageRating(recipe.getId(), 4.5);
+    assertThat(recipe.getRatingCount()).isZero(); // the loaded recipe is not modified
+  }
+
+  @Test
+  void given_ratingChanged_updateReview_willAddRatingDifference() {
+    // given
+    User reviewer = User.builder().id(UUID.randomUUID()).username("reviewer").build();
+    Recipe recipe = Recipe.builder().id(UUID.randomUUID()).build();
+    ReviewService reviewServiceOfReviewer = newReviewService(reviewer);
+    given(reviewRepository.findByRecipe_IdAndAuthor_Id(any(), any()))
+        .willReturn(Optional.of(new Review(recipe, reviewer, 4, "comment")));
+    willAnswer(invocation -> invocation.<Review>getArgument(1).setRating(2)).given(reviewMapper)
+        .updateReviewEntity(any(), any());
+    given(recipeRepository.findRatingAggregateById(recipe.getId()))
+        .willReturn(Optional.of(new RecipeRatingAggregateDto(recipe.getId(), 3L, 2L, null)));
+
+    // when
+    reviewServiceOfReviewer.updateReview(reviewer.getUsername(), recipe.getId(), reviewer.getId(),
+        ReviewDto.builder().rating(2).build());
+
+    // then
+    verify(recipeRepository).addToRatingAggregates(eq(recipe.getId()), eq(-2L), eq(0L), any());
+    verify(recipeRepository).updateAverageRating(recipe.getId(), 1.5);
+  }
+
+  @Test
+  void given_lastReview_deleteReview_willRemoveRatingAndResetAverage() {
+    // given
+    User reviewer = User.builder().id(UUID.randomUUID()).username("reviewer").build();
+    Recipe recipe = Recipe.builder().id(UUID.randomUUID()).build();
+    Review review = new Review(recipe, reviewer, 3, "comment");
+    recipe.addReview(review);
+    ReviewService reviewServiceOfReviewer = newReviewService(reviewer);
+    given(reviewRepository.findByRecipe_IdAndAuthor_Id(any(), any()))
+        .willReturn(Optional.of(review));
+    given(recipeRepository.findRatingAggregateById(recipe.getId()))
+        .willReturn(Optional.of(new RecipeRatingAggregateDto(recipe.getId(), 0L, 0L, 3.0)));
+
+    // when
+    reviewServiceOfReviewer.deleteRecipeRecipe(recipe.getId(), reviewer.getId());
+
+    // then
+    verify(recipeRepository).addToRatingAggregates(eq(recipe.getId()), eq(-3L), eq(-1L), any());
+    verify(recipeRepository).updateAverageRating(recipe.getId(), null);
+    assertThat(recipe.getReviews()).isEmpty();
+  }
+
+  // the reviewer is the authenticated user (not an admin)
+  private ReviewService newReviewService(User reviewer) {
+    UserService reviewerUserService = Mockito.mock(UserService.class);
+    lenient().when(reviewerUserService.getUserByUsernameOrThrow(any())).thenReturn(reviewer);
+    lenient().when(reviewerUserService.getUserByIdOrThrow(any())).thenReturn(reviewer);
+
+    return new ReviewService(reviewerUserService, recipeService, recipeRepository,
+        reviewRepository, reviewMapper, eventPublisher);
+  }
+
 }
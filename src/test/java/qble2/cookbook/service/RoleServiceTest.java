@@ -15,6 +15,7 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import qble2.cookbook.exception.ResourceNotFoundException;
 import qble2.cookbook.role.RoleMapper;
 import qble2.cookbook.role.RoleRepository;
@@ -25,6 +26,7 @@ import qble2.cookbook.role.model.RoleEnum;
 import qble2.cookbook.user.UserMapper;
 import qble2.cookbook.user.UserRepository;
 import qble2.cookbook.user.dto.UserDto;
+import qble2.cookbook.user.event.UserRolesChangedEvent;
 import qble2.cookbook.user.model.User;
 
 // unit testing
@@ -43,11 +45,15 @@ class RoleServiceTest {
   @Mock
   private RoleMapper roleMapper;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   private RoleService roleService; // underTest
 
   @BeforeEach
   void setUp() {
-    roleService = new RoleService(roleRepository, userRepository, userMapper, roleMapper);
+    roleService = new RoleService(roleRepository, userRepository, userMapper, roleMapper,
+        eventPublisher);
   }
 
   @Test
@@ -124,6 +130,7 @@ class RoleServiceTest {
     inOrder.verify(userRepository).findById(any());
     inOrder.verify(userMapper).toDto(any());
     inOrder.verifyNoMoreInteractions();
+    verify(eventPublisher).publishEvent(any(UserRolesChangedEvent.class));
   }
 
 }
@@ -145,7 +145,8 @@ public class TestUtils {
       throws Exception {
     String selfLink = WebMvcLinkBuilder.linkTo(UserController.class).slash(userId).toString();
     String userRecipesLink =
-        linkTo(methodOn(RecipeController.class).getUserRecipes(userId, 0, 5)).toString();
+        linkTo(methodOn(RecipeController.class).getUserRecipes(userId, 0, 5, null))
+            .withRel("recipes").expand().getHref();
     String userReviewsLink =
         linkTo(methodOn(ReviewController.class).getUserReviews(userId)).toString();
 
@@ -158,13 +159,13 @@ public class TestUtils {
       throws Exception {
     String selfLink = WebMvcLinkBuilder.linkTo(RecipeController.class).slash(recipeID).toString();
     String recipeTagsLink =
-        linkTo(methodOn(RecipeController.class).getRecipeTags(recipeID)).toString();
+        linkTo(methodOn(RecipeController.class).getRecipeTags(recipeID, null)).toString();
     String recipeIngredientsLink =
-        linkTo(methodOn(RecipeController.class).getRecipeIngredients(recipeID)).toString();
+        linkTo(methodOn(RecipeController.class).getRecipeIngredients(recipeID, null)).toString();
     String recipeInstructionsLink =
-        linkTo(methodOn(RecipeController.class).getRecipeInstructions(recipeID)).toString();
+        linkTo(methodOn(RecipeController.class).getRecipeInstructions(recipeID, null)).toString();
     String recipeReviewsLink =
-        linkTo(methodOn(ReviewController.class).getRecipeReviews(recipeID)).toString();
+        linkTo(methodOn(ReviewController.class).getRecipeReviews(recipeID, null)).toString();
 
     resultActions.andExpect(jsonPath("$._links.self.href", is(selfLink)))
         .andExpect(jsonPath("$._links.tags.href", is(recipeTagsLink)))